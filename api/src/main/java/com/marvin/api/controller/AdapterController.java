@@ -1,22 +1,44 @@
 package com.marvin.api.controller;
 
 import com.marvin.costs.importer.CostImporter;
+import com.marvin.export.core.PendingExport;
+import com.marvin.export.costs.CostExporter;
+import com.marvin.export.vocabulary.VocabularyExporter;
+import com.marvin.export.watermark.ExportWatermarkService;
+import com.marvin.upload.Uploader;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
-@Tag(name = "Data Import", description = "API for triggering data import operations")
+@Tag(name = "Data Import", description = "API for triggering data import and export operations")
 public class AdapterController {
 
     private final CostImporter costImporter;
+    private final CostExporter costExporter;
+    private final VocabularyExporter vocabularyExporter;
+    private final ExportWatermarkService exportWatermarkService;
+    private final Uploader uploader;
 
-    public AdapterController(CostImporter costImporter) {
+    public AdapterController(
+        CostImporter costImporter,
+        CostExporter costExporter,
+        VocabularyExporter vocabularyExporter,
+        ExportWatermarkService exportWatermarkService,
+        Uploader uploader
+    ) {
         this.costImporter = costImporter;
+        this.costExporter = costExporter;
+        this.vocabularyExporter = vocabularyExporter;
+        this.exportWatermarkService = exportWatermarkService;
+        this.uploader = uploader;
     }
 
     @Operation(
@@ -32,4 +54,44 @@ public class AdapterController {
         return ResponseEntity.ok().build();
     }
 
+    @Operation(
+        summary = "Trigger cost data export",
+        description = "Exports the cost tables changed since the last export, or a full snapshot when one is due or requested, and uploads them"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export triggered successfully")
+    })
+    @PostMapping("/export/costs")
+    public ResponseEntity<Void> triggerCostExport(
+        @Parameter(description = "Write a full snapshot regardless of the watermark")
+        @RequestParam(defaultValue = "false") boolean full
+    ) {
+        uploadAndCommit("costs", costExporter.exportCosts(full));
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(
+        summary = "Trigger vocabulary export",
+        description = "Exports the flashcards changed since the last export, or a full snapshot when one is due or requested, and uploads them"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export triggered successfully")
+    })
+    @PostMapping("/export/vocabulary")
+    public ResponseEntity<Void> triggerVocabularyExport(
+        @Parameter(description = "Write a full snapshot regardless of the watermark")
+        @RequestParam(defaultValue = "false") boolean full
+    ) {
+        uploadAndCommit("vocabulary", List.of(vocabularyExporter.exportFlashcards(full)));
+        return ResponseEntity.ok().build();
+    }
+
+    // The watermark only moves once the files have left the machine; with uploads disabled the
+    // same window is exported again on the next run.
+    private void uploadAndCommit(String fileNamePrefix, List<PendingExport> exports) {
+        if (uploader.zipAndUploadFiles(fileNamePrefix, exports.stream().map(PendingExport::file).toList())) {
+            exports.forEach(exportWatermarkService::commit);
+        }
+    }
+
 }
@@ -1,8 +1,18 @@
 package com.marvin.api.controller;
 
+import com.marvin.api.dto.BackupRestoreDTO;
+import com.marvin.api.dto.BackupRetentionRunDTO;
 import com.marvin.api.dto.BackupRunDTO;
+import com.marvin.api.dto.BackupRunStatsDTO;
+import com.marvin.backup.repository.BackupRetentionRunRepository;
+import com.marvin.backup.model.BackupStatsGrouping;
 import com.marvin.backup.repository.BackupRunRepository;
+import com.marvin.backup.repository.BackupRunStatsView;
+import com.marvin.backup.entity.BackupRetentionRunEntity;
 import com.marvin.backup.entity.BackupRunEntity;
+import com.marvin.backup.service.BackupRetentionService;
+import com.marvin.backup.service.BackupStatsService;
+import com.marvin.backup.service.IncrementalBackupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,7 +20,12 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.FileNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -21,11 +36,14 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-/** REST controller for retrieving backup upload run history. */
+/** REST controller for retrieving backup upload run history, restoring incremental backups and pruning old backups. */
 @RestController
 @RequestMapping("/backups")
 @RequiredArgsConstructor
@@ -33,6 +51,10 @@ import org.springframework.web.bind.annotation.RestController;
 public class BackupRunController {
 
     private final BackupRunRepository backupRunRepository;
+    private final IncrementalBackupService incrementalBackupService;
+    private final BackupRetentionRunRepository backupRetentionRunRepository;
+    private final BackupRetentionService backupRetentionService;
+    private final BackupStatsService backupStatsService;
 
     /**
      * Returns a paginated list of backup runs filtered by optional date range and status.
@@ -77,6 +99,45 @@ public class BackupRunController {
         return ResponseEntity.ok(page);
     }
 
+    /**
+     * Returns backup run statistics aggregated by the database.
+     *
+     * @param groupBy the grouping of the runs: day, week or status (default day)
+     * @param from    the inclusive start of the range (optional, default 30 days before {@code to})
+     * @param to      the exclusive end of the range (optional, default now)
+     * @return the statistics per bucket, or 400 if the grouping is unknown
+     */
+    @Operation(
+        summary = "Get backup run statistics",
+        description = "Returns the number of runs, the failure ratio and the p50, p95 and maximum duration "
+                + "of the backup runs per day, week or status"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully computed backup run statistics",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = BackupRunStatsDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Unknown grouping")
+    })
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BackupRunStatsDTO>> getBackupStats(
+            @Parameter(description = "Grouping of the runs (day, week, status)")
+            @RequestParam(defaultValue = "day") String groupBy,
+            @Parameter(description = "Start date filter")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End date filter")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        final BackupStatsGrouping grouping;
+        try {
+            grouping = BackupStatsGrouping.valueOf(groupBy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(backupStatsService.getStats(grouping, from, to).stream().map(this::toDTO).toList());
+    }
+
     /**
      * Returns the backup run with the given ID.
      *
@@ -98,16 +159,126 @@ public class BackupRunController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Reassembles an incrementally uploaded backup file from its manifest and chunks.
+     *
+     * @param fileName the name of the backup file to restore
+     * @return the restored file, 404 if no manifest exists, or 400 if the file name is invalid
+     */
+    @Operation(
+        summary = "Restore an incremental backup",
+        description = "Downloads the latest manifest of the backup file and its chunks from Google Drive "
+                + "and writes the reassembled file into the restore directory"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Backup restored successfully",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = BackupRestoreDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid backup file name"),
+        @ApiResponse(responseCode = "404", description = "No manifest found for the backup file")
+    })
+    @PostMapping(value = "/restore", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<BackupRestoreDTO>> restoreBackup(
+            @Parameter(description = "Name of the backup file to restore", required = true)
+            @RequestParam String fileName) {
+
+        return Mono.fromCallable(() -> {
+            final Path restored = incrementalBackupService.restore(fileName);
+            return ResponseEntity.ok(new BackupRestoreDTO(fileName, restored.toAbsolutePath().toString(), Files.size(restored)));
+        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(FileNotFoundException.class, e -> Mono.just(ResponseEntity.notFound().build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    /**
+     * Applies the backup retention policy now.
+     *
+     * @return the recorded retention run
+     */
+    @Operation(
+        summary = "Apply the backup retention policy",
+        description = "Deletes the backups in the Google Drive backup folder that are not kept by the configured "
+                + "daily, weekly and monthly retention rules"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Retention run finished",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = BackupRetentionRunDTO.class)))
+    })
+    @PostMapping(value = "/retention", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<BackupRetentionRunDTO>> applyRetention() {
+        return Mono.fromCallable(() -> ResponseEntity.ok(toDTO(backupRetentionService.run())))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Returns a paginated list of retention runs, newest first.
+     *
+     * @param limit  the page size (default 20)
+     * @param offset the page offset (default 0)
+     * @return a page of retention run DTOs
+     */
+    @Operation(summary = "Get backup retention runs")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved retention runs",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = Page.class)))
+    })
+    @GetMapping(value = "/retention-runs", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Page<BackupRetentionRunDTO>> getRetentionRuns(
+            @Parameter(description = "Page size (default 20)")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Page offset (default 0)")
+            @RequestParam(defaultValue = "0") int offset) {
+
+        final Pageable pageable = PageRequest.of(offset / limit, limit);
+        return ResponseEntity.ok(backupRetentionRunRepository.findAllByOrderByStartedAtDesc(pageable).map(this::toDTO));
+    }
+
     private BackupRunDTO toDTO(BackupRunEntity entity) {
         return new BackupRunDTO(
                 entity.getId(),
                 entity.getFileName(),
                 entity.getStatus(),
+                entity.getQueuedAt(),
                 entity.getStartedAt(),
                 entity.getFinishedAt(),
                 entity.getDurationMs(),
                 entity.getUploadSuccess(),
+                entity.getErrorMessage(),
+                entity.getAttempts(),
+                entity.getMd5Checksum(),
+                entity.getSha256Checksum(),
+                entity.getChecksumVerified()
+        );
+    }
+
+    private BackupRetentionRunDTO toDTO(BackupRetentionRunEntity entity) {
+        return new BackupRetentionRunDTO(
+                entity.getId(),
+                entity.getFolderName(),
+                entity.getStatus(),
+                entity.isDryRun(),
+                entity.getStartedAt(),
+                entity.getFinishedAt(),
+                entity.getDurationMs(),
+                entity.getFilesKept(),
+                entity.getFilesDeleted(),
+                entity.getFilesFailed(),
                 entity.getErrorMessage()
         );
     }
+
+    private BackupRunStatsDTO toDTO(BackupRunStatsView stats) {
+        return new BackupRunStatsDTO(
+                stats.getBucket(),
+                stats.getRuns(),
+                stats.getFailures(),
+                stats.getFailureRatio(),
+                stats.getP50DurationMs(),
+                stats.getP95DurationMs(),
+                stats.getMaxDurationMs()
+        );
+    }
 }
@@ -1,5 +1,6 @@
 package com.marvin.api.controller;
 
+import com.marvin.common.upload.FileUploads;
 import com.marvin.costs.importer.DailyCostImportService;
 import com.marvin.camt.model.book_entry.BookingEntryDTO;
 import com.marvin.camt.model.book_entry.BookingsDTO;
@@ -8,7 +9,6 @@ import com.marvin.camt.model.book_entry.MonthlyBookingEntriesDTO;
 import com.marvin.camt.parser.CamtFileParser;
 import com.marvin.camt.parser.DocumentUnmarshaller;
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,9 +21,10 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
@@ -36,11 +37,14 @@ public class CamtController {
 
     private final CamtFileParser camtFileParser;
     private final DocumentUnmarshaller documentUnmarshaller;
+    private final long maxUploadBytes;
 
     public CamtController(CamtFileParser camtFileParser,
-            DocumentUnmarshaller documentUnmarshaller) {
+            DocumentUnmarshaller documentUnmarshaller,
+            @Value("${camt.upload.max-size:50MB}") DataSize maxUploadSize) {
         this.camtFileParser = camtFileParser;
         this.documentUnmarshaller = documentUnmarshaller;
+        this.maxUploadBytes = maxUploadSize.toBytes();
     }
 
     private static String replaceSpaces(String value) {
@@ -81,25 +85,7 @@ public class CamtController {
                 return Mono.error(new IllegalArgumentException("Only zip files are allowed"));
             }
 
-            return DataBufferUtils.join(file.content())
-                    .flatMapMany(dataBuffer -> {
-
-                        final Flux<ByteArrayOutputStream> using = Flux.using(
-                                dataBuffer::asInputStream,
-                                camtFileParser::unzipFile,
-                                inputStream -> {
-                                    try {
-                                        inputStream.close();
-                                    } catch (IOException e) {
-                                        throw new RuntimeException(e);
-                                    }
-                                }
-                        );
-
-                        DataBufferUtils.release(dataBuffer);
-
-                        return using;
-                    })
+            return FileUploads.stream(file, maxUploadBytes, camtFileParser::unzipFile)
                     .flatMap(fileContent -> unmarshallBookings(fileContent)
                             .map(bookingEntryDTO -> new BookingEntryDTO(
                                     bookingEntryDTO.creditDebitCode(),
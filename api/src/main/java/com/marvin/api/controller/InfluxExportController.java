@@ -0,0 +1,151 @@
+package com.marvin.api.controller;
+
+import com.marvin.export.influxdb.InfluxExporter;
+import com.marvin.export.influxdb.archive.ArchiveImporter;
+import com.marvin.upload.Uploader;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/** REST controller for exporting InfluxDB buckets to Google Drive and importing archived buckets. */
+@RestController
+@Tag(name = "InfluxDB Export", description = "API for exporting InfluxDB buckets")
+public class InfluxExportController {
+
+    private final InfluxExporter influxExporter;
+    private final ArchiveImporter archiveImporter;
+    private final Uploader uploader;
+
+    /**
+     * Constructs a new {@code InfluxExportController}.
+     *
+     * @param influxExporter  the exporter for InfluxDB buckets
+     * @param archiveImporter the importer for compressed time series archives
+     * @param uploader        the uploader for transferring export files to Google Drive
+     */
+    public InfluxExportController(InfluxExporter influxExporter, ArchiveImporter archiveImporter, Uploader uploader) {
+        this.influxExporter = influxExporter;
+        this.archiveImporter = archiveImporter;
+        this.uploader = uploader;
+    }
+
+    /**
+     * Exports the given bucket within the given time range and uploads the result.
+     *
+     * @param bucket the bucket to export
+     * @param start  the inclusive start of the range
+     * @param stop   the exclusive end of the range
+     * @return an empty response once the export has been uploaded, or 400 for an invalid bucket name
+     */
+    @Operation(
+        summary = "Export an InfluxDB bucket",
+        description = "Exports all records of a bucket in the given time range as gzip-compressed "
+                + "line protocol and uploads the file to Google Drive"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export completed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid bucket name or time range")
+    })
+    @PostMapping("/export/influxdb")
+    public Mono<ResponseEntity<Void>> exportBucket(
+            @Parameter(description = "Bucket to export", required = true)
+            @RequestParam String bucket,
+            @Parameter(description = "Inclusive start of the range", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @Parameter(description = "Exclusive end of the range", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant stop) {
+
+        // The export is already gzip compressed, so it is uploaded without zipping it again.
+        return exportAndUpload(() -> influxExporter.exportBucket(bucket, start, stop));
+    }
+
+    /**
+     * Exports the given bucket within the given time range as a Gorilla compressed archive and uploads it.
+     *
+     * @param bucket the bucket to export
+     * @param start  the inclusive start of the range
+     * @param stop   the exclusive end of the range
+     * @return an empty response once the archive has been uploaded, or 400 for an invalid bucket name
+     */
+    @Operation(
+        summary = "Archive an InfluxDB bucket",
+        description = "Exports all numeric series of a bucket in the given time range as a compressed "
+                + "time series archive and uploads the file to Google Drive"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archive completed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid bucket name or time range")
+    })
+    @PostMapping("/export/influxdb/archive")
+    public Mono<ResponseEntity<Void>> archiveBucket(
+            @Parameter(description = "Bucket to export", required = true)
+            @RequestParam String bucket,
+            @Parameter(description = "Inclusive start of the range", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @Parameter(description = "Exclusive end of the range", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant stop) {
+
+        return exportAndUpload(() -> influxExporter.exportBucketArchive(bucket, start, stop));
+    }
+
+    /**
+     * Imports a previously exported archive into the given bucket.
+     *
+     * @param bucket   the target bucket
+     * @param fileMono the uploaded archive file
+     * @return the number of imported points
+     */
+    @Operation(
+        summary = "Import an InfluxDB archive",
+        description = "Writes all points of an uploaded time series archive into the given bucket"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archive imported successfully")
+    })
+    @PostMapping(path = "/import/influxdb/archive", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<Long> importArchive(
+            @Parameter(description = "Target bucket", required = true)
+            @RequestParam String bucket,
+            @Parameter(description = "Archive file", required = true)
+            @RequestPart("file") Mono<FilePart> fileMono) {
+
+        return fileMono.flatMap(file -> Mono.usingWhen(
+                Mono.fromCallable(() -> Files.createTempFile("influxdb_archive_", ".gts"))
+                        .subscribeOn(Schedulers.boundedElastic()),
+                tempFile -> file.transferTo(tempFile)
+                        .then(Mono.fromCallable(() -> archiveImporter.importArchive(tempFile, bucket))
+                                .subscribeOn(Schedulers.boundedElastic())),
+                tempFile -> Mono.fromCallable(() -> Files.deleteIfExists(tempFile))
+                        .subscribeOn(Schedulers.boundedElastic())
+        ));
+    }
+
+    // Exports and uploads run for minutes, so they are kept off the request threads. The export file
+    // is deleted even if the upload fails or uploads are disabled.
+    private Mono<ResponseEntity<Void>> exportAndUpload(Callable<Path> export) {
+        return Mono.usingWhen(
+                        Mono.fromCallable(export).subscribeOn(Schedulers.boundedElastic()),
+                        file -> Mono.fromRunnable(() -> uploader.uploadAndDeleteFile(file))
+                                .subscribeOn(Schedulers.boundedElastic()),
+                        file -> Mono.fromCallable(() -> Files.deleteIfExists(file))
+                                .subscribeOn(Schedulers.boundedElastic()))
+                .thenReturn(ResponseEntity.ok().<Void>build())
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+}
@@ -0,0 +1,14 @@
+package com.marvin.api.dto;
+
+/**
+ * DTO representing a backup file restored from its incremental chunks.
+ *
+ * @param fileName the name of the restored backup file
+ * @param path     the absolute path the file was restored to
+ * @param size     the size of the restored file in bytes
+ */
+public record BackupRestoreDTO(
+        String fileName,
+        String path,
+        long size
+) { }
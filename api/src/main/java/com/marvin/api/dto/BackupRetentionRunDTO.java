@@ -0,0 +1,32 @@
+package com.marvin.api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing a run of the backup retention policy.
+ *
+ * @param id           the unique identifier of the retention run
+ * @param folderName   the Google Drive folder the policy was applied to
+ * @param status       the status of the run (IN_PROGRESS, SUCCESS, PARTIAL, FAILED)
+ * @param dryRun       whether the run only computed the files to delete
+ * @param startedAt    the timestamp when the run started
+ * @param finishedAt   the timestamp when the run finished
+ * @param durationMs   the duration of the run in milliseconds
+ * @param filesKept    the number of backups kept by the policy
+ * @param filesDeleted the number of deleted backups
+ * @param filesFailed  the number of backups that could not be deleted
+ * @param errorMessage the error message if the run failed or deletions failed
+ */
+public record BackupRetentionRunDTO(
+        Long id,
+        String folderName,
+        String status,
+        boolean dryRun,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        Long durationMs,
+        Integer filesKept,
+        Integer filesDeleted,
+        Integer filesFailed,
+        String errorMessage
+) { }
@@ -5,22 +5,32 @@ import java.time.LocalDateTime;
 /**
  * DTO representing a backup upload run.
  *
- * @param id            the unique identifier of the backup run
- * @param fileName      the name of the backup file
- * @param status        the status of the run (SUCCESS, FAILED, IN_PROGRESS)
- * @param startedAt     the timestamp when the run started
- * @param finishedAt    the timestamp when the run finished
- * @param durationMs    the duration of the run in milliseconds
- * @param uploadSuccess whether the upload was successful
- * @param errorMessage  the error message if the run failed
+ * @param id               the unique identifier of the backup run
+ * @param fileName         the name of the backup file
+ * @param status           the status of the run (QUEUED, IN_PROGRESS, SUCCESS, FAILED)
+ * @param queuedAt         the timestamp when the backup file was queued for upload
+ * @param startedAt        the timestamp when the latest upload attempt started
+ * @param finishedAt       the timestamp when the run finished
+ * @param durationMs       the duration of the run in milliseconds
+ * @param uploadSuccess    whether the upload was successful
+ * @param errorMessage     the error message if the run failed
+ * @param attempts         the number of upload attempts so far
+ * @param md5Checksum      the MD5 checksum of the uploaded file
+ * @param sha256Checksum   the SHA-256 hash of the uploaded file
+ * @param checksumVerified whether the checksum computed by Google Drive matched the local file
  */
 public record BackupRunDTO(
         Long id,
         String fileName,
         String status,
+        LocalDateTime queuedAt,
         LocalDateTime startedAt,
         LocalDateTime finishedAt,
         Long durationMs,
         Boolean uploadSuccess,
-        String errorMessage
+        String errorMessage,
+        int attempts,
+        String md5Checksum,
+        String sha256Checksum,
+        Boolean checksumVerified
 ) { }
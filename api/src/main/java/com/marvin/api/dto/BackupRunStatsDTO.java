@@ -0,0 +1,22 @@
+package com.marvin.api.dto;
+
+/**
+ * DTO representing the aggregated statistics of one bucket of backup runs.
+ *
+ * @param bucket        the bucket label: the day, the Monday of the week, or the status
+ * @param runs          the number of runs
+ * @param failures      the number of failed runs
+ * @param failureRatio  the share of failed runs among the finished runs
+ * @param p50DurationMs the median run duration in milliseconds
+ * @param p95DurationMs the 95th percentile of the run duration in milliseconds
+ * @param maxDurationMs the longest run duration in milliseconds
+ */
+public record BackupRunStatsDTO(
+        String bucket,
+        long runs,
+        long failures,
+        Double failureRatio,
+        Double p50DurationMs,
+        Double p95DurationMs,
+        Long maxDurationMs
+) { }
@@ -0,0 +1,77 @@
+package com.marvin.api.controller;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.marvin.costs.importer.CostImporter;
+import com.marvin.export.core.ExportMode;
+import com.marvin.export.core.ExportType;
+import com.marvin.export.core.ExportWindow;
+import com.marvin.export.core.PendingExport;
+import com.marvin.export.costs.CostExporter;
+import com.marvin.export.vocabulary.VocabularyExporter;
+import com.marvin.export.watermark.ExportWatermarkService;
+import com.marvin.upload.Uploader;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AdapterControllerTest {
+
+    private static final LocalDateTime UNTIL = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private CostImporter costImporter;
+
+    @Mock
+    private CostExporter costExporter;
+
+    @Mock
+    private VocabularyExporter vocabularyExporter;
+
+    @Mock
+    private ExportWatermarkService exportWatermarkService;
+
+    @Mock
+    private Uploader uploader;
+
+    @InjectMocks
+    private AdapterController controller;
+
+    private PendingExport export;
+
+    @BeforeEach
+    void setUp() {
+        export = new PendingExport(
+                new ExportWindow(ExportType.FLASHCARDS, ExportMode.DELTA, UNTIL.minusDays(1), UNTIL),
+                Path.of("flashcards_20240301_120000.delta.jsonl"),
+                3);
+        when(vocabularyExporter.exportFlashcards(false)).thenReturn(export);
+    }
+
+    @Test
+    void triggerVocabularyExport_uploaded_commitsWatermark() {
+        when(uploader.zipAndUploadFiles("vocabulary", List.of(export.file()))).thenReturn(true);
+
+        controller.triggerVocabularyExport(false);
+
+        verify(exportWatermarkService).commit(export);
+    }
+
+    @Test
+    void triggerVocabularyExport_uploadDisabled_keepsWatermark() {
+        when(uploader.zipAndUploadFiles("vocabulary", List.of(export.file()))).thenReturn(false);
+
+        controller.triggerVocabularyExport(false);
+
+        verify(exportWatermarkService, never()).commit(export);
+    }
+}
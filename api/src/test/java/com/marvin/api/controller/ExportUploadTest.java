@@ -0,0 +1,103 @@
+package com.marvin.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marvin.export.core.ExportFileWriter;
+import com.marvin.export.core.ExportMode;
+import com.marvin.export.core.ExportType;
+import com.marvin.export.core.ExportWindow;
+import com.marvin.export.core.PendingExport;
+import com.marvin.upload.GoogleDrive;
+import com.marvin.upload.UploadedFile;
+import com.marvin.upload.Uploader;
+import com.marvin.upload.compression.ParallelCompressor;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ExportUploadTest {
+
+    private static final LocalDateTime UNTIL = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @TempDir
+    private Path tempDir;
+
+    @Mock
+    private GoogleDrive googleDrive;
+
+    private ParallelCompressor parallelCompressor;
+    private ExportFileWriter exportFileWriter;
+    private Uploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        // A relative folder like the default ./app/export, so resolving a file twice would miss it
+        final String exportFolder = "./" + Path.of("").toAbsolutePath().relativize(tempDir);
+        parallelCompressor = new ParallelCompressor(6, 128 * 1024, 2);
+        exportFileWriter = new ExportFileWriter(exportFolder, new ObjectMapper());
+        uploader = new Uploader(true, exportFolder, "exports", googleDrive, parallelCompressor, true, 64 * 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploader.shutdown();
+        parallelCompressor.shutdown();
+    }
+
+    @Test
+    void zipAndUploadFiles_deltaExport_uploadsAndDeletesExportFile() throws Exception {
+        final ExportWindow window = new ExportWindow(ExportType.DAILY_COSTS, ExportMode.DELTA, UNTIL.minusDays(1), UNTIL);
+        final PendingExport export = exportFileWriter.write(window, Stream.of(Map.of("value", 12.5), Map.of("value", 3.75)));
+
+        final AtomicReference<byte[]> uploaded = new AtomicReference<>();
+        when(googleDrive.uploadStreamToFolder(any(InputStream.class), any(String.class), eq("exports"))).thenAnswer(invocation -> {
+            try (InputStream content = invocation.getArgument(0)) {
+                uploaded.set(content.readAllBytes());
+            }
+            return new UploadedFile("file-1", null, null, false);
+        });
+
+        assertThat(uploader.zipAndUploadFiles("costs", List.of(export.file()))).isTrue();
+
+        assertThat(unzip(uploaded.get())).containsExactly(
+                export.file().getFileName() + "={\"value\":12.5}\n{\"value\":3.75}\n");
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private static List<String> unzip(byte[] zip) throws IOException {
+        final List<String> entries = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                final String name = Path.of(entry.getName()).getFileName().toString();
+                entries.add(name + "=" + new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,85 @@
+package com.marvin.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.marvin.export.influxdb.InfluxExporter;
+import com.marvin.export.influxdb.archive.ArchiveImporter;
+import com.marvin.upload.Uploader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+class InfluxExportControllerTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant STOP = Instant.parse("2024-02-01T00:00:00Z");
+
+    @TempDir
+    private Path tempDir;
+
+    @Mock
+    private InfluxExporter influxExporter;
+
+    @Mock
+    private ArchiveImporter archiveImporter;
+
+    @Mock
+    private Uploader uploader;
+
+    private InfluxExportController controller;
+
+    private Path export;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        controller = new InfluxExportController(influxExporter, archiveImporter, uploader);
+        export = Files.writeString(tempDir.resolve("influxdb_costs_20240201_000000.lp.gz"), "export");
+    }
+
+    @Test
+    void exportBucket_uploadDisabled_deletesExportFile() {
+        when(influxExporter.exportBucket("costs", START, STOP)).thenReturn(export);
+
+        final ResponseEntity<Void> response = controller.exportBucket("costs", START, STOP).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(uploader).uploadAndDeleteFile(export);
+        assertThat(export).doesNotExist();
+    }
+
+    @Test
+    void archiveBucket_uploadFails_deletesArchiveFile() {
+        when(influxExporter.exportBucketArchive("costs", START, STOP)).thenReturn(export);
+        doThrow(new IllegalStateException("Failed to upload zip file to Google Drive")).when(uploader).uploadAndDeleteFile(export);
+
+        assertThatThrownBy(() -> controller.archiveBucket("costs", START, STOP).block())
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(export).doesNotExist();
+    }
+
+    @Test
+    void exportBucket_invalidBucket_isBadRequest() {
+        when(influxExporter.exportBucket("a/b", START, STOP)).thenThrow(new IllegalArgumentException("Invalid bucket name: a/b"));
+
+        final ResponseEntity<Void> response = controller.exportBucket("a/b", START, STOP).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(uploader);
+    }
+}
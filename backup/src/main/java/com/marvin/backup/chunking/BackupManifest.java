@@ -0,0 +1,125 @@
+package com.marvin.backup.chunking;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes how an incrementally uploaded backup file is reassembled from its chunks.
+ *
+ * <p>The manifest is stored as a small line based text file next to the chunks:</p>
+ * <pre>
+ * marvin-backup-manifest 1
+ * file costs_backup_20260301_120000.zip
+ * size 104857600
+ * sha256 &lt;hex&gt;
+ * chunk &lt;sha256 hex&gt; &lt;length&gt; &lt;drive file id&gt;
+ * ...
+ * </pre>
+ *
+ * @param fileName the name of the backup file
+ * @param size     the size of the backup file in bytes
+ * @param sha256   the SHA-256 hash of the whole backup file, hex encoded
+ * @param chunks   the chunks of the file in order
+ */
+public record BackupManifest(
+        String fileName,
+        long size,
+        String sha256,
+        List<ChunkRef> chunks
+) {
+
+    /** Suffix of the manifest file name appended to the backup file name. */
+    public static final String FILE_SUFFIX = ".manifest";
+
+    private static final String HEADER = "marvin-backup-manifest 1";
+
+    /**
+     * Writes this manifest to the given stream.
+     *
+     * @param out the stream to write to, not closed by this method
+     * @throws IOException if writing fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(HEADER + "\n");
+        writer.write("file " + fileName + "\n");
+        writer.write("size " + size + "\n");
+        writer.write("sha256 " + sha256 + "\n");
+        for (ChunkRef chunk : chunks) {
+            writer.write("chunk " + chunk.hash() + " " + chunk.length() + " " + chunk.driveFileId() + "\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Reads a manifest written by {@link #writeTo(OutputStream)}.
+     *
+     * @param in the stream to read from, not closed by this method
+     * @return the manifest
+     * @throws IOException if reading fails or the content is not a valid manifest
+     */
+    public static BackupManifest readFrom(InputStream in) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (!HEADER.equals(reader.readLine())) {
+            throw new IOException("Not a backup manifest!");
+        }
+
+        String fileName = null;
+        long size = -1;
+        String sha256 = null;
+        final List<ChunkRef> chunks = new ArrayList<>();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            final int separator = line.indexOf(' ');
+            final String key = separator < 0 ? line : line.substring(0, separator);
+            final String value = separator < 0 ? "" : line.substring(separator + 1);
+            switch (key) {
+                case "file" -> fileName = value;
+                case "size" -> size = Long.parseLong(value);
+                case "sha256" -> sha256 = value;
+                case "chunk" -> chunks.add(ChunkRef.parse(value));
+                default -> throw new IOException("Unknown manifest entry: " + line);
+            }
+        }
+
+        if (fileName == null || size < 0 || sha256 == null) {
+            throw new IOException("Incomplete backup manifest!");
+        }
+        return new BackupManifest(fileName, size, sha256, List.copyOf(chunks));
+    }
+
+    /**
+     * Reference to one uploaded chunk.
+     *
+     * @param hash        the SHA-256 hash of the chunk, hex encoded
+     * @param length      the length of the chunk in bytes
+     * @param driveFileId the ID of the Drive file holding the chunk
+     */
+    public record ChunkRef(
+            String hash,
+            int length,
+            String driveFileId
+    ) {
+
+        private static ChunkRef parse(String value) throws IOException {
+            final String[] parts = value.split(" ");
+            if (parts.length != 3) {
+                throw new IOException("Invalid manifest chunk entry: " + value);
+            }
+            return new ChunkRef(parts[0], Integer.parseInt(parts[1]), parts[2]);
+        }
+    }
+}
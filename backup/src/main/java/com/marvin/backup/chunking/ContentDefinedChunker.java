@@ -0,0 +1,137 @@
+package com.marvin.backup.chunking;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.SplittableRandom;
+
+/**
+ * Splits a stream into variable sized chunks whose boundaries depend on the content only.
+ *
+ * <p>A Gear rolling hash over the last 64 bytes decides where a chunk ends, so inserting or
+ * removing bytes only changes the chunks around the edit; all other chunks keep their boundaries
+ * and hashes and can be deduplicated. Cut points are normalised as in FastCDC: before the average
+ * size a stricter mask is used, after it a looser one, which keeps chunk sizes close to the
+ * average.</p>
+ */
+public class ContentDefinedChunker {
+
+    private static final long GEAR_SEED = 0x6D617276696E4344L;
+    private static final long[] GEAR = gearTable();
+    private static final int HASH_WINDOW = Long.SIZE;
+    private static final int READ_SIZE = 64 * 1024;
+
+    private final int minSize;
+    private final int avgSize;
+    private final int maxSize;
+    private final long smallMask;
+    private final long largeMask;
+
+    /**
+     * Constructs a new {@code ContentDefinedChunker}.
+     *
+     * @param minSize the minimum chunk size in bytes
+     * @param avgSize the targeted average chunk size in bytes, a power of two
+     * @param maxSize the maximum chunk size in bytes
+     */
+    public ContentDefinedChunker(int minSize, int avgSize, int maxSize) {
+        if (minSize <= 0 || minSize > avgSize || avgSize > maxSize) {
+            throw new IllegalArgumentException("Chunk sizes must satisfy 0 < min <= avg <= max but were "
+                    + minSize + "/" + avgSize + "/" + maxSize + "!");
+        }
+        if (Integer.bitCount(avgSize) != 1 || avgSize < 4) {
+            throw new IllegalArgumentException("Average chunk size must be a power of two but was " + avgSize + "!");
+        }
+        this.minSize = minSize;
+        this.avgSize = avgSize;
+        this.maxSize = maxSize;
+
+        final int bits = Integer.numberOfTrailingZeros(avgSize);
+        this.smallMask = topBits(bits + 1);
+        this.largeMask = topBits(bits - 1);
+    }
+
+    /**
+     * Reads the given stream to its end and passes every chunk to the handler in order.
+     *
+     * @param in      the stream to split, not closed by this method
+     * @param handler receives the chunks
+     * @throws IOException if reading the stream or handling a chunk fails
+     */
+    public void split(InputStream in, ChunkHandler handler) throws IOException {
+        final byte[] buffer = new byte[maxSize];
+        int length = 0;
+        int position = 0;
+        long hash = 0;
+
+        while (true) {
+            if (position == length) {
+                final int read = in.read(buffer, length, Math.min(READ_SIZE, maxSize - length));
+                if (read < 0) {
+                    break;
+                }
+                length += read;
+            }
+
+            int cut = -1;
+            for (int i = position; i < length; i++) {
+                final int size = i + 1;
+                if (size == maxSize) {
+                    cut = size;
+                    break;
+                }
+                if (size <= minSize - HASH_WINDOW) {
+                    continue;
+                }
+                hash = (hash << 1) + GEAR[buffer[i] & 0xFF];
+                if (size >= minSize && (hash & (size < avgSize ? smallMask : largeMask)) == 0) {
+                    cut = size;
+                    break;
+                }
+            }
+
+            if (cut < 0) {
+                position = length;
+                continue;
+            }
+
+            handler.accept(buffer, cut);
+            length -= cut;
+            System.arraycopy(buffer, cut, buffer, 0, length);
+            position = 0;
+            hash = 0;
+        }
+
+        if (length > 0) {
+            handler.accept(buffer, length);
+        }
+    }
+
+    // The mask tests the high bits of the hash, which depend on the whole 64 byte window.
+    private static long topBits(int bits) {
+        return bits <= 0 ? 0 : -1L << (Long.SIZE - bits);
+    }
+
+    // The table must never change: the same content has to produce the same chunks on every run.
+    private static long[] gearTable() {
+        final SplittableRandom random = new SplittableRandom(GEAR_SEED);
+        final long[] table = new long[256];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = random.nextLong();
+        }
+        return table;
+    }
+
+    /** Receives the chunks produced by {@link ContentDefinedChunker#split(InputStream, ChunkHandler)}. */
+    @FunctionalInterface
+    public interface ChunkHandler {
+
+        /**
+         * Handles one chunk. The array is reused after this method returns.
+         *
+         * @param data   the array holding the chunk at offset 0
+         * @param length the length of the chunk
+         * @throws IOException if handling the chunk fails
+         */
+        void accept(byte[] data, int length) throws IOException;
+    }
+}
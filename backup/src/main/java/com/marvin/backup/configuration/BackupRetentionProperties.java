@@ -0,0 +1,35 @@
+package com.marvin.backup.configuration;
+
+import com.marvin.backup.retention.RetentionPolicy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration of the backup retention policy, bound to {@code backup.retention}. */
+@Configuration
+@ConfigurationProperties(prefix = "backup.retention")
+@Getter
+@Setter
+public class BackupRetentionProperties {
+
+    private boolean enabled;
+
+    private boolean dryRun;
+
+    private int daily = 7;
+
+    private int weekly = 4;
+
+    private int monthly = 12;
+
+    /**
+     * Returns the configured retention policy.
+     *
+     * @return the retention policy
+     */
+    public RetentionPolicy toPolicy() {
+        return new RetentionPolicy(daily, weekly, monthly);
+    }
+
+}
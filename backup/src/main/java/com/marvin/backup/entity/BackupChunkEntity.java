@@ -0,0 +1,26 @@
+package com.marvin.backup.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/** JPA entity representing a chunk of an incremental backup that has already been uploaded to Google Drive. */
+@Getter
+@Setter
+@Entity
+@Table(name = "backup_chunk", schema = "exports")
+public class BackupChunkEntity {
+
+    @Id
+    private String hash;
+
+    private int length;
+
+    private String driveFileId;
+
+    private LocalDateTime createdAt;
+
+}
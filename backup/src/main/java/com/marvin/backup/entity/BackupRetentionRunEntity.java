@@ -0,0 +1,43 @@
+package com.marvin.backup.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/** JPA entity representing a single run of the backup retention policy in the exports schema. */
+@Getter
+@Setter
+@Entity
+@Table(name = "backup_retention_run", schema = "exports")
+public class BackupRetentionRunEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String folderName;
+
+    private String status;
+
+    private boolean dryRun;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private Long durationMs;
+
+    private Integer filesKept;
+
+    private Integer filesDeleted;
+
+    private Integer filesFailed;
+
+    private String errorMessage;
+
+}
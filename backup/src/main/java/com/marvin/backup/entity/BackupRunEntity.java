@@ -24,6 +24,8 @@ public class BackupRunEntity {
 
     private String status;
 
+    private LocalDateTime queuedAt;
+
     private LocalDateTime startedAt;
 
     private LocalDateTime finishedAt;
@@ -34,4 +36,12 @@ public class BackupRunEntity {
 
     private String errorMessage;
 
+    private int attempts;
+
+    private String md5Checksum;
+
+    private String sha256Checksum;
+
+    private Boolean checksumVerified;
+
 }
@@ -0,0 +1,39 @@
+package com.marvin.backup.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/** JPA entity representing a backup file waiting in the durable upload queue. */
+@Getter
+@Setter
+@Entity
+@Table(name = "backup_upload_queue", schema = "exports")
+public class BackupUploadTaskEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long backupRunId;
+
+    private String filePath;
+
+    private String status;
+
+    private int attempts;
+
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime lockedAt;
+
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+}
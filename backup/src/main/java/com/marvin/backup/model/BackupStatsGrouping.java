@@ -0,0 +1,15 @@
+package com.marvin.backup.model;
+
+/** Grouping of backup run statistics. */
+public enum BackupStatsGrouping {
+
+    /** One bucket per calendar day of the run start. */
+    DAY,
+
+    /** One bucket per ISO week of the run start, labelled with its Monday. */
+    WEEK,
+
+    /** One bucket per run status. */
+    STATUS
+
+}
@@ -0,0 +1,9 @@
+package com.marvin.backup.repository;
+
+import com.marvin.backup.entity.BackupChunkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/** Repository for the index of uploaded incremental backup chunks, keyed by their SHA-256 hash. */
+public interface BackupChunkRepository extends JpaRepository<BackupChunkEntity, String> {
+
+}
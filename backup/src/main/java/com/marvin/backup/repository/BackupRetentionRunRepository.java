@@ -0,0 +1,19 @@
+package com.marvin.backup.repository;
+
+import com.marvin.backup.entity.BackupRetentionRunEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/** Repository for backup retention run entities. */
+public interface BackupRetentionRunRepository extends JpaRepository<BackupRetentionRunEntity, Long> {
+
+    /**
+     * Finds all retention runs, newest first.
+     *
+     * @param pageable the pagination information
+     * @return a page of retention run entities
+     */
+    Page<BackupRetentionRunEntity> findAllByOrderByStartedAtDesc(Pageable pageable);
+
+}
@@ -2,15 +2,27 @@ package com.marvin.backup.repository;
 
 import com.marvin.backup.entity.BackupRunEntity;
 import java.time.LocalDateTime;
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 /** Repository for backup run entities. */
 public interface BackupRunRepository extends JpaRepository<BackupRunEntity, Long> {
 
+    /** Aggregates shared by the statistics queries; the failure ratio only considers finished runs. */
+    String STATS_AGGREGATES = "count(*) AS \"runs\", "
+            + "count(*) FILTER (WHERE status = 'FAILED') AS \"failures\", "
+            + "CAST(count(*) FILTER (WHERE status = 'FAILED') AS double precision) "
+            + "/ NULLIF(count(*) FILTER (WHERE status IN ('SUCCESS', 'FAILED')), 0) AS \"failureRatio\", "
+            + "percentile_cont(0.5) WITHIN GROUP (ORDER BY duration_ms) AS \"p50DurationMs\", "
+            + "percentile_cont(0.95) WITHIN GROUP (ORDER BY duration_ms) AS \"p95DurationMs\", "
+            + "max(duration_ms) AS \"maxDurationMs\" "
+            + "FROM exports.backup_run WHERE started_at >= :from AND started_at < :to ";
+
     /**
      * Finds backup runs matching the given optional filters.
      *
@@ -30,4 +42,47 @@ public interface BackupRunRepository extends JpaRepository<BackupRunEntity, Long
             @Param("status") String status,
             Pageable pageable);
 
+    /**
+     * Marks runs whose upload was interrupted by a restart as queued again.
+     *
+     * @return the number of requeued runs
+     */
+    @Modifying
+    @Query("UPDATE BackupRunEntity b SET b.status = 'QUEUED' WHERE b.status = 'IN_PROGRESS' AND "
+            + "b.id IN (SELECT t.backupRunId FROM BackupUploadTaskEntity t)")
+    int requeueInterrupted();
+
+    /**
+     * Aggregates the backup runs started in the given range per day.
+     *
+     * @param from the inclusive start of the range
+     * @param to   the exclusive end of the range
+     * @return one statistics bucket per day with runs, oldest first
+     */
+    @Query(value = "SELECT to_char(date_trunc('day', started_at), 'YYYY-MM-DD') AS \"bucket\", " + STATS_AGGREGATES
+            + "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<BackupRunStatsView> statsPerDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Aggregates the backup runs started in the given range per ISO week.
+     *
+     * @param from the inclusive start of the range
+     * @param to   the exclusive end of the range
+     * @return one statistics bucket per week with runs, labelled with its Monday, oldest first
+     */
+    @Query(value = "SELECT to_char(date_trunc('week', started_at), 'YYYY-MM-DD') AS \"bucket\", " + STATS_AGGREGATES
+            + "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<BackupRunStatsView> statsPerWeek(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Aggregates the backup runs started in the given range per status.
+     *
+     * @param from the inclusive start of the range
+     * @param to   the exclusive end of the range
+     * @return one statistics bucket per status
+     */
+    @Query(value = "SELECT status AS \"bucket\", " + STATS_AGGREGATES
+            + "GROUP BY status ORDER BY status", nativeQuery = true)
+    List<BackupRunStatsView> statsPerStatus(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
 }
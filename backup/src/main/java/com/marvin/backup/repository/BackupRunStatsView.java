@@ -0,0 +1,55 @@
+package com.marvin.backup.repository;
+
+/** Projection of one bucket of backup run statistics aggregated in the database. */
+public interface BackupRunStatsView {
+
+    /**
+     * Returns the bucket label: the day, the Monday of the week, or the status.
+     *
+     * @return the bucket label
+     */
+    String getBucket();
+
+    /**
+     * Returns the number of runs in the bucket.
+     *
+     * @return the number of runs
+     */
+    long getRuns();
+
+    /**
+     * Returns the number of failed runs in the bucket.
+     *
+     * @return the number of failed runs
+     */
+    long getFailures();
+
+    /**
+     * Returns the share of failed runs among the finished runs of the bucket.
+     *
+     * @return the failure ratio between 0 and 1, or {@code null} if no run has finished
+     */
+    Double getFailureRatio();
+
+    /**
+     * Returns the median run duration.
+     *
+     * @return the interpolated median duration in milliseconds, or {@code null} without finished runs
+     */
+    Double getP50DurationMs();
+
+    /**
+     * Returns the 95th percentile of the run duration.
+     *
+     * @return the interpolated 95th percentile in milliseconds, or {@code null} without finished runs
+     */
+    Double getP95DurationMs();
+
+    /**
+     * Returns the longest run duration.
+     *
+     * @return the maximum duration in milliseconds, or {@code null} without finished runs
+     */
+    Long getMaxDurationMs();
+
+}
@@ -0,0 +1,34 @@
+package com.marvin.backup.repository;
+
+import com.marvin.backup.entity.BackupUploadTaskEntity;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/** Repository for the durable backup upload queue. */
+public interface BackupUploadTaskRepository extends JpaRepository<BackupUploadTaskEntity, Long> {
+
+    /**
+     * Locks the pending task that is due next, skipping tasks already locked by other workers.
+     *
+     * @param now the current time
+     * @return the locked task, or empty if no task is due
+     */
+    @Query(value = "SELECT * FROM exports.backup_upload_queue "
+            + "WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at, id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<BackupUploadTaskEntity> findNextDueForUpdate(@Param("now") LocalDateTime now);
+
+    /**
+     * Returns tasks left in progress by a previous process back to the queue.
+     *
+     * @return the number of requeued tasks
+     */
+    @Modifying
+    @Query("UPDATE BackupUploadTaskEntity t SET t.status = 'PENDING', t.lockedAt = null WHERE t.status = 'IN_PROGRESS'")
+    int requeueInProgress();
+
+}
@@ -0,0 +1,17 @@
+package com.marvin.backup.retention;
+
+import com.marvin.upload.DriveFileInfo;
+import java.util.List;
+
+/**
+ * Result of applying a {@link RetentionPolicy} to the files of a backup folder.
+ *
+ * @param kept    the backup files kept by the policy
+ * @param deleted the backup files to delete
+ * @param skipped the files without a backup timestamp in their name, which are never deleted
+ */
+public record RetentionPlan(
+        List<DriveFileInfo> kept,
+        List<DriveFileInfo> deleted,
+        List<DriveFileInfo> skipped
+) { }
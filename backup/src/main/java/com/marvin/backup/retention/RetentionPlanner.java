@@ -0,0 +1,132 @@
+package com.marvin.backup.retention;
+
+import com.marvin.upload.DriveFileInfo;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies a {@link RetentionPolicy} to the listing of a backup folder.
+ *
+ * <p>The backup time is taken from the timestamp in the file name ({@code yyyyMMdd_HHmmss},
+ * {@code yyyy-MM-dd} and similar). Files whose names only differ in the timestamp form a series,
+ * e.g. all {@code costs_backup_<timestamp>.zip} files, and every series is pruned on its own, so
+ * the manifests of incremental backups are kept exactly like whole backup files. Files without a
+ * timestamp, such as the chunks of incremental backups, are never deleted.</p>
+ *
+ * <p>Each series is sorted newest first and scanned once: a backup is kept if it is the newest one
+ * of a day, ISO week or month that is still within the number of periods the policy keeps.</p>
+ */
+public final class RetentionPlanner {
+
+    // Chunks are named after their hash, whose digits may look like a date.
+    private static final String CHUNK_PREFIX = "chunk-";
+    private static final Pattern TIMESTAMP = Pattern.compile(
+            "(?<!\\d)(\\d{4})-?(\\d{2})-?(\\d{2})(?:[T_-]?(\\d{2})[:-]?(\\d{2})[:-]?(\\d{2})(?:[.,]?\\d{1,9})?)?(?!\\d)");
+
+    private RetentionPlanner() {
+    }
+
+    /**
+     * Splits the given files into the files kept and deleted by the given policy.
+     *
+     * @param files  the files of the backup folder
+     * @param policy the retention policy
+     * @return the retention plan
+     */
+    public static RetentionPlan plan(List<DriveFileInfo> files, RetentionPolicy policy) {
+        final Map<String, List<Backup>> series = new LinkedHashMap<>();
+        final List<DriveFileInfo> skipped = new ArrayList<>();
+
+        for (DriveFileInfo file : files) {
+            final Backup backup = parse(file);
+            if (backup == null) {
+                skipped.add(file);
+            } else {
+                series.computeIfAbsent(backup.series(), key -> new ArrayList<>()).add(backup);
+            }
+        }
+
+        final List<DriveFileInfo> kept = new ArrayList<>();
+        final List<DriveFileInfo> deleted = new ArrayList<>();
+        for (List<Backup> backups : series.values()) {
+            backups.sort(Comparator.comparing(Backup::time).thenComparingLong(b -> modifiedTime(b.file())).reversed());
+            apply(backups, policy, kept, deleted);
+        }
+        return new RetentionPlan(kept, deleted, skipped);
+    }
+
+    // Backups are sorted newest first, so the first backup seen of a period is the one kept for it.
+    private static void apply(List<Backup> backups, RetentionPolicy policy, List<DriveFileInfo> kept, List<DriveFileInfo> deleted) {
+        final Set<LocalDate> days = new HashSet<>();
+        final Set<Integer> weeks = new HashSet<>();
+        final Set<YearMonth> months = new HashSet<>();
+
+        for (Backup backup : backups) {
+            final LocalDate date = backup.time().toLocalDate();
+            final int week = date.get(IsoFields.WEEK_BASED_YEAR) * 100 + date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+            final YearMonth month = YearMonth.from(date);
+
+            boolean keep = false;
+            if (days.size() < policy.daily() && !days.contains(date)) {
+                days.add(date);
+                keep = true;
+            }
+            if (weeks.size() < policy.weekly() && !weeks.contains(week)) {
+                weeks.add(week);
+                keep = true;
+            }
+            if (months.size() < policy.monthly() && !months.contains(month)) {
+                months.add(month);
+                keep = true;
+            }
+            if (keep) {
+                kept.add(backup.file());
+            } else {
+                deleted.add(backup.file());
+            }
+        }
+    }
+
+    private static Backup parse(DriveFileInfo file) {
+        final String name = file.getName();
+        if (name == null || file.isDirectory() || name.startsWith(CHUNK_PREFIX)) {
+            return null;
+        }
+
+        final Matcher matcher = TIMESTAMP.matcher(name);
+        while (matcher.find()) {
+            try {
+                final LocalDateTime time = LocalDateTime.of(
+                        Integer.parseInt(matcher.group(1)),
+                        Integer.parseInt(matcher.group(2)),
+                        Integer.parseInt(matcher.group(3)),
+                        matcher.group(4) == null ? 0 : Integer.parseInt(matcher.group(4)),
+                        matcher.group(5) == null ? 0 : Integer.parseInt(matcher.group(5)),
+                        matcher.group(6) == null ? 0 : Integer.parseInt(matcher.group(6)));
+                final String series = name.substring(0, matcher.start()) + "*" + name.substring(matcher.end());
+                return new Backup(file, series, time);
+            } catch (DateTimeException e) {
+                // Not a date after all, e.g. a run of digits in a hash; try the next match.
+            }
+        }
+        return null;
+    }
+
+    private static long modifiedTime(DriveFileInfo file) {
+        return file.getModifiedTime() == null ? 0 : file.getModifiedTime().getValue();
+    }
+
+    private record Backup(DriveFileInfo file, String series, LocalDateTime time) { }
+}
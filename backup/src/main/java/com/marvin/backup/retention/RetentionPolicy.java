@@ -0,0 +1,31 @@
+package com.marvin.backup.retention;
+
+/**
+ * Grandfather-father-son retention policy for backup files.
+ *
+ * <p>Per series of backups the newest backup of each of the last {@code daily} days, of the last
+ * {@code weekly} ISO weeks and of the last {@code monthly} months that have a backup is kept. A
+ * backup kept by any of the rules is not deleted.</p>
+ *
+ * @param daily   the number of daily backups to keep
+ * @param weekly  the number of weekly backups to keep
+ * @param monthly the number of monthly backups to keep
+ */
+public record RetentionPolicy(
+        int daily,
+        int weekly,
+        int monthly
+) {
+
+    /**
+     * Validates the policy. At least one backup has to be kept, so the latest backup is never deleted.
+     */
+    public RetentionPolicy {
+        if (daily < 0 || weekly < 0 || monthly < 0) {
+            throw new IllegalArgumentException("Retention counts must not be negative!");
+        }
+        if (daily + weekly + monthly == 0) {
+            throw new IllegalArgumentException("A retention policy has to keep at least one backup!");
+        }
+    }
+}
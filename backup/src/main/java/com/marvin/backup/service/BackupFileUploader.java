@@ -0,0 +1,47 @@
+package com.marvin.backup.service;
+
+import com.marvin.upload.UploadedFile;
+import com.marvin.upload.Uploader;
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/** Uploads a backup file either as a whole or, if enabled, incrementally as deduplicated chunks. */
+@Service
+public class BackupFileUploader {
+
+    private final Uploader uploader;
+    private final IncrementalBackupService incrementalBackupService;
+    private final String driveFolderName;
+
+    /**
+     * Constructs a new {@code BackupFileUploader}.
+     *
+     * @param uploader                 the uploader for transferring whole files to Google Drive
+     * @param incrementalBackupService the service for incremental uploads
+     * @param driveFolderName          the Google Drive folder name to upload files into
+     */
+    public BackupFileUploader(
+            Uploader uploader,
+            IncrementalBackupService incrementalBackupService,
+            @Value("${backup.upload.drive-folder-name:db-backups}") String driveFolderName
+    ) {
+        this.uploader = uploader;
+        this.incrementalBackupService = incrementalBackupService;
+        this.driveFolderName = driveFolderName;
+    }
+
+    /**
+     * Uploads the given backup file.
+     *
+     * @param file the backup file to upload
+     * @return the uploaded file with its checksums, or {@code null} if uploads are disabled
+     * @throws Exception if the upload fails
+     */
+    public UploadedFile upload(Path file) throws Exception {
+        if (incrementalBackupService.isEnabled()) {
+            return incrementalBackupService.upload(file);
+        }
+        return uploader.uploadFile(file, driveFolderName);
+    }
+}
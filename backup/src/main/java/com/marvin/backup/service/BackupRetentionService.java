@@ -0,0 +1,117 @@
+package com.marvin.backup.service;
+
+import com.marvin.backup.configuration.BackupRetentionProperties;
+import com.marvin.backup.entity.BackupRetentionRunEntity;
+import com.marvin.backup.repository.BackupRetentionRunRepository;
+import com.marvin.backup.retention.RetentionPlan;
+import com.marvin.backup.retention.RetentionPlanner;
+import com.marvin.upload.BatchDeleteResult;
+import com.marvin.upload.DriveFileInfo;
+import com.marvin.upload.DriveListingCache;
+import com.marvin.upload.FileDeleter;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Prunes old backups from the Google Drive backup folder.
+ *
+ * <p>The folder listing is taken from the {@link DriveListingCache}, the files to delete are
+ * computed by the {@link RetentionPlanner} and deleted with batch requests. Every run is recorded in
+ * {@code exports.backup_retention_run}.</p>
+ */
+@Service
+public class BackupRetentionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackupRetentionService.class);
+
+    private final DriveListingCache driveListingCache;
+    private final FileDeleter fileDeleter;
+    private final BackupRetentionRunRepository retentionRunRepository;
+    private final BackupRetentionProperties properties;
+    private final String driveFolderName;
+
+    /**
+     * Constructs a new {@code BackupRetentionService}.
+     *
+     * @param driveListingCache      the cached listing of Google Drive folders
+     * @param fileDeleter            the deleter for Google Drive files
+     * @param retentionRunRepository the repository of retention runs
+     * @param properties             the retention configuration
+     * @param driveFolderName        the Google Drive folder name backups are uploaded into
+     */
+    public BackupRetentionService(
+            DriveListingCache driveListingCache,
+            FileDeleter fileDeleter,
+            BackupRetentionRunRepository retentionRunRepository,
+            BackupRetentionProperties properties,
+            @Value("${backup.upload.drive-folder-name:db-backups}") String driveFolderName
+    ) {
+        this.driveListingCache = driveListingCache;
+        this.fileDeleter = fileDeleter;
+        this.retentionRunRepository = retentionRunRepository;
+        this.properties = properties;
+        this.driveFolderName = driveFolderName;
+    }
+
+    /** Applies the retention policy on schedule if retention is enabled. */
+    @Scheduled(cron = "${backup.retention.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (properties.isEnabled()) {
+            run();
+        }
+    }
+
+    /**
+     * Applies the retention policy to the backup folder and deletes the backups it does not keep.
+     * In dry-run mode the run is recorded without deleting anything.
+     *
+     * @return the recorded retention run
+     */
+    public synchronized BackupRetentionRunEntity run() {
+        final BackupRetentionRunEntity run = new BackupRetentionRunEntity();
+        run.setFolderName(driveFolderName);
+        run.setStatus("IN_PROGRESS");
+        run.setDryRun(properties.isDryRun());
+        run.setStartedAt(LocalDateTime.now());
+        retentionRunRepository.save(run);
+
+        try {
+            driveListingCache.refresh();
+            final List<DriveFileInfo> files = driveListingCache.listFiles(driveFolderName);
+            final RetentionPlan plan = RetentionPlanner.plan(files, properties.toPolicy());
+            run.setFilesKept(plan.kept().size());
+
+            if (properties.isDryRun()) {
+                plan.deleted().forEach(file -> LOGGER.info("Retention dry run would delete {}.", file.getName()));
+                run.setFilesDeleted(0);
+                run.setFilesFailed(0);
+                run.setStatus("SUCCESS");
+            } else {
+                final BatchDeleteResult result = fileDeleter.deleteFiles(plan.deleted().stream().map(DriveFileInfo::getId).toList());
+                run.setFilesDeleted(result.deleted().size());
+                run.setFilesFailed(result.failed().size());
+                run.setStatus(result.failed().isEmpty() ? "SUCCESS" : "PARTIAL");
+                if (!result.failed().isEmpty()) {
+                    run.setErrorMessage(String.join("; ", result.failed().values().stream().distinct().toList()));
+                }
+            }
+
+            LOGGER.info("Retention run on {} kept {} backups, deleted {}, failed {}, skipped {} other files.",
+                    driveFolderName, plan.kept().size(), run.getFilesDeleted(), run.getFilesFailed(), plan.skipped().size());
+        } catch (Exception e) {
+            LOGGER.error("Retention run on {} failed!", driveFolderName, e);
+            run.setStatus("FAILED");
+            run.setErrorMessage(e.getMessage());
+        }
+
+        run.setFinishedAt(LocalDateTime.now());
+        run.setDurationMs(Duration.between(run.getStartedAt(), run.getFinishedAt()).toMillis());
+        return retentionRunRepository.save(run);
+    }
+}
@@ -0,0 +1,92 @@
+package com.marvin.backup.service;
+
+import com.marvin.backup.model.BackupStatsGrouping;
+import com.marvin.backup.repository.BackupRunRepository;
+import com.marvin.backup.repository.BackupRunStatsView;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Provides aggregated backup run statistics.
+ *
+ * <p>Counts, failure ratios and duration percentiles are computed by the database in a single
+ * query. Results are cached for a short time, so dashboards refreshing in parallel only cause one
+ * query per range and grouping.</p>
+ */
+@Service
+public class BackupStatsService {
+
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(30);
+
+    private final BackupRunRepository backupRunRepository;
+    private final Duration cacheTtl;
+    private final Clock clock;
+    private final Map<StatsKey, CachedStats> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@code BackupStatsService}.
+     *
+     * @param backupRunRepository the repository of backup runs
+     * @param cacheTtl            how long computed statistics are served from the cache
+     */
+    @Autowired
+    public BackupStatsService(
+            BackupRunRepository backupRunRepository,
+            @Value("${backup.stats.cache-ttl:PT30S}") Duration cacheTtl
+    ) {
+        this(backupRunRepository, cacheTtl, Clock.systemDefaultZone());
+    }
+
+    BackupStatsService(BackupRunRepository backupRunRepository, Duration cacheTtl, Clock clock) {
+        this.backupRunRepository = backupRunRepository;
+        this.cacheTtl = cacheTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the statistics of the backup runs started in the given range.
+     *
+     * @param grouping how runs are grouped into buckets
+     * @param from     the inclusive start of the range, or {@code null} for 30 days before {@code to}
+     * @param to       the exclusive end of the range, or {@code null} for now
+     * @return the statistics buckets
+     */
+    public List<BackupRunStatsView> getStats(BackupStatsGrouping grouping, LocalDateTime from, LocalDateTime to) {
+        final Instant now = clock.instant();
+        final StatsKey key = new StatsKey(grouping, from, to);
+        final CachedStats cached = cache.get(key);
+        if (cached != null && now.isBefore(cached.expiresAt())) {
+            return cached.stats();
+        }
+
+        final LocalDateTime end = to != null ? to : LocalDateTime.now(clock);
+        final LocalDateTime start = from != null ? from : end.minus(DEFAULT_RANGE);
+        final List<BackupRunStatsView> stats = switch (grouping) {
+            case DAY -> backupRunRepository.statsPerDay(start, end);
+            case WEEK -> backupRunRepository.statsPerWeek(start, end);
+            case STATUS -> backupRunRepository.statsPerStatus(start, end);
+        };
+
+        // Arbitrary ranges would otherwise accumulate; expired entries are dropped on every miss.
+        cache.values().removeIf(entry -> !now.isBefore(entry.expiresAt()));
+        final CachedStats computed = new CachedStats(List.copyOf(stats), now.plus(cacheTtl));
+        cache.put(key, computed);
+        return computed.stats();
+    }
+
+    private record StatsKey(BackupStatsGrouping grouping, LocalDateTime from, LocalDateTime to) {
+
+    }
+
+    private record CachedStats(List<BackupRunStatsView> stats, Instant expiresAt) {
+
+    }
+}
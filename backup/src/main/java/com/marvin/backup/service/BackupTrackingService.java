@@ -2,6 +2,7 @@ package com.marvin.backup.service;
 
 import com.marvin.backup.repository.BackupRunRepository;
 import com.marvin.backup.entity.BackupRunEntity;
+import com.marvin.upload.UploadedFile;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
@@ -28,12 +29,67 @@ public class BackupTrackingService {
         return backupRunRepository.save(run);
     }
 
+    /**
+     * Registers a new backup run for the given file name that waits in the upload queue.
+     *
+     * @param fileName the name of the backup file to upload
+     * @return the persisted backup run entity in QUEUED state
+     */
+    public BackupRunEntity queue(String fileName) {
+        final LocalDateTime now = LocalDateTime.now();
+        final BackupRunEntity run = new BackupRunEntity();
+        run.setFileName(fileName);
+        run.setStatus("QUEUED");
+        run.setQueuedAt(now);
+        run.setStartedAt(now);
+        return backupRunRepository.save(run);
+    }
+
+    /**
+     * Marks the start of another upload attempt of the given backup run.
+     *
+     * @param run the backup run entity to update
+     */
+    public void startAttempt(BackupRunEntity run) {
+        run.setStatus("IN_PROGRESS");
+        run.setStartedAt(LocalDateTime.now());
+        run.setAttempts(run.getAttempts() + 1);
+        backupRunRepository.save(run);
+    }
+
+    /**
+     * Puts the given backup run back into the queue after a failed attempt.
+     *
+     * @param run          the backup run entity to update
+     * @param errorMessage the error message of the failed attempt
+     */
+    public void requeue(BackupRunEntity run, String errorMessage) {
+        run.setStatus("QUEUED");
+        run.setErrorMessage(errorMessage);
+        backupRunRepository.save(run);
+    }
+
     /**
      * Marks the given backup run as successfully completed.
      *
      * @param run the backup run entity to update
      */
     public void completeSuccess(BackupRunEntity run) {
+        completeSuccess(run, null);
+    }
+
+    /**
+     * Marks the given backup run as successfully completed and records the checksums of the uploaded file.
+     *
+     * @param run          the backup run entity to update
+     * @param uploadedFile the uploaded file, or {@code null} if nothing was uploaded
+     */
+    public void completeSuccess(BackupRunEntity run, UploadedFile uploadedFile) {
+        if (uploadedFile != null) {
+            run.setMd5Checksum(uploadedFile.md5Checksum());
+            run.setSha256Checksum(uploadedFile.sha256());
+            run.setChecksumVerified(uploadedFile.verified());
+        }
         run.setStatus("SUCCESS");
         run.setFinishedAt(LocalDateTime.now());
         run.setDurationMs(Duration.between(run.getStartedAt(), run.getFinishedAt()).toMillis());
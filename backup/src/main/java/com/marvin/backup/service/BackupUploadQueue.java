@@ -0,0 +1,166 @@
+package com.marvin.backup.service;
+
+import com.marvin.backup.entity.BackupRunEntity;
+import com.marvin.backup.entity.BackupUploadTaskEntity;
+import com.marvin.backup.repository.BackupRunRepository;
+import com.marvin.backup.repository.BackupUploadTaskRepository;
+import com.marvin.upload.UploadedFile;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Durable queue of backup files waiting for upload.
+ *
+ * <p>Every queued file is stored as a row in {@code exports.backup_upload_queue} next to its
+ * {@link BackupRunEntity}. Workers claim rows with {@code FOR UPDATE SKIP LOCKED}, so several
+ * workers never pick up the same file, and rows left in progress by a crashed process are
+ * returned to the queue on startup.</p>
+ */
+@Service
+public class BackupUploadQueue {
+
+    static final String PENDING = "PENDING";
+    static final String IN_PROGRESS = "IN_PROGRESS";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackupUploadQueue.class);
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(6);
+
+    private final BackupUploadTaskRepository taskRepository;
+    private final BackupRunRepository backupRunRepository;
+    private final BackupTrackingService backupTrackingService;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+
+    /**
+     * Constructs a new {@code BackupUploadQueue}.
+     *
+     * @param taskRepository        the repository of queued upload tasks
+     * @param backupRunRepository   the repository of backup runs
+     * @param backupTrackingService the service for tracking backup run status
+     * @param maxAttempts           the number of upload attempts before a file is given up
+     * @param retryBackoff          the delay before the first retry, doubled on every further attempt
+     */
+    public BackupUploadQueue(
+            BackupUploadTaskRepository taskRepository,
+            BackupRunRepository backupRunRepository,
+            BackupTrackingService backupTrackingService,
+            @Value("${backup.upload.max-attempts:5}") int maxAttempts,
+            @Value("${backup.upload.retry-backoff:PT1M}") Duration retryBackoff
+    ) {
+        this.taskRepository = taskRepository;
+        this.backupRunRepository = backupRunRepository;
+        this.backupTrackingService = backupTrackingService;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+    }
+
+    /**
+     * Adds the given backup file to the queue and registers a queued backup run for it.
+     *
+     * @param file the backup file to upload
+     * @return the persisted upload task
+     */
+    @Transactional
+    public BackupUploadTaskEntity enqueue(Path file) {
+        final BackupRunEntity run = backupTrackingService.queue(file.getFileName().toString());
+
+        final BackupUploadTaskEntity task = new BackupUploadTaskEntity();
+        task.setBackupRunId(run.getId());
+        task.setFilePath(file.toAbsolutePath().toString());
+        task.setStatus(PENDING);
+        task.setNextAttemptAt(run.getQueuedAt());
+        task.setCreatedAt(run.getQueuedAt());
+        return taskRepository.save(task);
+    }
+
+    /**
+     * Claims the next due task for the calling worker and marks its backup run as in progress.
+     * The attempt is only counted once it fails, so a claim interrupted by a restart and
+     * returned by {@link #recoverInterrupted()} does not use up a retry.
+     *
+     * @return the claimed task, or empty if no task is due
+     */
+    @Transactional
+    public Optional<BackupUploadTaskEntity> claimNext() {
+        final LocalDateTime now = LocalDateTime.now();
+        final Optional<BackupUploadTaskEntity> next = taskRepository.findNextDueForUpdate(now);
+        next.ifPresent(task -> {
+            task.setStatus(IN_PROGRESS);
+            task.setLockedAt(now);
+            taskRepository.save(task);
+            backupRunRepository.findById(task.getBackupRunId()).ifPresent(backupTrackingService::startAttempt);
+        });
+        return next;
+    }
+
+    /**
+     * Removes the given task from the queue and marks its backup run as successful.
+     *
+     * @param task         the uploaded task
+     * @param uploadedFile the uploaded file with its checksums, or {@code null} if nothing was uploaded
+     */
+    @Transactional
+    public void complete(BackupUploadTaskEntity task, UploadedFile uploadedFile) {
+        taskRepository.deleteById(task.getId());
+        backupRunRepository.findById(task.getBackupRunId())
+                .ifPresent(run -> backupTrackingService.completeSuccess(run, uploadedFile));
+    }
+
+    /**
+     * Records a failed attempt of the given task. The task is scheduled for another attempt with
+     * exponential backoff until the configured number of attempts is reached.
+     *
+     * @param task         the failed task
+     * @param errorMessage the error message of the failed attempt
+     * @return {@code true} if the task was given up and removed from the queue
+     */
+    @Transactional
+    public boolean fail(BackupUploadTaskEntity task, String errorMessage) {
+        task.setAttempts(task.getAttempts() + 1);
+        final Optional<BackupRunEntity> run = backupRunRepository.findById(task.getBackupRunId());
+
+        if (task.getAttempts() >= maxAttempts) {
+            taskRepository.deleteById(task.getId());
+            run.ifPresent(r -> backupTrackingService.completeFailure(r, errorMessage));
+            return true;
+        }
+
+        final Duration delay = backoff(task.getAttempts());
+        task.setStatus(PENDING);
+        task.setLockedAt(null);
+        task.setLastError(errorMessage);
+        task.setNextAttemptAt(LocalDateTime.now().plus(delay));
+        taskRepository.save(task);
+        run.ifPresent(r -> backupTrackingService.requeue(r, errorMessage));
+
+        LOGGER.info("Upload of {} failed on attempt {}/{}, retrying in {}.", task.getFilePath(), task.getAttempts(), maxAttempts, delay);
+        return false;
+    }
+
+    /**
+     * Returns tasks interrupted by a previous shutdown or crash to the queue. Their uploads
+     * continue from the stored resumable session on the next attempt.
+     *
+     * @return the number of requeued tasks
+     */
+    @Transactional
+    public int recoverInterrupted() {
+        backupRunRepository.requeueInterrupted();
+        return taskRepository.requeueInProgress();
+    }
+
+    Duration backoff(int attempts) {
+        final int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        final Duration delay = retryBackoff.multipliedBy(1L << exponent);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+}
@@ -0,0 +1,228 @@
+package com.marvin.backup.service;
+
+import com.marvin.backup.entity.BackupUploadTaskEntity;
+import com.marvin.upload.UploadedFile;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the {@link BackupUploadQueue} with a fixed number of worker threads.
+ *
+ * <p>The number of concurrent uploads is bounded by {@code backup.upload.workers}; the combined
+ * upload bandwidth is shaped by the uploader's global bandwidth limiter. Workers poll the queue
+ * periodically and are woken up immediately when a new file is enqueued.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "backup.upload.enabled", havingValue = "true")
+public class BackupUploadWorker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackupUploadWorker.class);
+
+    private final BackupUploadQueue queue;
+    private final BackupFileUploader backupFileUploader;
+    private final Path doneDirectory;
+    private final Path errorDirectory;
+    private final int workerCount;
+    private final Duration pollInterval;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+    private volatile boolean stopping;
+
+    /**
+     * Constructs a new {@code BackupUploadWorker}.
+     *
+     * @param queue              the durable upload queue
+     * @param backupFileUploader the uploader for transferring backup files to Google Drive
+     * @param doneDir            the directory to move successfully uploaded files to
+     * @param errorDir           the directory to move finally failed uploads to
+     * @param workerCount        the number of concurrent uploads
+     * @param pollInterval       the interval in which idle workers check the queue for due retries
+     */
+    public BackupUploadWorker(
+            BackupUploadQueue queue,
+            BackupFileUploader backupFileUploader,
+            @Value("${backup.upload.done-dir}") String doneDir,
+            @Value("${backup.upload.error-dir}") String errorDir,
+            @Value("${backup.upload.workers:2}") int workerCount,
+            @Value("${backup.upload.poll-interval:PT5S}") Duration pollInterval
+    ) {
+        this.queue = queue;
+        this.backupFileUploader = backupFileUploader;
+        this.doneDirectory = Path.of(doneDir);
+        this.errorDirectory = Path.of(errorDir);
+        this.workerCount = Math.max(1, workerCount);
+        this.pollInterval = pollInterval;
+        ensureDirectories();
+    }
+
+    /** Returns interrupted uploads to the queue and starts the worker threads. */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        final int recovered = queue.recoverInterrupted();
+        if (recovered > 0) {
+            LOGGER.info("Resuming {} interrupted backup upload(s).", recovered);
+        }
+
+        running = true;
+        stopping = false;
+        for (int i = 0; i < workerCount; i++) {
+            final Thread worker = new Thread(this::runWorker, "backup-upload-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        LOGGER.info("Started {} backup upload worker(s).", workerCount);
+    }
+
+    /** Stops the worker threads. Uploads in flight are resumed from the queue on the next start. */
+    @PreDestroy
+    public synchronized void stop() {
+        stopping = true;
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    /** Wakes up an idle worker to pick up newly queued files. */
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    /**
+     * Claims and processes queued tasks until the queue holds no due task.
+     *
+     * @return the number of processed tasks
+     */
+    public int drain() {
+        int processed = 0;
+        while (!stopping && !Thread.currentThread().isInterrupted()) {
+            final Optional<BackupUploadTaskEntity> next = queue.claimNext();
+            if (next.isEmpty()) {
+                break;
+            }
+            process(next.get());
+            processed++;
+        }
+        return processed;
+    }
+
+    /**
+     * Uploads the file of the given task and records the outcome in the queue.
+     *
+     * @param task the claimed task
+     */
+    void process(BackupUploadTaskEntity task) {
+        final Path backupFile = Path.of(task.getFilePath());
+        LOGGER.info("Uploading backup file {} (attempt {}).", backupFile.getFileName(), task.getAttempts() + 1);
+
+        if (!Files.exists(backupFile)) {
+            queue.fail(task, "Backup file no longer exists: " + backupFile);
+            return;
+        }
+
+        final UploadedFile uploadedFile;
+        try {
+            uploadedFile = backupFileUploader.upload(backupFile);
+        } catch (Exception e) {
+            if (isShutdown(e)) {
+                // The task stays in progress and is requeued by recoverInterrupted on the next start,
+                // without using up an attempt.
+                LOGGER.info("Upload of backup file {} interrupted by shutdown.", backupFile.getFileName());
+                Thread.currentThread().interrupt();
+                return;
+            }
+            LOGGER.error("Failed to upload backup file: {}", backupFile.getFileName(), e);
+            if (queue.fail(task, e.getMessage())) {
+                moveFile(backupFile, errorDirectory);
+            }
+            return;
+        }
+
+        // Completing first keeps the file in place while the task can still be claimed again.
+        queue.complete(task, uploadedFile);
+        moveFile(backupFile, doneDirectory);
+        LOGGER.info("Backup file {} uploaded and moved to done.", backupFile.getFileName());
+    }
+
+    private void runWorker() {
+        while (running) {
+            try {
+                drain();
+                wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOGGER.error("Backup upload worker failed, continuing after poll interval.", e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean isShutdown(Exception exception) {
+        if (stopping || Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            // A socket timeout is an InterruptedIOException as well, but a genuine failure.
+            if (cause instanceof InterruptedException
+                    || cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException)
+                    || cause instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void moveFile(Path file, Path targetDirectory) {
+        try {
+            final Path target = targetDirectory.resolve(file.getFileName());
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.info("Moved {} to {}", file.getFileName(), targetDirectory);
+        } catch (IOException e) {
+            LOGGER.error("Could not move file {} to {}!", file.getFileName(), targetDirectory, e);
+        }
+    }
+
+    private void ensureDirectories() {
+        try {
+            if (!Files.exists(doneDirectory)) {
+                Files.createDirectories(doneDirectory);
+            }
+            if (!Files.exists(errorDirectory)) {
+                Files.createDirectories(errorDirectory);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Could not create backup upload directories!", e);
+        }
+    }
+}
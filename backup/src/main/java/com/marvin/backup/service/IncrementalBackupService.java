@@ -0,0 +1,251 @@
+package com.marvin.backup.service;
+
+import com.marvin.backup.chunking.BackupManifest;
+import com.marvin.backup.chunking.BackupManifest.ChunkRef;
+import com.marvin.backup.chunking.ContentDefinedChunker;
+import com.marvin.backup.entity.BackupChunkEntity;
+import com.marvin.backup.repository.BackupChunkRepository;
+import com.marvin.upload.ChecksumMismatchException;
+import com.marvin.upload.DriveFileInfo;
+import com.marvin.upload.GoogleDrive;
+import com.marvin.upload.GoogleDriveException;
+import com.marvin.upload.UploadedFile;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Uploads backup files incrementally and restores them again.
+ *
+ * <p>A backup file is split with a {@link ContentDefinedChunker}. Every chunk is identified by its
+ * SHA-256 hash; chunks already present in the local chunk index are not uploaded again, new chunks
+ * are uploaded as {@code chunk-<hash>} files. A {@link BackupManifest} listing the chunks is
+ * uploaded as {@code <file name>.manifest} next to them. Since consecutive dumps share most of
+ * their content, each upload only transfers the changed chunks and the manifest.</p>
+ *
+ * <p>Incremental mode deduplicates well for uncompressed dumps; compressed archives change almost
+ * entirely whenever their content changes.</p>
+ */
+@Service
+public class IncrementalBackupService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IncrementalBackupService.class);
+
+    private static final String CHUNK_PREFIX = "chunk-";
+    private static final String CHUNK_CONTENT_TYPE = "application/octet-stream";
+    private static final String MANIFEST_CONTENT_TYPE = "text/plain";
+    private static final String PART_SUFFIX = ".part";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final GoogleDrive googleDrive;
+    private final BackupChunkRepository chunkRepository;
+    private final ContentDefinedChunker chunker;
+    private final boolean enabled;
+    private final String driveFolderName;
+    private final Path restoreDirectory;
+
+    /**
+     * Constructs a new {@code IncrementalBackupService}.
+     *
+     * @param googleDrive     the Google Drive client
+     * @param chunkRepository the index of already uploaded chunks
+     * @param enabled         whether backup files are uploaded incrementally
+     * @param driveFolderName the Google Drive folder name chunks and manifests are uploaded into
+     * @param restoreDir      the directory restored backup files are written to
+     * @param avgChunkSize    the targeted average chunk size in bytes, a power of two; chunks are
+     *                        between a quarter and four times this size
+     */
+    public IncrementalBackupService(
+            GoogleDrive googleDrive,
+            BackupChunkRepository chunkRepository,
+            @Value("${backup.incremental.enabled:false}") boolean enabled,
+            @Value("${backup.upload.drive-folder-name:db-backups}") String driveFolderName,
+            @Value("${backup.incremental.restore-dir:./app/backup/restore}") String restoreDir,
+            @Value("${backup.incremental.avg-chunk-size:1048576}") int avgChunkSize
+    ) {
+        this.googleDrive = googleDrive;
+        this.chunkRepository = chunkRepository;
+        this.chunker = new ContentDefinedChunker(avgChunkSize / 4, avgChunkSize, avgChunkSize * 4);
+        this.enabled = enabled;
+        this.driveFolderName = driveFolderName;
+        this.restoreDirectory = Path.of(restoreDir);
+    }
+
+    /**
+     * Returns whether backup files are uploaded incrementally.
+     *
+     * @return {@code true} if incremental uploads are enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Uploads the chunks of the given file that are not yet known and a manifest describing the file.
+     *
+     * @param file the backup file to upload
+     * @return the uploaded manifest file with the MD5 and SHA-256 hashes of the backup file; every
+     *         uploaded chunk has been verified against the checksum computed by Drive
+     * @throws IOException          if reading the file, uploading a chunk or verifying a chunk fails
+     * @throws GoogleDriveException if uploading the manifest fails
+     */
+    public UploadedFile upload(Path file) throws IOException, GoogleDriveException {
+        final String fileName = file.getFileName().toString();
+        final MessageDigest fileDigest = sha256();
+        final MessageDigest fileMd5 = md5();
+        final List<ChunkRef> chunks = new ArrayList<>();
+        final long[] uploaded = new long[2];
+
+        try (InputStream in = new DigestInputStream(new DigestInputStream(Files.newInputStream(file), fileMd5), fileDigest)) {
+            chunker.split(in, (data, length) -> {
+                final ChunkRef chunk = storeChunk(data, length, uploaded);
+                chunks.add(chunk);
+            });
+        }
+
+        final long size = chunks.stream().mapToLong(ChunkRef::length).sum();
+        final BackupManifest manifest = new BackupManifest(fileName, size, HEX.formatHex(fileDigest.digest()), chunks);
+
+        final ByteArrayOutputStream manifestBytes = new ByteArrayOutputStream();
+        manifest.writeTo(manifestBytes);
+        final UploadedFile manifestFile = googleDrive.uploadStreamToFolder(new ByteArrayInputStream(manifestBytes.toByteArray()),
+                fileName + BackupManifest.FILE_SUFFIX, driveFolderName, MANIFEST_CONTENT_TYPE);
+
+        LOGGER.info("Uploaded {} incrementally: {} of {} chunks, {} of {} bytes.",
+                fileName, uploaded[0], chunks.size(), uploaded[1], size);
+        return new UploadedFile(manifestFile.id(), HEX.formatHex(fileMd5.digest()), manifest.sha256(), true);
+    }
+
+    /**
+     * Reassembles the backup file with the given name from its latest manifest and chunks.
+     *
+     * @param fileName the name of the backup file to restore
+     * @return the path of the restored file in the restore directory
+     * @throws IOException          if no manifest exists or a chunk does not match its hash
+     * @throws GoogleDriveException if downloading the manifest or a chunk fails
+     */
+    public Path restore(String fileName) throws IOException, GoogleDriveException {
+        if (fileName.isBlank() || fileName.startsWith(".") || !Path.of(fileName).getFileName().toString().equals(fileName)) {
+            throw new IllegalArgumentException("Invalid backup file name: " + fileName);
+        }
+
+        final BackupManifest manifest = downloadManifest(fileName);
+        Files.createDirectories(restoreDirectory);
+        final Path target = restoreDirectory.resolve(fileName);
+        final Path part = restoreDirectory.resolve(fileName + PART_SUFFIX);
+
+        final MessageDigest fileDigest = sha256();
+        try (OutputStream out = Files.newOutputStream(part)) {
+            for (ChunkRef chunk : manifest.chunks()) {
+                final byte[] data = download(chunk.driveFileId(), chunk.length());
+                final String hash = HEX.formatHex(sha256().digest(data));
+                if (data.length != chunk.length() || !hash.equals(chunk.hash())) {
+                    throw new IOException("Chunk " + chunk.hash() + " of " + fileName + " is corrupt!");
+                }
+                fileDigest.update(data);
+                out.write(data);
+            }
+        } catch (IOException | GoogleDriveException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+
+        if (!HEX.formatHex(fileDigest.digest()).equals(manifest.sha256())) {
+            Files.deleteIfExists(part);
+            throw new IOException("Restored file " + fileName + " does not match the hash of its manifest!");
+        }
+
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        LOGGER.info("Restored {} from {} chunks to {}.", fileName, manifest.chunks().size(), target);
+        return target;
+    }
+
+    // Returns the known chunk or uploads a new one. Two workers uploading the same new chunk at once
+    // both upload it; the index keeps one of the copies, which restores identically.
+    private ChunkRef storeChunk(byte[] data, int length, long[] uploaded) throws IOException {
+        final MessageDigest digest = sha256();
+        digest.update(data, 0, length);
+        final String hash = HEX.formatHex(digest.digest());
+        final MessageDigest chunkMd5 = md5();
+        chunkMd5.update(data, 0, length);
+        final String md5Hex = HEX.formatHex(chunkMd5.digest());
+
+        final Optional<BackupChunkEntity> known = chunkRepository.findById(hash);
+        if (known.isPresent()) {
+            return new ChunkRef(hash, length, known.get().getDriveFileId());
+        }
+
+        final UploadedFile uploadedChunk;
+        try {
+            uploadedChunk = googleDrive.uploadStreamToFolder(new ByteArrayInputStream(data, 0, length),
+                    CHUNK_PREFIX + hash, driveFolderName, CHUNK_CONTENT_TYPE);
+        } catch (GoogleDriveException e) {
+            throw new IOException("Failed to upload chunk " + hash, e);
+        }
+        if (uploadedChunk.md5Checksum() != null && !uploadedChunk.md5Checksum().equalsIgnoreCase(md5Hex)) {
+            throw new IOException(new ChecksumMismatchException(CHUNK_PREFIX + hash, md5Hex, uploadedChunk.md5Checksum()));
+        }
+
+        final BackupChunkEntity chunk = new BackupChunkEntity();
+        chunk.setHash(hash);
+        chunk.setLength(length);
+        chunk.setDriveFileId(uploadedChunk.id());
+        chunk.setCreatedAt(LocalDateTime.now());
+        chunkRepository.save(chunk);
+
+        uploaded[0]++;
+        uploaded[1] += length;
+        return new ChunkRef(hash, length, uploadedChunk.id());
+    }
+
+    private BackupManifest downloadManifest(String fileName) throws IOException, GoogleDriveException {
+        final String manifestName = fileName + BackupManifest.FILE_SUFFIX;
+        final DriveFileInfo manifestFile = googleDrive.listFilesInFolder(driveFolderName).stream()
+                .filter(file -> manifestName.equals(file.getName()))
+                .max(Comparator.comparingLong(file -> file.getModifiedTime() == null ? 0 : file.getModifiedTime().getValue()))
+                .orElseThrow(() -> new FileNotFoundException("No manifest found for backup " + fileName));
+
+        return BackupManifest.readFrom(new ByteArrayInputStream(download(manifestFile.getId(), 0)));
+    }
+
+    private byte[] download(String fileId, int expectedSize) throws GoogleDriveException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(expectedSize, 32));
+        googleDrive.downloadFile(fileId, out);
+        return out.toByteArray();
+    }
+
+    private static MessageDigest sha256() {
+        return digest("SHA-256");
+    }
+
+    private static MessageDigest md5() {
+        return digest("MD5");
+    }
+
+    private static MessageDigest digest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " is not available", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+ALTER TABLE exports.backup_run
+    ADD COLUMN queued_at TIMESTAMP,
+    ADD COLUMN attempts  INT NOT NULL DEFAULT 0;
+
+CREATE TABLE exports.backup_upload_queue
+(
+    id              BIGSERIAL PRIMARY KEY,
+    backup_run_id   BIGINT        NOT NULL REFERENCES exports.backup_run (id),
+    file_path       VARCHAR(1024) NOT NULL,
+    status          VARCHAR(32)   NOT NULL,
+    attempts        INT           NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP     NOT NULL,
+    locked_at       TIMESTAMP,
+    last_error      TEXT,
+    created_at      TIMESTAMP     NOT NULL
+);
+
+CREATE INDEX idx_backup_upload_queue_due ON exports.backup_upload_queue (status, next_attempt_at);
@@ -0,0 +1,7 @@
+CREATE TABLE exports.backup_chunk
+(
+    hash          VARCHAR(64)  PRIMARY KEY,
+    length        INT          NOT NULL,
+    drive_file_id VARCHAR(128) NOT NULL,
+    created_at    TIMESTAMP    NOT NULL
+);
@@ -0,0 +1,4 @@
+ALTER TABLE exports.backup_run
+    ADD COLUMN md5_checksum      VARCHAR(32),
+    ADD COLUMN sha256_checksum   VARCHAR(64),
+    ADD COLUMN checksum_verified BOOLEAN;
@@ -0,0 +1,16 @@
+CREATE TABLE exports.backup_retention_run
+(
+    id            BIGSERIAL PRIMARY KEY,
+    folder_name   VARCHAR(256) NOT NULL,
+    status        VARCHAR(32)  NOT NULL,
+    dry_run       BOOLEAN      NOT NULL,
+    started_at    TIMESTAMP    NOT NULL,
+    finished_at   TIMESTAMP,
+    duration_ms   BIGINT,
+    files_kept    INT,
+    files_deleted INT,
+    files_failed  INT,
+    error_message TEXT
+);
+
+CREATE INDEX idx_backup_retention_run_started_at ON exports.backup_retention_run (started_at);
@@ -0,0 +1,5 @@
+-- Covers the date range and status filters of the run listing and the statistics queries; the
+-- statistics read duration_ms from the index without visiting the table.
+CREATE INDEX idx_backup_run_started_at_status ON exports.backup_run (started_at, status) INCLUDE (duration_ms);
+
+DROP INDEX IF EXISTS exports.idx_backup_run_started_at;
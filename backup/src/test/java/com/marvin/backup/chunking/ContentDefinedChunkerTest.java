@@ -0,0 +1,108 @@
+package com.marvin.backup.chunking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ContentDefinedChunkerTest {
+
+    private static final int MIN = 1024;
+    private static final int AVG = 4096;
+    private static final int MAX = 16384;
+
+    private final ContentDefinedChunker chunker = new ContentDefinedChunker(MIN, AVG, MAX);
+
+    @Test
+    void shouldReassembleInputFromChunks() throws IOException {
+        final byte[] data = randomBytes(1_000_000, 1);
+
+        final List<byte[]> chunks = split(data);
+
+        final ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        for (byte[] chunk : chunks) {
+            joined.write(chunk);
+        }
+        assertThat(joined.toByteArray()).isEqualTo(data);
+    }
+
+    @Test
+    void shouldKeepChunkSizesWithinBounds() throws IOException {
+        final List<byte[]> chunks = split(randomBytes(1_000_000, 2));
+
+        for (int i = 0; i < chunks.size() - 1; i++) {
+            assertThat(chunks.get(i).length).isBetween(MIN, MAX);
+        }
+        final double average = 1_000_000.0 / chunks.size();
+        assertThat(average).isBetween(AVG / 2.0, AVG * 2.0);
+    }
+
+    @Test
+    void shouldKeepMostChunksWhenBytesAreInserted() throws IOException {
+        final byte[] original = randomBytes(1_000_000, 3);
+        final byte[] edited = new byte[original.length + 100];
+        System.arraycopy(original, 0, edited, 0, 500_000);
+        System.arraycopy(randomBytes(100, 4), 0, edited, 500_000, 100);
+        System.arraycopy(original, 500_000, edited, 500_100, 500_000);
+
+        final Set<String> originalChunks = fingerprints(split(original));
+        final List<byte[]> editedChunks = split(edited);
+        final long changed = editedChunks.stream()
+                .filter(chunk -> !originalChunks.contains(Arrays.toString(chunk)))
+                .count();
+
+        assertThat(changed).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void shouldProduceSingleChunkForSmallInput() throws IOException {
+        final List<byte[]> chunks = split(new byte[] {1, 2, 3});
+
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0)).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void shouldRejectAverageSizeThatIsNoPowerOfTwo() {
+        assertThatThrownBy(() -> new ContentDefinedChunker(1000, 3000, 9000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRoundTripManifest() throws IOException {
+        final BackupManifest manifest = new BackupManifest("costs_backup.zip", 42, "ab".repeat(32),
+                List.of(new BackupManifest.ChunkRef("cd".repeat(32), 42, "drive-id")));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        manifest.writeTo(out);
+
+        assertThat(BackupManifest.readFrom(new ByteArrayInputStream(out.toByteArray()))).isEqualTo(manifest);
+    }
+
+    private List<byte[]> split(byte[] data) throws IOException {
+        final List<byte[]> chunks = new ArrayList<>();
+        chunker.split(new ByteArrayInputStream(data), (chunk, length) -> chunks.add(Arrays.copyOf(chunk, length)));
+        return chunks;
+    }
+
+    private static Set<String> fingerprints(List<byte[]> chunks) {
+        final Set<String> result = new HashSet<>();
+        chunks.forEach(chunk -> result.add(Arrays.toString(chunk)));
+        return result;
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        final byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
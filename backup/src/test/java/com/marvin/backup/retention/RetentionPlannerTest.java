@@ -0,0 +1,88 @@
+package com.marvin.backup.retention;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.marvin.upload.DriveFileInfo;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RetentionPlannerTest {
+
+    @Test
+    void shouldKeepNewestBackupPerDayWeekAndMonth() {
+        final List<DriveFileInfo> files = new ArrayList<>();
+        LocalDate date = LocalDate.of(2026, 3, 31);
+        for (int i = 0; i < 120; i++) {
+            files.add(file("costs_backup_" + date.toString().replace("-", "") + "_120000.zip"));
+            files.add(file("costs_backup_" + date.toString().replace("-", "") + "_060000.zip"));
+            date = date.minusDays(1);
+        }
+
+        final RetentionPlan plan = RetentionPlanner.plan(files, new RetentionPolicy(7, 4, 3));
+
+        assertThat(names(plan.kept())).containsExactly(
+                "costs_backup_20260331_120000.zip",
+                "costs_backup_20260330_120000.zip",
+                "costs_backup_20260329_120000.zip",
+                "costs_backup_20260328_120000.zip",
+                "costs_backup_20260327_120000.zip",
+                "costs_backup_20260326_120000.zip",
+                "costs_backup_20260325_120000.zip",
+                "costs_backup_20260322_120000.zip",
+                "costs_backup_20260315_120000.zip",
+                "costs_backup_20260228_120000.zip",
+                "costs_backup_20260131_120000.zip");
+        assertThat(plan.kept().size() + plan.deleted().size()).isEqualTo(files.size());
+        assertThat(plan.skipped()).isEmpty();
+    }
+
+    @Test
+    void shouldPruneEverySeriesOnItsOwn() {
+        final List<DriveFileInfo> files = List.of(
+                file("costs_backup_20260301_120000.zip"),
+                file("costs_backup_20260302_120000.zip"),
+                file("costs_backup_20260302_120000.zip.manifest"),
+                file("plants_2026-03-01.sql"),
+                file("plants_2026-03-02.sql"));
+
+        final RetentionPlan plan = RetentionPlanner.plan(files, new RetentionPolicy(1, 0, 0));
+
+        assertThat(names(plan.kept())).containsExactlyInAnyOrder(
+                "costs_backup_20260302_120000.zip",
+                "costs_backup_20260302_120000.zip.manifest",
+                "plants_2026-03-02.sql");
+        assertThat(names(plan.deleted())).containsExactlyInAnyOrder(
+                "costs_backup_20260301_120000.zip",
+                "plants_2026-03-01.sql");
+    }
+
+    @Test
+    void shouldNeverDeleteFilesWithoutTimestamp() {
+        final List<DriveFileInfo> files = List.of(
+                file("chunk-20260101aa20250101bb"),
+                file("README.txt"),
+                file("costs_backup_20260301_120000.zip"));
+
+        final RetentionPlan plan = RetentionPlanner.plan(files, new RetentionPolicy(1, 0, 0));
+
+        assertThat(names(plan.skipped())).containsExactlyInAnyOrder("chunk-20260101aa20250101bb", "README.txt");
+        assertThat(plan.deleted()).isEmpty();
+    }
+
+    @Test
+    void shouldRejectPolicyKeepingNothing() {
+        assertThatThrownBy(() -> new RetentionPolicy(0, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RetentionPolicy(-1, 2, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static DriveFileInfo file(String name) {
+        return new DriveFileInfo("id-" + name, name, "application/octet-stream", 1L, null, null);
+    }
+
+    private static List<String> names(List<DriveFileInfo> files) {
+        return files.stream().map(DriveFileInfo::getName).toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.marvin.backup.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.marvin.backup.model.BackupStatsGrouping;
+import com.marvin.backup.repository.BackupRunRepository;
+import com.marvin.backup.repository.BackupRunStatsView;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BackupStatsServiceTest {
+
+    @Mock
+    private BackupRunRepository backupRunRepository;
+
+    @Mock
+    private BackupRunStatsView stats;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-31T12:00:00Z"));
+
+    private BackupStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BackupStatsService(backupRunRepository, Duration.ofSeconds(30), clock);
+    }
+
+    @Test
+    void shouldDefaultToLastThirtyDays() {
+        final LocalDateTime now = LocalDateTime.of(2026, 3, 31, 12, 0);
+        when(backupRunRepository.statsPerDay(now.minusDays(30), now)).thenReturn(List.of(stats));
+
+        assertThat(service.getStats(BackupStatsGrouping.DAY, null, null)).containsExactly(stats);
+    }
+
+    @Test
+    void shouldServeRepeatedRequestsFromCacheUntilExpired() {
+        final LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        final LocalDateTime to = LocalDateTime.of(2026, 2, 1, 0, 0);
+        when(backupRunRepository.statsPerStatus(from, to)).thenReturn(List.of(stats));
+
+        service.getStats(BackupStatsGrouping.STATUS, from, to);
+        clock.advance(Duration.ofSeconds(29));
+        service.getStats(BackupStatsGrouping.STATUS, from, to);
+        verify(backupRunRepository, times(1)).statsPerStatus(from, to);
+
+        clock.advance(Duration.ofSeconds(1));
+        service.getStats(BackupStatsGrouping.STATUS, from, to);
+        verify(backupRunRepository, times(2)).statsPerStatus(from, to);
+    }
+
+    @Test
+    void shouldCacheEveryGroupingSeparately() {
+        final LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        when(backupRunRepository.statsPerWeek(eq(from), any())).thenReturn(List.of());
+        when(backupRunRepository.statsPerDay(eq(from), any())).thenReturn(List.of(stats));
+
+        assertThat(service.getStats(BackupStatsGrouping.WEEK, from, null)).isEmpty();
+        assertThat(service.getStats(BackupStatsGrouping.DAY, from, null)).containsExactly(stats);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
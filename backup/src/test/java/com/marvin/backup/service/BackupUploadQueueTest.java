@@ -0,0 +1,69 @@
+package com.marvin.backup.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.marvin.backup.entity.BackupUploadTaskEntity;
+import com.marvin.backup.repository.BackupRunRepository;
+import com.marvin.backup.repository.BackupUploadTaskRepository;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BackupUploadQueueTest {
+
+    @Mock
+    private BackupUploadTaskRepository taskRepository;
+
+    @Mock
+    private BackupRunRepository backupRunRepository;
+
+    @Mock
+    private BackupTrackingService backupTrackingService;
+
+    private BackupUploadQueue queue;
+    private BackupUploadTaskEntity task;
+
+    @BeforeEach
+    void setUp() {
+        queue = new BackupUploadQueue(taskRepository, backupRunRepository, backupTrackingService, 2, Duration.ofMinutes(1));
+
+        task = new BackupUploadTaskEntity();
+        task.setId(1L);
+        task.setBackupRunId(7L);
+        task.setFilePath("/backups/costs_backup_20260301_120000.zip");
+        task.setStatus(BackupUploadQueue.PENDING);
+        task.setAttempts(1);
+    }
+
+    @Test
+    void shouldKeepAttemptCountWhenInterruptedTaskIsRecovered() {
+        when(taskRepository.findNextDueForUpdate(any())).thenReturn(Optional.of(task));
+        when(backupRunRepository.findById(7L)).thenReturn(Optional.empty());
+
+        assertThat(queue.claimNext()).contains(task);
+        assertThat(task.getStatus()).isEqualTo(BackupUploadQueue.IN_PROGRESS);
+
+        queue.recoverInterrupted();
+
+        verify(taskRepository).requeueInProgress();
+        assertThat(task.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountAttemptWhenUploadFails() {
+        when(backupRunRepository.findById(7L)).thenReturn(Optional.empty());
+
+        assertThat(queue.fail(task, "Drive unavailable")).isTrue();
+
+        assertThat(task.getAttempts()).isEqualTo(2);
+        verify(taskRepository).deleteById(1L);
+    }
+}
@@ -0,0 +1,145 @@
+package com.marvin.backup.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.marvin.backup.entity.BackupUploadTaskEntity;
+import com.marvin.upload.UploadedFile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BackupUploadWorkerTest {
+
+    @Mock
+    private BackupFileUploader backupFileUploader;
+
+    @Mock
+    private BackupUploadQueue queue;
+
+    @TempDir
+    private Path tempDir;
+
+    private Path doneDir;
+    private Path errorDir;
+    private Path backupFile;
+    private BackupUploadTaskEntity task;
+    private BackupUploadWorker worker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        doneDir = tempDir.resolve("done");
+        errorDir = tempDir.resolve("error");
+        worker = new BackupUploadWorker(
+                queue,
+                backupFileUploader,
+                doneDir.toString(),
+                errorDir.toString(),
+                2,
+                Duration.ofMillis(100)
+        );
+
+        backupFile = tempDir.resolve("costs_backup_20260301_120000.zip");
+        Files.writeString(backupFile, "fake-backup-content");
+
+        task = new BackupUploadTaskEntity();
+        task.setId(1L);
+        task.setBackupRunId(7L);
+        task.setFilePath(backupFile.toString());
+        task.setAttempts(0);
+    }
+
+    @Test
+    void shouldUploadAndMoveFileToDone() throws Exception {
+        final UploadedFile uploadedFile = new UploadedFile("drive-id", "md5", "sha256", true);
+        when(queue.claimNext()).thenReturn(Optional.of(task), Optional.empty());
+        when(backupFileUploader.upload(backupFile)).thenReturn(uploadedFile);
+
+        assertThat(worker.drain()).isEqualTo(1);
+
+        verify(queue).complete(task, uploadedFile);
+        assertThat(doneDir.resolve(backupFile.getFileName())).exists();
+        assertThat(backupFile).doesNotExist();
+    }
+
+    @Test
+    void shouldKeepFileInPlaceWhenCompletingFails() throws Exception {
+        final UploadedFile uploadedFile = new UploadedFile("drive-id", "md5", "sha256", true);
+        when(backupFileUploader.upload(backupFile)).thenReturn(uploadedFile);
+        doThrow(new IllegalStateException("database unavailable")).when(queue).complete(task, uploadedFile);
+
+        assertThatThrownBy(() -> worker.process(task)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(backupFile).exists();
+        assertThat(doneDir.resolve(backupFile.getFileName())).doesNotExist();
+    }
+
+    @Test
+    void shouldKeepFileForRetryWhenAttemptsRemain() throws Exception {
+        doThrow(new IllegalStateException("Upload failed"))
+                .when(backupFileUploader).upload(backupFile);
+        when(queue.fail(task, "Upload failed")).thenReturn(false);
+
+        worker.process(task);
+
+        verify(queue, never()).complete(any(), any());
+        assertThat(backupFile).exists();
+    }
+
+    @Test
+    void shouldMoveFileToErrorWhenGivenUp() throws Exception {
+        doThrow(new IllegalStateException("Upload failed"))
+                .when(backupFileUploader).upload(backupFile);
+        when(queue.fail(task, "Upload failed")).thenReturn(true);
+
+        worker.process(task);
+
+        assertThat(errorDir.resolve(backupFile.getFileName())).exists();
+        assertThat(backupFile).doesNotExist();
+    }
+
+    @Test
+    void shouldLeaveTaskInProgressWhenStoppedMidUpload() throws Exception {
+        final CountDownLatch uploading = new CountDownLatch(1);
+        when(queue.claimNext()).thenReturn(Optional.of(task), Optional.empty());
+        doAnswer(invocation -> {
+            uploading.countDown();
+            Thread.sleep(Duration.ofMinutes(1).toMillis());
+            return null;
+        }).when(backupFileUploader).upload(backupFile);
+
+        worker.start();
+        assertThat(uploading.await(5, TimeUnit.SECONDS)).isTrue();
+        worker.stop();
+
+        verify(queue, after(500).never()).fail(any(), any());
+        verify(queue, never()).complete(any(), any());
+        assertThat(task.getAttempts()).isEqualTo(0);
+        assertThat(backupFile).exists();
+        assertThat(errorDir.resolve(backupFile.getFileName())).doesNotExist();
+    }
+
+    @Test
+    void shouldCreateDoneAndErrorDirectories() {
+        assertThat(doneDir).exists();
+        assertThat(errorDir).exists();
+    }
+}
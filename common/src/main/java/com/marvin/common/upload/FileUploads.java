@@ -0,0 +1,114 @@
+package com.marvin.common.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.multipart.FilePart;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Streams multipart file uploads to their consumer with a size limit.
+ *
+ * <p>The content is passed on buffer by buffer instead of being joined into one array, so an
+ * upload only occupies a few buffers of heap at a time, whatever its size. The limit is checked
+ * while the content arrives: once it is exceeded the transfer fails with an
+ * {@link UploadTooLargeException} without reading the rest of the upload.</p>
+ */
+public final class FileUploads {
+
+    // Number of buffers requested ahead while the reader is consuming the stream.
+    private static final int DEMAND = 4;
+
+    private FileUploads() {
+    }
+
+    /**
+     * Returns the content of an upload, failing once it exceeds the given size.
+     *
+     * @param part     the uploaded file
+     * @param maxBytes the maximum size of the upload in bytes
+     * @return the content buffers, which the subscriber must release
+     */
+    public static Flux<DataBuffer> content(FilePart part, long maxBytes) {
+        return Flux.defer(() -> {
+            final AtomicLong received = new AtomicLong();
+            return part.content()
+                    .<DataBuffer>handle((buffer, sink) -> {
+                        if (received.addAndGet(buffer.readableByteCount()) > maxBytes) {
+                            DataBufferUtils.release(buffer);
+                            sink.error(new UploadTooLargeException(part.filename(), maxBytes));
+                        } else {
+                            sink.next(buffer);
+                        }
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    /**
+     * Reads an upload as a stream on a worker thread, so the reader may block, e.g. to parse the
+     * content or to write it to a file or the database.
+     *
+     * @param part     the uploaded file
+     * @param maxBytes the maximum size of the upload in bytes
+     * @param reader   consumes the content
+     * @param <T>      the type of the result
+     * @return the result of the reader, or empty if it returned {@code null}
+     */
+    public static <T> Mono<T> read(FilePart part, long maxBytes, UploadReader<T> reader) {
+        return Mono.using(
+                        () -> DataBufferUtils.subscriberInputStream(content(part, maxBytes), DEMAND),
+                        content -> Mono.fromCallable(() -> reader.read(content)),
+                        FileUploads::close)
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorMap(FileUploads::causedByLimit, FileUploads::limitCause);
+    }
+
+    /**
+     * Reads an upload with a reader that emits its results as they are parsed. The reader is
+     * subscribed to on a worker thread, so it may block on the stream, which stays open until the
+     * results complete.
+     *
+     * @param part     the uploaded file
+     * @param maxBytes the maximum size of the upload in bytes
+     * @param reader   parses the content
+     * @param <T>      the type of the results
+     * @return the results of the reader
+     */
+    public static <T> Flux<T> stream(FilePart part, long maxBytes, Function<InputStream, ? extends Publisher<T>> reader) {
+        return Flux.<T, InputStream>using(
+                        () -> DataBufferUtils.subscriberInputStream(content(part, maxBytes), DEMAND),
+                        reader,
+                        FileUploads::close)
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorMap(FileUploads::causedByLimit, FileUploads::limitCause);
+    }
+
+    // Readers see the limit as an IOException from the stream and may wrap it further.
+    private static boolean causedByLimit(Throwable error) {
+        return !(error instanceof UploadTooLargeException) && limitCause(error) != error;
+    }
+
+    private static Throwable limitCause(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UploadTooLargeException) {
+                return cause;
+            }
+        }
+        return error;
+    }
+
+    private static void close(InputStream content) {
+        try {
+            content.close();
+        } catch (IOException e) {
+            // Closing only releases the buffers still queued.
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.marvin.common.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Consumes the content of an upload as a stream.
+ *
+ * @param <T> the type of the result
+ */
+@FunctionalInterface
+public interface UploadReader<T> {
+
+    /**
+     * Reads the upload. The stream is closed by the caller.
+     *
+     * @param content the content of the upload
+     * @return the result, or {@code null} for none
+     * @throws IOException if reading fails
+     */
+    T read(InputStream content) throws IOException;
+}
@@ -0,0 +1,19 @@
+package com.marvin.common.upload;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Thrown when an upload exceeds its size limit, answered with 413 Payload Too Large.
+ */
+@Getter
+public class UploadTooLargeException extends ResponseStatusException {
+
+    private final long maxBytes;
+
+    public UploadTooLargeException(String filename, long maxBytes) {
+        super(HttpStatus.PAYLOAD_TOO_LARGE, "Upload %s exceeds the limit of %d bytes".formatted(filename, maxBytes));
+        this.maxBytes = maxBytes;
+    }
+}
@@ -0,0 +1,110 @@
+package com.marvin.common.upload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.codec.multipart.FilePart;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class FileUploadsTest {
+
+    @Test
+    void shouldPassContentToReader() {
+        final TestFilePart part = new TestFilePart("first,", "second,", "third");
+
+        StepVerifier.create(FileUploads.read(part, 100, content -> new String(content.readAllBytes(), StandardCharsets.UTF_8)))
+                .expectNext("first,second,third")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFailOnceLimitIsExceeded() {
+        final TestFilePart part = new TestFilePart("0123456789", "0123456789", "0123456789", "0123456789");
+
+        StepVerifier.create(FileUploads.read(part, 25, content -> content.readAllBytes().length))
+                .expectErrorSatisfies(error -> {
+                    assertThat(error).isInstanceOf(UploadTooLargeException.class);
+                    assertThat(((UploadTooLargeException) error).getMaxBytes()).isEqualTo(25);
+                })
+                .verify();
+        assertThat(part.emitted()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void shouldCompleteEmptyWhenReaderReturnsNull() {
+        StepVerifier.create(FileUploads.read(new TestFilePart(), 100, content -> null))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStreamResultsOfReader() {
+        final TestFilePart part = new TestFilePart("a\nb", "\nc\n");
+
+        StepVerifier.create(FileUploads.stream(part, 100,
+                        content -> Flux.fromStream(new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8)).lines())))
+                .expectNext("a", "b", "c")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFailStreamOnceLimitIsExceeded() {
+        final TestFilePart part = new TestFilePart("a\n", "b\n", "c\n");
+
+        StepVerifier.create(FileUploads.stream(part, 3,
+                        content -> Flux.fromStream(new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8)).lines())))
+                .expectError(UploadTooLargeException.class)
+                .verify();
+    }
+
+    private static final class TestFilePart implements FilePart {
+
+        private final byte[][] chunks;
+        private final AtomicInteger emitted = new AtomicInteger();
+
+        private TestFilePart(String... chunks) {
+            this.chunks = Arrays.stream(chunks).map(chunk -> chunk.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+        }
+
+        int emitted() {
+            return emitted.get();
+        }
+
+        @Override
+        public String filename() {
+            return "test.csv";
+        }
+
+        @Override
+        public String name() {
+            return "file";
+        }
+
+        @Override
+        public Flux<DataBuffer> content() {
+            return Flux.fromArray(chunks)
+                    .doOnNext(chunk -> emitted.incrementAndGet())
+                    .map(DefaultDataBufferFactory.sharedInstance::wrap);
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.EMPTY;
+        }
+
+        @Override
+        public Mono<Void> transferTo(Path dest) {
+            return Mono.error(new UnsupportedOperationException());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.marvin.costs.repository;
 
 import com.marvin.costs.entity.DailyCostEntity;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -29,4 +30,19 @@ public interface DailyCostRepository extends JpaRepository<DailyCostEntity, Inte
      */
     List<DailyCostEntity> findByCostDateGreaterThanEqualOrderByCostDate(LocalDate localDate);
 
+    /**
+     * Finds all daily cost entities ordered by cost date.
+     *
+     * @return the list of all entities ordered by cost date
+     */
+    List<DailyCostEntity> findAllByOrderByCostDate();
+
+    /**
+     * Finds all daily cost entities modified after the given timestamp.
+     *
+     * @param lastModified the exclusive lower bound for the last modification timestamp
+     * @return the list of matching entities ordered by cost date
+     */
+    List<DailyCostEntity> findByLastModifiedAfterOrderByCostDate(LocalDateTime lastModified);
+
 }
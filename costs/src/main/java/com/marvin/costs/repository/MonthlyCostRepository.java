@@ -2,6 +2,7 @@ package com.marvin.costs.repository;
 
 import com.marvin.costs.entity.MonthlyCostEntity;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -26,4 +27,12 @@ public interface MonthlyCostRepository extends JpaRepository<MonthlyCostEntity,
      */
     List<MonthlyCostEntity> findAllByOrderByCostDate();
 
+    /**
+     * Finds all monthly cost entities modified after the given timestamp.
+     *
+     * @param lastModified the exclusive lower bound for the last modification timestamp
+     * @return the list of matching entities ordered by cost date
+     */
+    List<MonthlyCostEntity> findByLastModifiedAfterOrderByCostDate(LocalDateTime lastModified);
+
 }
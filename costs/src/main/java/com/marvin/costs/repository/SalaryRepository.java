@@ -2,6 +2,7 @@ package com.marvin.costs.repository;
 
 import com.marvin.costs.entity.SalaryEntity;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -24,4 +25,12 @@ public interface SalaryRepository extends JpaRepository<SalaryEntity, Integer> {
      */
     List<SalaryEntity> findAllByOrderBySalaryDate();
 
+    /**
+     * Finds all salary entities modified after the given timestamp.
+     *
+     * @param lastModified the exclusive lower bound for the last modification timestamp
+     * @return the list of matching entities ordered by salary date
+     */
+    List<SalaryEntity> findByLastModifiedAfterOrderBySalaryDate(LocalDateTime lastModified);
+
 }
@@ -2,6 +2,8 @@ package com.marvin.costs.repository;
 
 import com.marvin.costs.entity.SpecialCostEntryEntity;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 
@@ -23,4 +25,21 @@ public interface SpecialCostEntryRepository extends JpaRepository<SpecialCostEnt
      */
     List<SpecialCostEntryEntity> findAllByOrderBySpecialCostCostDate();
 
+    /**
+     * Finds special cost entries belonging to any of the given parent cost dates.
+     *
+     * @param costDates the cost dates of the parent special costs
+     * @return the list of matching entities ordered by cost date
+     */
+    List<SpecialCostEntryEntity> findBySpecialCostCostDateInOrderBySpecialCostCostDate(
+            Collection<LocalDate> costDates);
+
+    /**
+     * Finds special cost entries that were modified after the given timestamp.
+     *
+     * @param lastModified the exclusive lower bound for the last modification timestamp
+     * @return the list of matching entities
+     */
+    List<SpecialCostEntryEntity> findByLastModifiedAfter(LocalDateTime lastModified);
+
 }
@@ -7,7 +7,9 @@ import java.util.regex.Pattern;
 public class FilePatternMatcher {
 
     private static final Pattern FILE_NAME_PATTERN = Pattern.compile(
-            "^([a-z_0-9]+)_[0-9]{8}_[0-9]{6}\\.jsonl?$");
+            "^([a-z_0-9]+)_([0-9]{8}_[0-9]{6})(?:\\.(full|delta))?\\.jsonl?$");
+
+    private static final String FULL_SNAPSHOT = "full";
 
     private FilePatternMatcher() {
     }
@@ -25,30 +27,41 @@ public class FilePatternMatcher {
         }
 
         final String type = matcher.group(1);
-        return FileTypeMatchResult.success(fileName, type);
+        return FileTypeMatchResult.success(fileName, type, matcher.group(2),
+                FULL_SNAPSHOT.equals(matcher.group(3)));
     }
 
     /**
      * Holds the result of matching a file name against the expected pattern.
      *
-     * @param fileName the file name that was matched
-     * @param fileType the extracted file type, or {@code null} if the match failed
-     * @param matches  whether the file name matched the expected pattern
+     * <p>Export files may carry a {@code .full} or {@code .delta} marker before the extension.
+     * Files without a marker are treated like deltas, i.e. they never supersede earlier files.</p>
+     *
+     * @param fileName     the file name that was matched
+     * @param fileType     the extracted file type, or {@code null} if the match failed
+     * @param timestamp    the export timestamp ({@code yyyyMMdd_HHmmss}), or {@code null}
+     * @param fullSnapshot whether the file is a full snapshot of its type
+     * @param matches      whether the file name matched the expected pattern
      */
     public record FileTypeMatchResult(
             String fileName,
             String fileType,
+            String timestamp,
+            boolean fullSnapshot,
             boolean matches
     ) {
         /**
          * Creates a successful match result.
          *
-         * @param fileName the matched file name
-         * @param fileType the extracted file type
+         * @param fileName     the matched file name
+         * @param fileType     the extracted file type
+         * @param timestamp    the extracted export timestamp
+         * @param fullSnapshot whether the file is a full snapshot
          * @return a successful match result
          */
-        public static FileTypeMatchResult success(String fileName, String fileType) {
-            return new FileTypeMatchResult(fileName, fileType, true);
+        public static FileTypeMatchResult success(String fileName, String fileType,
+                String timestamp, boolean fullSnapshot) {
+            return new FileTypeMatchResult(fileName, fileType, timestamp, fullSnapshot, true);
         }
 
         /**
@@ -58,7 +71,7 @@ public class FilePatternMatcher {
          * @return a failed match result
          */
         public static FileTypeMatchResult failed(String fileName) {
-            return new FileTypeMatchResult(fileName, null, false);
+            return new FileTypeMatchResult(fileName, null, null, false, false);
         }
     }
 }
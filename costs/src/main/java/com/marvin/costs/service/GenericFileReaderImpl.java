@@ -8,7 +8,11 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
@@ -47,14 +51,59 @@ public class GenericFileReaderImpl implements GenericFileReader {
     @Override
     public void importFiles(String in, List<FileTypeHandler<?>> handlers) {
         try (Stream<Path> pathStream = Files.walk(Path.of(in), 1)) {
-            pathStream
+            final List<Path> files = pathStream
                     .filter(path -> !Files.isDirectory(path))
-                    .forEach(path -> processFile(path, handlers));
+                    .toList();
+            orderAsExportChain(files).forEach(path -> processFile(path, handlers));
         } catch (Exception e) {
             LOGGER.error("Could read files!", e);
         }
     }
 
+    /**
+     * Orders the given files so that every export type is applied as a chain: its latest full
+     * snapshot first, followed by all later deltas in export order. Files that are superseded by
+     * a newer full snapshot of the same type are archived without being imported.
+     *
+     * @param files the files found in the input directory
+     * @return the files to import, in the order they have to be applied
+     */
+    List<Path> orderAsExportChain(List<Path> files) {
+        final Map<Path, FileTypeMatchResult> matchResults = new HashMap<>();
+        final Map<String, String> latestFullSnapshots = new HashMap<>();
+
+        for (Path file : files) {
+            final FileTypeMatchResult matchResult =
+                    FilePatternMatcher.matchFileName(file.getFileName().toString());
+            matchResults.put(file, matchResult);
+            if (matchResult.matches() && matchResult.fullSnapshot()) {
+                latestFullSnapshots.merge(matchResult.fileType(), matchResult.timestamp(),
+                        (current, candidate) -> current.compareTo(candidate) >= 0 ? current : candidate);
+            }
+        }
+
+        final List<Path> chain = new ArrayList<>();
+        for (Path file : files) {
+            final FileTypeMatchResult matchResult = matchResults.get(file);
+            final String latestFullSnapshot = matchResult.matches()
+                    ? latestFullSnapshots.get(matchResult.fileType()) : null;
+
+            if (latestFullSnapshot != null && matchResult.timestamp().compareTo(latestFullSnapshot) < 0) {
+                LOGGER.info("Skipping {} as it is superseded by full snapshot {}!", file.getFileName(),
+                        latestFullSnapshot);
+                fileArchiveService.moveToDone(file);
+            } else {
+                chain.add(file);
+            }
+        }
+
+        chain.sort(Comparator
+                .comparing((Path file) -> matchResults.get(file).timestamp(),
+                        Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(file -> !matchResults.get(file).fullSnapshot()));
+        return chain;
+    }
+
     private void processFile(Path path, List<FileTypeHandler<?>> handlers) {
 
         LOGGER.info("Processing file {}", path);
@@ -0,0 +1,40 @@
+package com.marvin.costs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.marvin.costs.service.FilePatternMatcher.FileTypeMatchResult;
+import org.junit.jupiter.api.Test;
+
+class FilePatternMatcherTest {
+
+    @Test
+    void matchFileName_fullSnapshot_extractsTypeTimestampAndMarker() {
+        final FileTypeMatchResult result = FilePatternMatcher.matchFileName("daily_costs_20240301_120000.full.jsonl");
+
+        assertThat(result.matches()).isTrue();
+        assertThat(result.fileType()).isEqualTo("daily_costs");
+        assertThat(result.timestamp()).isEqualTo("20240301_120000");
+        assertThat(result.fullSnapshot()).isTrue();
+    }
+
+    @Test
+    void matchFileName_deltaOrUnmarkedFile_isNoFullSnapshot() {
+        final FileTypeMatchResult delta = FilePatternMatcher.matchFileName("special_costs_20240301_120000.delta.jsonl");
+        final FileTypeMatchResult legacy = FilePatternMatcher.matchFileName("salaries_20240301_120000.json");
+
+        assertThat(delta.matches()).isTrue();
+        assertThat(delta.fullSnapshot()).isFalse();
+        assertThat(legacy.matches()).isTrue();
+        assertThat(legacy.fileType()).isEqualTo("salaries");
+        assertThat(legacy.fullSnapshot()).isFalse();
+    }
+
+    @Test
+    void matchFileName_foreignFile_fails() {
+        final FileTypeMatchResult result = FilePatternMatcher.matchFileName("daily_costs_20240301_120000.snapshot.jsonl");
+
+        assertThat(result.matches()).isFalse();
+        assertThat(result.fileType()).isNull();
+        assertThat(result.timestamp()).isNull();
+    }
+}
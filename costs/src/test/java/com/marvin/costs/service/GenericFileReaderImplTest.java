@@ -0,0 +1,66 @@
+package com.marvin.costs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class GenericFileReaderImplTest {
+
+    private static final Path IN = Path.of("in");
+
+    @Mock
+    private FileArchiveService fileArchiveService;
+
+    private GenericFileReaderImpl reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new GenericFileReaderImpl("org", new ObjectMapper(), fileArchiveService);
+    }
+
+    @Test
+    void orderAsExportChain_appliesLatestFullSnapshotThenLaterDeltas() {
+        final Path oldFull = IN.resolve("daily_costs_20240101_120000.full.jsonl");
+        final Path oldDelta = IN.resolve("daily_costs_20240102_120000.delta.jsonl");
+        final Path full = IN.resolve("daily_costs_20240108_120000.full.jsonl");
+        final Path delta = IN.resolve("daily_costs_20240109_120000.delta.jsonl");
+        final Path laterDelta = IN.resolve("daily_costs_20240110_120000.delta.jsonl");
+
+        final List<Path> chain = reader.orderAsExportChain(List.of(laterDelta, oldDelta, full, delta, oldFull));
+
+        assertThat(chain).containsExactly(full, delta, laterDelta);
+        verify(fileArchiveService).moveToDone(oldFull);
+        verify(fileArchiveService).moveToDone(oldDelta);
+        verifyNoMoreInteractions(fileArchiveService);
+    }
+
+    @Test
+    void orderAsExportChain_sameTimestamp_putsFullSnapshotBeforeDelta() {
+        final Path delta = IN.resolve("salaries_20240108_120000.delta.jsonl");
+        final Path full = IN.resolve("salaries_20240108_120000.full.jsonl");
+
+        assertThat(reader.orderAsExportChain(List.of(delta, full))).containsExactly(full, delta);
+    }
+
+    @Test
+    void orderAsExportChain_typesWithoutSnapshot_keepsAllFilesOfOtherTypes() {
+        final Path salaryFull = IN.resolve("salaries_20240108_120000.full.jsonl");
+        final Path monthly = IN.resolve("monthly_costs_20240101_120000.jsonl");
+        final Path unknown = IN.resolve("readme.txt");
+
+        final List<Path> chain = reader.orderAsExportChain(List.of(salaryFull, monthly, unknown));
+
+        assertThat(chain).containsExactly(unknown, monthly, salaryFull);
+        verifyNoMoreInteractions(fileArchiveService);
+    }
+}
@@ -0,0 +1,77 @@
+package com.marvin.export.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Writes export records as JSONL files in the naming scheme understood by the cost import. */
+@Component
+public class ExportFileWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExportFileWriter.class);
+
+    private static final DateTimeFormatter FILE_DTF = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private final Path exportFolder;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs a new {@code ExportFileWriter}.
+     *
+     * @param exportFolder the folder the export files are written to
+     * @param objectMapper the Jackson ObjectMapper used to serialise the records
+     */
+    public ExportFileWriter(
+            @Value("${uploader.cost-export-folder}") String exportFolder,
+            ObjectMapper objectMapper
+    ) {
+        this.exportFolder = Path.of(exportFolder);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes the given records into a new export file for the given window.
+     *
+     * @param window  the export window the records belong to
+     * @param records the records to write, one JSON document per line
+     * @param <T>     the record type
+     * @return the pending export holding the file name, relative to the export folder as expected by
+     *         the uploader, and the number of records
+     */
+    public <T> PendingExport write(ExportWindow window, Stream<T> records) {
+        final String fileName = window.type().getFilePrefix() + "_" + window.until().format(FILE_DTF)
+                + "." + window.mode().getFileMarker() + ".jsonl";
+        final Path file = exportFolder.resolve(fileName);
+
+        long count = 0;
+        try {
+            Files.createDirectories(exportFolder);
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                final Iterator<T> iterator = records.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(objectMapper.writeValueAsString(iterator.next()));
+                    writer.newLine();
+                    count++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write export file " + file, e);
+        } finally {
+            records.close();
+        }
+
+        LOGGER.info("Wrote {} records to {}.", count, file);
+        return new PendingExport(window, Path.of(fileName), count);
+    }
+}
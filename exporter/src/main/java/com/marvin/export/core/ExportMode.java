@@ -0,0 +1,24 @@
+package com.marvin.export.core;
+
+/** Whether an export run writes the complete data set or only the changes since the last run. */
+public enum ExportMode {
+
+    FULL("full"),
+
+    DELTA("delta");
+
+    private final String fileMarker;
+
+    ExportMode(String fileMarker) {
+        this.fileMarker = fileMarker;
+    }
+
+    /**
+     * Returns the marker written into the export file name, e.g. {@code daily_costs_20260301_120000.delta.jsonl}.
+     *
+     * @return the file name marker
+     */
+    public String getFileMarker() {
+        return fileMarker;
+    }
+}
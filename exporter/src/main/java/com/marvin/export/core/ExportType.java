@@ -0,0 +1,30 @@
+package com.marvin.export.core;
+
+/** The export types for which watermarks are tracked, with the file prefix used on import. */
+public enum ExportType {
+
+    DAILY_COSTS("daily_costs"),
+
+    MONTHLY_COSTS("monthly_costs"),
+
+    SALARIES("salaries"),
+
+    SPECIAL_COSTS("special_costs"),
+
+    FLASHCARDS("flashcards");
+
+    private final String filePrefix;
+
+    ExportType(String filePrefix) {
+        this.filePrefix = filePrefix;
+    }
+
+    /**
+     * Returns the file name prefix that the import side uses to select a handler.
+     *
+     * @return the file name prefix
+     */
+    public String getFilePrefix() {
+        return filePrefix;
+    }
+}
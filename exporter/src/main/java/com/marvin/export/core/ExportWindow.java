@@ -0,0 +1,28 @@
+package com.marvin.export.core;
+
+import java.time.LocalDateTime;
+
+/**
+ * Describes the rows an export run has to write.
+ *
+ * @param type  the export type
+ * @param mode  whether the run is a full snapshot or a delta
+ * @param since the exclusive lower bound of the last modification timestamp, {@code null} for full snapshots
+ * @param until the timestamp captured before reading, stored as the new watermark on success
+ */
+public record ExportWindow(
+        ExportType type,
+        ExportMode mode,
+        LocalDateTime since,
+        LocalDateTime until
+) {
+
+    /**
+     * Returns whether this window covers the complete data set.
+     *
+     * @return {@code true} for full snapshots
+     */
+    public boolean isFull() {
+        return mode == ExportMode.FULL;
+    }
+}
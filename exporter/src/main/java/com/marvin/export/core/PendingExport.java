@@ -0,0 +1,20 @@
+package com.marvin.export.core;
+
+import java.nio.file.Path;
+
+/**
+ * An export file that has been written but whose watermark has not been committed yet. The
+ * watermark is only advanced once the file has been handed off, so a failed upload is retried
+ * with the same window on the next run.
+ *
+ * @param window the export window the file covers
+ * @param file   the written export file, relative to the export folder
+ * @param count  the number of records in the file
+ */
+public record PendingExport(
+        ExportWindow window,
+        Path file,
+        long count
+) {
+
+}
@@ -0,0 +1,148 @@
+package com.marvin.export.costs;
+
+import com.marvin.common.costs.DailyCostDTO;
+import com.marvin.common.costs.MonthlyCostDTO;
+import com.marvin.common.costs.SalaryDTO;
+import com.marvin.common.costs.SpecialCostDTO;
+import com.marvin.common.costs.SpecialCostEntryDTO;
+import com.marvin.costs.entity.DailyCostEntity;
+import com.marvin.costs.entity.MonthlyCostEntity;
+import com.marvin.costs.entity.SalaryEntity;
+import com.marvin.costs.entity.SpecialCostEntryEntity;
+import com.marvin.costs.repository.DailyCostRepository;
+import com.marvin.costs.repository.MonthlyCostRepository;
+import com.marvin.costs.repository.SalaryRepository;
+import com.marvin.costs.repository.SpecialCostEntryRepository;
+import com.marvin.export.core.ExportFileWriter;
+import com.marvin.export.core.ExportType;
+import com.marvin.export.core.ExportWindow;
+import com.marvin.export.core.PendingExport;
+import com.marvin.export.watermark.ExportWatermarkService;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the cost tables as JSONL files. Each type is written either as a full snapshot or as
+ * the rows modified since its watermark, see {@link ExportWatermarkService}.
+ */
+@Component
+public class CostExporter {
+
+    private final DailyCostRepository dailyCostRepository;
+    private final MonthlyCostRepository monthlyCostRepository;
+    private final SalaryRepository salaryRepository;
+    private final SpecialCostEntryRepository specialCostEntryRepository;
+    private final ExportWatermarkService exportWatermarkService;
+    private final ExportFileWriter exportFileWriter;
+
+    /**
+     * Constructs a new {@code CostExporter}.
+     *
+     * @param dailyCostRepository        the repository for daily cost entities
+     * @param monthlyCostRepository      the repository for monthly cost entities
+     * @param salaryRepository           the repository for salary entities
+     * @param specialCostEntryRepository the repository for special cost entry entities
+     * @param exportWatermarkService     the service deciding between full and delta exports
+     * @param exportFileWriter           the writer for export files
+     */
+    public CostExporter(
+            DailyCostRepository dailyCostRepository,
+            MonthlyCostRepository monthlyCostRepository,
+            SalaryRepository salaryRepository,
+            SpecialCostEntryRepository specialCostEntryRepository,
+            ExportWatermarkService exportWatermarkService,
+            ExportFileWriter exportFileWriter
+    ) {
+        this.dailyCostRepository = dailyCostRepository;
+        this.monthlyCostRepository = monthlyCostRepository;
+        this.salaryRepository = salaryRepository;
+        this.specialCostEntryRepository = specialCostEntryRepository;
+        this.exportWatermarkService = exportWatermarkService;
+        this.exportFileWriter = exportFileWriter;
+    }
+
+    /**
+     * Writes one export file per cost type. The returned exports have to be committed through
+     * {@link ExportWatermarkService#commit(PendingExport)} once they have been uploaded.
+     *
+     * @param forceFull whether full snapshots should be written regardless of the watermarks
+     * @return the pending exports, one per cost type
+     */
+    public List<PendingExport> exportCosts(boolean forceFull) {
+        return List.of(
+                export(ExportType.DAILY_COSTS, forceFull, this::readDailyCosts),
+                export(ExportType.MONTHLY_COSTS, forceFull, this::readMonthlyCosts),
+                export(ExportType.SALARIES, forceFull, this::readSalaries),
+                export(ExportType.SPECIAL_COSTS, forceFull, this::readSpecialCosts)
+        );
+    }
+
+    private <T> PendingExport export(ExportType type, boolean forceFull,
+            Function<ExportWindow, Stream<T>> reader) {
+        final ExportWindow window = exportWatermarkService.open(type, forceFull);
+        return exportFileWriter.write(window, reader.apply(window));
+    }
+
+    private Stream<DailyCostDTO> readDailyCosts(ExportWindow window) {
+        final List<DailyCostEntity> entities = window.isFull()
+                ? dailyCostRepository.findAllByOrderByCostDate()
+                : dailyCostRepository.findByLastModifiedAfterOrderByCostDate(window.since());
+        return entities.stream()
+                .map(entity -> new DailyCostDTO(entity.getCostDate(), entity.getValue(),
+                        entity.getDescription()));
+    }
+
+    private Stream<MonthlyCostDTO> readMonthlyCosts(ExportWindow window) {
+        final List<MonthlyCostEntity> entities = window.isFull()
+                ? monthlyCostRepository.findAllByOrderByCostDate()
+                : monthlyCostRepository.findByLastModifiedAfterOrderByCostDate(window.since());
+        return entities.stream()
+                .map(entity -> new MonthlyCostDTO(entity.getCostDate(), entity.getValue()));
+    }
+
+    private Stream<SalaryDTO> readSalaries(ExportWindow window) {
+        final List<SalaryEntity> entities = window.isFull()
+                ? salaryRepository.findAllByOrderBySalaryDate()
+                : salaryRepository.findByLastModifiedAfterOrderBySalaryDate(window.since());
+        return entities.stream()
+                .map(entity -> new SalaryDTO(entity.getSalaryDate(), entity.getValue()));
+    }
+
+    /**
+     * Special costs are imported per month, so a delta contains every entry of each month in
+     * which at least one entry changed.
+     *
+     * @param window the export window
+     * @return the special costs to export, grouped by month
+     */
+    private Stream<SpecialCostDTO> readSpecialCosts(ExportWindow window) {
+        final List<SpecialCostEntryEntity> entities;
+        if (window.isFull()) {
+            entities = specialCostEntryRepository.findAllByOrderBySpecialCostCostDate();
+        } else {
+            final Set<LocalDate> changedMonths = specialCostEntryRepository
+                    .findByLastModifiedAfter(window.since()).stream()
+                    .map(entity -> entity.getSpecialCost().getCostDate())
+                    .collect(Collectors.toSet());
+            entities = changedMonths.isEmpty()
+                    ? List.of()
+                    : specialCostEntryRepository.findBySpecialCostCostDateInOrderBySpecialCostCostDate(
+                            changedMonths);
+        }
+
+        return entities.stream()
+                .collect(Collectors.groupingBy(
+                        entity -> entity.getSpecialCost().getCostDate(),
+                        LinkedHashMap::new,
+                        Collectors.mapping(entity -> new SpecialCostEntryDTO(entity.getDescription(),
+                                entity.getValue(), entity.getAdditionalInfo()), Collectors.toList())))
+                .entrySet().stream()
+                .map(entry -> new SpecialCostDTO(entry.getKey(), entry.getValue()));
+    }
+}
@@ -0,0 +1,307 @@
+package com.marvin.export.influxdb;
+
+import com.influxdb.client.InfluxDBClient;
+import com.influxdb.client.QueryApi;
+import com.influxdb.query.FluxRecord;
+import com.marvin.export.influxdb.archive.GorillaArchiveWriter;
+import com.marvin.upload.compression.ParallelCompressor;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports an InfluxDB bucket as gzip-compressed line protocol.
+ *
+ * <p>The requested range is split into {@link TimeSlice}s which are queried concurrently with a
+ * bounded number of workers. Every slice streams its records straight into a part file. The parts
+ * are compressed in chronological order into gzip members of the target file with the
+ * {@link ParallelCompressor}, which deflates each part on all cores while later slices are still
+ * being queried. The concatenated members are themselves a valid gzip stream. No query result is
+ * ever held in memory.</p>
+ *
+ * <p>Bucket names are restricted to letters, digits, {@code .}, {@code _} and {@code -}; any other
+ * name is rejected with an {@link IllegalArgumentException}.</p>
+ */
+@Component
+public class InfluxExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InfluxExporter.class);
+
+    private static final DateTimeFormatter FILE_DTF = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Bucket names end up in Flux queries and file names, so only a safe subset is accepted.
+    private static final Pattern BUCKET_NAME = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private static final String FLUX_SLICE_QUERY = """
+            from(bucket: "%s")
+              |> range(start: %s, stop: %s)
+            """;
+
+    private final QueryApi queryApi;
+    private final String org;
+    private final Path exportFolder;
+    private final Duration sliceLength;
+    private final ParallelCompressor parallelCompressor;
+    private final ExecutorService executorService;
+
+    /**
+     * Constructs a new {@code InfluxExporter}.
+     *
+     * @param influxDBClient     the InfluxDB client to query with
+     * @param org                the InfluxDB organisation name
+     * @param exportFolder       the folder the export files are written to
+     * @param sliceLength        the length of the time range covered by a single query
+     * @param parallelism        the maximum number of concurrently running queries, {@code 0} for one per core
+     * @param parallelCompressor the compressor the line protocol export is gzipped with
+     */
+    public InfluxExporter(
+            InfluxDBClient influxDBClient,
+            @Value("${influxdb.org}") String org,
+            @Value("${uploader.cost-export-folder}") String exportFolder,
+            @Value("${exporter.influx.slice-length:P30D}") Duration sliceLength,
+            @Value("${exporter.influx.parallelism:0}") int parallelism,
+            ParallelCompressor parallelCompressor
+    ) {
+        this.queryApi = influxDBClient.getQueryApi();
+        this.org = org;
+        this.exportFolder = Path.of(exportFolder);
+        this.sliceLength = sliceLength;
+        this.parallelCompressor = parallelCompressor;
+        this.executorService = Executors.newFixedThreadPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Stops the query workers on application shutdown. */
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Exports all records of the given bucket within {@code [start, stop)}.
+     *
+     * @param bucket the bucket to export
+     * @param start  the inclusive start of the range
+     * @param stop   the exclusive end of the range
+     * @return the written {@code .lp.gz} file
+     * @throws IllegalArgumentException if the bucket name is not valid
+     */
+    public Path exportBucket(String bucket, Instant start, Instant stop) {
+        requireValidBucket(bucket);
+        final List<TimeSlice> slices = TimeSlice.split(start, stop, sliceLength);
+        final Path target = exportFolder.resolve(
+                "influxdb_" + bucket + "_" + LocalDateTime.now().format(FILE_DTF) + ".lp.gz");
+
+        LOGGER.info("Exporting bucket {} from {} to {} in {} slices.", bucket, start, stop, slices.size());
+
+        final List<Future<SlicePart>> parts = new ArrayList<>();
+        try {
+            Files.createDirectories(exportFolder);
+            for (TimeSlice slice : slices) {
+                parts.add(executorService.submit(() -> exportSlice(bucket, slice, target)));
+            }
+
+            long records = 0;
+            try (OutputStream out = Files.newOutputStream(target)) {
+                for (Future<SlicePart> future : parts) {
+                    final SlicePart part = future.get();
+                    try (InputStream in = Files.newInputStream(part.file())) {
+                        parallelCompressor.gzip(in, out);
+                    }
+                    Files.delete(part.file());
+                    records += part.records();
+                }
+            }
+
+            LOGGER.info("Exported {} records of bucket {} to {}.", records, bucket, target);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write export of bucket " + bucket, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not export bucket " + bucket, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while exporting bucket " + bucket, e);
+        } finally {
+            parts.forEach(future -> future.cancel(true));
+            deleteLeftoverParts(target, slices.size());
+        }
+    }
+
+    /**
+     * Exports all records of the given bucket within {@code [start, stop)} as a Gorilla compressed archive.
+     *
+     * <p>Only numeric fields are supported. The slices are queried concurrently and every
+     * completed slice flushes the buffered points as blocks, so only the points of the slices in
+     * flight are held in memory. An incomplete archive is deleted.</p>
+     *
+     * @param bucket the bucket to export
+     * @param start  the inclusive start of the range
+     * @param stop   the exclusive end of the range
+     * @return the written {@code .gts} file
+     * @throws IllegalArgumentException if the bucket name is not valid
+     */
+    public Path exportBucketArchive(String bucket, Instant start, Instant stop) {
+        requireValidBucket(bucket);
+        final List<TimeSlice> slices = TimeSlice.split(start, stop, sliceLength);
+        final Path target = exportFolder.resolve(
+                "influxdb_" + bucket + "_" + LocalDateTime.now().format(FILE_DTF) + ".gts");
+
+        LOGGER.info("Archiving bucket {} from {} to {} in {} slices.", bucket, start, stop, slices.size());
+
+        final List<Future<?>> queries = new ArrayList<>();
+        boolean archived = false;
+        try {
+            Files.createDirectories(exportFolder);
+            final long points;
+            try (GorillaArchiveWriter archiveWriter = new GorillaArchiveWriter(target)) {
+                try {
+                    for (TimeSlice slice : slices) {
+                        queries.add(executorService.submit(() -> {
+                            querySlice(bucket, slice, archiveWriter::add);
+                            archiveWriter.flush();
+                            return null;
+                        }));
+                    }
+                    for (Future<?> query : queries) {
+                        query.get();
+                    }
+                } finally {
+                    queries.forEach(future -> future.cancel(true));
+                }
+                points = archiveWriter.pointCount();
+            }
+
+            LOGGER.info("Archived {} points of bucket {} to {} ({} bytes).", points, bucket, target, Files.size(target));
+            archived = true;
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive of bucket " + bucket, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not archive bucket " + bucket, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while archiving bucket " + bucket, e);
+        } finally {
+            if (!archived) {
+                deleteIncompleteArchive(target);
+            }
+        }
+    }
+
+    private SlicePart exportSlice(String bucket, TimeSlice slice, Path target) throws IOException, InterruptedException {
+        final Path partFile = partFile(target, slice.index());
+        final AtomicLong records = new AtomicLong();
+
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(partFile), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+
+            querySlice(bucket, slice, record -> {
+                writer.write(LineProtocolEncoder.encode(record));
+                writer.newLine();
+                records.incrementAndGet();
+            });
+        }
+
+        LOGGER.debug("Exported {} records for slice {}.", records.get(), slice);
+        return new SlicePart(partFile, records.get());
+    }
+
+    private void querySlice(String bucket, TimeSlice slice, RecordSink sink) throws InterruptedException {
+        final String flux = FLUX_SLICE_QUERY.formatted(escapeFluxString(bucket), slice.start(), slice.stop());
+
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        queryApi.query(flux, org,
+                (cancellable, record) -> {
+                    try {
+                        sink.accept(record);
+                    } catch (IOException | RuntimeException e) {
+                        failure.set(e);
+                        cancellable.cancel();
+                        done.countDown();
+                    }
+                },
+                error -> {
+                    failure.set(error);
+                    done.countDown();
+                },
+                done::countDown);
+
+        done.await();
+
+        if (failure.get() != null) {
+            throw new IllegalStateException("Query for slice " + slice + " failed!", failure.get());
+        }
+    }
+
+    private static void requireValidBucket(String bucket) {
+        if (bucket == null || !BUCKET_NAME.matcher(bucket).matches()) {
+            throw new IllegalArgumentException("Invalid bucket name: " + bucket);
+        }
+    }
+
+    private static String escapeFluxString(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private Path partFile(Path target, int index) {
+        return target.resolveSibling(target.getFileName() + ".part" + index);
+    }
+
+    private void deleteLeftoverParts(Path target, int sliceCount) {
+        for (int index = 0; index < sliceCount; index++) {
+            try {
+                Files.deleteIfExists(partFile(target, index));
+            } catch (IOException e) {
+                LOGGER.error("Could not delete part {} of {}!", index, target, e);
+            }
+        }
+    }
+
+    private void deleteIncompleteArchive(Path target) {
+        try {
+            Files.deleteIfExists(target);
+        } catch (IOException e) {
+            LOGGER.error("Could not delete incomplete archive {}!", target, e);
+        }
+    }
+
+    private record SlicePart(Path file, long records) {
+
+    }
+
+    @FunctionalInterface
+    private interface RecordSink {
+
+        void accept(FluxRecord record) throws IOException;
+    }
+}
@@ -0,0 +1,81 @@
+package com.marvin.export.influxdb;
+
+import com.influxdb.query.FluxRecord;
+import java.time.Instant;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/** Encodes raw Flux records (one field per record) as InfluxDB line protocol with nanosecond precision. */
+public final class LineProtocolEncoder {
+
+    private static final Set<String> NON_TAG_COLUMNS = Set.of(
+            "result", "table", "_start", "_stop", "_time", "_value", "_field", "_measurement");
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private LineProtocolEncoder() {
+    }
+
+    /**
+     * Encodes the given record as a single line protocol line without a trailing newline.
+     *
+     * @param record the Flux record to encode
+     * @return the line protocol representation
+     */
+    public static String encode(FluxRecord record) {
+        final StringBuilder line = new StringBuilder(128);
+        line.append(escapeMeasurement(record.getMeasurement()));
+
+        extractTags(record).forEach((key, value) -> line.append(',')
+                .append(escapeKey(key))
+                .append('=')
+                .append(escapeKey(value)));
+
+        line.append(' ')
+                .append(escapeKey(record.getField()))
+                .append('=')
+                .append(encodeFieldValue(record.getValue()))
+                .append(' ')
+                .append(toEpochNanos(record.getTime()));
+        return line.toString();
+    }
+
+    /**
+     * Returns the tag set of the given record, i.e. all non-null columns besides the Flux system columns.
+     *
+     * @param record the Flux record
+     * @return the tags sorted by key
+     */
+    public static SortedMap<String, String> extractTags(FluxRecord record) {
+        final SortedMap<String, String> tags = new TreeMap<>();
+        record.getValues().forEach((key, value) -> {
+            if (!NON_TAG_COLUMNS.contains(key) && value != null) {
+                tags.put(key, value.toString());
+            }
+        });
+        return tags;
+    }
+
+    private static String encodeFieldValue(Object value) {
+        if (value instanceof Long || value instanceof Integer) {
+            return value + "i";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        return '"' + String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    private static String escapeMeasurement(String measurement) {
+        return measurement.replace(",", "\\,").replace(" ", "\\ ");
+    }
+
+    private static String escapeKey(String key) {
+        return key.replace(",", "\\,").replace("=", "\\=").replace(" ", "\\ ");
+    }
+
+    private static long toEpochNanos(Instant time) {
+        return time.getEpochSecond() * NANOS_PER_SECOND + time.getNano();
+    }
+}
@@ -0,0 +1,47 @@
+package com.marvin.export.influxdb;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A half-open time range {@code [start, stop)} queried by a single Flux query.
+ *
+ * @param index the position of the slice within the requested range
+ * @param start the inclusive start of the slice
+ * @param stop  the exclusive end of the slice
+ */
+public record TimeSlice(
+        int index,
+        Instant start,
+        Instant stop
+) {
+
+    /**
+     * Splits the range {@code [start, stop)} into consecutive slices of at most the given length.
+     *
+     * @param start       the inclusive start of the range
+     * @param stop        the exclusive end of the range
+     * @param sliceLength the maximum length of a single slice
+     * @return the slices in chronological order
+     */
+    public static List<TimeSlice> split(Instant start, Instant stop, Duration sliceLength) {
+        if (!start.isBefore(stop)) {
+            throw new IllegalArgumentException("Start " + start + " must be before stop " + stop + "!");
+        }
+        if (sliceLength.isZero() || sliceLength.isNegative()) {
+            throw new IllegalArgumentException("Slice length must be positive but was " + sliceLength + "!");
+        }
+
+        final List<TimeSlice> slices = new ArrayList<>();
+        Instant sliceStart = start;
+        while (sliceStart.isBefore(stop)) {
+            final Instant candidate = sliceStart.plus(sliceLength);
+            final Instant sliceStop = candidate.isAfter(stop) ? stop : candidate;
+            slices.add(new TimeSlice(slices.size(), sliceStart, sliceStop));
+            sliceStart = sliceStop;
+        }
+        return slices;
+    }
+}
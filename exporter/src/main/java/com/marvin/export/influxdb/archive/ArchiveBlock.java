@@ -0,0 +1,26 @@
+package com.marvin.export.influxdb.archive;
+
+/**
+ * A decoded series of an archive.
+ *
+ * @param key        the series the points belong to
+ * @param valueType  the type of the values
+ * @param timestamps the timestamps in epoch nanoseconds, in chronological order
+ * @param values     the raw value bits, see {@link ValueType#fromBits(long)}
+ */
+public record ArchiveBlock(
+        SeriesKey key,
+        ValueType valueType,
+        long[] timestamps,
+        long[] values
+) {
+
+    /**
+     * Returns the number of points in this block.
+     *
+     * @return the point count
+     */
+    public int size() {
+        return timestamps.length;
+    }
+}
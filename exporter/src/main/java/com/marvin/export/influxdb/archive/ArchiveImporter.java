@@ -0,0 +1,85 @@
+package com.marvin.export.influxdb.archive;
+
+import com.influxdb.client.InfluxDBClient;
+import com.influxdb.client.WriteApiBlocking;
+import com.influxdb.client.domain.WritePrecision;
+import com.influxdb.client.write.Point;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Re-imports Gorilla compressed archives into InfluxDB using batched writes. */
+@Component
+public class ArchiveImporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArchiveImporter.class);
+
+    private final InfluxDBClient influxDBClient;
+    private final String org;
+    private final int batchSize;
+
+    /**
+     * Constructs a new {@code ArchiveImporter}.
+     *
+     * @param influxDBClient the InfluxDB client to write with
+     * @param org            the InfluxDB organisation name
+     * @param batchSize      the maximum number of points per write request
+     */
+    public ArchiveImporter(
+            InfluxDBClient influxDBClient,
+            @Value("${influxdb.org}") String org,
+            @Value("${exporter.influx.import-batch-size:5000}") int batchSize
+    ) {
+        this.influxDBClient = influxDBClient;
+        this.org = org;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Writes all points of the given archive into the given bucket.
+     *
+     * @param archive the archive file to import
+     * @param bucket  the target bucket
+     * @return the number of imported points
+     * @throws IOException if the archive cannot be read
+     */
+    public long importArchive(Path archive, String bucket) throws IOException {
+        final WriteApiBlocking writeApi = influxDBClient.getWriteApiBlocking();
+        final List<Point> batch = new ArrayList<>(batchSize);
+
+        final long points = GorillaArchiveReader.forEachBlock(archive, block -> {
+            for (int index = 0; index < block.size(); index++) {
+                batch.add(toPoint(block, index));
+                if (batch.size() == batchSize) {
+                    writeApi.writePoints(bucket, org, batch);
+                    batch.clear();
+                }
+            }
+        });
+        if (!batch.isEmpty()) {
+            writeApi.writePoints(bucket, org, batch);
+        }
+
+        LOGGER.info("Imported {} points from {} into bucket {}.", points, archive, bucket);
+        return points;
+    }
+
+    private static Point toPoint(ArchiveBlock block, int index) {
+        final Point point = Point.measurement(block.key().measurement())
+                .addTags(block.key().tags())
+                .time(block.timestamps()[index], WritePrecision.NS);
+
+        final Number value = block.valueType().fromBits(block.values()[index]);
+        if (block.valueType() == ValueType.INTEGER) {
+            point.addField(block.key().field(), value.longValue());
+        } else {
+            point.addField(block.key().field(), value.doubleValue());
+        }
+        return point;
+    }
+}
@@ -0,0 +1,45 @@
+package com.marvin.export.influxdb.archive;
+
+/** Big-endian bit reader over a byte array, the counterpart of {@link BitOutput}. */
+final class BitInput {
+
+    private final byte[] buffer;
+    private long position;
+
+    /**
+     * Constructs a new {@code BitInput}.
+     *
+     * @param buffer the bytes to read from
+     */
+    BitInput(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Reads a single bit.
+     *
+     * @return the bit read
+     */
+    boolean readBit() {
+        return readBits(1) != 0;
+    }
+
+    /**
+     * Reads the given number of bits, most significant bit first.
+     *
+     * @param bitCount the number of bits to read, between 1 and 64
+     * @return the bits as the low bits of a long
+     */
+    long readBits(int bitCount) {
+        if (position + bitCount > (long) buffer.length * 8) {
+            throw new IllegalStateException("Unexpected end of block payload!");
+        }
+        long value = 0;
+        for (int bit = 0; bit < bitCount; bit++) {
+            final int current = buffer[(int) (position >>> 3)] >>> (7 - (position & 7)) & 1;
+            value = value << 1 | current;
+            position++;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,51 @@
+package com.marvin.export.influxdb.archive;
+
+import java.util.Arrays;
+
+/** Growable big-endian bit buffer used by {@link GorillaBlockEncoder}. */
+final class BitOutput {
+
+    private byte[] buffer = new byte[64];
+    private long bitLength;
+
+    /**
+     * Appends a single bit.
+     *
+     * @param bit the bit to append
+     */
+    void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    /**
+     * Appends the lowest {@code bitCount} bits of the given value, most significant bit first.
+     *
+     * @param value    the value whose low bits are appended
+     * @param bitCount the number of bits to append, between 1 and 64
+     */
+    void writeBits(long value, int bitCount) {
+        ensureCapacity(bitLength + bitCount);
+        for (int bit = bitCount - 1; bit >= 0; bit--) {
+            if ((value >>> bit & 1L) != 0) {
+                buffer[(int) (bitLength >>> 3)] |= (byte) (0x80 >>> (bitLength & 7));
+            }
+            bitLength++;
+        }
+    }
+
+    /**
+     * Returns the written bits padded with zeros to a full byte.
+     *
+     * @return the written bytes
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (int) ((bitLength + 7) >>> 3));
+    }
+
+    private void ensureCapacity(long bits) {
+        final long bytes = (bits + 7) >>> 3;
+        if (bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.max(bytes, buffer.length * 2L));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.marvin.export.influxdb.archive;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/** Reads archives written by {@link GorillaArchiveWriter} one series block at a time. */
+public final class GorillaArchiveReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private GorillaArchiveReader() {
+    }
+
+    /**
+     * Decodes every block of the given archive and passes it to the consumer.
+     *
+     * @param archive the archive file to read
+     * @param consumer receives the decoded blocks in file order
+     * @return the total number of points read
+     * @throws IOException if the file cannot be read or is not a valid archive
+     */
+    public static long forEachBlock(Path archive, Consumer<ArchiveBlock> consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(archive), BUFFER_SIZE))) {
+            if (in.readInt() != GorillaArchiveWriter.MAGIC) {
+                throw new IOException(archive + " is not a time series archive!");
+            }
+            final byte version = in.readByte();
+            if (version != GorillaArchiveWriter.VERSION) {
+                throw new IOException("Unsupported archive version " + version + " in " + archive + "!");
+            }
+            long points = 0;
+            while (readMarker(in, archive) == GorillaArchiveWriter.BLOCK) {
+                final ArchiveBlock archiveBlock = readBlock(in);
+                points += archiveBlock.size();
+                consumer.accept(archiveBlock);
+            }
+            return points;
+        }
+    }
+
+    private static byte readMarker(DataInputStream in, Path archive) throws IOException {
+        final byte marker = in.readByte();
+        if (marker != GorillaArchiveWriter.BLOCK && marker != GorillaArchiveWriter.END) {
+            throw new IOException("Corrupt block marker " + marker + " in " + archive + "!");
+        }
+        return marker;
+    }
+
+    private static ArchiveBlock readBlock(DataInputStream in) throws IOException {
+        final String measurement = in.readUTF();
+        final String field = in.readUTF();
+        final int tagCount = in.readInt();
+        final SortedMap<String, String> tags = new TreeMap<>();
+        for (int tag = 0; tag < tagCount; tag++) {
+            tags.put(in.readUTF(), in.readUTF());
+        }
+        final ValueType valueType = ValueType.values()[in.readByte()];
+        final int pointCount = in.readInt();
+        final long unit = in.readLong();
+        final byte[] payload = new byte[in.readInt()];
+        in.readFully(payload);
+
+        final long[] timestamps = new long[pointCount];
+        final long[] values = new long[pointCount];
+        GorillaBlockDecoder.decode(payload, unit, timestamps, values);
+        return new ArchiveBlock(new SeriesKey(measurement, tags, field), valueType, timestamps, values);
+    }
+}
@@ -0,0 +1,207 @@
+package com.marvin.export.influxdb.archive;
+
+import com.influxdb.query.FluxRecord;
+import com.marvin.export.influxdb.LineProtocolEncoder;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.stream.IntStream;
+
+/**
+ * Collects Flux records per series and writes them as a Gorilla compressed archive.
+ *
+ * <p>The file starts with the {@link #MAGIC} number and the format {@link #VERSION}, followed by
+ * the blocks, each introduced by a {@link #BLOCK} marker, and an {@link #END} marker. Each block
+ * holds the series key (measurement, field, tags), the value type, the point count, the time unit
+ * and the {@link GorillaBlockEncoder} payload. Records may be added concurrently and in any order;
+ * the points buffered for a series are sorted by time when they are encoded.</p>
+ *
+ * <p>Buffered points are written as blocks on every {@link #flush()} and as soon as a series has
+ * buffered {@link #MAX_BLOCK_POINTS} points, so memory use is bounded by the points added between
+ * two flushes rather than by the archived range. A series may therefore span several blocks.</p>
+ */
+public class GorillaArchiveWriter implements Closeable {
+
+    /** File signature, {@code "MTSA"}. */
+    static final int MAGIC = 0x4D545341;
+
+    /** Current format version; the reader rejects any other. */
+    static final byte VERSION = 2;
+
+    /** Marker preceding every block. */
+    static final byte BLOCK = 1;
+
+    /** Marker following the last block. */
+    static final byte END = 0;
+
+    /** Number of points of a series after which its buffer is written as a block. */
+    static final int MAX_BLOCK_POINTS = 64 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final int maxBlockPoints;
+    private final Map<SeriesKey, SeriesBuffer> series = new LinkedHashMap<>();
+
+    private long pointCount;
+
+    /**
+     * Creates the archive file and writes its header.
+     *
+     * @param target the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public GorillaArchiveWriter(Path target) throws IOException {
+        this(target, MAX_BLOCK_POINTS);
+    }
+
+    GorillaArchiveWriter(Path target, int maxBlockPoints) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target), BUFFER_SIZE));
+        this.maxBlockPoints = maxBlockPoints;
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    /**
+     * Adds a record of a raw Flux query result.
+     *
+     * @param fluxRecord the record, holding exactly one numeric field value
+     * @throws IOException              if a full block cannot be written
+     * @throws IllegalArgumentException if the value is not numeric or its type differs from earlier values of the series
+     */
+    public synchronized void add(FluxRecord fluxRecord) throws IOException {
+        if (!(fluxRecord.getValue() instanceof Number value)) {
+            throw new IllegalArgumentException("Unsupported archive value " + fluxRecord.getValue() + "!");
+        }
+        final SortedMap<String, String> tags = LineProtocolEncoder.extractTags(fluxRecord);
+        final SeriesKey key = new SeriesKey(fluxRecord.getMeasurement(), tags, fluxRecord.getField());
+        add(key, fluxRecord.getTime(), value);
+    }
+
+    /**
+     * Adds a single point.
+     *
+     * @param key   the series of the point
+     * @param time  the timestamp of the point
+     * @param value the value of the point
+     * @throws IOException              if a full block cannot be written
+     * @throws IllegalArgumentException if the value type differs from earlier values of the series
+     */
+    public synchronized void add(SeriesKey key, Instant time, Number value) throws IOException {
+        final ValueType valueType = ValueType.of(value);
+        final SeriesBuffer buffer = series.computeIfAbsent(key, k -> new SeriesBuffer(valueType));
+        if (buffer.valueType != valueType) {
+            throw new IllegalArgumentException("Series " + key + " mixes " + buffer.valueType + " and " + valueType + " values!");
+        }
+        buffer.add(Math.addExact(Math.multiplyExact(time.getEpochSecond(), 1_000_000_000L), time.getNano()), valueType.toBits(value));
+        pointCount++;
+        if (buffer.size >= maxBlockPoints) {
+            writeBlock(key, buffer);
+        }
+    }
+
+    /**
+     * Returns the number of points added so far.
+     *
+     * @return the point count
+     */
+    public synchronized long pointCount() {
+        return pointCount;
+    }
+
+    /**
+     * Writes the points buffered so far as one block per series.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        for (Map.Entry<SeriesKey, SeriesBuffer> entry : series.entrySet()) {
+            if (entry.getValue().size > 0) {
+                writeBlock(entry.getKey(), entry.getValue());
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the remaining buffered points and completes the archive.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try (DataOutputStream closing = out) {
+            flush();
+            closing.writeByte(END);
+        }
+    }
+
+    private void writeBlock(SeriesKey key, SeriesBuffer buffer) throws IOException {
+        out.writeByte(BLOCK);
+        out.writeUTF(key.measurement());
+        out.writeUTF(key.field());
+        out.writeInt(key.tags().size());
+        for (Map.Entry<String, String> tag : key.tags().entrySet()) {
+            out.writeUTF(tag.getKey());
+            out.writeUTF(tag.getValue());
+        }
+        out.writeByte(buffer.valueType.ordinal());
+        out.writeInt(buffer.size);
+
+        final long unit = GorillaBlockEncoder.timeUnit(buffer.timestamps, buffer.size);
+        out.writeLong(unit);
+        final byte[] payload = buffer.encode(unit);
+        out.writeInt(payload.length);
+        out.write(payload);
+        buffer.clear();
+    }
+
+    private static final class SeriesBuffer {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final ValueType valueType;
+        private long[] timestamps = new long[INITIAL_CAPACITY];
+        private long[] values = new long[INITIAL_CAPACITY];
+        private int size;
+
+        private SeriesBuffer(ValueType valueType) {
+            this.valueType = valueType;
+        }
+
+        private void add(long timestamp, long valueBits) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            timestamps[size] = timestamp;
+            values[size] = valueBits;
+            size++;
+        }
+
+        private byte[] encode(long unit) {
+            final GorillaBlockEncoder encoder = new GorillaBlockEncoder(unit);
+            IntStream.range(0, size)
+                    .boxed()
+                    .sorted(Comparator.comparingLong(index -> timestamps[index]))
+                    .forEach(index -> encoder.append(timestamps[index], values[index]));
+            return encoder.toByteArray();
+        }
+
+        // Only the value type is kept between blocks, so flushed points are released.
+        private void clear() {
+            timestamps = new long[INITIAL_CAPACITY];
+            values = new long[INITIAL_CAPACITY];
+            size = 0;
+        }
+    }
+}
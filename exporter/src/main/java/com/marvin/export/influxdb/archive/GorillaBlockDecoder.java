@@ -0,0 +1,63 @@
+package com.marvin.export.influxdb.archive;
+
+/** Decodes a series written by {@link GorillaBlockEncoder}. */
+final class GorillaBlockDecoder {
+
+    private GorillaBlockDecoder() {
+    }
+
+    /**
+     * Decodes the given payload into the given arrays.
+     *
+     * @param payload    the encoded block payload
+     * @param unit       the time unit of the block in nanoseconds
+     * @param timestamps receives the timestamps in epoch nanoseconds, its length is the point count
+     * @param values     receives the raw value bits, same length as {@code timestamps}
+     */
+    static void decode(byte[] payload, long unit, long[] timestamps, long[] values) {
+        if (timestamps.length == 0) {
+            return;
+        }
+        final BitInput in = new BitInput(payload);
+
+        long timestamp = in.readBits(Long.SIZE);
+        long value = in.readBits(Long.SIZE);
+        timestamps[0] = timestamp;
+        values[0] = value;
+
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int index = 1; index < timestamps.length; index++) {
+            delta += readDeltaOfDelta(in);
+            timestamp += delta * unit;
+
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.readBits(5);
+                    final int significant = (int) in.readBits(6) + 1;
+                    trailing = Long.SIZE - leading - significant;
+                }
+                value ^= in.readBits(Long.SIZE - leading - trailing) << trailing;
+            }
+
+            timestamps[index] = timestamp;
+            values[index] = value;
+        }
+    }
+
+    private static long readDeltaOfDelta(BitInput in) {
+        int ones = 0;
+        while (ones < GorillaBlockEncoder.RAW_DELTA_OF_DELTA_PREFIX && in.readBit()) {
+            ones++;
+        }
+        if (ones == 0) {
+            return 0;
+        }
+        final int bits = ones == GorillaBlockEncoder.RAW_DELTA_OF_DELTA_PREFIX
+                ? Long.SIZE
+                : GorillaBlockEncoder.DELTA_OF_DELTA_BITS[ones - 1];
+        final long raw = in.readBits(bits);
+        return raw << (Long.SIZE - bits) >> (Long.SIZE - bits);
+    }
+}
@@ -0,0 +1,156 @@
+package com.marvin.export.influxdb.archive;
+
+/**
+ * Encodes a single series in the Gorilla block format.
+ *
+ * <p>The first point is stored verbatim. Every following timestamp is stored as the difference
+ * between consecutive deltas (delta-of-delta) in a variable-length bucket, so a perfectly regular
+ * series costs a single bit per timestamp. Deltas are counted in the time unit of the block, the
+ * largest number of nanoseconds dividing the distance of every point from the first, so that the
+ * small buckets also fit calendar based series: monthly points at midnight differ by at most three
+ * days per month, which is a 7-bit delta-of-delta in days but a raw 64-bit one in nanoseconds.</p>
+ *
+ * <p>Every following value is XORed with its predecessor and only the meaningful bits of the
+ * result are stored, so an unchanged value costs a single bit.</p>
+ */
+final class GorillaBlockEncoder {
+
+    /** Payload widths of the delta-of-delta buckets; bucket {@code i} is prefixed by {@code i + 1} ones and a zero. */
+    static final int[] DELTA_OF_DELTA_BITS = {7, 9, 12, 32};
+
+    /** Number of ones prefixing a raw 64-bit delta-of-delta. */
+    static final int RAW_DELTA_OF_DELTA_PREFIX = DELTA_OF_DELTA_BITS.length + 1;
+
+    /** Largest number of leading zeros that fits the 5-bit leading zero field. */
+    static final int MAX_LEADING_ZEROS = 31;
+
+    private final BitOutput out = new BitOutput();
+    private final long unit;
+
+    private int count;
+    private long previousTimestamp;
+    private long previousDelta;
+    private long previousValue;
+    private int previousLeading = -1;
+    private int previousTrailing;
+
+    /**
+     * Constructs an encoder for points whose timestamps are all a multiple of {@code unit} apart.
+     *
+     * @param unit the time unit of the block in nanoseconds, see {@link #timeUnit(long[], int)}
+     */
+    GorillaBlockEncoder(long unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Returns the largest time unit the given timestamps are all a multiple of apart.
+     *
+     * @param timestamps the timestamps in epoch nanoseconds, in any order
+     * @param size       the number of timestamps to consider
+     * @return the time unit in nanoseconds, at least {@code 1}
+     */
+    static long timeUnit(long[] timestamps, int size) {
+        long unit = 0;
+        for (int index = 1; index < size && unit != 1; index++) {
+            unit = gcd(unit, Math.abs(timestamps[index] - timestamps[0]));
+        }
+        return unit == 0 ? 1 : unit;
+    }
+
+    /**
+     * Appends a point to the block. Points must be appended in chronological order.
+     *
+     * @param timestamp the timestamp in epoch nanoseconds, a multiple of the time unit apart from the first
+     * @param valueBits the raw 64 bits of the value
+     */
+    void append(long timestamp, long valueBits) {
+        if (count == 0) {
+            out.writeBits(timestamp, Long.SIZE);
+            out.writeBits(valueBits, Long.SIZE);
+        } else {
+            final long delta = (timestamp - previousTimestamp) / unit;
+            writeDeltaOfDelta(delta - previousDelta);
+            writeXor(valueBits ^ previousValue);
+            previousDelta = delta;
+        }
+        previousTimestamp = timestamp;
+        previousValue = valueBits;
+        count++;
+    }
+
+    /**
+     * Returns the number of appended points.
+     *
+     * @return the point count
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Returns the encoded block payload.
+     *
+     * @return the payload bytes
+     */
+    byte[] toByteArray() {
+        return out.toByteArray();
+    }
+
+    private void writeDeltaOfDelta(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            out.writeBit(false);
+            return;
+        }
+        for (int bucket = 0; bucket < DELTA_OF_DELTA_BITS.length; bucket++) {
+            final int bits = DELTA_OF_DELTA_BITS[bucket];
+            if (fitsSigned(deltaOfDelta, bits)) {
+                out.writeBits(((1L << (bucket + 1)) - 1) << 1, bucket + 2);
+                out.writeBits(deltaOfDelta, bits);
+                return;
+            }
+        }
+        out.writeBits((1L << RAW_DELTA_OF_DELTA_PREFIX) - 1, RAW_DELTA_OF_DELTA_PREFIX);
+        out.writeBits(deltaOfDelta, Long.SIZE);
+    }
+
+    private void writeXor(long xor) {
+        if (xor == 0) {
+            out.writeBit(false);
+            return;
+        }
+        out.writeBit(true);
+
+        final int leading = Math.min(Long.numberOfLeadingZeros(xor), MAX_LEADING_ZEROS);
+        final int trailing = Long.numberOfTrailingZeros(xor);
+        if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+            out.writeBit(false);
+            out.writeBits(xor >>> previousTrailing, Long.SIZE - previousLeading - previousTrailing);
+            return;
+        }
+
+        final int significant = Long.SIZE - leading - trailing;
+        out.writeBit(true);
+        out.writeBits(leading, 5);
+        out.writeBits(significant - 1, 6);
+        out.writeBits(xor >>> trailing, significant);
+        previousLeading = leading;
+        previousTrailing = trailing;
+    }
+
+    private static long gcd(long a, long b) {
+        long x = a;
+        long y = b;
+        while (y != 0) {
+            final long remainder = x % y;
+            x = y;
+            y = remainder;
+        }
+        return x;
+    }
+
+    private static boolean fitsSigned(long value, int bits) {
+        final long limit = 1L << (bits - 1);
+        return value >= -limit && value < limit;
+    }
+}
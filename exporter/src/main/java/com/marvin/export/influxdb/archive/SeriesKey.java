@@ -0,0 +1,30 @@
+package com.marvin.export.influxdb.archive;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Identifies a single series of an archive.
+ *
+ * @param measurement the measurement name
+ * @param tags        the tag set, sorted by key
+ * @param field       the field name
+ */
+public record SeriesKey(
+        String measurement,
+        SortedMap<String, String> tags,
+        String field
+) {
+
+    /**
+     * Creates a series key with an immutable copy of the given tags.
+     *
+     * @param measurement the measurement name
+     * @param tags        the tag set, sorted by key
+     * @param field       the field name
+     */
+    public SeriesKey {
+        tags = Collections.unmodifiableSortedMap(new TreeMap<>(tags));
+    }
+}
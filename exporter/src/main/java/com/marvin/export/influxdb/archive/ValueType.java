@@ -0,0 +1,49 @@
+package com.marvin.export.influxdb.archive;
+
+/** The field value types an archive block can hold; both are stored as raw 64-bit patterns. */
+public enum ValueType {
+
+    FLOAT,
+
+    INTEGER;
+
+    /**
+     * Returns the raw bits of the given value.
+     *
+     * @param value the value, a {@link Double} for {@link #FLOAT} or a {@link Long} for {@link #INTEGER}
+     * @return the raw 64 bits of the value
+     */
+    public long toBits(Number value) {
+        return this == FLOAT ? Double.doubleToRawLongBits(value.doubleValue()) : value.longValue();
+    }
+
+    /**
+     * Restores a value from its raw bits.
+     *
+     * @param bits the raw 64 bits of the value
+     * @return the value as a {@link Double} or {@link Long}
+     */
+    public Number fromBits(long bits) {
+        if (this == FLOAT) {
+            return Double.longBitsToDouble(bits);
+        }
+        return bits;
+    }
+
+    /**
+     * Determines the value type of a Flux record value.
+     *
+     * @param value the record value
+     * @return the matching value type
+     * @throws IllegalArgumentException if the value is neither an integer nor a floating point number
+     */
+    public static ValueType of(Object value) {
+        if (value instanceof Long || value instanceof Integer) {
+            return INTEGER;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return FLOAT;
+        }
+        throw new IllegalArgumentException("Unsupported archive value " + value + "!");
+    }
+}
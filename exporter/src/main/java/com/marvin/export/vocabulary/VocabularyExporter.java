@@ -0,0 +1,55 @@
+package com.marvin.export.vocabulary;
+
+import com.marvin.export.core.ExportFileWriter;
+import com.marvin.export.core.ExportType;
+import com.marvin.export.core.ExportWindow;
+import com.marvin.export.core.PendingExport;
+import com.marvin.export.watermark.ExportWatermarkService;
+import com.marvin.vocabulary.dto.Flashcard;
+import com.marvin.vocabulary.service.FlashcardService;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports flashcards as a JSONL file. Deltas contain every flashcard with an audit revision
+ * after the watermark, so they also cover changes to the {@code updated} flag.
+ */
+@Component
+public class VocabularyExporter {
+
+    private final FlashcardService flashcardService;
+    private final ExportWatermarkService exportWatermarkService;
+    private final ExportFileWriter exportFileWriter;
+
+    /**
+     * Constructs a new {@code VocabularyExporter}.
+     *
+     * @param flashcardService       the service providing flashcards for export
+     * @param exportWatermarkService the service deciding between full and delta exports
+     * @param exportFileWriter       the writer for export files
+     */
+    public VocabularyExporter(
+            FlashcardService flashcardService,
+            ExportWatermarkService exportWatermarkService,
+            ExportFileWriter exportFileWriter
+    ) {
+        this.flashcardService = flashcardService;
+        this.exportWatermarkService = exportWatermarkService;
+        this.exportFileWriter = exportFileWriter;
+    }
+
+    /**
+     * Writes the flashcard export file. The returned export has to be committed through
+     * {@link ExportWatermarkService#commit(PendingExport)} once it has been uploaded.
+     *
+     * @param forceFull whether a full snapshot should be written regardless of the watermark
+     * @return the pending export
+     */
+    public PendingExport exportFlashcards(boolean forceFull) {
+        final ExportWindow window = exportWatermarkService.open(ExportType.FLASHCARDS, forceFull);
+        final Stream<Flashcard> flashcards = window.isFull()
+                ? flashcardService.getAllFlashcardsForExport()
+                : flashcardService.getFlashcardsChangedSinceForExport(window.since());
+        return exportFileWriter.write(window, flashcards);
+    }
+}
@@ -0,0 +1,34 @@
+package com.marvin.export.watermark;
+
+import com.marvin.export.core.ExportType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/** JPA entity holding the high-watermark of the last successful export per export type. */
+@Getter
+@Setter
+@Entity
+@Table(name = "export_watermark", schema = "exports")
+public class ExportWatermarkEntity {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private ExportType exportType;
+
+    private LocalDateTime watermark;
+
+    private LocalDateTime lastFullExport;
+
+    private int deltasSinceFull;
+
+    private long lastRowCount;
+
+    private LocalDateTime updatedAt;
+
+}
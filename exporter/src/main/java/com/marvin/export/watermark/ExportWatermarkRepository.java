@@ -0,0 +1,9 @@
+package com.marvin.export.watermark;
+
+import com.marvin.export.core.ExportType;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/** Repository for export watermark entities. */
+public interface ExportWatermarkRepository extends JpaRepository<ExportWatermarkEntity, ExportType> {
+
+}
@@ -0,0 +1,92 @@
+package com.marvin.export.watermark;
+
+import com.marvin.export.core.ExportMode;
+import com.marvin.export.core.ExportType;
+import com.marvin.export.core.ExportWindow;
+import com.marvin.export.core.PendingExport;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Decides per export type whether a run writes a full snapshot or a delta, and advances the
+ * watermark once the export has been written.
+ */
+@Service
+public class ExportWatermarkService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExportWatermarkService.class);
+
+    private final ExportWatermarkRepository exportWatermarkRepository;
+    private final Duration fullSnapshotInterval;
+
+    /**
+     * Constructs a new {@code ExportWatermarkService}.
+     *
+     * @param exportWatermarkRepository the repository for export watermarks
+     * @param fullSnapshotInterval      the maximum age of the last full snapshot before a new one is forced
+     */
+    public ExportWatermarkService(
+            ExportWatermarkRepository exportWatermarkRepository,
+            @Value("${exporter.full-snapshot-interval:P7D}") Duration fullSnapshotInterval
+    ) {
+        this.exportWatermarkRepository = exportWatermarkRepository;
+        this.fullSnapshotInterval = fullSnapshotInterval;
+    }
+
+    /**
+     * Opens the export window for the given type. The window end is captured before any rows are
+     * read, so rows modified while the export runs are picked up again by the next delta.
+     *
+     * @param type      the export type
+     * @param forceFull whether a full snapshot should be written regardless of the watermark
+     * @return the export window to read
+     */
+    public ExportWindow open(ExportType type, boolean forceFull) {
+        final LocalDateTime now = LocalDateTime.now();
+        final Optional<ExportWatermarkEntity> watermark = exportWatermarkRepository.findById(type);
+
+        final boolean fullSnapshotDue = watermark
+                .map(entity -> entity.getLastFullExport().plus(fullSnapshotInterval).isBefore(now))
+                .orElse(true);
+
+        if (forceFull || fullSnapshotDue) {
+            LOGGER.info("Exporting full snapshot of {}.", type);
+            return new ExportWindow(type, ExportMode.FULL, null, now);
+        }
+
+        final LocalDateTime since = watermark.get().getWatermark();
+        LOGGER.info("Exporting changes of {} since {}.", type, since);
+        return new ExportWindow(type, ExportMode.DELTA, since, now);
+    }
+
+    /**
+     * Advances the watermark of the export's type after its file has been handed off.
+     *
+     * @param pendingExport the written export
+     */
+    public void commit(PendingExport pendingExport) {
+        final ExportWindow window = pendingExport.window();
+        final ExportWatermarkEntity entity = exportWatermarkRepository.findById(window.type())
+                .orElseGet(() -> {
+                    final ExportWatermarkEntity newEntity = new ExportWatermarkEntity();
+                    newEntity.setExportType(window.type());
+                    return newEntity;
+                });
+
+        entity.setWatermark(window.until());
+        if (window.isFull()) {
+            entity.setLastFullExport(window.until());
+            entity.setDeltasSinceFull(0);
+        } else {
+            entity.setDeltasSinceFull(entity.getDeltasSinceFull() + 1);
+        }
+        entity.setLastRowCount(pendingExport.count());
+        entity.setUpdatedAt(LocalDateTime.now());
+        exportWatermarkRepository.save(entity);
+    }
+}
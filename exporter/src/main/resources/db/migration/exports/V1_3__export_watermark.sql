@@ -0,0 +1,11 @@
+CREATE SCHEMA IF NOT EXISTS exports;
+
+CREATE TABLE exports.export_watermark
+(
+    export_type        VARCHAR(64) PRIMARY KEY,
+    watermark          TIMESTAMP   NOT NULL,
+    last_full_export   TIMESTAMP   NOT NULL,
+    deltas_since_full  INTEGER     NOT NULL DEFAULT 0,
+    last_row_count     BIGINT      NOT NULL DEFAULT 0,
+    updated_at         TIMESTAMP   NOT NULL
+);
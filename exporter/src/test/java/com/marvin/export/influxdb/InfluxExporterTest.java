@@ -0,0 +1,115 @@
+package com.marvin.export.influxdb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.influxdb.Cancellable;
+import com.influxdb.client.InfluxDBClient;
+import com.influxdb.client.QueryApi;
+import com.influxdb.query.FluxRecord;
+import com.marvin.upload.compression.ParallelCompressor;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+
+class InfluxExporterTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant STOP = Instant.parse("2024-02-01T00:00:00Z");
+
+    @TempDir
+    private Path exportFolder;
+
+    private final QueryApi queryApi = mock(QueryApi.class);
+
+    private final ParallelCompressor parallelCompressor = new ParallelCompressor(6, 128 * 1024, 2);
+
+    private InfluxExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        final InfluxDBClient client = mock(InfluxDBClient.class);
+        when(client.getQueryApi()).thenReturn(queryApi);
+        exporter = new InfluxExporter(client, "org", exportFolder.toString(), Duration.ofDays(30), 1, parallelCompressor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        exporter.shutdown();
+        parallelCompressor.shutdown();
+    }
+
+    @Test
+    void exportBucket_slicedRange_writesGzippedLineProtocolInChronologicalOrder() throws Exception {
+        doAnswer(invocation -> {
+            final String flux = invocation.getArgument(0);
+            final BiConsumer<Cancellable, FluxRecord> onNext = invocation.getArgument(2);
+            final Instant time = flux.contains("range(start: " + START + ",") ? START : STOP.minusSeconds(1);
+            onNext.accept(mock(Cancellable.class), fluxRecord(time, 1L));
+            onNext.accept(mock(Cancellable.class), fluxRecord(time, 2L));
+            invocation.<Runnable>getArgument(4).run();
+            return null;
+        }).when(queryApi).query(anyString(), eq("org"), ArgumentMatchers.<BiConsumer<Cancellable, FluxRecord>>any(),
+                ArgumentMatchers.<Consumer<? super Throwable>>any(), any(Runnable.class));
+
+        final Path export = exporter.exportBucket("costs", START, STOP);
+
+        final List<String> lines;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(export)), StandardCharsets.UTF_8))) {
+            lines = reader.lines().toList();
+        }
+        final long first = START.getEpochSecond() * 1_000_000_000L;
+        final long last = STOP.minusSeconds(1).getEpochSecond() * 1_000_000_000L;
+        assertThat(lines).containsExactly(
+                "cost value=1i " + first, "cost value=2i " + first, "cost value=1i " + last, "cost value=2i " + last);
+        try (Stream<Path> files = Files.list(exportFolder)) {
+            assertThat(files).containsExactly(export);
+        }
+    }
+
+    @Test
+    void export_unsafeBucketName_isRejectedBeforeQuerying() throws Exception {
+        for (String bucket : List.of("", "x\") |> drop()", "../../tmp/x", "a/b", "costs\\")) {
+            assertThatThrownBy(() -> exporter.exportBucket(bucket, START, STOP))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> exporter.exportBucketArchive(bucket, START, STOP))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        verifyNoInteractions(queryApi);
+        try (Stream<Path> files = Files.list(exportFolder)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private static FluxRecord fluxRecord(Instant time, long value) {
+        final FluxRecord fluxRecord = new FluxRecord(0);
+        fluxRecord.getValues().put("_time", time);
+        fluxRecord.getValues().put("_measurement", "cost");
+        fluxRecord.getValues().put("_field", "value");
+        fluxRecord.getValues().put("_value", value);
+        return fluxRecord;
+    }
+}
@@ -0,0 +1,43 @@
+package com.marvin.export.influxdb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.influxdb.query.FluxRecord;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class LineProtocolEncoderTest {
+
+    private static final Instant TIME = Instant.parse("2024-01-15T00:00:00Z");
+
+    @Test
+    void encode_longValue_writesIntegerFieldWithSortedTags() {
+        final FluxRecord fluxRecord = fluxRecord("cost", "value", 42L);
+        fluxRecord.getValues().put("type", "food");
+        fluxRecord.getValues().put("category", "daily cost");
+
+        assertThat(LineProtocolEncoder.encode(fluxRecord))
+                .isEqualTo("cost,category=daily\\ cost,type=food value=42i 1705276800000000000");
+    }
+
+    @Test
+    void encode_stringValue_writesQuotedAndEscapedField() {
+        final FluxRecord fluxRecord = fluxRecord("note", "text", "say \"hi\"");
+
+        assertThat(LineProtocolEncoder.encode(fluxRecord))
+                .isEqualTo("note text=\"say \\\"hi\\\"\" 1705276800000000000");
+    }
+
+    private static FluxRecord fluxRecord(String measurement, String field, Object value) {
+        final FluxRecord fluxRecord = new FluxRecord(0);
+        fluxRecord.getValues().put("result", "_result");
+        fluxRecord.getValues().put("table", 0L);
+        fluxRecord.getValues().put("_start", TIME);
+        fluxRecord.getValues().put("_stop", TIME.plusSeconds(1));
+        fluxRecord.getValues().put("_time", TIME);
+        fluxRecord.getValues().put("_measurement", measurement);
+        fluxRecord.getValues().put("_field", field);
+        fluxRecord.getValues().put("_value", value);
+        return fluxRecord;
+    }
+}
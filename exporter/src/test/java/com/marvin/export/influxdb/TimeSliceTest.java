@@ -0,0 +1,32 @@
+package com.marvin.export.influxdb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TimeSliceTest {
+
+    private static final Instant TIME = Instant.parse("2024-01-15T00:00:00Z");
+
+    @Test
+    void split_rangeNotMultipleOfSliceLength_lastSliceIsShortened() {
+        final Instant stop = TIME.plus(Duration.ofDays(75));
+
+        final List<TimeSlice> slices = TimeSlice.split(TIME, stop, Duration.ofDays(30));
+
+        assertThat(slices).containsExactly(
+                new TimeSlice(0, TIME, TIME.plus(Duration.ofDays(30))),
+                new TimeSlice(1, TIME.plus(Duration.ofDays(30)), TIME.plus(Duration.ofDays(60))),
+                new TimeSlice(2, TIME.plus(Duration.ofDays(60)), stop));
+    }
+
+    @Test
+    void split_emptyRange_throws() {
+        assertThatThrownBy(() -> TimeSlice.split(TIME, TIME, Duration.ofDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,161 @@
+package com.marvin.export.influxdb.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GorillaArchiveTest {
+
+    private static final Instant START = Instant.parse("2015-01-01T00:00:00Z");
+
+    private static final SeriesKey DAILY = new SeriesKey("costs", new TreeMap<>(Map.of("costType", "daily")), "value");
+
+    private static final SeriesKey SALARY = new SeriesKey("costs", new TreeMap<>(Map.of("costType", "salary")), "value");
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void close_unorderedPoints_readsBackSortedPerSeries() throws IOException {
+        final Path archive = tempDir.resolve("costs.gts");
+        try (GorillaArchiveWriter writer = new GorillaArchiveWriter(archive)) {
+            writer.add(DAILY, START.plus(Duration.ofDays(2)), 3.75);
+            writer.add(DAILY, START, 12.5);
+            writer.add(SALARY, START, 4200L);
+            writer.add(DAILY, START.plus(Duration.ofDays(1)), 12.5);
+        }
+
+        final List<ArchiveBlock> blocks = new ArrayList<>();
+        final long points = GorillaArchiveReader.forEachBlock(archive, blocks::add);
+
+        assertThat(points).isEqualTo(4);
+        assertThat(blocks).hasSize(2);
+
+        final ArchiveBlock daily = blocks.get(0);
+        assertThat(daily.key()).isEqualTo(DAILY);
+        assertThat(daily.valueType()).isEqualTo(ValueType.FLOAT);
+        assertThat(daily.timestamps()).containsExactly(
+                nanos(START), nanos(START.plus(Duration.ofDays(1))), nanos(START.plus(Duration.ofDays(2))));
+        assertThat(daily.values()).extracting(bits -> daily.valueType().fromBits(bits)).containsExactly(12.5, 12.5, 3.75);
+
+        final ArchiveBlock salary = blocks.get(1);
+        assertThat(salary.valueType()).isEqualTo(ValueType.INTEGER);
+        assertThat(salary.valueType().fromBits(salary.values()[0])).isEqualTo(4200L);
+    }
+
+    @Test
+    void close_regularDailySeries_isAnOrderOfMagnitudeSmallerThanCsv() throws IOException {
+        final Path archive = tempDir.resolve("daily.gts");
+        final StringBuilder csv = new StringBuilder("measurement,costType,value,time\n");
+        try (GorillaArchiveWriter writer = new GorillaArchiveWriter(archive)) {
+            for (int day = 0; day < 3650; day++) {
+                final Instant time = START.plus(Duration.ofDays(day));
+                final double value = day % 30 == 0 ? 35.9 : 12.5;
+                writer.add(DAILY, time, value);
+                csv.append("costs,daily,").append(value).append(',').append(time).append('\n');
+            }
+        }
+
+        assertThat(Files.size(archive) * 10).isLessThan(csv.length());
+    }
+
+    @Test
+    void encode_monthlySeries_storesDeltaOfDeltaInDays() {
+        final int months = 120;
+        final long[] timestamps = new long[months];
+        final LocalDate first = LocalDate.of(2015, 1, 1);
+        for (int month = 0; month < months; month++) {
+            timestamps[month] = nanos(first.plusMonths(month).atStartOfDay(ZoneOffset.UTC).toInstant());
+        }
+
+        final long unit = GorillaBlockEncoder.timeUnit(timestamps, months);
+        final GorillaBlockEncoder encoder = new GorillaBlockEncoder(unit);
+        for (long timestamp : timestamps) {
+            encoder.append(timestamp, Double.doubleToLongBits(4200.0));
+        }
+        final byte[] payload = encoder.toByteArray();
+
+        assertThat(unit).isEqualTo(Duration.ofDays(1).toNanos());
+        // 128 bits for the first point, at most 9 bits per delta-of-delta and 1 bit per unchanged value
+        assertThat(payload.length * 8.0 / months).isLessThan(12.0);
+
+        final long[] decodedTimestamps = new long[months];
+        final long[] decodedValues = new long[months];
+        GorillaBlockDecoder.decode(payload, unit, decodedTimestamps, decodedValues);
+        assertThat(decodedTimestamps).containsExactly(timestamps);
+    }
+
+    @Test
+    void add_fullBlockAndFlush_splitsSeriesIntoBlocks() throws IOException {
+        final Path archive = tempDir.resolve("blocks.gts");
+        try (GorillaArchiveWriter writer = new GorillaArchiveWriter(archive, 2)) {
+            writer.add(DAILY, START.plus(Duration.ofDays(1)), 1.0);
+            writer.add(DAILY, START, 2.0);
+            writer.add(DAILY, START.plus(Duration.ofDays(2)), 3.0);
+            writer.flush();
+            writer.add(DAILY, START.plus(Duration.ofDays(3)), 4.0);
+            writer.add(SALARY, START, 4200L);
+
+            assertThat(writer.pointCount()).isEqualTo(5);
+        }
+
+        final List<ArchiveBlock> blocks = new ArrayList<>();
+        final long points = GorillaArchiveReader.forEachBlock(archive, blocks::add);
+
+        assertThat(points).isEqualTo(5);
+        assertThat(blocks).extracting(ArchiveBlock::key).containsExactly(DAILY, DAILY, DAILY, SALARY);
+        assertThat(blocks.get(0).timestamps()).containsExactly(nanos(START), nanos(START.plus(Duration.ofDays(1))));
+        assertThat(blocks.get(1).timestamps()).containsExactly(nanos(START.plus(Duration.ofDays(2))));
+        assertThat(blocks.get(2).timestamps()).containsExactly(nanos(START.plus(Duration.ofDays(3))));
+    }
+
+    @Test
+    void add_mixedValueTypes_throws() throws IOException {
+        try (GorillaArchiveWriter writer = new GorillaArchiveWriter(tempDir.resolve("mixed.gts"))) {
+            writer.add(DAILY, START, 1.0);
+
+            assertThatThrownBy(() -> writer.add(DAILY, START.plusSeconds(1), 1L))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void forEachBlock_foreignFile_throws() throws IOException {
+        final Path file = Files.writeString(tempDir.resolve("foreign.gts"), "not an archive");
+
+        assertThatThrownBy(() -> GorillaArchiveReader.forEachBlock(file, block -> { }))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void forEachBlock_otherVersion_throws() throws IOException {
+        final Path file = tempDir.resolve("v1.gts");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(GorillaArchiveWriter.MAGIC);
+            out.writeByte(1);
+            out.writeInt(0);
+        }
+
+        assertThatThrownBy(() -> GorillaArchiveReader.forEachBlock(file, block -> { }))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unsupported archive version 1");
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
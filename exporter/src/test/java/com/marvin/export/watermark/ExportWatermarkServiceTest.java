@@ -0,0 +1,115 @@
+package com.marvin.export.watermark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.marvin.export.core.ExportMode;
+import com.marvin.export.core.ExportType;
+import com.marvin.export.core.ExportWindow;
+import com.marvin.export.core.PendingExport;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ExportWatermarkServiceTest {
+
+    @Mock
+    private ExportWatermarkRepository exportWatermarkRepository;
+
+    private final Map<ExportType, ExportWatermarkEntity> watermarks = new HashMap<>();
+
+    private ExportWatermarkService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ExportWatermarkService(exportWatermarkRepository, Duration.ofDays(7));
+        when(exportWatermarkRepository.findById(any())).thenAnswer(
+                invocation -> Optional.ofNullable(watermarks.get(invocation.<ExportType>getArgument(0))));
+    }
+
+    @Test
+    void open_withoutWatermark_writesFullSnapshot() {
+        final ExportWindow window = service.open(ExportType.DAILY_COSTS, false);
+
+        assertThat(window.mode()).isEqualTo(ExportMode.FULL);
+        assertThat(window.since()).isNull();
+    }
+
+    @Test
+    void commit_fullSnapshot_nextRunExportsDeltaSinceSnapshot() {
+        storeSaves();
+        final ExportWindow full = service.open(ExportType.DAILY_COSTS, false);
+        service.commit(new PendingExport(full, Path.of("daily_costs.full.jsonl"), 10));
+
+        final ExportWindow delta = service.open(ExportType.DAILY_COSTS, false);
+
+        assertThat(delta.mode()).isEqualTo(ExportMode.DELTA);
+        assertThat(delta.since()).isEqualTo(full.until());
+        final ExportWatermarkEntity watermark = watermarks.get(ExportType.DAILY_COSTS);
+        assertThat(watermark.getLastFullExport()).isEqualTo(full.until());
+        assertThat(watermark.getDeltasSinceFull()).isZero();
+        assertThat(watermark.getLastRowCount()).isEqualTo(10);
+    }
+
+    @Test
+    void commit_delta_advancesWatermarkAndKeepsLastFullExport() {
+        storeSaves();
+        final LocalDateTime lastFull = LocalDateTime.now().minusDays(1);
+        watermarks.put(ExportType.SALARIES, watermark(ExportType.SALARIES, lastFull));
+
+        final ExportWindow delta = service.open(ExportType.SALARIES, false);
+        service.commit(new PendingExport(delta, Path.of("salaries.delta.jsonl"), 2));
+
+        final ExportWatermarkEntity watermark = watermarks.get(ExportType.SALARIES);
+        assertThat(watermark.getWatermark()).isEqualTo(delta.until());
+        assertThat(watermark.getLastFullExport()).isEqualTo(lastFull);
+        assertThat(watermark.getDeltasSinceFull()).isEqualTo(1);
+    }
+
+    @Test
+    void open_afterUncommittedExport_resumesFromSameWatermark() {
+        final LocalDateTime lastFull = LocalDateTime.now().minusDays(1);
+        watermarks.put(ExportType.FLASHCARDS, watermark(ExportType.FLASHCARDS, lastFull));
+
+        final ExportWindow failed = service.open(ExportType.FLASHCARDS, false);
+        final ExportWindow retry = service.open(ExportType.FLASHCARDS, false);
+
+        assertThat(retry.mode()).isEqualTo(ExportMode.DELTA);
+        assertThat(retry.since()).isEqualTo(failed.since()).isEqualTo(lastFull);
+    }
+
+    @Test
+    void open_fullSnapshotOutdatedOrForced_writesFullSnapshot() {
+        watermarks.put(ExportType.MONTHLY_COSTS, watermark(ExportType.MONTHLY_COSTS, LocalDateTime.now().minusDays(8)));
+        watermarks.put(ExportType.SPECIAL_COSTS, watermark(ExportType.SPECIAL_COSTS, LocalDateTime.now().minusDays(1)));
+
+        assertThat(service.open(ExportType.MONTHLY_COSTS, false).mode()).isEqualTo(ExportMode.FULL);
+        assertThat(service.open(ExportType.SPECIAL_COSTS, true).mode()).isEqualTo(ExportMode.FULL);
+    }
+
+    private void storeSaves() {
+        when(exportWatermarkRepository.save(any())).thenAnswer(invocation -> {
+            final ExportWatermarkEntity entity = invocation.getArgument(0);
+            watermarks.put(entity.getExportType(), entity);
+            return entity;
+        });
+    }
+
+    private static ExportWatermarkEntity watermark(ExportType type, LocalDateTime lastFull) {
+        final ExportWatermarkEntity entity = new ExportWatermarkEntity();
+        entity.setExportType(type);
+        entity.setWatermark(lastFull);
+        entity.setLastFullExport(lastFull);
+        return entity;
+    }
+}
@@ -0,0 +1,87 @@
+package com.marvin.image.cache;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * Resource backed by a (typically direct) {@link ByteBuffer}.
+ *
+ * <p>Every read works on its own view of the buffer, so one instance can be served to any number
+ * of concurrent responses. Reads go through {@link #readableChannel()}, which copies straight from
+ * the buffer into the response buffers without an intermediate {@code byte[]}.</p>
+ */
+public class ByteBufferResource extends AbstractResource {
+
+    private final ByteBuffer buffer;
+    private final String description;
+
+    public ByteBufferResource(ByteBuffer buffer, String description) {
+        this.buffer = buffer.asReadOnlyBuffer();
+        this.description = description;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return Channels.newInputStream(readableChannel());
+    }
+
+    @Override
+    public ReadableByteChannel readableChannel() {
+        return new BufferChannel(buffer.duplicate());
+    }
+
+    private static final class BufferChannel implements ReadableByteChannel {
+
+        private final ByteBuffer source;
+        private boolean open = true;
+
+        private BufferChannel(ByteBuffer source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read(ByteBuffer target) throws ClosedChannelException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            if (!source.hasRemaining()) {
+                return -1;
+            }
+            final int length = Math.min(target.remaining(), source.remaining());
+            final ByteBuffer slice = source.slice();
+            slice.limit(length);
+            target.put(slice);
+            source.position(source.position() + length);
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
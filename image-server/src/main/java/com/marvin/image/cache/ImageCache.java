@@ -0,0 +1,194 @@
+package com.marvin.image.cache;
+
+import com.marvin.image.service.ImageResource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Byte-weighted LRU cache of served images, keyed by image ID.
+ *
+ * <p>Image bytes loaded from the database are copied into direct {@link ByteBuffer}s, so cached
+ * content lives outside the Java heap and is not scanned or copied by the garbage collector. Images
+ * in the blob store are cached without their content: the OS page cache already holds hot files
+ * and they are served zero-copy, so only their metadata is kept to avoid the database lookup.</p>
+ *
+ * <p>Entries are weighted by their content size plus a fixed overhead, and the least recently used
+ * entries are evicted once the configured budget is exceeded. Images larger than a quarter of the
+ * budget are not admitted, so a single large image cannot flush the whole cache. Evicted buffers are
+ * released by the garbage collector once no response is reading them anymore.</p>
+ *
+ * <p>Hits, misses, puts and evictions are published as {@code cache.*} meters tagged
+ * {@code cache=images}.</p>
+ */
+@Component
+public class ImageCache {
+
+    private static final String CACHE_NAME = "images";
+    private static final long ENTRY_OVERHEAD = 512;
+
+    private final long maxBytes;
+    private final Map<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private long usedBytes;
+
+    public ImageCache(
+            @Value("${images.cache.max-bytes:67108864}") long maxBytes,
+            MeterRegistry meterRegistry
+    ) {
+        this.maxBytes = Math.max(0, maxBytes);
+        registerMetrics(meterRegistry);
+    }
+
+    /**
+     * Returns whether images are cached at all.
+     *
+     * @return {@code false} if the memory budget is zero
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Returns the cached image with the given ID.
+     *
+     * @param id the image ID
+     * @return the cached image, or {@code null} on a miss
+     */
+    public ImageResource get(UUID id) {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.get(id);
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.image();
+    }
+
+    /**
+     * Caches an image whose content was loaded from the database.
+     *
+     * @param id          the image ID
+     * @param content     the image bytes, copied into a direct buffer
+     * @param contentType the content type of the image
+     * @param sha256      the SHA-256 hash of the image
+     * @return the image backed by the cached buffer, or backed by {@code content} if it is not admitted
+     */
+    public ImageResource putContent(UUID id, byte[] content, String contentType, String sha256) {
+        final String description = "image " + id;
+        if (!admits(content.length)) {
+            return new ImageResource(new ByteBufferResource(ByteBuffer.wrap(content), description), contentType, sha256);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(content.length).put(content).flip();
+        final ImageResource image = new ImageResource(new ByteBufferResource(buffer, description), contentType, sha256);
+        put(id, new Entry(image, content.length + ENTRY_OVERHEAD));
+        return image;
+    }
+
+    /**
+     * Caches an image whose content is served from a file, without caching the content itself.
+     *
+     * @param id          the image ID
+     * @param resource    the file resource of the image
+     * @param contentType the content type of the image
+     * @param sha256      the SHA-256 hash of the image
+     * @return the image
+     */
+    public ImageResource putFile(UUID id, Resource resource, String contentType, String sha256) {
+        final ImageResource image = new ImageResource(resource, contentType, sha256);
+        if (admits(0)) {
+            put(id, new Entry(image, ENTRY_OVERHEAD));
+        }
+        return image;
+    }
+
+    /**
+     * Removes an image from the cache.
+     *
+     * @param id the image ID
+     */
+    public synchronized void evict(UUID id) {
+        final Entry removed = entries.remove(id);
+        if (removed != null) {
+            usedBytes -= removed.weight();
+        }
+    }
+
+    private boolean admits(long contentLength) {
+        return isEnabled() && contentLength + ENTRY_OVERHEAD <= maxBytes / 4;
+    }
+
+    private synchronized void put(UUID id, Entry entry) {
+        final Entry previous = entries.put(id, entry);
+        if (previous != null) {
+            usedBytes -= previous.weight();
+        }
+        usedBytes += entry.weight();
+        puts.increment();
+
+        final Iterator<Entry> eldest = entries.values().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().weight();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Number of image requests served from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Number of image requests not found in the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.puts", puts, LongAdder::sum)
+                .tags("cache", CACHE_NAME)
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tags("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, ImageCache::size)
+                .tags("cache", CACHE_NAME)
+                .description("Number of cached images")
+                .register(meterRegistry);
+        Gauge.builder("cache.memory.used", this, ImageCache::usedBytes)
+                .tags("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("cache.memory.max", this, cache -> cache.maxBytes)
+                .tags("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private record Entry(ImageResource image, long weight) {
+
+    }
+}
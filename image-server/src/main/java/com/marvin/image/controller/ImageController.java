@@ -1,69 +1,202 @@
 package com.marvin.image.controller;
 
+import com.marvin.image.entity.Image;
+import com.marvin.image.service.BatchImage;
+import com.marvin.image.service.BlobMigrationResult;
+import com.marvin.image.service.ImageBlobMigrationService;
+import com.marvin.image.service.ImageResource;
 import com.marvin.image.service.ImageService;
+import com.marvin.image.variant.ImageVariantService;
 import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Slf4j
 @RestController
 @RequestMapping(path = "/images")
 public class ImageController {
 
+    // Images never change once created, so clients may cache them for a year without revalidating.
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
     private final ImageService imageService;
+    private final ImageBlobMigrationService imageBlobMigrationService;
+    private final ImageVariantService imageVariantService;
+    private final int maxBatchImages;
+    private final long maxBatchBytes;
 
-    public ImageController(ImageService imageService) {
+    public ImageController(
+            ImageService imageService,
+            ImageBlobMigrationService imageBlobMigrationService,
+            ImageVariantService imageVariantService,
+            @Value("${images.batch.max-images:100}") int maxBatchImages,
+            @Value("${images.batch.max-size:16MB}") DataSize maxBatchSize
+    ) {
         this.imageService = imageService;
+        this.imageBlobMigrationService = imageBlobMigrationService;
+        this.imageVariantService = imageVariantService;
+        this.maxBatchImages = maxBatchImages;
+        this.maxBatchBytes = maxBatchSize.toBytes();
     }
 
-    private static Mono<byte[]> getFileAsByteArray(Mono<FilePart> file) {
-        return file
-                .flatMap(filePart ->
-                        DataBufferUtils.join(filePart.content())
-                                .flatMap(dataBuffer -> {
-                                    final byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                                    dataBuffer.read(bytes);
-                                    DataBufferUtils.release(dataBuffer);
-                                    return Mono.just(bytes);
-                                })
-                )
-                .switchIfEmpty(Mono.just(new byte[0]))
-                .onErrorResume(e -> {
-                    log.error("", e);
-                    return Mono.just(new byte[0]);
-                });
-    }
-
+    // The upload is streamed into the image store; an empty upload is rejected.
     @PostMapping
     public Mono<ResponseEntity<Object>> createImage(
             @RequestPart("image") Mono<FilePart> image,
             @RequestParam(name = "content-type") String contentType
     ) {
-        return getFileAsByteArray(image)
+        return image
+                .flatMap(filePart -> imageService.saveImage(filePart, contentType))
                 .doOnError(throwable -> log.error("", throwable))
-                .flatMap(rawBytes ->
-                        imageService.saveImage(rawBytes, contentType)
-                                .map(uuid -> ResponseEntity.created(
-                                        URI.create("/images/%s".formatted(uuid))).build())
-                );
+                .map(uuid -> ResponseEntity.created(URI.create("/images/%s".formatted(uuid))).build())
+                .defaultIfEmpty(ResponseEntity.badRequest().build());
     }
 
+    // With ?w= the smallest configured variant at least that wide is served, created on first use.
+    // The ETag is the content hash stored with the image, so a conditional request is answered from
+    // the image metadata alone, and cached images are answered without any I/O. Otherwise the body is
+    // written by the resource writer: files are sent as zero-copy regions and Range requests are
+    // answered with 206 Partial Content.
     @GetMapping(path = "/{uuid}")
-    public Mono<ResponseEntity<byte[]>> getImage(@PathVariable UUID uuid) {
-        return imageService.getImage(uuid)
-                .map(ResponseEntity::ok)
+    public Mono<ResponseEntity<Resource>> getImage(
+            @PathVariable UUID uuid,
+            @RequestParam(name = "w", required = false) Integer width,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        final int variantWidth = imageVariantService.resolveWidth(width);
+        final UUID id = variantWidth == 0 ? uuid : ImageVariantService.variantId(uuid, variantWidth);
+
+        final Optional<ImageResource> cached = imageService.getCachedImage(id);
+        if (cached.isPresent()) {
+            final String eTag = eTag(cached.get().sha256());
+            return Mono.just(eTag != null && matches(ifNoneMatch, eTag) ? notModified(eTag) : imageResponse(cached.get(), eTag));
+        }
+
+        final Mono<Image> image = variantWidth == 0 ? imageService.findImage(uuid) : imageVariantService.findOrCreate(uuid, variantWidth);
+        return image
+                .flatMap(image -> {
+                    final String eTag = eTag(image.getSha256());
+                    if (eTag != null && matches(ifNoneMatch, eTag)) {
+                        return Mono.just(notModified(eTag));
+                    }
+                    return imageService.loadContent(image).map(content -> imageResponse(content, eTag));
+                })
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    // Every image is returned as a part of a multipart/mixed response, named by its ID and in request
+    // order. Images that do not exist or do not fit into the byte budget anymore are left out, so
+    // clients fetch the IDs missing from the response one by one.
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<MultiValueMap<String, HttpEntity<?>>>> getImages(@RequestBody List<UUID> ids) {
+        final List<UUID> distinct = ids.stream().distinct().toList();
+        if (distinct.size() > maxBatchImages) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return imageService.getImages(distinct, maxBatchBytes)
+                .map(images -> {
+                    final MultipartBodyBuilder body = new MultipartBodyBuilder();
+                    images.forEach(image -> addPart(body, image));
+                    return ResponseEntity.ok()
+                            .contentType(MediaType.MULTIPART_MIXED)
+                            .body(body.build());
+                });
+    }
+
+    @DeleteMapping(path = "/{uuid}")
+    public Mono<ResponseEntity<Void>> deleteImage(@PathVariable UUID uuid) {
+        return imageService.deleteImage(uuid)
+                .map(deleted -> deleted ? ResponseEntity.noContent().<Void>build() : ResponseEntity.notFound().<Void>build());
+    }
+
+    @PostMapping(path = "/blob-store/migration")
+    public Mono<ResponseEntity<BlobMigrationResult>> migrateToBlobStore() {
+        return Mono.fromCallable(() -> ResponseEntity.ok(imageBlobMigrationService.migrate()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(IllegalStateException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()));
+    }
+
+    private static ResponseEntity<Resource> imageResponse(ImageResource image, String eTag) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(mediaType(image))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (eTag != null) {
+            response.eTag(eTag).cacheControl(IMMUTABLE);
+        }
+        return response.body(image.resource());
+    }
+
+    private static void addPart(MultipartBodyBuilder body, BatchImage image) {
+        final String name = image.id().toString();
+        final MultipartBodyBuilder.PartBuilder part = body.part(name, image.image().resource(), mediaType(image.image()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline().name(name).build().toString());
+        final String eTag = eTag(image.image().sha256());
+        if (eTag != null) {
+            part.header(HttpHeaders.ETAG, eTag);
+        }
+    }
+
+    private static ResponseEntity<Resource> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(IMMUTABLE)
+                .build();
+    }
+
+    private static String eTag(String sha256) {
+        return sha256 == null ? null : "\"" + sha256 + "\"";
+    }
+
+    // If-None-Match uses the weak comparison, so a W/ prefix added by a proxy still matches.
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            final String tag = candidate.trim();
+            if ("*".equals(tag) || eTag.equals(tag.startsWith("W/") ? tag.substring(2) : tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MediaType mediaType(ImageResource image) {
+        try {
+            return MediaType.parseMediaType(image.contentType());
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
 }
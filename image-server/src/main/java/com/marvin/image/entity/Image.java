@@ -2,6 +2,8 @@ package com.marvin.image.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
@@ -10,6 +12,14 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/**
+ * Metadata of a stored image. The image bytes are not mapped, so loading an image never pulls its
+ * content into the heap; see {@link ImageStorage} for where they are kept. Downscaled variants are
+ * images as well and reference their original through {@code parentId}. Every upload of content
+ * that is already stored, and every duplicate stored before uploads were deduplicated, is an alias
+ * of the image holding the content, see {@code aliasOf}. Aliases keep their own ID, so deleting one
+ * never affects the others.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,14 +31,29 @@ public class Image {
     @GeneratedValue
     private UUID id;
 
-    @Column(nullable = false, columnDefinition = "bytea")
-    private byte[] content;
-
     @Column(name = "content_type", nullable = false)
     private String contentType;
 
-    public Image(byte[] content, String contentType) {
-        this.content = content;
+    private String sha256;
+
+    private Long size;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImageStorage storage = ImageStorage.DATABASE;
+
+    @Column(name = "parent_id")
+    private UUID parentId;
+
+    private Integer width;
+
+    @Column(name = "alias_of")
+    private UUID aliasOf;
+
+    public Image(String contentType, String sha256, long size, ImageStorage storage) {
         this.contentType = contentType;
+        this.sha256 = sha256;
+        this.size = size;
+        this.storage = storage;
     }
 }
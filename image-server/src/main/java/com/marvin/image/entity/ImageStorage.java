@@ -0,0 +1,12 @@
+package com.marvin.image.entity;
+
+/** Where the bytes of an {@link Image} are stored. */
+public enum ImageStorage {
+
+    /** In the {@code content} column of the image row. */
+    DATABASE,
+
+    /** In the filesystem blob store, addressed by the SHA-256 hash of the image. */
+    FILESYSTEM
+
+}
@@ -0,0 +1,21 @@
+package com.marvin.image.repository;
+
+import java.util.UUID;
+
+/** Projection of the bytes of an image kept in the database. */
+public interface ImageContentView {
+
+    /**
+     * Returns the image ID.
+     *
+     * @return the image ID
+     */
+    UUID getId();
+
+    /**
+     * Returns the image bytes.
+     *
+     * @return the image bytes
+     */
+    byte[] getContent();
+}
@@ -1,12 +1,223 @@
 package com.marvin.image.repository;
 
 import com.marvin.image.entity.Image;
+import com.marvin.image.entity.ImageStorage;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface ImageRepository extends JpaRepository<Image, UUID> {
 
+    /**
+     * Loads the bytes of an image kept in the database.
+     *
+     * @param id the image ID
+     * @return the image bytes, or empty if the image does not exist or is not kept in the database
+     */
+    @Query(value = "SELECT content FROM images.image WHERE id = :id AND storage = 'DATABASE'", nativeQuery = true)
+    Optional<byte[]> findContentById(@Param("id") UUID id);
+
+    /**
+     * Loads the bytes of the given images kept in the database in a single query.
+     *
+     * @param ids the image IDs
+     * @return the bytes of those images that are kept in the database
+     */
+    @Query(value = "SELECT id AS \"id\", content AS \"content\" FROM images.image WHERE id IN (:ids) AND storage = 'DATABASE'",
+            nativeQuery = true)
+    List<ImageContentView> findContentsByIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Finds the original image with the given content. Variants and aliases are not considered.
+     *
+     * @param sha256 the SHA-256 hash of the image bytes
+     * @return the image, or empty if the content was not uploaded before
+     */
+    @Query("SELECT i FROM Image i WHERE i.sha256 = :sha256 AND i.parentId IS NULL AND i.aliasOf IS NULL")
+    Optional<Image> findOriginalBySha256(@Param("sha256") String sha256);
+
+    /**
+     * Inserts an image together with its bytes in a single statement.
+     *
+     * @param id          the image ID
+     * @param content     the image bytes
+     * @param contentType the content type of the image
+     * @param sha256      the SHA-256 hash of the image bytes
+     * @param size        the size of the image in bytes
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO images.image (id, content, content_type, sha256, size, storage) "
+            + "VALUES (:id, :content, :contentType, :sha256, :size, 'DATABASE')", nativeQuery = true)
+    void insertWithContent(
+            @Param("id") UUID id,
+            @Param("content") byte[] content,
+            @Param("contentType") String contentType,
+            @Param("sha256") String sha256,
+            @Param("size") long size);
+
+    /**
+     * Inserts a variant of an image together with its bytes in a single statement.
+     *
+     * @param id          the variant ID
+     * @param parentId    the ID of the original image
+     * @param width       the width of the variant in pixels
+     * @param content     the variant bytes
+     * @param contentType the content type of the variant
+     * @param sha256      the SHA-256 hash of the variant bytes
+     * @param size        the size of the variant in bytes
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO images.image (id, parent_id, width, content, content_type, sha256, size, storage) "
+            + "VALUES (:id, :parentId, :width, :content, :contentType, :sha256, :size, 'DATABASE')", nativeQuery = true)
+    void insertVariantWithContent(
+            @Param("id") UUID id,
+            @Param("parentId") UUID parentId,
+            @Param("width") int width,
+            @Param("content") byte[] content,
+            @Param("contentType") String contentType,
+            @Param("sha256") String sha256,
+            @Param("size") long size);
+
+    /**
+     * Inserts a variant of an image whose bytes are kept in the blob store.
+     *
+     * @param id          the variant ID
+     * @param parentId    the ID of the original image
+     * @param width       the width of the variant in pixels
+     * @param contentType the content type of the variant
+     * @param sha256      the SHA-256 hash the variant is stored under
+     * @param size        the size of the variant in bytes
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO images.image (id, parent_id, width, content_type, sha256, size, storage) "
+            + "VALUES (:id, :parentId, :width, :contentType, :sha256, :size, 'FILESYSTEM')", nativeQuery = true)
+    void insertVariant(
+            @Param("id") UUID id,
+            @Param("parentId") UUID parentId,
+            @Param("width") int width,
+            @Param("contentType") String contentType,
+            @Param("sha256") String sha256,
+            @Param("size") long size);
+
+    /**
+     * Finds the variants of an image.
+     *
+     * @param parentId the ID of the original image
+     * @return the variants of the image
+     */
+    List<Image> findByParentId(UUID parentId);
+
+    /**
+     * Deletes an original image. If aliases still refer to it, one of them takes over its content
+     * and the others are pointed to that one, so all their IDs keep resolving. Variants of the
+     * original are deleted with it.
+     *
+     * @param id the ID of the original image
+     * @return the ID of the alias that took over the content, or empty if the image had no aliases
+     */
+    @Transactional
+    default Optional<UUID> deleteOriginal(UUID id) {
+        // Uploads aliasing the image concurrently wait for the lock and then fail on the foreign key,
+        // so no alias can be left pointing to the deleted row.
+        lockById(id);
+        final Optional<UUID> successor = findAnyAliasId(id);
+        successor.ifPresent(successorId -> {
+            redirectAliases(id, successorId);
+            takeOverContent(successorId, id);
+        });
+        deleteById(id);
+        return successor;
+    }
+
+    /**
+     * Locks an image row until the end of the transaction.
+     *
+     * @param id the image ID
+     * @return the image ID, or empty if the image does not exist
+     */
+    @Query(value = "SELECT id FROM images.image WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<UUID> lockById(@Param("id") UUID id);
+
+    /**
+     * Finds one of the aliases of an image.
+     *
+     * @param id the ID of the original image
+     * @return the ID of an alias, or empty if the image has none
+     */
+    @Query(value = "SELECT id FROM images.image WHERE alias_of = :id ORDER BY id LIMIT 1", nativeQuery = true)
+    Optional<UUID> findAnyAliasId(@Param("id") UUID id);
+
+    /**
+     * Points all aliases of an image, the chosen successor included, and the image itself to the
+     * successor. The image thereby leaves the unique hash index before the successor enters it.
+     *
+     * @param id          the ID of the original image
+     * @param successorId the ID of the alias taking over
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE images.image SET alias_of = :successorId WHERE alias_of = :id OR id = :id", nativeQuery = true)
+    int redirectAliases(@Param("id") UUID id, @Param("successorId") UUID successorId);
+
+    /**
+     * Turns an alias into an original by copying the content and metadata of the image it was an
+     * alias of. Bytes kept in the database are copied by the database.
+     *
+     * @param successorId the ID of the alias taking over
+     * @param id          the ID of the original image
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE images.image successor SET alias_of = NULL, content = original.content, "
+            + "content_type = original.content_type, sha256 = original.sha256, size = original.size, storage = original.storage "
+            + "FROM images.image original WHERE successor.id = :successorId AND original.id = :id", nativeQuery = true)
+    int takeOverContent(@Param("successorId") UUID successorId, @Param("id") UUID id);
+
+    /**
+     * Counts the images stored under the given hash in the blob store.
+     *
+     * @param sha256  the SHA-256 hash
+     * @param storage the storage of the images
+     * @return the number of images referencing the blob
+     */
+    long countBySha256AndStorage(String sha256, ImageStorage storage);
+
+    /**
+     * Returns the IDs of images kept in the database, in ID order after the given ID.
+     *
+     * @param after the exclusive lower bound of the IDs
+     * @param limit the maximum number of IDs
+     * @return the IDs of the next images kept in the database
+     */
+    @Query(value = "SELECT id FROM images.image WHERE storage = 'DATABASE' AND alias_of IS NULL AND id > :after ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findDatabaseStoredIdsAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    /**
+     * Marks an image as moved to the blob store and drops its bytes from the database.
+     *
+     * @param id     the image ID
+     * @param sha256 the SHA-256 hash the image is stored under
+     * @param size   the size of the image in bytes
+     * @return the number of updated rows, {@code 0} if the image was moved concurrently
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE images.image SET storage = 'FILESYSTEM', sha256 = :sha256, size = :size, content = NULL "
+            + "WHERE id = :id AND storage = 'DATABASE'", nativeQuery = true)
+    int moveToBlobStore(@Param("id") UUID id, @Param("sha256") String sha256, @Param("size") long size);
+
 }
@@ -0,0 +1,14 @@
+package com.marvin.image.service;
+
+import java.util.UUID;
+
+/**
+ * An image of a batch request.
+ *
+ * @param id    the requested image ID
+ * @param image the image
+ * @param size  the size of the image in bytes
+ */
+public record BatchImage(UUID id, ImageResource image, long size) {
+
+}
@@ -0,0 +1,11 @@
+package com.marvin.image.service;
+
+/**
+ * Outcome of moving database-stored images into the blob store.
+ *
+ * @param migrated the number of images moved into the blob store
+ * @param failed   the number of images that could not be moved and are still kept in the database
+ */
+public record BlobMigrationResult(int migrated, int failed) {
+
+}
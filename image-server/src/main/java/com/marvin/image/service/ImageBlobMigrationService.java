@@ -0,0 +1,88 @@
+package com.marvin.image.service;
+
+import com.marvin.image.repository.ImageRepository;
+import com.marvin.image.storage.FileSystemBlobStore;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves images kept in the {@code bytea} column of {@code images.image} into the blob store.
+ *
+ * <p>Images are processed one at a time in ID order, so only a single image is held in memory. A
+ * blob is written before its row is switched over and the {@code content} column cleared; an
+ * interrupted migration therefore leaves at most an unreferenced blob behind and can simply be
+ * started again.</p>
+ */
+@Slf4j
+@Service
+public class ImageBlobMigrationService {
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final ImageRepository imageRepository;
+    private final FileSystemBlobStore blobStore;
+    private final boolean blobStoreEnabled;
+    private final int batchSize;
+
+    public ImageBlobMigrationService(
+            ImageRepository imageRepository,
+            FileSystemBlobStore blobStore,
+            @Value("${images.blob-store.enabled:false}") boolean blobStoreEnabled,
+            @Value("${images.blob-store.migration-batch-size:100}") int batchSize
+    ) {
+        this.imageRepository = imageRepository;
+        this.blobStore = blobStore;
+        this.blobStoreEnabled = blobStoreEnabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Moves all images still kept in the database into the blob store.
+     *
+     * @return the number of migrated and failed images
+     * @throws IllegalStateException if the blob store is not enabled
+     */
+    public synchronized BlobMigrationResult migrate() {
+        if (!blobStoreEnabled) {
+            throw new IllegalStateException("The image blob store is not enabled!");
+        }
+
+        int migrated = 0;
+        int failed = 0;
+        UUID after = FIRST_ID;
+        List<UUID> ids = imageRepository.findDatabaseStoredIdsAfter(after, batchSize);
+        while (!ids.isEmpty()) {
+            for (UUID id : ids) {
+                if (migrate(id)) {
+                    migrated++;
+                } else {
+                    failed++;
+                }
+            }
+            after = ids.get(ids.size() - 1);
+            ids = imageRepository.findDatabaseStoredIdsAfter(after, batchSize);
+            log.info("Moved {} images into the blob store so far, {} failed.", migrated, failed);
+        }
+        return new BlobMigrationResult(migrated, failed);
+    }
+
+    private boolean migrate(UUID id) {
+        try {
+            final Optional<byte[]> content = imageRepository.findContentById(id);
+            if (content.isEmpty()) {
+                return false;
+            }
+            return blobStore.store(new ByteArrayInputStream(content.get()),
+                    blob -> imageRepository.moveToBlobStore(id, blob.sha256(), blob.size()) == 1);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to move image {} into the blob store.", id, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.marvin.image.service;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * An image ready to be served.
+ *
+ * @param resource    the image bytes, a file resource for images in the blob store
+ * @param contentType the content type of the image
+ * @param sha256      the SHA-256 hash of the image, or {@code null} for images stored before hashes were recorded
+ */
+public record ImageResource(Resource resource, String contentType, String sha256) {
+
+}
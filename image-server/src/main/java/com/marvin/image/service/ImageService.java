@@ -1,36 +1,383 @@
 package com.marvin.image.service;
 
+import com.marvin.common.upload.FileUploads;
+import com.marvin.image.cache.ImageCache;
 import com.marvin.image.entity.Image;
+import com.marvin.image.entity.ImageStorage;
 import com.marvin.image.repository.ImageRepository;
+import com.marvin.image.storage.FileSystemBlobStore;
+import com.marvin.image.storage.StoredBlob;
+import com.marvin.image.variant.ImageVariantService;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+@Slf4j
 @Service
 public class ImageService {
 
+    private static final HexFormat HEX = HexFormat.of();
+
     private final ImageRepository imageRepository;
+    private final FileSystemBlobStore blobStore;
+    private final ImageCache imageCache;
+    private final ImageVariantService imageVariantService;
+    private final boolean blobStoreEnabled;
+    private final long maxUploadBytes;
 
-    public ImageService(ImageRepository imageRepository) {
+    public ImageService(
+            ImageRepository imageRepository,
+            FileSystemBlobStore blobStore,
+            ImageCache imageCache,
+            ImageVariantService imageVariantService,
+            @Value("${images.blob-store.enabled:false}") boolean blobStoreEnabled,
+            @Value("${images.upload.max-size:20MB}") DataSize maxUploadSize
+    ) {
         this.imageRepository = imageRepository;
+        this.blobStore = blobStore;
+        this.imageCache = imageCache;
+        this.imageVariantService = imageVariantService;
+        this.blobStoreEnabled = blobStoreEnabled;
+        this.maxUploadBytes = maxUploadSize.toBytes();
+    }
+
+    /**
+     * Stores an uploaded image. With the blob store enabled the upload is streamed into it, so it
+     * is never held in memory; otherwise it is read up to the upload size limit.
+     *
+     * @param image       the uploaded image
+     * @param contentType the content type of the image
+     * @return the ID of the image, or empty if the upload is empty
+     */
+    public Mono<UUID> saveImage(FilePart image, String contentType) {
+        return FileUploads.read(image, maxUploadBytes, content -> store(content, contentType))
+                .doOnNext(imageVariantService::generateAll);
+    }
+
+    /**
+     * Deletes an image. Only the given ID is removed: an alias is dropped on its own, and an original
+     * that other uploads still refer to hands its content over to one of their aliases. Variants go
+     * with their original, and blobs no other image refers to anymore are removed from the blob store.
+     *
+     * @param id the image ID
+     * @return {@code true} if the image existed
+     */
+    public Mono<Boolean> deleteImage(UUID id) {
+        return Mono.fromCallable(() -> {
+            final Optional<Image> image = imageRepository.findById(id);
+            if (image.isEmpty()) {
+                return false;
+            }
+            if (image.get().getAliasOf() != null) {
+                // Aliases have neither bytes nor variants of their own.
+                imageRepository.deleteById(id);
+                return true;
+            }
+            final List<Image> variants = imageRepository.findByParentId(id);
+
+            imageRepository.deleteOriginal(id)
+                    .ifPresent(successor -> log.debug("Image {} took over the content of deleted image {}.", successor, id));
+            imageCache.evict(id);
+            imageVariantService.variantIds(id).forEach(imageCache::evict);
+
+            Stream.concat(image.stream(), variants.stream())
+                    .filter(deleted -> deleted.getStorage() == ImageStorage.FILESYSTEM)
+                    .map(Image::getSha256)
+                    .distinct()
+                    .forEach(this::deleteBlob);
+            return true;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Looks up an image. Cached images are returned right away without touching the database or a
+     * worker thread. Images in the blob store are returned as file resources without reading their
+     * bytes; only images still kept in the database are loaded into memory.
+     *
+     * @param id the image ID
+     * @return the image, or empty if it does not exist
+     */
+    public Mono<ImageResource> getImage(UUID id) {
+        return Mono.justOrEmpty(getCachedImage(id))
+                .switchIfEmpty(Mono.defer(() -> findImage(id).flatMap(this::loadContent)));
     }
 
-    @Transactional
-    public Mono<UUID> saveImage(byte[] rawImage, String contentType) {
+    /**
+     * Looks up several images for a batch request with one database round trip for their metadata
+     * and one for the bytes of those kept in the database; cached images need neither. Images are
+     * included in request order as long as their total size stays within the given budget.
+     *
+     * @param ids      the distinct image IDs
+     * @param maxBytes the maximum total size of the returned images
+     * @return the images found that fit into the budget, in request order
+     */
+    public Mono<List<BatchImage>> getImages(List<UUID> ids, long maxBytes) {
+        return Mono.fromCallable(() -> loadImages(ids, maxBytes))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
 
-        final Image image = new Image(rawImage, contentType);
+    /**
+     * Returns an image from the image cache.
+     *
+     * @param id the image ID
+     * @return the cached image, or empty on a cache miss
+     */
+    public Optional<ImageResource> getCachedImage(UUID id) {
+        return Optional.ofNullable(imageCache.get(id));
+    }
 
-        return Mono.fromCallable(() -> imageRepository.save(image))
+    /**
+     * Looks up the metadata of an image without touching its content. An alias resolves to the
+     * image it was collapsed onto.
+     *
+     * @param id the image ID
+     * @return the image metadata, or empty if the image does not exist
+     */
+    public Mono<Image> findImage(UUID id) {
+        return Mono.fromCallable(() -> imageRepository.findById(id).flatMap(this::resolveAlias))
                 .subscribeOn(Schedulers.boundedElastic())
-                .map(Image::getId);
+                .flatMap(Mono::justOrEmpty);
     }
 
-    public Mono<byte[]> getImage(UUID id) {
-        return Mono.fromCallable(() -> imageRepository.findById(id))
+    /**
+     * Opens the content of the given image and adds it to the image cache.
+     *
+     * @param image the image metadata
+     * @return the image, or empty if its content is missing
+     */
+    public Mono<ImageResource> loadContent(Image image) {
+        return Mono.fromCallable(() -> toResource(image))
                 .subscribeOn(Schedulers.boundedElastic())
-                .flatMap(image -> image.map(value -> Mono.just(value.getContent()))
-                        .orElseGet(Mono::empty));
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    // Content that was uploaded before is stored once: the upload gets an alias of the existing image,
+    // so every upload keeps an ID of its own that can be deleted independently. Concurrent uploads of
+    // new content race for the unique hash index; the loser becomes an alias of the winner's image.
+    // Blobs are referenced while the blob store keeps them from being deleted.
+    private UUID store(InputStream content, String contentType) throws IOException {
+        final PushbackInputStream input = new PushbackInputStream(content);
+        final int first = input.read();
+        if (first < 0) {
+            return null;
+        }
+        input.unread(first);
+
+        if (blobStoreEnabled) {
+            return blobStore.store(input, blob -> referenceBlob(blob, contentType));
+        }
+
+        final byte[] rawImage = input.readAllBytes();
+        final String sha256 = sha256Hex(rawImage);
+        final UUID id = UUID.randomUUID();
+        final Supplier<UUID> insert = () -> {
+            imageRepository.insertWithContent(id, rawImage, contentType, sha256, rawImage.length);
+            return id;
+        };
+        final Optional<Image> existing = imageRepository.findOriginalBySha256(sha256);
+        if (existing.isPresent()) {
+            return insertAlias(existing.get(), contentType, insert);
+        }
+        return insertOrAlias(sha256, contentType, insert);
+    }
+
+    private UUID referenceBlob(StoredBlob blob, String contentType) {
+        final Supplier<UUID> insert =
+                () -> imageRepository.save(new Image(contentType, blob.sha256(), blob.size(), ImageStorage.FILESYSTEM)).getId();
+        final Optional<Image> existing = imageRepository.findOriginalBySha256(blob.sha256());
+        if (existing.isPresent()) {
+            // The blob is there now, so a duplicate still kept in the database can drop its bytes.
+            if (existing.get().getStorage() == ImageStorage.DATABASE) {
+                imageRepository.moveToBlobStore(existing.get().getId(), blob.sha256(), blob.size());
+            }
+            return insertAlias(existing.get(), contentType, insert);
+        }
+        return insertOrAlias(blob.sha256(), contentType, insert);
+    }
+
+    private Optional<Image> resolveAlias(Image image) {
+        return image.getAliasOf() == null ? Optional.of(image) : imageRepository.findById(image.getAliasOf());
+    }
+
+    private UUID insertOrAlias(String sha256, String contentType, Supplier<UUID> insert) {
+        try {
+            return insert.get();
+        } catch (DataIntegrityViolationException e) {
+            final Image winner = imageRepository.findOriginalBySha256(sha256).orElseThrow(() -> e);
+            return insertAlias(winner, contentType, insert);
+        }
+    }
+
+    // An original deleted meanwhile has handed its content over to one of its aliases, which is
+    // the original to refer to from then on. Without such an alias the upload stores the content
+    // as a new original.
+    private UUID insertAlias(Image original, String contentType, Supplier<UUID> insert) {
+        try {
+            return imageRepository.save(alias(original, contentType)).getId();
+        } catch (DataIntegrityViolationException e) {
+            return imageRepository.findOriginalBySha256(original.getSha256())
+                    .map(successor -> imageRepository.save(alias(successor, contentType)).getId())
+                    .orElseGet(insert);
+        }
+    }
+
+    private static Image alias(Image original, String contentType) {
+        final Image alias = new Image();
+        alias.setContentType(contentType);
+        alias.setSha256(original.getSha256());
+        alias.setSize(original.getSize());
+        alias.setStorage(original.getStorage());
+        alias.setAliasOf(original.getId());
+        return alias;
+    }
+
+    private Optional<ImageResource> toResource(Image image) {
+        if (image.getStorage() == ImageStorage.FILESYSTEM) {
+            return openBlob(image);
+        }
+        return imageRepository.findContentById(image.getId())
+                .map(content -> imageCache.putContent(image.getId(), content, image.getContentType(), image.getSha256()));
+    }
+
+    private Optional<ImageResource> openBlob(Image image) {
+        try {
+            return Optional.of(imageCache.putFile(image.getId(), blobStore.open(image.getSha256()), image.getContentType(), image.getSha256()));
+        } catch (FileNotFoundException e) {
+            log.error("Blob of image {} is missing from the blob store!", image.getId(), e);
+            return Optional.empty();
+        }
+    }
+
+    // Images are taken in request order as long as they fit into the byte budget, judged by the
+    // cached content or the recorded size, so bytes of images left out are never loaded.
+    private List<BatchImage> loadImages(List<UUID> ids, long maxBytes) {
+        final Map<UUID, ImageResource> cached = new HashMap<>();
+        for (UUID id : ids) {
+            getCachedImage(id).ifPresent(image -> cached.put(id, image));
+        }
+        final Map<UUID, Image> uncached = findResolved(ids.stream().filter(id -> !cached.containsKey(id)).toList());
+
+        final Map<UUID, Long> sizes = new LinkedHashMap<>();
+        long remaining = maxBytes;
+        for (UUID id : ids) {
+            final long size;
+            if (cached.containsKey(id)) {
+                size = contentLength(cached.get(id));
+            } else if (uncached.containsKey(id)) {
+                size = Optional.ofNullable(uncached.get(id).getSize()).orElse(0L);
+            } else {
+                continue;
+            }
+            if (size >= 0 && size <= remaining) {
+                sizes.put(id, size);
+                remaining -= size;
+            }
+        }
+
+        final Map<UUID, byte[]> contents = loadContents(sizes.keySet().stream()
+                .map(uncached::get)
+                .filter(image -> image != null && image.getStorage() == ImageStorage.DATABASE)
+                .map(Image::getId)
+                .collect(Collectors.toSet()));
+
+        final List<BatchImage> images = new ArrayList<>();
+        sizes.forEach((id, size) -> {
+            final Optional<ImageResource> image;
+            if (cached.containsKey(id)) {
+                image = Optional.of(cached.get(id));
+            } else {
+                final Image metadata = uncached.get(id);
+                image = metadata.getStorage() == ImageStorage.FILESYSTEM
+                        ? openBlob(metadata)
+                        : Optional.ofNullable(contents.get(metadata.getId()))
+                                .map(content -> imageCache.putContent(metadata.getId(), content, metadata.getContentType(), metadata.getSha256()));
+            }
+            image.ifPresent(resource -> images.add(new BatchImage(id, resource, size)));
+        });
+        return images;
+    }
+
+    // Maps the requested IDs to the metadata of their images, with aliases resolved.
+    private Map<UUID, Image> findResolved(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        final Map<UUID, Image> images = new HashMap<>();
+        imageRepository.findAllById(ids).forEach(image -> images.put(image.getId(), image));
+
+        final Set<UUID> canonicalIds = images.values().stream()
+                .map(Image::getAliasOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        final Map<UUID, Image> canonical = new HashMap<>();
+        if (!canonicalIds.isEmpty()) {
+            imageRepository.findAllById(canonicalIds).forEach(image -> canonical.put(image.getId(), image));
+        }
+
+        final Map<UUID, Image> resolved = new HashMap<>();
+        images.forEach((id, image) -> {
+            final Image target = image.getAliasOf() == null ? image : canonical.get(image.getAliasOf());
+            if (target != null) {
+                resolved.put(id, target);
+            }
+        });
+        return resolved;
+    }
+
+    private Map<UUID, byte[]> loadContents(Set<UUID> ids) {
+        final Map<UUID, byte[]> contents = new HashMap<>();
+        if (!ids.isEmpty()) {
+            imageRepository.findContentsByIds(ids).forEach(content -> contents.put(content.getId(), content.getContent()));
+        }
+        return contents;
+    }
+
+    private static long contentLength(ImageResource image) {
+        try {
+            return image.resource().contentLength();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private void deleteBlob(String sha256) {
+        try {
+            blobStore.deleteUnreferenced(sha256,
+                    hash -> imageRepository.countBySha256AndStorage(hash, ImageStorage.FILESYSTEM) > 0);
+        } catch (IOException e) {
+            log.warn("Failed to delete unreferenced blob {}.", sha256, e);
+        }
+    }
+
+    private static String sha256Hex(byte[] content) {
+        try {
+            return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
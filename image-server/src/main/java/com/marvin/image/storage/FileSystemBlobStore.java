@@ -0,0 +1,167 @@
+package com.marvin.image.storage;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content-addressed blob store on the local filesystem.
+ *
+ * <p>Every blob is stored once under its SHA-256 hash in {@code <root>/ab/cd/abcd...}. Blobs are
+ * written to a temporary file first and moved into place atomically, so readers never see a
+ * partially written blob, and storing the same content twice keeps a single file. Blobs are served
+ * as {@link FileSystemResource}s, which the reactive web stack transfers with zero-copy file
+ * regions, including HTTP range requests.</p>
+ *
+ * <p>Putting a blob into place and recording a reference to it is serialized per hash with checking
+ * a blob for references and deleting it, so a blob is never deleted under an upload that just found
+ * it in place. The locks live in this process, which assumes a single instance owns the store.</p>
+ */
+@Component
+public class FileSystemBlobStore {
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final HexFormat HEX = HexFormat.of();
+    private static final String TMP_DIRECTORY = "tmp";
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public FileSystemBlobStore(@Value("${images.blob-store.root:./app/images/blobs}") String root) {
+        this.root = Path.of(root);
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Writes the given content to the store.
+     *
+     * @param content the content, read to its end but not closed
+     * @return the hash and size of the stored blob
+     * @throws IOException if writing the blob fails
+     */
+    public StoredBlob store(InputStream content) throws IOException {
+        return store(content, Function.identity());
+    }
+
+    /**
+     * Writes the given content to the store and records a reference to it. The reference is
+     * recorded while no other thread can delete the blob, so it must be committed once it returns.
+     *
+     * @param content   the content, read to its end but not closed
+     * @param reference records a reference to the stored blob
+     * @param <T>       the result of recording the reference
+     * @return the result of recording the reference
+     * @throws IOException if writing the blob fails
+     */
+    public <T> T store(InputStream content, Function<StoredBlob, T> reference) throws IOException {
+        final Path tmpDirectory = root.resolve(TMP_DIRECTORY);
+        Files.createDirectories(tmpDirectory);
+        final Path tmp = Files.createTempFile(tmpDirectory, "blob-", ".tmp");
+
+        try {
+            final MessageDigest digest = sha256();
+            final long size;
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                size = new DigestInputStream(content, digest).transferTo(out);
+            }
+
+            final String hash = HEX.formatHex(digest.digest());
+            final Path target = resolve(hash);
+            synchronized (lock(hash)) {
+                if (Files.exists(target)) {
+                    Files.delete(tmp);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    moveIntoPlace(tmp, target);
+                }
+                return reference.apply(new StoredBlob(hash, size));
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Returns the blob stored under the given hash.
+     *
+     * @param sha256 the SHA-256 hash of the blob
+     * @return the blob as a file resource
+     * @throws FileNotFoundException if no blob is stored under the hash
+     */
+    public Resource open(String sha256) throws FileNotFoundException {
+        final Path path = resolve(sha256);
+        if (!Files.isRegularFile(path)) {
+            throw new FileNotFoundException("No blob stored under " + sha256);
+        }
+        return new FileSystemResource(path);
+    }
+
+    /**
+     * Deletes the blob stored under the given hash unless something still refers to it. No blob
+     * with the same hash can be stored or referenced while the references are checked.
+     *
+     * @param sha256     the SHA-256 hash of the blob
+     * @param referenced tells whether something still refers to the blob
+     * @return {@code true} if the blob was deleted
+     * @throws IOException if deleting the blob fails
+     */
+    public boolean deleteUnreferenced(String sha256, Predicate<String> referenced) throws IOException {
+        final Path path = resolve(sha256);
+        synchronized (lock(sha256)) {
+            return !referenced.test(sha256) && Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Returns the path of the blob with the given hash, whether it exists or not.
+     *
+     * @param sha256 the SHA-256 hash of the blob
+     * @return the path of the blob
+     */
+    public Path resolve(String sha256) {
+        if (sha256 == null || !SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Invalid SHA-256 hash: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private Object lock(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), locks.length)];
+    }
+
+    // A concurrent upload of the same content may have won the race; its file is identical.
+    private static void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
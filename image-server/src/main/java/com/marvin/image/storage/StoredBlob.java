@@ -0,0 +1,11 @@
+package com.marvin.image.storage;
+
+/**
+ * A blob written to the {@link FileSystemBlobStore}.
+ *
+ * @param sha256 the SHA-256 hash of the blob, hex encoded
+ * @param size   the size of the blob in bytes
+ */
+public record StoredBlob(String sha256, long size) {
+
+}
@@ -0,0 +1,107 @@
+package com.marvin.image.variant;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Downscales images with {@code javax.imageio}.
+ *
+ * <p>The source is decoded with subsampling, so a camera-size photo is never decoded at full
+ * resolution: only every n-th pixel is read such that the decoded image is still at least twice
+ * the target width, and the final step is a bilinear downscale. Formats that may carry
+ * transparency are written as PNG, everything else as JPEG.</p>
+ */
+public final class ImageScaler {
+
+    private static final Set<String> ALPHA_FORMATS = Set.of("png", "gif");
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private ImageScaler() {
+    }
+
+    /**
+     * Scales the given image down to the given width, keeping its aspect ratio.
+     *
+     * @param original the encoded original image
+     * @param width    the target width in pixels
+     * @return the scaled image, or empty if the format cannot be decoded or the image is not wider
+     *         than the target width
+     * @throws IOException if decoding or encoding fails
+     */
+    public static Optional<ScaledImage> scale(byte[] original, int width) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(original))) {
+            final Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return Optional.empty();
+            }
+
+            final ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                final int sourceWidth = reader.getWidth(0);
+                final int sourceHeight = reader.getHeight(0);
+                if (sourceWidth <= width) {
+                    return Optional.empty();
+                }
+
+                final ImageReadParam param = reader.getDefaultReadParam();
+                final int subsampling = Math.max(1, sourceWidth / (width * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                final BufferedImage decoded = reader.read(0, param);
+
+                final boolean alpha = ALPHA_FORMATS.contains(reader.getFormatName().toLowerCase(Locale.ROOT));
+                final int height = Math.max(1, (int) Math.round((double) sourceHeight * width / sourceWidth));
+                final BufferedImage scaled = resize(decoded, width, height, alpha);
+                return Optional.of(alpha ? encode(scaled, "png", "image/png") : encode(scaled, "jpeg", "image/jpeg"));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height, boolean alpha) {
+        final BufferedImage target = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static ScaledImage encode(BufferedImage image, String format, String contentType) throws IOException {
+        final ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            final ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed() && "jpeg".equals(format)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return new ScaledImage(out.toByteArray(), contentType);
+    }
+}
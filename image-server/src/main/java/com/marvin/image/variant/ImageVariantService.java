@@ -0,0 +1,203 @@
+package com.marvin.image.variant;
+
+import com.marvin.image.entity.Image;
+import com.marvin.image.entity.ImageStorage;
+import com.marvin.image.repository.ImageRepository;
+import com.marvin.image.storage.FileSystemBlobStore;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Creates and looks up downscaled variants of images.
+ *
+ * <p>Variants are generated for a fixed set of widths, eagerly after an upload and lazily on the
+ * first request, on a dedicated bounded worker pool so that decoding photos cannot starve other
+ * work. Concurrent requests for the same variant share one generation. A variant is stored as an
+ * image of its own, referencing its original, with an ID derived from the original ID and the width,
+ * so it can be found in the image cache without a database lookup. Variants are deleted with their
+ * original by the database.</p>
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final ImageRepository imageRepository;
+    private final FileSystemBlobStore blobStore;
+    private final boolean blobStoreEnabled;
+    private final List<Integer> widths;
+    private final Scheduler scheduler;
+    private final Map<UUID, Mono<Image>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageVariantService(
+            ImageRepository imageRepository,
+            FileSystemBlobStore blobStore,
+            @Value("${images.blob-store.enabled:false}") boolean blobStoreEnabled,
+            @Value("${images.variants.widths:160,320,640}") List<Integer> widths,
+            @Value("${images.variants.workers:2}") int workers
+    ) {
+        this.imageRepository = imageRepository;
+        this.blobStore = blobStore;
+        this.blobStoreEnabled = blobStoreEnabled;
+        this.widths = widths.stream().filter(width -> width > 0).sorted().distinct().toList();
+        this.scheduler = Schedulers.newBoundedElastic(Math.max(1, workers), Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "image-variants");
+    }
+
+    /**
+     * Derives the ID of the variant of an image with the given width.
+     *
+     * @param parentId the ID of the original image
+     * @param width    the width of the variant
+     * @return the variant ID
+     */
+    public static UUID variantId(UUID parentId, int width) {
+        return UUID.nameUUIDFromBytes((parentId + "/w" + width).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Maps a requested width to the smallest configured variant width that is at least as wide.
+     *
+     * @param requested the requested width, or {@code null}
+     * @return the variant width, or {@code 0} if the original is to be served
+     */
+    public int resolveWidth(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return 0;
+        }
+        return widths.stream().filter(width -> width >= requested).findFirst().orElse(0);
+    }
+
+    /**
+     * Returns the IDs of all possible variants of an image.
+     *
+     * @param parentId the ID of the original image
+     * @return the variant IDs
+     */
+    public List<UUID> variantIds(UUID parentId) {
+        return widths.stream().map(width -> variantId(parentId, width)).toList();
+    }
+
+    /**
+     * Returns the variant of an image with the given width, generating it if it does not exist yet.
+     *
+     * @param parentId the ID of the original image
+     * @param width    a configured variant width
+     * @return the variant metadata, or empty if the original does not exist
+     */
+    public Mono<Image> findOrCreate(UUID parentId, int width) {
+        final UUID id = variantId(parentId, width);
+        return Mono.fromCallable(() -> imageRepository.findById(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(existing -> existing.map(Mono::just).orElseGet(() -> generateOnce(id, parentId, width)));
+    }
+
+    /**
+     * Generates all variants of a freshly uploaded image in the background.
+     *
+     * @param parentId the ID of the original image
+     */
+    public void generateAll(UUID parentId) {
+        Flux.fromIterable(widths)
+                .concatMap(width -> findOrCreate(parentId, width))
+                .subscribe(
+                        variant -> log.debug("Created {}px variant {} of image {}.", variant.getWidth(), variant.getId(), parentId),
+                        e -> log.error("Failed to create variants of image {}.", parentId, e));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+
+    // All concurrent callers subscribe to the same cached generation, which is forgotten once done.
+    private Mono<Image> generateOnce(UUID id, UUID parentId, int width) {
+        return inFlight.computeIfAbsent(id, key -> Mono.fromCallable(() -> generate(id, parentId, width))
+                .subscribeOn(scheduler)
+                .flatMap(Mono::justOrEmpty)
+                .doFinally(signal -> inFlight.remove(key))
+                .cache());
+    }
+
+    private Optional<Image> generate(UUID id, UUID parentId, int width) throws IOException {
+        final Optional<Image> existing = imageRepository.findById(id);
+        if (existing.isPresent()) {
+            return existing;
+        }
+        final Optional<Image> parent = imageRepository.findById(parentId);
+        if (parent.isEmpty()) {
+            return Optional.empty();
+        }
+        if (parent.get().getAliasOf() != null) {
+            // Collapsed duplicates share the variants of their canonical image.
+            final UUID canonicalId = parent.get().getAliasOf();
+            return generate(variantId(canonicalId, width), canonicalId, width);
+        }
+        if (parent.get().getParentId() != null) {
+            // Variants are not scaled again; the variant itself is served.
+            return parent;
+        }
+
+        final byte[] original = readContent(parent.get());
+        // Originals that are already small enough or cannot be decoded are stored unchanged, so
+        // they are not decoded again on every request.
+        final ScaledImage scaled = ImageScaler.scale(original, width)
+                .orElseGet(() -> new ScaledImage(original, parent.get().getContentType()));
+
+        try {
+            store(id, parentId, width, scaled);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Variant {} of image {} was created concurrently.", id, parentId);
+        }
+        return imageRepository.findById(id);
+    }
+
+    private void store(UUID id, UUID parentId, int width, ScaledImage scaled) throws IOException {
+        if (blobStoreEnabled) {
+            blobStore.store(new ByteArrayInputStream(scaled.content()), blob -> {
+                imageRepository.insertVariant(id, parentId, width, scaled.contentType(), blob.sha256(), blob.size());
+                return blob;
+            });
+        } else {
+            imageRepository.insertVariantWithContent(id, parentId, width, scaled.content(), scaled.contentType(),
+                    sha256Hex(scaled.content()), scaled.content().length);
+        }
+    }
+
+    private byte[] readContent(Image image) throws IOException {
+        if (image.getStorage() == ImageStorage.FILESYSTEM) {
+            try (InputStream in = blobStore.open(image.getSha256()).getInputStream()) {
+                return in.readAllBytes();
+            }
+        }
+        return imageRepository.findContentById(image.getId())
+                .orElseThrow(() -> new IOException("Content of image " + image.getId() + " is missing"));
+    }
+
+    private static String sha256Hex(byte[] content) {
+        try {
+            return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
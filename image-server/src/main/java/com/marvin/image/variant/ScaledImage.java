@@ -0,0 +1,11 @@
+package com.marvin.image.variant;
+
+/**
+ * An encoded, downscaled image.
+ *
+ * @param content     the encoded image bytes
+ * @param contentType the content type of the encoding
+ */
+public record ScaledImage(byte[] content, String contentType) {
+
+}
@@ -0,0 +1,9 @@
+-- Image bytes are either kept in the content column (DATABASE) or in the filesystem blob store
+-- under their SHA-256 hash (FILESYSTEM), in which case only the metadata remains in this table.
+ALTER TABLE images.image
+    ALTER COLUMN content DROP NOT NULL,
+    ADD COLUMN sha256  VARCHAR(64),
+    ADD COLUMN size    BIGINT,
+    ADD COLUMN storage VARCHAR(16) NOT NULL DEFAULT 'DATABASE';
+
+CREATE INDEX idx_image_storage ON images.image (storage, id);
@@ -0,0 +1,7 @@
+-- Images stored before hashes were recorded get their SHA-256 hash and size, which serve as ETag
+-- and Content-Length without reading the content.
+UPDATE images.image
+SET sha256 = encode(sha256(content), 'hex'),
+    size   = length(content)
+WHERE sha256 IS NULL
+  AND content IS NOT NULL;
@@ -0,0 +1,7 @@
+-- Downscaled variants are images of their own that point to their original; they are removed
+-- together with it.
+ALTER TABLE images.image
+    ADD COLUMN parent_id UUID REFERENCES images.image (id) ON DELETE CASCADE,
+    ADD COLUMN width     INT;
+
+CREATE UNIQUE INDEX idx_image_parent_width ON images.image (parent_id, width) WHERE parent_id IS NOT NULL;
@@ -0,0 +1,33 @@
+-- Identical originals are collapsed onto one canonical image. The other rows remain as aliases so
+-- that their IDs keep resolving, but give up their bytes and variants. From now on, uploading known
+-- content returns the existing image, which the unique index guarantees.
+ALTER TABLE images.image
+    ADD COLUMN alias_of UUID REFERENCES images.image (id) ON DELETE CASCADE;
+
+UPDATE images.image
+SET sha256 = encode(sha256(content), 'hex'),
+    size   = length(content)
+WHERE sha256 IS NULL
+  AND content IS NOT NULL;
+
+-- Images already in the blob store are preferred as canonical image.
+WITH ranked AS (
+    SELECT id,
+           first_value(id) OVER (PARTITION BY sha256 ORDER BY storage = 'FILESYSTEM' DESC, id) AS canonical_id
+    FROM images.image
+    WHERE parent_id IS NULL
+      AND sha256 IS NOT NULL
+)
+UPDATE images.image image
+SET alias_of = ranked.canonical_id,
+    content  = NULL
+FROM ranked
+WHERE image.id = ranked.id
+  AND ranked.id <> ranked.canonical_id;
+
+DELETE FROM images.image variant
+USING images.image alias
+WHERE variant.parent_id = alias.id
+  AND alias.alias_of IS NOT NULL;
+
+CREATE UNIQUE INDEX idx_image_sha256 ON images.image (sha256) WHERE parent_id IS NULL AND alias_of IS NULL;
@@ -0,0 +1,7 @@
+-- Every upload of known content is an alias of the image holding the bytes. Deleting that image must
+-- never take the aliases with it; it hands its content over to one of them instead.
+ALTER TABLE images.image
+    DROP CONSTRAINT image_alias_of_fkey,
+    ADD CONSTRAINT image_alias_of_fkey FOREIGN KEY (alias_of) REFERENCES images.image (id) ON DELETE RESTRICT;
+
+CREATE INDEX idx_image_alias_of ON images.image (alias_of) WHERE alias_of IS NOT NULL;
@@ -0,0 +1,85 @@
+package com.marvin.image.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.marvin.image.service.ImageResource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ImageCacheTest {
+
+    private static final int IMAGE_SIZE = 1000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Room for four images of IMAGE_SIZE bytes including their entry overhead.
+    private final ImageCache cache = new ImageCache(4 * (IMAGE_SIZE + 512), meterRegistry);
+
+    @Test
+    void shouldServeCachedContentFromDirectBuffer() throws IOException {
+        final UUID id = UUID.randomUUID();
+        final byte[] content = content(IMAGE_SIZE, 7);
+
+        cache.putContent(id, content, "image/jpeg", "hash");
+        final ImageResource cached = cache.get(id);
+
+        assertThat(cached.contentType()).isEqualTo("image/jpeg");
+        assertThat(cached.sha256()).isEqualTo("hash");
+        assertThat(cached.resource().contentLength()).isEqualTo(IMAGE_SIZE);
+        try (InputStream first = cached.resource().getInputStream(); InputStream second = cached.resource().getInputStream()) {
+            assertThat(first.readAllBytes()).isEqualTo(content);
+            assertThat(second.readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedImagesWhenBudgetIsExceeded() {
+        final UUID[] ids = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        for (int i = 0; i < 4; i++) {
+            cache.putContent(ids[i], content(IMAGE_SIZE, i), "image/png", null);
+        }
+        cache.get(ids[0]);
+
+        cache.putContent(ids[4], content(IMAGE_SIZE, 4), "image/png", null);
+
+        assertThat(cache.get(ids[0])).isNotNull();
+        assertThat(cache.get(ids[1])).isNull();
+        assertThat(cache.get(ids[4])).isNotNull();
+        assertThat(meterRegistry.get("cache.evictions").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.memory.used").gauge().value()).isEqualTo(4 * (IMAGE_SIZE + 512));
+    }
+
+    @Test
+    void shouldNotAdmitImagesLargerThanAQuarterOfTheBudget() throws IOException {
+        final UUID id = UUID.randomUUID();
+        final byte[] content = content(3 * IMAGE_SIZE, 1);
+
+        final ImageResource image = cache.putContent(id, content, "image/png", null);
+
+        assertThat(image.resource().getInputStream().readAllBytes()).isEqualTo(content);
+        assertThat(cache.get(id)).isNull();
+    }
+
+    @Test
+    void shouldCountHitsAndMisses() {
+        final UUID id = UUID.randomUUID();
+        cache.get(id);
+        cache.putContent(id, content(10, 1), "image/png", null);
+        cache.get(id);
+        cache.get(id);
+
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    private static byte[] content(int size, int seed) {
+        final byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i * 31 + seed);
+        }
+        return content;
+    }
+}
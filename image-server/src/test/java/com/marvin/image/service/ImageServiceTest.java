@@ -0,0 +1,213 @@
+package com.marvin.image.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.marvin.image.cache.ImageCache;
+import com.marvin.image.entity.Image;
+import com.marvin.image.entity.ImageStorage;
+import com.marvin.image.repository.ImageContentView;
+import com.marvin.image.repository.ImageRepository;
+import com.marvin.image.storage.FileSystemBlobStore;
+import com.marvin.image.variant.ImageVariantService;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+@ExtendWith(MockitoExtension.class)
+class ImageServiceTest {
+
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ImageCache imageCache;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @TempDir
+    private Path root;
+
+    @Test
+    void shouldAliasExistingImageForKnownContent() {
+        final Image existing = image(ImageStorage.DATABASE);
+        when(imageRepository.findOriginalBySha256(HELLO_SHA256)).thenReturn(Optional.of(existing));
+        when(imageRepository.save(any())).thenAnswer(ImageServiceTest::withId);
+
+        final UUID id = service(false).saveImage(upload("hello"), "image/png").block();
+
+        assertThat(id).isNotNull().isNotEqualTo(existing.getId());
+        verify(imageRepository).save(argThat(alias -> existing.getId().equals(alias.getAliasOf())));
+        verify(imageRepository, never()).insertWithContent(any(), any(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void shouldInsertNewContent() {
+        when(imageRepository.findOriginalBySha256(HELLO_SHA256)).thenReturn(Optional.empty());
+
+        final UUID id = service(false).saveImage(upload("hello"), "image/png").block();
+
+        assertThat(id).isNotNull();
+        verify(imageRepository).insertWithContent(eq(id), any(), eq("image/png"), eq(HELLO_SHA256), eq(5L));
+    }
+
+    @Test
+    void shouldAliasConcurrentlyInsertedImage() {
+        final Image winner = image(ImageStorage.DATABASE);
+        when(imageRepository.findOriginalBySha256(HELLO_SHA256)).thenReturn(Optional.empty(), Optional.of(winner));
+        doThrow(new DataIntegrityViolationException("idx_image_sha256"))
+                .when(imageRepository).insertWithContent(any(), any(), anyString(), anyString(), anyLong());
+        when(imageRepository.save(any())).thenAnswer(ImageServiceTest::withId);
+
+        final UUID id = service(false).saveImage(upload("hello"), "image/png").block();
+
+        assertThat(id).isNotEqualTo(winner.getId());
+        verify(imageRepository).save(argThat(alias -> winner.getId().equals(alias.getAliasOf())));
+    }
+
+    @Test
+    void shouldInsertNewContentWhenAliasedOriginalIsGone() {
+        final Image deleted = image(ImageStorage.DATABASE);
+        when(imageRepository.findOriginalBySha256(HELLO_SHA256)).thenReturn(Optional.of(deleted), Optional.empty());
+        when(imageRepository.save(any())).thenThrow(new DataIntegrityViolationException("image_alias_of_fkey"));
+
+        final UUID id = service(false).saveImage(upload("hello"), "image/png").block();
+
+        assertThat(id).isNotNull().isNotEqualTo(deleted.getId());
+        verify(imageRepository).insertWithContent(eq(id), any(), eq("image/png"), eq(HELLO_SHA256), eq(5L));
+    }
+
+    @Test
+    void shouldMoveDuplicateIntoBlobStore() {
+        final Image existing = image(ImageStorage.DATABASE);
+        when(imageRepository.findOriginalBySha256(HELLO_SHA256)).thenReturn(Optional.of(existing));
+        when(imageRepository.save(any())).thenAnswer(ImageServiceTest::withId);
+
+        final UUID id = service(true).saveImage(upload("hello"), "image/png").block();
+
+        assertThat(id).isNotEqualTo(existing.getId());
+        verify(imageRepository).moveToBlobStore(existing.getId(), HELLO_SHA256, 5L);
+        verify(imageRepository).save(argThat(alias -> existing.getId().equals(alias.getAliasOf())));
+    }
+
+    @Test
+    void shouldDeleteOnlyTheAliasOfSharedContent() {
+        final Image original = image(ImageStorage.FILESYSTEM);
+        final Image alias = image(ImageStorage.FILESYSTEM);
+        alias.setAliasOf(original.getId());
+        when(imageRepository.findById(alias.getId())).thenReturn(Optional.of(alias));
+
+        assertThat(service(true).deleteImage(alias.getId()).block()).isTrue();
+
+        verify(imageRepository).deleteById(alias.getId());
+        verify(imageRepository, never()).deleteOriginal(any());
+        verify(imageRepository, never()).deleteById(original.getId());
+    }
+
+    @Test
+    void shouldKeepBlobWhenAliasTakesOverDeletedOriginal() throws Exception {
+        final FileSystemBlobStore blobStore = new FileSystemBlobStore(root.toString());
+        blobStore.store(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)));
+        final Image original = image(ImageStorage.FILESYSTEM);
+        final UUID successor = UUID.randomUUID();
+        when(imageRepository.findById(original.getId())).thenReturn(Optional.of(original));
+        when(imageRepository.deleteOriginal(original.getId())).thenReturn(Optional.of(successor));
+        when(imageRepository.countBySha256AndStorage(HELLO_SHA256, ImageStorage.FILESYSTEM)).thenReturn(1L);
+
+        assertThat(service(true).deleteImage(original.getId()).block()).isTrue();
+
+        verify(imageRepository, never()).deleteById(any());
+        assertThat(blobStore.resolve(HELLO_SHA256)).exists();
+    }
+
+    @Test
+    void shouldDeleteBlobNoImageRefersToAnymore() throws Exception {
+        final FileSystemBlobStore blobStore = new FileSystemBlobStore(root.toString());
+        blobStore.store(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)));
+        final Image original = image(ImageStorage.FILESYSTEM);
+        when(imageRepository.findById(original.getId())).thenReturn(Optional.of(original));
+        when(imageRepository.deleteOriginal(original.getId())).thenReturn(Optional.empty());
+        when(imageRepository.countBySha256AndStorage(HELLO_SHA256, ImageStorage.FILESYSTEM)).thenReturn(0L);
+
+        assertThat(service(true).deleteImage(original.getId()).block()).isTrue();
+
+        assertThat(blobStore.resolve(HELLO_SHA256)).doesNotExist();
+    }
+
+    @Test
+    void shouldLoadBatchInRequestOrderWithinByteBudget() {
+        final Image first = image(ImageStorage.DATABASE);
+        final Image second = image(ImageStorage.DATABASE);
+        final Image third = image(ImageStorage.DATABASE);
+        final UUID unknown = UUID.randomUUID();
+        final List<UUID> ids = List.of(third.getId(), unknown, first.getId(), second.getId());
+        final List<ImageContentView> contents = List.of(content(third.getId()), content(first.getId()));
+        when(imageRepository.findAllById(ids)).thenReturn(List.of(first, second, third));
+        when(imageRepository.findContentsByIds(Set.of(third.getId(), first.getId()))).thenReturn(contents);
+        when(imageCache.putContent(any(), any(), anyString(), anyString()))
+                .thenAnswer(invocation -> new ImageResource(new ByteArrayResource(invocation.getArgument(1)), "image/png", HELLO_SHA256));
+
+        final List<BatchImage> images = service(false).getImages(ids, 12).block();
+
+        assertThat(images).extracting(BatchImage::id).containsExactly(third.getId(), first.getId());
+        assertThat(images).extracting(BatchImage::size).containsExactly(5L, 5L);
+    }
+
+    private ImageService service(boolean blobStoreEnabled) {
+        return new ImageService(imageRepository, new FileSystemBlobStore(root.toString()), imageCache, imageVariantService,
+                blobStoreEnabled, DataSize.ofKilobytes(1));
+    }
+
+    private static FilePart upload(String content) {
+        final FilePart part = mock(FilePart.class);
+        when(part.content()).thenReturn(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(content.getBytes(StandardCharsets.UTF_8))));
+        return part;
+    }
+
+    private static ImageContentView content(UUID id) {
+        final ImageContentView content = mock(ImageContentView.class);
+        when(content.getId()).thenReturn(id);
+        when(content.getContent()).thenReturn("hello".getBytes(StandardCharsets.UTF_8));
+        return content;
+    }
+
+    private static Image withId(InvocationOnMock invocation) {
+        final Image image = invocation.getArgument(0);
+        image.setId(UUID.randomUUID());
+        return image;
+    }
+
+    private static Image image(ImageStorage storage) {
+        final Image image = new Image("image/png", HELLO_SHA256, 5, storage);
+        image.setId(UUID.randomUUID());
+        return image;
+    }
+}
@@ -0,0 +1,109 @@
+package com.marvin.image.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+class FileSystemBlobStoreTest {
+
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    private Path root;
+
+    private FileSystemBlobStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new FileSystemBlobStore(root.toString());
+    }
+
+    @Test
+    void shouldStoreBlobUnderItsHash() throws IOException {
+        final StoredBlob blob = store.store(new ByteArrayInputStream(bytes("hello")));
+
+        assertThat(blob).isEqualTo(new StoredBlob(HELLO_SHA256, 5));
+        assertThat(store.resolve(HELLO_SHA256)).isEqualTo(root.resolve("2c").resolve("f2").resolve(HELLO_SHA256));
+        assertThat(Files.readAllBytes(store.resolve(HELLO_SHA256))).isEqualTo(bytes("hello"));
+    }
+
+    @Test
+    void shouldKeepSingleCopyOfSameContent() throws IOException {
+        store.store(new ByteArrayInputStream(bytes("hello")));
+        store.store(new ByteArrayInputStream(bytes("hello")));
+
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).containsExactly(store.resolve(HELLO_SHA256));
+        }
+    }
+
+    @Test
+    void shouldOpenStoredBlobAsFile() throws IOException {
+        store.store(new ByteArrayInputStream(bytes("hello")));
+
+        final Resource resource = store.open(HELLO_SHA256);
+
+        assertThat(resource.isFile()).isTrue();
+        assertThat(resource.contentLength()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldRejectMissingBlobsAndInvalidHashes() {
+        assertThatThrownBy(() -> store.open(HELLO_SHA256)).isInstanceOf(FileNotFoundException.class);
+        assertThatThrownBy(() -> store.resolve("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldDeleteOnlyUnreferencedBlobs() throws IOException {
+        store.store(new ByteArrayInputStream(bytes("hello")));
+
+        assertThat(store.deleteUnreferenced(HELLO_SHA256, sha256 -> true)).isFalse();
+        assertThat(store.resolve(HELLO_SHA256)).exists();
+        assertThat(store.deleteUnreferenced(HELLO_SHA256, sha256 -> false)).isTrue();
+        assertThat(store.resolve(HELLO_SHA256)).doesNotExist();
+    }
+
+    @Test
+    void shouldNotDeleteBlobWhileUploadRecordsItsReference() throws Exception {
+        store.store(new ByteArrayInputStream(bytes("hello")));
+        final AtomicBoolean referenced = new AtomicBoolean();
+
+        final CompletableFuture<Boolean> deleted = store.store(new ByteArrayInputStream(bytes("hello")), blob -> {
+            final CompletableFuture<Boolean> delete = CompletableFuture.supplyAsync(() -> deleteUnreferenced(referenced));
+            assertThatThrownBy(() -> delete.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+            referenced.set(true);
+            return delete;
+        });
+
+        assertThat(deleted.get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(store.resolve(HELLO_SHA256)).exists();
+    }
+
+    private boolean deleteUnreferenced(AtomicBoolean referenced) {
+        try {
+            return store.deleteUnreferenced(HELLO_SHA256, sha256 -> referenced.get());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
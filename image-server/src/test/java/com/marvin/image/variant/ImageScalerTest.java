@@ -0,0 +1,52 @@
+package com.marvin.image.variant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+class ImageScalerTest {
+
+    @Test
+    void shouldScaleJpegKeepingAspectRatio() throws IOException {
+        final Optional<ScaledImage> scaled = ImageScaler.scale(encode(1600, 1200, "jpg"), 320);
+
+        assertThat(scaled).isPresent();
+        assertThat(scaled.get().contentType()).isEqualTo("image/jpeg");
+        final BufferedImage image = ImageIO.read(new ByteArrayInputStream(scaled.get().content()));
+        assertThat(image.getWidth()).isEqualTo(320);
+        assertThat(image.getHeight()).isEqualTo(240);
+    }
+
+    @Test
+    void shouldKeepPngAsPng() throws IOException {
+        final Optional<ScaledImage> scaled = ImageScaler.scale(encode(800, 400, "png"), 160);
+
+        assertThat(scaled).isPresent();
+        assertThat(scaled.get().contentType()).isEqualTo("image/png");
+        assertThat(ImageIO.read(new ByteArrayInputStream(scaled.get().content())).getHeight()).isEqualTo(80);
+    }
+
+    @Test
+    void shouldNotScaleImagesThatAreSmallEnough() throws IOException {
+        assertThat(ImageScaler.scale(encode(300, 200, "jpg"), 320)).isEmpty();
+    }
+
+    @Test
+    void shouldNotScaleUndecodableContent() throws IOException {
+        assertThat(ImageScaler.scale("not an image".getBytes(StandardCharsets.UTF_8), 320)).isEmpty();
+    }
+
+    private static byte[] encode(int width, int height, String format) throws IOException {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
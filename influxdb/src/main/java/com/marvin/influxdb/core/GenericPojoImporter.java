@@ -3,6 +3,7 @@ package com.marvin.influxdb.core;
 import com.influxdb.annotations.Measurement;
 import com.influxdb.client.InfluxDBClient;
 import com.influxdb.client.WriteApiBlocking;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,6 +21,19 @@ public record GenericPojoImporter<T>(InfluxDBClient influxDBClient, InfluxWriteC
             pojo.getClass().getSimpleName(), config.bucket());
     }
 
+    public void importPojos(final List<T> pojos) {
+        if (pojos.isEmpty()) {
+            return;
+        }
+        pojos.forEach(this::validatePojo);
+
+        final WriteApiBlocking writeApi = influxDBClient.getWriteApiBlocking();
+        writeApi.writeMeasurements(config.bucket(), config.organization(), config.writePrecision(), pojos);
+
+        LOGGER.debug("Successfully imported {} POJOs of type {} to bucket {}",
+            pojos.size(), pojos.get(0).getClass().getSimpleName(), config.bucket());
+    }
+
     private void validatePojo(final T pojo) {
         if (pojo == null) {
             throw new IllegalArgumentException("POJO cannot be null");
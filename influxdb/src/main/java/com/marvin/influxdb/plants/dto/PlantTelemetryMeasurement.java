@@ -0,0 +1,21 @@
+package com.marvin.influxdb.plants.dto;
+
+import com.influxdb.annotations.Column;
+import com.influxdb.annotations.Measurement;
+import java.time.Instant;
+
+/**
+ * InfluxDB measurement record for plant sensor readings.
+ *
+ * @param plant    the plant ID tag
+ * @param moisture the soil moisture in percent
+ * @param time     the timestamp when the reading was taken
+ */
+@Measurement(name = "plant_telemetry")
+public record PlantTelemetryMeasurement(
+        @Column(tag = true) String plant,
+        @Column Double moisture,
+        @Column(timestamp = true) Instant time
+) {
+
+}
@@ -0,0 +1,45 @@
+package com.marvin.influxdb.plants.service;
+
+import com.influxdb.client.InfluxDBClient;
+import com.influxdb.client.domain.WritePrecision;
+import com.marvin.influxdb.core.GenericPojoImporter;
+import com.marvin.influxdb.core.InfluxWriteConfig;
+import com.marvin.influxdb.plants.dto.PlantTelemetryMeasurement;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes batches of plant sensor readings into InfluxDB.
+ *
+ * <p>Each batch is sent in a single write request to the configured telemetry bucket.</p>
+ */
+@Component
+public class PlantTelemetryImport {
+
+    private final GenericPojoImporter<PlantTelemetryMeasurement> importer;
+
+    /**
+     * Constructs a PlantTelemetryImport with the specified InfluxDB client.
+     *
+     * @param influxDBClient the InfluxDB client to use for writing readings
+     * @param bucket         the bucket to write readings to
+     * @param org            the InfluxDB organisation name
+     */
+    public PlantTelemetryImport(
+            final InfluxDBClient influxDBClient,
+            @Value("${plants.telemetry.bucket:plants}") final String bucket,
+            @Value("${influxdb.org}") final String org
+    ) {
+        this.importer = new GenericPojoImporter<>(influxDBClient, InfluxWriteConfig.create(bucket, org, WritePrecision.MS));
+    }
+
+    /**
+     * Writes the given readings in one request.
+     *
+     * @param measurements the readings to write
+     */
+    public void importBatch(final List<PlantTelemetryMeasurement> measurements) {
+        importer.importPojos(measurements);
+    }
+}
@@ -0,0 +1,26 @@
+package com.marvin.plants.configuration;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration of the plant sensor telemetry ingestion, bound to {@code plants.telemetry}. */
+@Configuration
+@ConfigurationProperties(prefix = "plants.telemetry")
+@Getter
+@Setter
+public class PlantTelemetryProperties {
+
+    private int bufferSize = 65536;
+
+    private int batchSize = 5000;
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    private double dryThreshold = 30;
+
+    private Duration maxAge = Duration.ofHours(1);
+
+}
@@ -1,6 +1,7 @@
 package com.marvin.plants.controller;
 
 import com.marvin.image.service.ImageService;
+import com.marvin.plants.dto.PlantCareStatsDTO;
 import com.marvin.plants.dto.PlantDTO;
 import com.marvin.plants.service.PlantService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,7 +16,6 @@ import java.time.LocalDate;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
@@ -33,7 +33,6 @@ import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
-import reactor.util.function.Tuple2;
 
 /**
  * REST Controller for managing plants. Provides endpoints for CRUD operations and plant care activities.
@@ -55,46 +54,6 @@ public class PlantController {
         this.imageService = imageService;
     }
 
-    /**
-     * Converts a FilePart to a byte array. Handles empty files and errors gracefully by returning empty byte array.
-     *
-     * @param filePartMono Mono containing the file part to convert
-     * @return Mono containing the byte array representation of the file
-     */
-    private static Mono<byte[]> getFileAsByteArray(Mono<FilePart> filePartMono) {
-        return filePartMono
-                .flatMap(PlantController::extractBytesFromFilePart)
-                .switchIfEmpty(Mono.just(new byte[0]))
-                .onErrorResume(PlantController::handleFileReadError);
-    }
-
-    /**
-     * Extracts bytes from a FilePart by reading its content.
-     *
-     * @param filePart the file part to extract bytes from
-     * @return Mono containing the extracted bytes
-     */
-    private static Mono<byte[]> extractBytesFromFilePart(FilePart filePart) {
-        return DataBufferUtils.join(filePart.content())
-                .flatMap(dataBuffer -> {
-                    final byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(bytes);
-                    DataBufferUtils.release(dataBuffer);
-                    return Mono.just(bytes);
-                });
-    }
-
-    /**
-     * Handles file read errors by logging and returning empty byte array.
-     *
-     * @param error the error that occurred
-     * @return Mono containing empty byte array
-     */
-    private static Mono<byte[]> handleFileReadError(Throwable error) {
-        LOGGER.error("Error reading file", error);
-        return Mono.just(new byte[0]);
-    }
-
     /**
      * Creates a new plant with optional image.
      *
@@ -120,42 +79,23 @@ public class PlantController {
             @RequestParam(name = "content-type", required = false) 
             @Parameter(description = "MIME type of the uploaded image") String contentType
     ) {
-        return Mono.zip(plantMono, getFileAsByteArray(filePartMono))
+        return Mono.zip(plantMono, saveImageIfPresent(filePartMono, contentType))
                 .doOnError(this::logPlantCreationError)
-                .flatMap(plantAndImage -> processImageAndCreatePlant(plantAndImage, contentType));
+                .flatMap(plantAndImage -> createPlantWithImage(plantAndImage.getT1(), plantAndImage.getT2()));
     }
 
     /**
-     * Processes image and creates plant using the provided data.
+     * Streams the image into the image store if one was uploaded, otherwise returns empty UUID string.
      *
-     * @param plantAndImage Tuple containing PlantDTO and image bytes
-     * @param contentType   Content type of the image
-     * @return Mono containing ResponseEntity with location of created plant
-     */
-    private Mono<ResponseEntity<Object>> processImageAndCreatePlant(
-            Tuple2<PlantDTO, byte[]> plantAndImage, String contentType) {
-
-        final PlantDTO plantDTO = plantAndImage.getT1();
-        final byte[] imageBytes = plantAndImage.getT2();
-
-        return saveImageIfNotEmpty(imageBytes, contentType)
-                .flatMap(imageUuid -> createPlantWithImage(plantDTO, imageUuid));
-    }
-
-    /**
-     * Saves image if bytes are not empty, otherwise returns empty UUID string.
-     *
-     * @param imageBytes  Image bytes to save
-     * @param contentType Content type of the image
+     * @param filePartMono Optional image file
+     * @param contentType  Content type of the image
      * @return Mono containing UUID string of saved image or empty string
      */
-    private Mono<String> saveImageIfNotEmpty(byte[] imageBytes, String contentType) {
-        if (imageBytes.length == 0) {
-            return Mono.just(EMPTY_STRING);
-        }
-
-        return imageService.saveImage(imageBytes, contentType)
-                .map(UUID::toString);
+    private Mono<String> saveImageIfPresent(Mono<FilePart> filePartMono, String contentType) {
+        return filePartMono
+                .flatMap(filePart -> imageService.saveImage(filePart, contentType))
+                .map(UUID::toString)
+                .defaultIfEmpty(EMPTY_STRING);
     }
 
     /**
@@ -372,4 +312,30 @@ public class PlantController {
         return Mono.fromCallable(() -> plantService.fertilizePlant(plantId, lastFertilized))
                 .subscribeOn(Schedulers.boundedElastic());
     }
+
+    /**
+     * Retrieves statistics of the intervals between the recorded waterings and fertilizings of a plant.
+     *
+     * @param id ID of the plant
+     * @return Flux containing one entry per care type recorded for the plant
+     */
+    @GetMapping("/{id}/care-stats")
+    @Operation(
+            summary = "Get care statistics",
+            description = "Returns mean, standard deviation and range of the intervals between recorded cares, and the share of "
+                    + "intervals within the care frequency.",
+            responses = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Statistics returned; empty if no care was recorded",
+                        content = @Content(array = @ArraySchema(schema = @Schema(implementation = PlantCareStatsDTO.class)))
+                )
+            }
+    )
+    public Flux<PlantCareStatsDTO> getCareStats(
+            @PathVariable @Parameter(description = "ID of the plant") long id) {
+        return Mono.fromCallable(() -> plantService.getCareStats(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(stats -> stats);
+    }
 }
@@ -0,0 +1,139 @@
+package com.marvin.plants.controller;
+
+import com.marvin.plants.dto.PlantTelemetryDTO;
+import com.marvin.plants.dto.TelemetryReadingDTO;
+import com.marvin.plants.service.PlantService;
+import com.marvin.plants.service.PlantTelemetryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST Controller receiving plant sensor readings and serving the latest reading per plant.
+ */
+@RestController
+@RequestMapping(path = "/plants")
+@Tag(name = "Plant Telemetry", description = "Endpoints for plant sensor readings")
+public class PlantTelemetryController {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final PlantService plantService;
+    private final PlantTelemetryService plantTelemetryService;
+
+    public PlantTelemetryController(PlantService plantService, PlantTelemetryService plantTelemetryService) {
+        this.plantService = plantService;
+        this.plantTelemetryService = plantTelemetryService;
+    }
+
+    /**
+     * Records a single sensor reading of a plant.
+     *
+     * @param id      ID of the plant the sensor belongs to
+     * @param reading the reading
+     * @return Mono containing ResponseEntity with ACCEPTED status
+     */
+    @PostMapping(path = "/{id}/telemetry", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Record a sensor reading",
+            description = "Buffers a soil moisture reading of a plant; readings are written to InfluxDB in batches.",
+            responses = {
+                @ApiResponse(responseCode = "202", description = "Reading accepted"),
+                @ApiResponse(responseCode = "400", description = "Invalid reading"),
+                @ApiResponse(responseCode = "404", description = "Plant not found"),
+                @ApiResponse(responseCode = "503", description = "Buffer full, retry later")
+            }
+    )
+    public Mono<ResponseEntity<Void>> recordReading(
+            @PathVariable @Parameter(description = "ID of the plant") long id,
+            @RequestBody Mono<TelemetryReadingDTO> reading
+    ) {
+        return record(id, reading.flux());
+    }
+
+    /**
+     * Records a batch of sensor readings of a plant, sent as newline delimited JSON.
+     *
+     * @param id       ID of the plant the sensor belongs to
+     * @param readings the readings, one JSON object per line
+     * @return Mono containing ResponseEntity with ACCEPTED status
+     */
+    @PostMapping(path = "/{id}/telemetry", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Record a batch of sensor readings",
+            description = "Buffers soil moisture readings of a plant sent as NDJSON. Readings before an invalid line are kept.",
+            responses = {
+                @ApiResponse(responseCode = "202", description = "All readings accepted"),
+                @ApiResponse(responseCode = "400", description = "Invalid reading"),
+                @ApiResponse(responseCode = "404", description = "Plant not found"),
+                @ApiResponse(responseCode = "503", description = "Buffer full, some readings were rejected")
+            }
+    )
+    public Mono<ResponseEntity<Void>> recordReadings(
+            @PathVariable @Parameter(description = "ID of the plant") long id,
+            @RequestBody Flux<TelemetryReadingDTO> readings
+    ) {
+        return record(id, readings);
+    }
+
+    /**
+     * Retrieves the latest sensor reading of a plant.
+     *
+     * @param id ID of the plant
+     * @return Mono containing the latest reading, or NOT_FOUND if the plant has not reported
+     */
+    @GetMapping(path = "/{id}/telemetry")
+    @Operation(
+            summary = "Get latest sensor reading",
+            description = "Returns the latest soil moisture reading of a plant and whether it needs water.",
+            responses = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Latest reading returned",
+                        content = @Content(schema = @Schema(implementation = PlantTelemetryDTO.class))
+                ),
+                @ApiResponse(responseCode = "404", description = "No reading since startup")
+            }
+    )
+    public Mono<ResponseEntity<PlantTelemetryDTO>> getTelemetry(
+            @PathVariable @Parameter(description = "ID of the plant") long id) {
+        return Mono.just(plantService.getTelemetry(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    /**
+     * Buffers the readings without blocking and answers whether all of them were accepted.
+     *
+     * @param id       ID of the plant
+     * @param readings the readings
+     * @return Mono containing the response
+     */
+    private Mono<ResponseEntity<Void>> record(long id, Flux<TelemetryReadingDTO> readings) {
+        if (!plantTelemetryService.isKnownPlant(id)) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return readings
+                .filter(reading -> !plantTelemetryService.record(id, reading))
+                .count()
+                .map(rejected -> rejected == 0
+                        ? ResponseEntity.accepted().<Void>build()
+                        : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).<Void>build())
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+}
@@ -0,0 +1,9 @@
+package com.marvin.plants.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Kinds of recorded plant care")
+public enum CareEventType {
+    WATERED,
+    FERTILIZED
+}
@@ -0,0 +1,36 @@
+package com.marvin.plants.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDate;
+
+@Schema(description = "Statistics of the intervals between recorded cares of a plant")
+public record PlantCareStatsDTO(
+        @Schema(description = "Kind of care")
+        CareEventType type,
+
+        @Schema(description = "Number of recorded cares", example = "24")
+        long events,
+
+        @Schema(description = "Number of intervals between consecutive cares", example = "23")
+        long intervals,
+
+        @Schema(description = "Mean interval in days", example = "7.4")
+        Double meanIntervalDays,
+
+        @Schema(description = "Sample standard deviation of the intervals in days", example = "1.2")
+        Double stddevIntervalDays,
+
+        @Schema(description = "Shortest interval in days", example = "5")
+        Integer minIntervalDays,
+
+        @Schema(description = "Longest interval in days", example = "11")
+        Integer maxIntervalDays,
+
+        @Schema(description = "Share of intervals not longer than the care frequency", example = "0.83")
+        Double adherenceRate,
+
+        @Schema(description = "Date of the latest care")
+        LocalDate lastEventDate
+) {
+
+}
@@ -0,0 +1,21 @@
+package com.marvin.plants.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+
+@Schema(description = "Latest sensor reading of a plant")
+public record PlantTelemetryDTO(
+        @Schema(description = "Unique identifier of the plant", example = "1")
+        long plantId,
+
+        @Schema(description = "Latest soil moisture in percent", example = "42.5")
+        double moisture,
+
+        @Schema(description = "Time the latest reading was taken")
+        Instant time,
+
+        @Schema(description = "Whether the plant needs water, by calendar or by soil moisture")
+        boolean needsWater
+) {
+
+}
@@ -0,0 +1,15 @@
+package com.marvin.plants.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+
+@Schema(description = "A single sensor reading of a plant")
+public record TelemetryReadingDTO(
+        @Schema(description = "Soil moisture in percent", example = "42.5")
+        Double moisture,
+
+        @Schema(description = "Time the reading was taken; defaults to the time it was received")
+        Instant time
+) {
+
+}
@@ -0,0 +1,45 @@
+package com.marvin.plants.entity;
+
+import com.marvin.plants.dto.CareEventType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/** Append-only record of one watering or fertilizing of a plant. */
+@Getter
+@Setter
+@Entity
+@Table(name = "care_event", schema = "plants")
+public class CareEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "plant_id", nullable = false)
+    private Integer plantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private CareEventType type;
+
+    @Column(name = "event_date", nullable = false)
+    private LocalDate eventDate;
+
+    @Column(name = "frequency")
+    private Integer frequency;
+
+    @Column(name = "recorded_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime recordedAt;
+
+}
@@ -0,0 +1,60 @@
+package com.marvin.plants.repository;
+
+import com.marvin.plants.entity.CareEvent;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CareEventRepository extends JpaRepository<CareEvent, Long> {
+
+    /**
+     * Records a care event unless the same care was already recorded for the plant on that day.
+     *
+     * @param plantId   the plant ID
+     * @param type      the name of the care type
+     * @param eventDate the day of the care
+     * @param frequency the care frequency of the plant in days, or {@code null}
+     * @return the number of inserted rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO plants.care_event (plant_id, type, event_date, frequency) "
+            + "VALUES (:plantId, :type, :eventDate, CAST(:frequency AS SMALLINT)) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(
+            @Param("plantId") int plantId,
+            @Param("type") String type,
+            @Param("eventDate") LocalDate eventDate,
+            @Param("frequency") Integer frequency);
+
+    /**
+     * Aggregates the intervals between consecutive care events of a plant per care type.
+     *
+     * <p>An interval adheres to the schedule if it is not longer than the frequency recorded with
+     * the event it starts at.</p>
+     *
+     * @param plantId the plant ID
+     * @return one statistics row per care type with events
+     */
+    @Query(value = "SELECT type AS \"type\", "
+            + "count(*) AS \"events\", "
+            + "count(interval_days) AS \"intervals\", "
+            + "CAST(avg(interval_days) AS double precision) AS \"meanIntervalDays\", "
+            + "CAST(stddev_samp(interval_days) AS double precision) AS \"stddevIntervalDays\", "
+            + "min(interval_days) AS \"minIntervalDays\", "
+            + "max(interval_days) AS \"maxIntervalDays\", "
+            + "CAST(count(*) FILTER (WHERE interval_days <= due_days) AS double precision) "
+            + "/ NULLIF(count(due_days), 0) AS \"adherenceRate\", "
+            + "to_char(max(event_date), 'YYYY-MM-DD') AS \"lastEventDate\" "
+            + "FROM (SELECT type, event_date, "
+            + "event_date - lag(event_date) OVER w AS interval_days, "
+            + "lag(frequency) OVER w AS due_days "
+            + "FROM plants.care_event WHERE plant_id = :plantId "
+            + "WINDOW w AS (PARTITION BY type ORDER BY event_date)) e "
+            + "GROUP BY type ORDER BY type", nativeQuery = true)
+    List<CareStatsView> careStats(@Param("plantId") int plantId);
+
+}
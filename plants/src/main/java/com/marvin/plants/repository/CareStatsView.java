@@ -0,0 +1,69 @@
+package com.marvin.plants.repository;
+
+/** Projection of the care interval statistics of one plant and care type, aggregated in the database. */
+public interface CareStatsView {
+
+    /**
+     * Returns the care type.
+     *
+     * @return the name of the {@link com.marvin.plants.dto.CareEventType}
+     */
+    String getType();
+
+    /**
+     * Returns the number of recorded events.
+     *
+     * @return the number of events
+     */
+    long getEvents();
+
+    /**
+     * Returns the number of intervals between consecutive events.
+     *
+     * @return the number of intervals
+     */
+    long getIntervals();
+
+    /**
+     * Returns the mean interval between consecutive events.
+     *
+     * @return the mean interval in days, or {@code null} with fewer than two events
+     */
+    Double getMeanIntervalDays();
+
+    /**
+     * Returns the sample standard deviation of the intervals.
+     *
+     * @return the standard deviation in days, or {@code null} with fewer than three events
+     */
+    Double getStddevIntervalDays();
+
+    /**
+     * Returns the shortest interval.
+     *
+     * @return the shortest interval in days, or {@code null} with fewer than two events
+     */
+    Integer getMinIntervalDays();
+
+    /**
+     * Returns the longest interval.
+     *
+     * @return the longest interval in days, or {@code null} with fewer than two events
+     */
+    Integer getMaxIntervalDays();
+
+    /**
+     * Returns the share of intervals not longer than the care frequency at their start.
+     *
+     * @return the adherence rate between 0 and 1, or {@code null} without intervals of known frequency
+     */
+    Double getAdherenceRate();
+
+    /**
+     * Returns the date of the latest event.
+     *
+     * @return the date as {@code YYYY-MM-DD}
+     */
+    String getLastEventDate();
+
+}
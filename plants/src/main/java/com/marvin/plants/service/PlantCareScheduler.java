@@ -0,0 +1,293 @@
+package com.marvin.plants.service;
+
+import com.marvin.plants.entity.Plant;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the {@code water_plant} and {@code fertilize_plant} gauges of all plants up to date without
+ * scanning the plant table.
+ *
+ * <p>The next watering and fertilizing dates of every plant are held in memory, together with a
+ * queue of the instants at which a plant becomes due. A single timer is armed for the earliest of
+ * them and flips the gauges of the plants that became due when it fires. The index is built once at
+ * startup and then updated by {@link PlantService} whenever a plant changes; changes made in a
+ * transaction are applied once it commits.</p>
+ */
+@Slf4j
+@Component
+public class PlantCareScheduler {
+
+    private final MeterRegistry meterRegistry;
+    private final TaskScheduler taskScheduler;
+    private final Clock clock;
+    private final Map<Integer, PlantCare> plants = new HashMap<>();
+    private final PriorityQueue<DueDate> dueDates = new PriorityQueue<>(Comparator.comparing(DueDate::at));
+
+    private ScheduledFuture<?> timer;
+    private Instant timerAt;
+
+    @Autowired
+    public PlantCareScheduler(MeterRegistry meterRegistry, TaskScheduler taskScheduler) {
+        this(meterRegistry, taskScheduler, Clock.systemDefaultZone());
+    }
+
+    PlantCareScheduler(MeterRegistry meterRegistry, TaskScheduler taskScheduler, Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.taskScheduler = taskScheduler;
+        this.clock = clock;
+    }
+
+    /**
+     * Replaces the index with the given plants.
+     *
+     * @param all all plants
+     */
+    public synchronized void rebuild(Iterable<Plant> all) {
+        plants.keySet().forEach(this::unregister);
+        plants.clear();
+        dueDates.clear();
+        all.forEach(this::put);
+        armTimer();
+        log.info("Scheduled care of {} plants.", plants.size());
+    }
+
+    /**
+     * Records the current dates of a created or changed plant.
+     *
+     * @param plant the plant
+     */
+    public void update(Plant plant) {
+        final PlantCare care = new PlantCare(plant.getId(), plant.getName(), plant.getNextWateredDate(), plant.getNextFertilizedDate());
+        afterCommit(() -> {
+            synchronized (this) {
+                put(care);
+                armTimer();
+            }
+        });
+    }
+
+    /**
+     * Removes a deleted plant together with its gauges.
+     *
+     * @param id the plant ID
+     */
+    public void remove(long id) {
+        afterCommit(() -> {
+            synchronized (this) {
+                final int plantId = Math.toIntExact(id);
+                unregister(plantId);
+                plants.remove(plantId);
+                dueDates.removeIf(due -> due.plantId() == plantId);
+                armTimer();
+            }
+        });
+    }
+
+    /**
+     * Returns whether a plant is known to the index.
+     *
+     * @param id the plant ID
+     * @return {@code true} if the plant exists
+     */
+    public synchronized boolean contains(long id) {
+        return find(id) != null;
+    }
+
+    /**
+     * Returns whether a plant is due for watering by its calendar.
+     *
+     * @param id the plant ID
+     * @return {@code true} if the next watering date has been reached
+     */
+    public synchronized boolean isWateringDue(long id) {
+        final PlantCare care = find(id);
+        return care != null && care.isWateringDue();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (timer != null) {
+            timer.cancel(false);
+        }
+    }
+
+    synchronized int scheduledCount() {
+        return dueDates.size();
+    }
+
+    synchronized Instant nextDueAt() {
+        return timerAt;
+    }
+
+    private PlantCare find(long id) {
+        return id >= Integer.MIN_VALUE && id <= Integer.MAX_VALUE ? plants.get((int) id) : null;
+    }
+
+    private void put(Plant plant) {
+        put(new PlantCare(plant.getId(), plant.getName(), plant.getNextWateredDate(), plant.getNextFertilizedDate()));
+    }
+
+    private void put(PlantCare care) {
+        final PlantCare previous = plants.get(care.id());
+        if (previous != null && previous.name().equals(care.name())) {
+            care.takeGauges(previous);
+        } else {
+            unregister(care.id());
+            care.register(meterRegistry);
+        }
+        plants.put(care.id(), care);
+
+        final LocalDate today = LocalDate.now(clock);
+        care.refresh(today);
+        dueDates.removeIf(due -> due.plantId() == care.id());
+        enqueue(care.id(), care.nextWatered(), today);
+        enqueue(care.id(), care.nextFertilized(), today);
+    }
+
+    // Only future dates need a timer; plants due today or earlier are flagged right away.
+    private void enqueue(int plantId, LocalDate date, LocalDate today) {
+        if (date != null && date.isAfter(today)) {
+            dueDates.add(new DueDate(date.atStartOfDay(clock.getZone()).toInstant(), plantId));
+        }
+    }
+
+    private void unregister(int plantId) {
+        final PlantCare care = plants.get(plantId);
+        if (care != null) {
+            care.unregister(meterRegistry);
+        }
+    }
+
+    private synchronized void fire() {
+        timer = null;
+        timerAt = null;
+        final Instant now = clock.instant();
+        final LocalDate today = LocalDate.now(clock);
+        while (!dueDates.isEmpty() && !dueDates.peek().at().isAfter(now)) {
+            final PlantCare care = plants.get(dueDates.poll().plantId());
+            if (care != null) {
+                care.refresh(today);
+                log.info("Plant {} is due for care.", care.name());
+            }
+        }
+        armTimer();
+    }
+
+    private void armTimer() {
+        final DueDate next = dueDates.peek();
+        final Instant at = next == null ? null : next.at();
+        if (at != null && at.equals(timerAt)) {
+            return;
+        }
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        timerAt = at;
+        timer = at == null ? null : taskScheduler.schedule(this::fire, at);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record DueDate(Instant at, int plantId) {
+
+    }
+
+    private static final class PlantCare {
+
+        private final int id;
+        private final String name;
+        private final LocalDate nextWatered;
+        private final LocalDate nextFertilized;
+
+        private AtomicInteger watering = new AtomicInteger();
+        private AtomicInteger fertilizing = new AtomicInteger();
+        private Gauge wateringGauge;
+        private Gauge fertilizingGauge;
+
+        private PlantCare(int id, String name, LocalDate nextWatered, LocalDate nextFertilized) {
+            this.id = id;
+            this.name = name;
+            this.nextWatered = nextWatered;
+            this.nextFertilized = nextFertilized;
+        }
+
+        int id() {
+            return id;
+        }
+
+        String name() {
+            return name;
+        }
+
+        LocalDate nextWatered() {
+            return nextWatered;
+        }
+
+        LocalDate nextFertilized() {
+            return nextFertilized;
+        }
+
+        boolean isWateringDue() {
+            return watering.get() != 0;
+        }
+
+        void refresh(LocalDate today) {
+            watering.set(isDue(nextWatered, today) ? 1 : 0);
+            fertilizing.set(isDue(nextFertilized, today) ? 1 : 0);
+        }
+
+        void register(MeterRegistry meterRegistry) {
+            wateringGauge = Gauge.builder("water_plant", watering, AtomicInteger::get)
+                    .tag("plant", name)
+                    .register(meterRegistry);
+            fertilizingGauge = Gauge.builder("fertilize_plant", fertilizing, AtomicInteger::get)
+                    .tag("plant", name)
+                    .register(meterRegistry);
+        }
+
+        // The registered gauges read the state objects, so they move over to the new dates.
+        void takeGauges(PlantCare previous) {
+            watering = previous.watering;
+            fertilizing = previous.fertilizing;
+            wateringGauge = previous.wateringGauge;
+            fertilizingGauge = previous.fertilizingGauge;
+        }
+
+        void unregister(MeterRegistry meterRegistry) {
+            meterRegistry.remove(wateringGauge);
+            meterRegistry.remove(fertilizingGauge);
+        }
+
+        private static boolean isDue(LocalDate date, LocalDate today) {
+            return date != null && !date.isAfter(today);
+        }
+    }
+}
@@ -1,16 +1,17 @@
 package com.marvin.plants.service;
 
+import com.marvin.plants.dto.CareEventType;
+import com.marvin.plants.dto.PlantCareStatsDTO;
 import com.marvin.plants.dto.PlantDTO;
+import com.marvin.plants.dto.PlantTelemetryDTO;
 import com.marvin.plants.entity.Plant;
 import com.marvin.plants.mapper.PlantMapper;
+import com.marvin.plants.repository.CareEventRepository;
+import com.marvin.plants.repository.CareStatsView;
 import com.marvin.plants.repository.PlantRepository;
-import io.micrometer.core.instrument.Gauge;
-import io.micrometer.core.instrument.MeterRegistry;
-import jakarta.annotation.PostConstruct;
 import java.time.LocalDate;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -19,39 +20,34 @@ import reactor.core.publisher.Flux;
 public class PlantService {
 
     private final PlantRepository plantRepository;
+    private final CareEventRepository careEventRepository;
     private final PlantMapper plantMapper;
-    private final MeterRegistry meterRegistry;
-    private final Map<Integer, AtomicInteger> wateringStates = new ConcurrentHashMap<>();
-    private final Map<Integer, AtomicInteger> fertilizingStates = new ConcurrentHashMap<>();
+    private final PlantCareScheduler plantCareScheduler;
+    private final PlantTelemetryService plantTelemetryService;
 
     public PlantService(
             PlantRepository plantRepository,
+            CareEventRepository careEventRepository,
             PlantMapper plantMapper,
-            MeterRegistry meterRegistry
+            PlantCareScheduler plantCareScheduler,
+            PlantTelemetryService plantTelemetryService
     ) {
         this.plantRepository = plantRepository;
+        this.careEventRepository = careEventRepository;
         this.plantMapper = plantMapper;
-        this.meterRegistry = meterRegistry;
+        this.plantCareScheduler = plantCareScheduler;
+        this.plantTelemetryService = plantTelemetryService;
     }
 
-    @PostConstruct
-    public void initGauges() {
-        plantRepository.findAll().forEach(plant -> {
-            AtomicInteger waterState = wateringStates.computeIfAbsent(plant.getId(), id -> new AtomicInteger(0));
-            Gauge.builder("water_plant", waterState, AtomicInteger::get)
-                    .tag("plant", plant.getName())
-                    .register(meterRegistry);
-
-            AtomicInteger fertilizeState = fertilizingStates.computeIfAbsent(plant.getId(), id -> new AtomicInteger(0));
-            Gauge.builder("fertilize_plant", fertilizeState, AtomicInteger::get)
-                    .tag("plant", plant.getName())
-                    .register(meterRegistry);
-        });
+    public void scheduleCare() {
+        plantCareScheduler.rebuild(plantRepository.findAll());
     }
 
     @Transactional
     public long createPlant(PlantDTO plantDto, String imageUuid) {
-        return plantRepository.save(plantMapper.toPlant(plantDto, imageUuid)).getId();
+        final Plant plant = plantRepository.save(plantMapper.toPlant(plantDto, imageUuid));
+        plantCareScheduler.update(plant);
+        return plant.getId();
     }
 
     public PlantDTO getPlant(long id) {
@@ -65,15 +61,49 @@ public class PlantService {
 
     public void deletePlant(long id) {
         plantRepository.deleteById(id);
+        plantCareScheduler.remove(id);
+        plantTelemetryService.forget(id);
+    }
+
+    /**
+     * Returns whether a plant needs water, either because its next watering date has been reached
+     * or because its sensor recently reported dry soil.
+     *
+     * @param id the plant ID
+     * @return {@code true} if the plant needs water
+     */
+    public boolean needsWater(long id) {
+        return plantCareScheduler.isWateringDue(id) || plantTelemetryService.isDry(id);
+    }
+
+    /**
+     * Returns the latest sensor reading of a plant.
+     *
+     * @param id the plant ID
+     * @return the latest reading, or empty if the plant has not reported since startup
+     */
+    public Optional<PlantTelemetryDTO> getTelemetry(long id) {
+        return plantTelemetryService.getLatest(id)
+                .map(reading -> new PlantTelemetryDTO(id, reading.moisture(), reading.time(), needsWater(id)));
     }
 
     @Transactional
     public void updatePlant(PlantDTO dto) {
         plantRepository.findById(dto.id()).ifPresentOrElse(
                 plant -> {
+                    final LocalDate previousWatered = plant.getLastWateredDate();
+                    final LocalDate previousFertilized = plant.getLastFertilizedDate();
                     plantMapper.toPlant(plant, dto);
+                    // An edit only counts as care if it moves the date forward; correcting a
+                    // mistyped date must not leave a care event behind.
                     waterPlant(plant, dto.lastWateredDate());
-                    fertilizePlant(plant, dto.lastFertilizedDate());
+                    if (isLater(dto.lastWateredDate(), previousWatered)) {
+                        recordCare(plant, CareEventType.WATERED, dto.lastWateredDate(), plant.getWateringFrequency());
+                    }
+                    if (fertilizePlant(plant, dto.lastFertilizedDate()) && isLater(dto.lastFertilizedDate(), previousFertilized)) {
+                        recordCare(plant, CareEventType.FERTILIZED, dto.lastFertilizedDate(), plant.getFertilizingFrequency());
+                    }
+                    plantCareScheduler.update(plant);
                 },
                 () -> {
                     throw new IllegalArgumentException(
@@ -87,6 +117,8 @@ public class PlantService {
 
         final Plant plant = plantRepository.findById(id).orElseThrow();
         waterPlant(plant, lastWatered);
+        recordCare(plant, CareEventType.WATERED, lastWatered, plant.getWateringFrequency());
+        plantCareScheduler.update(plant);
 
         return plantMapper.toPlantDTO(plant);
     }
@@ -95,17 +127,46 @@ public class PlantService {
     public PlantDTO fertilizePlant(long id, LocalDate lastFertilized) {
 
         final Plant plant = plantRepository.findById(id).orElseThrow();
-        fertilizePlant(plant, lastFertilized);
+        if (fertilizePlant(plant, lastFertilized)) {
+            recordCare(plant, CareEventType.FERTILIZED, lastFertilized, plant.getFertilizingFrequency());
+        }
+        plantCareScheduler.update(plant);
 
         return plantMapper.toPlantDTO(plant);
     }
 
+    /**
+     * Returns the statistics of the intervals between the recorded cares of a plant.
+     *
+     * @param id the plant ID
+     * @return one entry per care type that was recorded for the plant
+     */
+    public List<PlantCareStatsDTO> getCareStats(long id) {
+        return careEventRepository.careStats(Math.toIntExact(id)).stream()
+                .map(PlantService::toCareStatsDTO)
+                .toList();
+    }
+
+    private static PlantCareStatsDTO toCareStatsDTO(CareStatsView stats) {
+        return new PlantCareStatsDTO(
+                CareEventType.valueOf(stats.getType()),
+                stats.getEvents(),
+                stats.getIntervals(),
+                stats.getMeanIntervalDays(),
+                stats.getStddevIntervalDays(),
+                stats.getMinIntervalDays(),
+                stats.getMaxIntervalDays(),
+                stats.getAdherenceRate(),
+                LocalDate.parse(stats.getLastEventDate()));
+    }
+
     private void waterPlant(Plant plant, LocalDate lastWatered) {
         plant.setLastWateredDate(lastWatered);
         plant.setNextWateredDate(lastWatered.plusDays(plant.getWateringFrequency()));
     }
 
-    private void fertilizePlant(Plant plant, LocalDate lastFertilized) {
+    // Returns whether the fertilizing was applied, which requires a fertilizing frequency.
+    private boolean fertilizePlant(Plant plant, LocalDate lastFertilized) {
         if (lastFertilized != null && plant.getFertilizingFrequency() != null) {
             plant.setLastFertilizedDate(lastFertilized);
             LocalDate nextFertilized = lastFertilized.plusDays(plant.getFertilizingFrequency());
@@ -123,20 +184,16 @@ public class PlantService {
             }
 
             plant.setNextFertilizedDate(nextFertilized);
+            return true;
         }
+        return false;
     }
 
-    public void sendWateringNotification() {
-        final LocalDate today = LocalDate.now();
-        plantRepository.findAll().forEach(plant ->
-                wateringStates.get(plant.getId()).set(!plant.getNextWateredDate().isAfter(today) ? 1 : 0)
-        );
+    private void recordCare(Plant plant, CareEventType type, LocalDate date, Integer frequency) {
+        careEventRepository.insertIfAbsent(plant.getId(), type.name(), date, frequency);
     }
 
-    public void sendFertilizingNotification() {
-        final LocalDate today = LocalDate.now();
-        plantRepository.findAll().forEach(plant ->
-                fertilizingStates.get(plant.getId()).set(plant.getNextFertilizedDate() != null && !plant.getNextFertilizedDate().isAfter(today) ? 1 : 0)
-        );
+    private static boolean isLater(LocalDate date, LocalDate previous) {
+        return previous == null || date.isAfter(previous);
     }
 }
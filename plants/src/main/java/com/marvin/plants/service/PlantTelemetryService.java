@@ -0,0 +1,204 @@
+package com.marvin.plants.service;
+
+import com.marvin.influxdb.plants.dto.PlantTelemetryMeasurement;
+import com.marvin.influxdb.plants.service.PlantTelemetryImport;
+import com.marvin.plants.configuration.PlantTelemetryProperties;
+import com.marvin.plants.dto.TelemetryReadingDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Ingests soil moisture readings of plant sensors.
+ *
+ * <p>Readings are put into a bounded lock-free ring buffer, so recording a reading never blocks the
+ * request thread. A dedicated thread drains the buffer periodically and writes the readings to
+ * InfluxDB in batches. When the buffer is full, readings are rejected and counted instead of
+ * waiting for the next flush; a failed write drops its batch. The latest reading of every plant is
+ * kept in memory.</p>
+ */
+@Slf4j
+@Service
+public class PlantTelemetryService {
+
+    private static final double MAX_MOISTURE = 100;
+
+    private final PlantTelemetryImport telemetryImport;
+    private final PlantCareScheduler plantCareScheduler;
+    private final PlantTelemetryProperties properties;
+    private final Clock clock;
+    private final TelemetryRingBuffer<TelemetryReading> buffer;
+    private final Map<Long, TelemetryReading> latest = new ConcurrentHashMap<>();
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter written;
+    private final Counter failed;
+    private final Scheduler scheduler = Schedulers.newSingle("plant-telemetry");
+
+    private Disposable flushTask;
+
+    @Autowired
+    public PlantTelemetryService(
+            PlantTelemetryImport telemetryImport,
+            PlantCareScheduler plantCareScheduler,
+            PlantTelemetryProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this(telemetryImport, plantCareScheduler, properties, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    PlantTelemetryService(
+            PlantTelemetryImport telemetryImport,
+            PlantCareScheduler plantCareScheduler,
+            PlantTelemetryProperties properties,
+            MeterRegistry meterRegistry,
+            Clock clock
+    ) {
+        this.telemetryImport = telemetryImport;
+        this.plantCareScheduler = plantCareScheduler;
+        this.properties = properties;
+        this.clock = clock;
+        this.buffer = new TelemetryRingBuffer<>(properties.getBufferSize());
+        this.accepted = readingCounter(meterRegistry, "accepted");
+        this.rejected = readingCounter(meterRegistry, "rejected");
+        this.written = readingCounter(meterRegistry, "written");
+        this.failed = readingCounter(meterRegistry, "failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        final long interval = properties.getFlushInterval().toMillis();
+        flushTask = scheduler.schedulePeriodically(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.dispose();
+        }
+        scheduler.dispose();
+        flush();
+    }
+
+    /**
+     * Returns whether readings can be recorded for a plant.
+     *
+     * @param plantId the plant ID
+     * @return {@code true} if the plant exists
+     */
+    public boolean isKnownPlant(long plantId) {
+        return plantCareScheduler.contains(plantId);
+    }
+
+    /**
+     * Records a sensor reading without blocking.
+     *
+     * @param plantId the plant ID
+     * @param reading the reading; its time defaults to now
+     * @return {@code false} if the buffer is full and the reading was rejected
+     * @throws IllegalArgumentException if the moisture is missing or not a percentage
+     */
+    public boolean record(long plantId, TelemetryReadingDTO reading) {
+        final Double moisture = reading.moisture();
+        if (moisture == null || !(moisture >= 0 && moisture <= MAX_MOISTURE)) {
+            throw new IllegalArgumentException("Moisture must be between 0 and 100 percent");
+        }
+        final TelemetryReading telemetry = new TelemetryReading(plantId, moisture,
+                reading.time() != null ? reading.time() : clock.instant());
+        if (!buffer.offer(telemetry)) {
+            rejected.increment();
+            return false;
+        }
+        accepted.increment();
+        latest.merge(plantId, telemetry, (previous, current) -> current.time().isBefore(previous.time()) ? previous : current);
+        return true;
+    }
+
+    /**
+     * Returns the latest reading of a plant.
+     *
+     * @param plantId the plant ID
+     * @return the latest reading, or empty if none was recorded since startup
+     */
+    public Optional<TelemetryReading> getLatest(long plantId) {
+        return Optional.ofNullable(latest.get(plantId));
+    }
+
+    /**
+     * Returns whether the latest reading of a plant is recent and below the dry threshold.
+     *
+     * @param plantId the plant ID
+     * @return {@code true} if the soil of the plant is dry
+     */
+    public boolean isDry(long plantId) {
+        final TelemetryReading reading = latest.get(plantId);
+        return reading != null
+                && reading.moisture() < properties.getDryThreshold()
+                && !reading.time().isBefore(clock.instant().minus(properties.getMaxAge()));
+    }
+
+    /**
+     * Forgets the latest reading of a deleted plant.
+     *
+     * @param plantId the plant ID
+     */
+    public void forget(long plantId) {
+        latest.remove(plantId);
+    }
+
+    void flush() {
+        final int batchSize = properties.getBatchSize();
+        int drained;
+        do {
+            final List<PlantTelemetryMeasurement> batch = new ArrayList<>();
+            drained = buffer.drain(reading -> batch.add(toMeasurement(reading)), batchSize);
+            if (drained == 0) {
+                return;
+            }
+            try {
+                telemetryImport.importBatch(batch);
+                written.increment(drained);
+            } catch (RuntimeException e) {
+                failed.increment(drained);
+                log.warn("Failed to write {} plant sensor readings.", drained, e);
+            }
+        } while (drained == batchSize);
+    }
+
+    private static PlantTelemetryMeasurement toMeasurement(TelemetryReading reading) {
+        return new PlantTelemetryMeasurement(Long.toString(reading.plantId()), reading.moisture(), reading.time());
+    }
+
+    private static Counter readingCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("plant.telemetry.readings")
+                .tag("result", result)
+                .description("Number of plant sensor readings by outcome")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A sensor reading of a plant.
+     *
+     * @param plantId  the plant ID
+     * @param moisture the soil moisture in percent
+     * @param time     the time the reading was taken
+     */
+    public record TelemetryReading(long plantId, double moisture, Instant time) {
+
+    }
+}
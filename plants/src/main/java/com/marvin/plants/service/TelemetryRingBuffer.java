@@ -0,0 +1,80 @@
+package com.marvin.plants.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ *
+ * <p>Every slot carries a sequence number telling whether it is free for the producer claiming the
+ * current position or holds an element for the consumer. Producers claim positions with a single
+ * compare-and-set and never block; when the buffer is full, {@link #offer} fails instead of waiting.
+ * Only one thread may drain the buffer at a time.</p>
+ *
+ * @param <T> the element type
+ */
+final class TelemetryRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    private long head;
+
+    TelemetryRingBuffer(int capacity) {
+        final int size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int index = 0; index < size; index++) {
+            sequences.set(index, index);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    boolean offer(T element) {
+        long position = tail.get();
+        while (true) {
+            final int index = (int) (position & mask);
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    // Publishes the element to the consumer.
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still holds an element from one lap ago.
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    synchronized int drain(Consumer<? super T> consumer, int maxElements) {
+        int drained = 0;
+        while (drained < maxElements) {
+            final int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            final T element = slots.get(index);
+            slots.set(index, null);
+            // Frees the slot for the producer one lap ahead.
+            sequences.set(index, head + mask + 1);
+            head++;
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+}
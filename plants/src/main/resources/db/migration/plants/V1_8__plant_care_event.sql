@@ -0,0 +1,53 @@
+CREATE TABLE plants.care_event
+(
+    id          BIGSERIAL PRIMARY KEY,
+    plant_id    INTEGER     NOT NULL REFERENCES plants.plant (id) ON DELETE CASCADE,
+    type        VARCHAR(16) NOT NULL CHECK (type IN ('WATERED', 'FERTILIZED')),
+    event_date  DATE        NOT NULL,
+    -- The care frequency in days when the event happened, the next event is due after it.
+    frequency   SMALLINT,
+    recorded_at TIMESTAMP   NOT NULL DEFAULT now()
+);
+
+-- Recording the same care twice on one day is a no-op; the index also serves the interval queries.
+CREATE UNIQUE INDEX idx_care_event_plant_type_date ON plants.care_event (plant_id, type, event_date);
+
+-- Backfill: every audit revision that changed a care date is one event.
+INSERT INTO plants.care_event (plant_id, type, event_date, frequency)
+SELECT id, 'WATERED', last_watered_date, watering_frequency
+FROM (SELECT a.id,
+             a.last_watered_date,
+             a.watering_frequency,
+             lag(a.last_watered_date) OVER (PARTITION BY a.id ORDER BY a.rev) AS previous_date
+      FROM plants.plant_aud a
+      WHERE a.revtype IS DISTINCT FROM 2) r
+WHERE last_watered_date IS NOT NULL
+  AND last_watered_date IS DISTINCT FROM previous_date
+  AND EXISTS (SELECT 1 FROM plants.plant p WHERE p.id = r.id)
+ON CONFLICT DO NOTHING;
+
+INSERT INTO plants.care_event (plant_id, type, event_date, frequency)
+SELECT id, 'FERTILIZED', last_fertilized_date, fertilizing_frequency
+FROM (SELECT a.id,
+             a.last_fertilized_date,
+             a.fertilizing_frequency,
+             lag(a.last_fertilized_date) OVER (PARTITION BY a.id ORDER BY a.rev) AS previous_date
+      FROM plants.plant_aud a
+      WHERE a.revtype IS DISTINCT FROM 2) r
+WHERE last_fertilized_date IS NOT NULL
+  AND last_fertilized_date IS DISTINCT FROM previous_date
+  AND EXISTS (SELECT 1 FROM plants.plant p WHERE p.id = r.id)
+ON CONFLICT DO NOTHING;
+
+-- Plants last cared for before auditing was enabled have no revision of it.
+INSERT INTO plants.care_event (plant_id, type, event_date, frequency)
+SELECT id, 'WATERED', last_watered_date, watering_frequency
+FROM plants.plant
+WHERE last_watered_date IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+INSERT INTO plants.care_event (plant_id, type, event_date, frequency)
+SELECT id, 'FERTILIZED', last_fertilized_date, fertilizing_frequency
+FROM plants.plant
+WHERE last_fertilized_date IS NOT NULL
+ON CONFLICT DO NOTHING;
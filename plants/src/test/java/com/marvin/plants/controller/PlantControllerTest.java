@@ -13,14 +13,15 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.marvin.common.upload.UploadTooLargeException;
 import com.marvin.image.service.ImageService;
+import com.marvin.plants.dto.CareEventType;
+import com.marvin.plants.dto.PlantCareStatsDTO;
 import com.marvin.plants.dto.PlantDTO;
 import com.marvin.plants.dto.PlantLocation;
 import com.marvin.plants.service.PlantService;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,8 +31,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
 import reactor.core.publisher.Flux;
@@ -128,18 +127,14 @@ class PlantControllerTest {
                 null
         );
 
-        final byte[] imageBytes = "test image content".getBytes(StandardCharsets.UTF_8);
         final String contentType = "image/jpeg";
+        final FilePart filePart = mock(FilePart.class);
 
-        when(imageService.saveImage(eq(imageBytes), eq(contentType))).thenReturn(
+        when(imageService.saveImage(filePart, contentType)).thenReturn(
                 Mono.just(testImageUuid));
         when(plantService.createPlant(any(PlantDTO.class),
                 eq(testImageUuid.toString()))).thenReturn(1L);
 
-        final FilePart filePart = mock(FilePart.class);
-        final DataBuffer dataBuffer = new DefaultDataBufferFactory().wrap(imageBytes);
-        when(filePart.content()).thenReturn(Flux.just(dataBuffer));
-
         // When
         final Mono<ResponseEntity<Object>> result = plantController.createPlant(Mono.just(filePart),
                 Mono.just(newPlantDTO), contentType);
@@ -153,7 +148,7 @@ class PlantControllerTest {
                 })
                 .verifyComplete();
 
-        verify(imageService).saveImage(eq(imageBytes), eq(contentType));
+        verify(imageService).saveImage(filePart, contentType);
         verify(plantService).createPlant(any(PlantDTO.class), eq(testImageUuid.toString()));
     }
 
@@ -178,7 +173,7 @@ class PlantControllerTest {
         );
 
         final FilePart filePart = mock(FilePart.class);
-        when(filePart.content()).thenReturn(Flux.empty());
+        when(imageService.saveImage(filePart, null)).thenReturn(Mono.empty());
 
         when(plantService.createPlant(any(PlantDTO.class), eq(""))).thenReturn(1L);
 
@@ -196,7 +191,6 @@ class PlantControllerTest {
                 .verifyComplete();
 
         verify(plantService).createPlant(any(PlantDTO.class), eq(""));
-        verify(imageService, never()).saveImage(any(byte[].class), anyString());
     }
 
     @Test
@@ -223,7 +217,7 @@ class PlantControllerTest {
 
         // When - Testing with empty file part (which represents no image)
         final FilePart filePart = mock(FilePart.class);
-        when(filePart.content()).thenReturn(Flux.empty());
+        when(imageService.saveImage(filePart, null)).thenReturn(Mono.empty());
 
         final Mono<ResponseEntity<Object>> result = plantController.createPlant(Mono.just(filePart),
                 Mono.just(newPlantDTO), null);
@@ -563,18 +557,14 @@ class PlantControllerTest {
                 null
         );
 
-        final byte[] imageBytes = "test image content".getBytes(StandardCharsets.UTF_8);
         final String contentType = "image/jpeg";
+        final FilePart filePart = mock(FilePart.class);
 
-        when(imageService.saveImage(eq(imageBytes), eq(contentType))).thenReturn(
+        when(imageService.saveImage(filePart, contentType)).thenReturn(
                 Mono.just(testImageUuid));
         when(plantService.createPlant(any(PlantDTO.class),
                 eq(testImageUuid.toString()))).thenReturn(1L);
 
-        final FilePart filePart = mock(FilePart.class);
-        final DataBuffer dataBuffer = new DefaultDataBufferFactory().wrap(imageBytes);
-        when(filePart.content()).thenReturn(Flux.just(dataBuffer));
-
         // When
         final Mono<ResponseEntity<Object>> result = plantController.createPlant(Mono.just(filePart),
                 Mono.just(newPlantDTO), contentType);
@@ -588,7 +578,7 @@ class PlantControllerTest {
                 })
                 .verifyComplete();
 
-        verify(imageService).saveImage(eq(imageBytes), eq(contentType));
+        verify(imageService).saveImage(filePart, contentType);
         verify(plantService).createPlant(any(PlantDTO.class), eq(testImageUuid.toString()));
     }
 
@@ -648,64 +638,36 @@ class PlantControllerTest {
     }
 
     @Test
-    @DisplayName("Should test getFileAsByteArray utility method")
-    void testGetFileAsByteArray_WithValidFile() throws Exception {
-        // Given - Using reflection to test the private method
-        final java.lang.reflect.Method method = PlantController.class.getDeclaredMethod(
-                "getFileAsByteArray", Mono.class);
-        method.setAccessible(true);
-
-        final byte[] expectedBytes = "test content".getBytes(StandardCharsets.UTF_8);
-        final FilePart filePart = mock(FilePart.class);
-        final DataBuffer dataBuffer = new DefaultDataBufferFactory().wrap(expectedBytes);
-        when(filePart.content()).thenReturn(Flux.just(dataBuffer));
-
-        // When
-        final Mono<byte[]> result = (Mono<byte[]>) method.invoke(plantController, Mono.just(filePart));
-
-        // Then
-        StepVerifier.create(result)
-                .expectNextMatches(bytes -> Arrays.equals(expectedBytes, bytes))
-                .verifyComplete();
-    }
-
-    @Test
-    @DisplayName("Should test getFileAsByteArray with empty file")
-    void testGetFileAsByteArray_WithEmptyFile() throws Exception {
+    @DisplayName("Should not create plant when image upload exceeds the limit")
+    void createPlantShouldFailWhenImageTooLarge() {
         // Given
-        final java.lang.reflect.Method method = PlantController.class.getDeclaredMethod(
-                "getFileAsByteArray", Mono.class);
-        method.setAccessible(true);
-
         final FilePart filePart = mock(FilePart.class);
-        when(filePart.content()).thenReturn(Flux.empty());
+        when(imageService.saveImage(filePart, "image/jpeg")).thenReturn(
+                Mono.error(new UploadTooLargeException("plant.jpg", 1024)));
 
         // When
-        final Mono<byte[]> result = (Mono<byte[]>) method.invoke(plantController, Mono.just(filePart));
+        final Mono<ResponseEntity<Object>> result = plantController.createPlant(Mono.just(filePart),
+                Mono.just(testPlantDTO), "image/jpeg");
 
         // Then
         StepVerifier.create(result)
-                .expectNextMatches(bytes -> bytes.length == 0)
-                .verifyComplete();
+                .expectError(UploadTooLargeException.class)
+                .verify();
+
+        verify(plantService, never()).createPlant(any(PlantDTO.class), anyString());
     }
 
     @Test
-    @DisplayName("Should test getFileAsByteArray with error")
-    void testGetFileAsByteArray_WithError() throws Exception {
+    @DisplayName("Should return care statistics of a plant")
+    void getCareStatsShouldReturnStatisticsPerCareType() {
         // Given
-        final java.lang.reflect.Method method = PlantController.class.getDeclaredMethod(
-                "getFileAsByteArray", Mono.class);
-        method.setAccessible(true);
+        final PlantCareStatsDTO stats = new PlantCareStatsDTO(CareEventType.WATERED, 3, 2, 7.5, 0.7, 7, 8, 0.5,
+                LocalDate.of(2026, 5, 10));
+        when(plantService.getCareStats(1L)).thenReturn(List.of(stats));
 
-        final FilePart filePart = mock(FilePart.class);
-        when(filePart.content()).thenReturn(Flux.error(new RuntimeException("File read error")));
-
-        // When
-        final Mono<byte[]> result = (Mono<byte[]>) method.invoke(plantController, Mono.just(filePart));
-
-        // Then
-        StepVerifier.create(result)
-                .expectNextMatches(bytes -> bytes.length == 0)
+        // When & Then
+        StepVerifier.create(plantController.getCareStats(1L))
+                .expectNext(stats)
                 .verifyComplete();
     }
 }
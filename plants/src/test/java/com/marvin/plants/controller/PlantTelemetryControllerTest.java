@@ -0,0 +1,97 @@
+package com.marvin.plants.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.marvin.plants.dto.PlantTelemetryDTO;
+import com.marvin.plants.dto.TelemetryReadingDTO;
+import com.marvin.plants.service.PlantService;
+import com.marvin.plants.service.PlantTelemetryService;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Plant Telemetry Controller Tests")
+class PlantTelemetryControllerTest {
+
+    private final TelemetryReadingDTO reading = new TelemetryReadingDTO(42.0, Instant.parse("2026-05-10T08:00:00Z"));
+    @Mock
+    private PlantService plantService;
+    @Mock
+    private PlantTelemetryService plantTelemetryService;
+    @InjectMocks
+    private PlantTelemetryController plantTelemetryController;
+
+    @Test
+    @DisplayName("Should accept a single reading")
+    void recordReadingShouldReturnAccepted() {
+        when(plantTelemetryService.isKnownPlant(1L)).thenReturn(true);
+        when(plantTelemetryService.record(1L, reading)).thenReturn(true);
+
+        StepVerifier.create(plantTelemetryController.recordReading(1L, Mono.just(reading)))
+                .assertNext(response -> assertEquals(202, response.getStatusCode().value()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should answer 503 when the buffer rejected readings of a batch")
+    void recordReadingsShouldReturnServiceUnavailableWhenBufferIsFull() {
+        when(plantTelemetryService.isKnownPlant(1L)).thenReturn(true);
+        when(plantTelemetryService.record(1L, reading)).thenReturn(true, false);
+
+        StepVerifier.create(plantTelemetryController.recordReadings(1L, Flux.just(reading, reading)))
+                .assertNext(response -> {
+                    assertEquals(503, response.getStatusCode().value());
+                    assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should answer 400 for an invalid reading")
+    void recordReadingsShouldReturnBadRequestWhenReadingIsInvalid() {
+        final TelemetryReadingDTO invalid = new TelemetryReadingDTO(null, null);
+        when(plantTelemetryService.isKnownPlant(1L)).thenReturn(true);
+        when(plantTelemetryService.record(1L, invalid)).thenThrow(new IllegalArgumentException("invalid"));
+
+        StepVerifier.create(plantTelemetryController.recordReadings(1L, Flux.just(invalid)))
+                .assertNext(response -> assertEquals(400, response.getStatusCode().value()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should answer 404 for unknown plants without reading the body")
+    void recordReadingShouldReturnNotFoundWhenPlantIsUnknown() {
+        when(plantTelemetryService.isKnownPlant(99L)).thenReturn(false);
+
+        StepVerifier.create(plantTelemetryController.recordReading(99L, Mono.just(reading)))
+                .assertNext(response -> assertEquals(404, response.getStatusCode().value()))
+                .verifyComplete();
+        verify(plantTelemetryService, never()).record(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should return the latest reading")
+    void getTelemetryShouldReturnLatestReading() {
+        final PlantTelemetryDTO telemetry = new PlantTelemetryDTO(1L, 42.0, reading.time(), false);
+        when(plantService.getTelemetry(1L)).thenReturn(Optional.of(telemetry));
+
+        StepVerifier.create(plantTelemetryController.getTelemetry(1L))
+                .assertNext(response -> assertEquals(telemetry, response.getBody()))
+                .verifyComplete();
+    }
+}
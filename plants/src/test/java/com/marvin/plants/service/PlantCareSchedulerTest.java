@@ -0,0 +1,175 @@
+package com.marvin.plants.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.marvin.plants.entity.Plant;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+@ExtendWith(MockitoExtension.class)
+class PlantCareSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 5, 10);
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-05-10T08:00:00Z"));
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final List<ScheduledFuture<?>> futures = new ArrayList<>();
+
+    private PlantCareScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new PlantCareScheduler(meterRegistry, taskScheduler, clock);
+    }
+
+    @Test
+    void shouldFlagDuePlantsOnRebuildAndArmTimerForNextDueDate() {
+        stubTimer();
+
+        scheduler.rebuild(List.of(
+                plant(1, "Monstera", TODAY.minusDays(1), null),
+                plant(2, "Ficus", TODAY.plusDays(3), TODAY.plusDays(5))));
+
+        assertThat(gauge("water_plant", "Monstera")).isEqualTo(1);
+        assertThat(gauge("water_plant", "Ficus")).isZero();
+        assertThat(gauge("fertilize_plant", "Ficus")).isZero();
+        assertThat(scheduler.scheduledCount()).isEqualTo(2);
+        assertThat(scheduler.nextDueAt()).isEqualTo(Instant.parse("2026-05-13T00:00:00Z"));
+    }
+
+    @Test
+    void shouldFlagPlantWhenTimerFiresAndArmNextDueDate() {
+        stubTimer();
+        scheduler.rebuild(List.of(plant(2, "Ficus", TODAY.plusDays(3), TODAY.plusDays(5))));
+
+        clock.advance(Duration.ofDays(3));
+        tasks.get(0).run();
+
+        assertThat(gauge("water_plant", "Ficus")).isEqualTo(1);
+        assertThat(gauge("fertilize_plant", "Ficus")).isZero();
+        assertThat(scheduler.nextDueAt()).isEqualTo(Instant.parse("2026-05-15T00:00:00Z"));
+        assertThat(tasks).hasSize(2);
+    }
+
+    @Test
+    void shouldRegisterGaugesOfPlantsCreatedAfterStartup() {
+        scheduler.rebuild(List.of());
+
+        scheduler.update(plant(3, "Pilea", TODAY, null));
+
+        assertThat(gauge("water_plant", "Pilea")).isEqualTo(1);
+        assertThat(gauge("fertilize_plant", "Pilea")).isZero();
+    }
+
+    @Test
+    void shouldRescheduleWateredPlant() {
+        stubTimer();
+        scheduler.rebuild(List.of(plant(1, "Monstera", TODAY.minusDays(1), null)));
+
+        scheduler.update(plant(1, "Monstera", TODAY.plusDays(7), null));
+
+        assertThat(gauge("water_plant", "Monstera")).isZero();
+        assertThat(scheduler.scheduledCount()).isEqualTo(1);
+        assertThat(scheduler.nextDueAt()).isEqualTo(Instant.parse("2026-05-17T00:00:00Z"));
+    }
+
+    @Test
+    void shouldReplaceGaugesOfRenamedPlant() {
+        scheduler.rebuild(List.of(plant(1, "Monstera", TODAY, null)));
+
+        scheduler.update(plant(1, "Monstera deliciosa", TODAY, null));
+
+        assertThat(meterRegistry.find("water_plant").tag("plant", "Monstera").gauge()).isNull();
+        assertThat(gauge("water_plant", "Monstera deliciosa")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRemoveGaugesAndTimerOfDeletedPlant() {
+        stubTimer();
+        scheduler.rebuild(List.of(plant(2, "Ficus", TODAY.plusDays(3), null)));
+
+        scheduler.remove(2L);
+
+        assertThat(meterRegistry.find("water_plant").gauges()).isEmpty();
+        assertThat(meterRegistry.find("fertilize_plant").gauges()).isEmpty();
+        assertThat(scheduler.scheduledCount()).isZero();
+        assertThat(scheduler.nextDueAt()).isNull();
+        verify(futures.get(0)).cancel(false);
+    }
+
+    private void stubTimer() {
+        when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            tasks.add(invocation.getArgument(0));
+            final ScheduledFuture<?> future = mock(ScheduledFuture.class);
+            futures.add(future);
+            return future;
+        });
+    }
+
+    private double gauge(String name, String plant) {
+        final Gauge gauge = meterRegistry.find(name).tag("plant", plant).gauge();
+        assertThat(gauge).isNotNull();
+        return gauge.value();
+    }
+
+    private static Plant plant(int id, String name, LocalDate nextWatered, LocalDate nextFertilized) {
+        final Plant plant = new Plant();
+        plant.setId(id);
+        plant.setName(name);
+        plant.setWateringFrequency(7);
+        plant.setNextWateredDate(nextWatered);
+        plant.setNextFertilizedDate(nextFertilized);
+        return plant;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
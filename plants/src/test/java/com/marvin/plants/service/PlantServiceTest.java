@@ -7,16 +7,23 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.marvin.plants.dto.CareEventType;
+import com.marvin.plants.dto.PlantCareStatsDTO;
 import com.marvin.plants.dto.PlantDTO;
 import com.marvin.plants.dto.PlantLocation;
 import com.marvin.plants.entity.Plant;
 import com.marvin.plants.mapper.PlantMapper;
+import com.marvin.plants.repository.CareEventRepository;
+import com.marvin.plants.repository.CareStatsView;
 import com.marvin.plants.repository.PlantRepository;
 import java.time.LocalDate;
 import java.util.Collection;
@@ -37,7 +44,13 @@ class PlantServiceTest {
     @Mock
     private PlantRepository plantRepository;
     @Mock
+    private CareEventRepository careEventRepository;
+    @Mock
     private PlantMapper plantMapper;
+    @Mock
+    private PlantCareScheduler plantCareScheduler;
+    @Mock
+    private PlantTelemetryService plantTelemetryService;
     @InjectMocks
     private PlantService plantService;
     private Plant testPlant;
@@ -113,6 +126,7 @@ class PlantServiceTest {
         assertEquals(2L, result);
         verify(plantMapper).toPlant(plantDto, testImageUuid);
         verify(plantRepository).save(newPlant);
+        verify(plantCareScheduler).update(newPlant);
     }
 
     @Test
@@ -201,6 +215,8 @@ class PlantServiceTest {
 
         // Then
         verify(plantRepository).deleteById(1L);
+        verify(plantCareScheduler).remove(1L);
+        verify(plantTelemetryService).forget(1L);
     }
 
     @Test
@@ -237,6 +253,75 @@ class PlantServiceTest {
         assertEquals(waterDate.plusDays(7), testPlant.getNextWateredDate());
     }
 
+    @Test
+    void updatePlant_ShouldRecordCareEvents_WhenCareDatesMoveForward() {
+        // Given
+        final LocalDate waterDate = LocalDate.now();
+        final LocalDate fertilizeDate = LocalDate.now().minusDays(1);
+        testPlant.setFertilizingFrequency(14);
+        final PlantDTO updateDTO = new PlantDTO(
+                1L,
+                "Test Plant",
+                "Test Species",
+                "Test Description",
+                "Test Care Instructions",
+                PlantLocation.LIVING_ROOM,
+                7,
+                waterDate,
+                waterDate.plusDays(7),
+                "test-image.jpg",
+                14,
+                fertilizeDate,
+                fertilizeDate.plusDays(14)
+        );
+
+        when(plantRepository.findById(1L)).thenReturn(Optional.of(testPlant));
+
+        // When
+        plantService.updatePlant(updateDTO);
+
+        // Then
+        verify(careEventRepository).insertIfAbsent(1, "WATERED", waterDate, 7);
+        verify(careEventRepository).insertIfAbsent(1, "FERTILIZED", fertilizeDate, 14);
+        assertEquals(fertilizeDate, testPlant.getLastFertilizedDate());
+        verify(plantCareScheduler).update(testPlant);
+    }
+
+    @Test
+    void updatePlant_ShouldNotRecordCareEvents_WhenCareDatesAreCorrected() {
+        // Given
+        final LocalDate correctedWaterDate = LocalDate.now().minusDays(5);
+        final LocalDate correctedFertilizeDate = LocalDate.now().minusDays(4);
+        testPlant.setFertilizingFrequency(14);
+        testPlant.setLastFertilizedDate(LocalDate.now().minusDays(2));
+        final PlantDTO updateDTO = new PlantDTO(
+                1L,
+                "Test Plant",
+                "Test Species",
+                "Test Description",
+                "Test Care Instructions",
+                PlantLocation.LIVING_ROOM,
+                7,
+                correctedWaterDate,
+                correctedWaterDate.plusDays(7),
+                "test-image.jpg",
+                14,
+                correctedFertilizeDate,
+                correctedFertilizeDate.plusDays(14)
+        );
+
+        when(plantRepository.findById(1L)).thenReturn(Optional.of(testPlant));
+
+        // When
+        plantService.updatePlant(updateDTO);
+
+        // Then
+        assertEquals(correctedWaterDate, testPlant.getLastWateredDate());
+        assertEquals(correctedFertilizeDate, testPlant.getLastFertilizedDate());
+        verify(careEventRepository, never()).insertIfAbsent(anyInt(), anyString(), any(), any());
+        verify(plantCareScheduler).update(testPlant);
+    }
+
     @Test
     void updatePlant_ShouldThrowException_WhenPlantNotExists() {
         // Given
@@ -287,6 +372,7 @@ class PlantServiceTest {
         assertEquals(expectedNextWaterDate, testPlant.getNextWateredDate());
         verify(plantRepository).findById(1L);
         verify(plantMapper).toPlantDTO(testPlant);
+        verify(plantCareScheduler).update(testPlant);
     }
 
     @Test
@@ -320,6 +406,7 @@ class PlantServiceTest {
         // Then
         assertEquals(waterDate, localTestPlant.getLastWateredDate());
         assertEquals(expectedNextWaterDate, localTestPlant.getNextWateredDate());
+        verify(careEventRepository).insertIfAbsent(1, "WATERED", waterDate, 5);
     }
 
     @Test
@@ -362,4 +449,70 @@ class PlantServiceTest {
         verify(plantMapper).toPlant(plantDto, null);
         verify(plantRepository).save(newPlant);
     }
+
+    @Test
+    void needsWater_ShouldBeTrue_WhenSoilIsDryBeforeWateringDate() {
+        when(plantCareScheduler.isWateringDue(1L)).thenReturn(false);
+        when(plantTelemetryService.isDry(1L)).thenReturn(true);
+
+        assertTrue(plantService.needsWater(1L));
+    }
+
+    @Test
+    void needsWater_ShouldBeTrue_WhenWateringIsDueWithoutReadings() {
+        when(plantCareScheduler.isWateringDue(1L)).thenReturn(true);
+
+        assertTrue(plantService.needsWater(1L));
+        verify(plantTelemetryService, never()).isDry(1L);
+    }
+
+    @Test
+    void fertilizePlant_ShouldRecordCareEvent() {
+        final Plant localTestPlant = new Plant();
+        localTestPlant.setId(1);
+        localTestPlant.setFertilizingFrequency(14);
+        final LocalDate fertilizeDate = LocalDate.of(2023, 6, 15);
+
+        when(plantRepository.findById(1L)).thenReturn(Optional.of(localTestPlant));
+
+        plantService.fertilizePlant(1L, fertilizeDate);
+
+        assertEquals(LocalDate.of(2023, 6, 29), localTestPlant.getNextFertilizedDate());
+        verify(careEventRepository).insertIfAbsent(1, "FERTILIZED", fertilizeDate, 14);
+        verify(plantCareScheduler).update(localTestPlant);
+    }
+
+    @Test
+    void fertilizePlant_ShouldNotRecordCareEvent_WithoutFertilizingFrequency() {
+        final Plant localTestPlant = new Plant();
+        localTestPlant.setId(1);
+        final LocalDate fertilizeDate = LocalDate.of(2023, 6, 15);
+
+        when(plantRepository.findById(1L)).thenReturn(Optional.of(localTestPlant));
+
+        plantService.fertilizePlant(1L, fertilizeDate);
+
+        assertNull(localTestPlant.getLastFertilizedDate());
+        verify(careEventRepository, never()).insertIfAbsent(anyInt(), anyString(), any(), any());
+    }
+
+    @Test
+    void getCareStats_ShouldMapAggregatedRows() {
+        final CareStatsView stats = mock(CareStatsView.class);
+        when(stats.getType()).thenReturn("WATERED");
+        when(stats.getEvents()).thenReturn(3L);
+        when(stats.getIntervals()).thenReturn(2L);
+        when(stats.getMeanIntervalDays()).thenReturn(7.5);
+        when(stats.getAdherenceRate()).thenReturn(0.5);
+        when(stats.getLastEventDate()).thenReturn("2026-05-10");
+        when(careEventRepository.careStats(1)).thenReturn(List.of(stats));
+
+        final List<PlantCareStatsDTO> result = plantService.getCareStats(1L);
+
+        assertEquals(1, result.size());
+        assertEquals(CareEventType.WATERED, result.get(0).type());
+        assertEquals(7.5, result.get(0).meanIntervalDays());
+        assertEquals(0.5, result.get(0).adherenceRate());
+        assertEquals(LocalDate.of(2026, 5, 10), result.get(0).lastEventDate());
+    }
 }
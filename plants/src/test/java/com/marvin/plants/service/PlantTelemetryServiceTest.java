@@ -0,0 +1,182 @@
+package com.marvin.plants.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+import com.marvin.influxdb.plants.dto.PlantTelemetryMeasurement;
+import com.marvin.influxdb.plants.service.PlantTelemetryImport;
+import com.marvin.plants.configuration.PlantTelemetryProperties;
+import com.marvin.plants.dto.TelemetryReadingDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PlantTelemetryServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-05-10T08:00:00Z");
+
+    @Mock
+    private PlantTelemetryImport telemetryImport;
+
+    @Mock
+    private PlantCareScheduler plantCareScheduler;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PlantTelemetryProperties properties = new PlantTelemetryProperties();
+    private final List<List<PlantTelemetryMeasurement>> batches = new ArrayList<>();
+
+    private PlantTelemetryService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBufferSize(8);
+        properties.setBatchSize(3);
+        service = create();
+    }
+
+    @Test
+    void shouldWriteBufferedReadingsInBatches() {
+        captureBatches();
+        for (int i = 0; i < 7; i++) {
+            assertThat(service.record(1L, new TelemetryReadingDTO(50.0 + i, NOW.plusSeconds(i)))).isTrue();
+        }
+
+        service.flush();
+
+        assertThat(batches).extracting(List::size).containsExactly(3, 3, 1);
+        assertThat(batches.get(0).get(0)).isEqualTo(new PlantTelemetryMeasurement("1", 50.0, NOW));
+        assertThat(counter("written")).isEqualTo(7);
+    }
+
+    @Test
+    void shouldRejectReadingsWhenBufferIsFull() {
+        for (int i = 0; i < 8; i++) {
+            service.record(1L, new TelemetryReadingDTO(40.0, NOW));
+        }
+
+        assertThat(service.record(1L, new TelemetryReadingDTO(40.0, NOW))).isFalse();
+        assertThat(counter("accepted")).isEqualTo(8);
+        assertThat(counter("rejected")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropBatchWhenWriteFails() {
+        doThrow(new IllegalStateException("influx down")).when(telemetryImport).importBatch(anyList());
+        service.record(1L, new TelemetryReadingDTO(40.0, NOW));
+
+        service.flush();
+        service.flush();
+
+        assertThat(counter("failed")).isEqualTo(1);
+        assertThat(service.getLatest(1L)).isPresent();
+    }
+
+    @Test
+    void shouldRejectInvalidMoisture() {
+        assertThatThrownBy(() -> service.record(1L, new TelemetryReadingDTO(null, NOW))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.record(1L, new TelemetryReadingDTO(101.0, NOW))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.record(1L, new TelemetryReadingDTO(Double.NaN, NOW))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldKeepNewestReadingPerPlant() {
+        service.record(1L, new TelemetryReadingDTO(20.0, NOW.minusSeconds(10)));
+        service.record(1L, new TelemetryReadingDTO(60.0, NOW.minusSeconds(20)));
+        service.record(2L, new TelemetryReadingDTO(70.0, null));
+
+        assertThat(service.getLatest(1L)).get().extracting(PlantTelemetryService.TelemetryReading::moisture).isEqualTo(20.0);
+        assertThat(service.getLatest(2L)).get().extracting(PlantTelemetryService.TelemetryReading::time).isEqualTo(NOW);
+        assertThat(service.isDry(1L)).isTrue();
+        assertThat(service.isDry(2L)).isFalse();
+        assertThat(service.isDry(3L)).isFalse();
+    }
+
+    @Test
+    void shouldIgnoreOutdatedDryReadings() {
+        service.record(1L, new TelemetryReadingDTO(10.0, NOW.minus(Duration.ofHours(2))));
+
+        assertThat(service.isDry(1L)).isFalse();
+    }
+
+    @Test
+    void shouldIngestReadingsOfThousandSensorsConcurrently() throws Exception {
+        final int sensors = 1000;
+        final int readingsPerSensor = 50;
+        properties.setBufferSize(sensors * readingsPerSensor);
+        properties.setBatchSize(5000);
+        service = create();
+        captureBatches();
+
+        final ExecutorService producers = Executors.newFixedThreadPool(16);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean producing = new AtomicBoolean(true);
+        final Thread flusher = new Thread(() -> {
+            while (producing.get()) {
+                service.flush();
+            }
+        });
+        try {
+            flusher.start();
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int sensor = 1; sensor <= sensors; sensor++) {
+                final long plantId = sensor;
+                futures.add(producers.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < readingsPerSensor; i++) {
+                        assertThat(service.record(plantId, new TelemetryReadingDTO((double) i, NOW.plusSeconds(i)))).isTrue();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            producing.set(false);
+            flusher.join();
+            producers.shutdownNow();
+        }
+        service.flush();
+
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(5000));
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(sensors * readingsPerSensor);
+        assertThat(counter("written")).isEqualTo(sensors * readingsPerSensor);
+        for (long plantId = 1; plantId <= sensors; plantId++) {
+            assertThat(service.getLatest(plantId)).get()
+                    .extracting(PlantTelemetryService.TelemetryReading::moisture)
+                    .isEqualTo((double) readingsPerSensor - 1);
+        }
+    }
+
+    private PlantTelemetryService create() {
+        return new PlantTelemetryService(telemetryImport, plantCareScheduler, properties, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private void captureBatches() {
+        doAnswer(invocation -> batches.add(List.copyOf(invocation.getArgument(0)))).when(telemetryImport).importBatch(anyList());
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("plant.telemetry.readings").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,72 @@
+package com.marvin.upload;
+
+import java.io.InterruptedIOException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Global token bucket that limits the upload bandwidth shared by all concurrent Drive uploads.
+ *
+ * <p>The bucket holds at most one second worth of bytes. A caller may take more bytes than are
+ * available, e.g. a whole upload chunk; it then waits until the deficit has been refilled, so the
+ * average rate over all callers stays at the configured limit.</p>
+ */
+@Component
+public class BandwidthLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long bytesPerSecond;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Constructs a new {@code BandwidthLimiter}.
+     *
+     * @param bytesPerSecond the maximum average upload rate, {@code 0} for no limit
+     */
+    public BandwidthLimiter(@Value("${uploader.upload.max-bytes-per-second:0}") long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        this.tokens = bytesPerSecond;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Creates a limiter that never waits.
+     *
+     * @return an unlimited bandwidth limiter
+     */
+    public static BandwidthLimiter unlimited() {
+        return new BandwidthLimiter(0);
+    }
+
+    /**
+     * Takes the given number of bytes from the bucket, waiting as long as the bucket is in deficit.
+     *
+     * @param bytes the number of bytes about to be sent
+     * @throws InterruptedIOException if the thread is interrupted while waiting
+     */
+    public void acquire(long bytes) throws InterruptedIOException {
+        if (bytesPerSecond <= 0 || bytes <= 0) {
+            return;
+        }
+        final long waitNanos = reserve(bytes);
+        if (waitNanos > 0) {
+            try {
+                Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for upload bandwidth");
+            }
+        }
+    }
+
+    private synchronized long reserve(long bytes) {
+        final long now = System.nanoTime();
+        tokens = Math.min(bytesPerSecond, tokens + (now - lastRefill) * (double) bytesPerSecond / NANOS_PER_SECOND);
+        lastRefill = now;
+
+        tokens -= bytes;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * NANOS_PER_SECOND / bytesPerSecond);
+    }
+}
@@ -0,0 +1,17 @@
+package com.marvin.upload;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of deleting several Drive files with batch requests.
+ *
+ * @param deleted the IDs of the deleted files, including files that did not exist anymore
+ * @param failed  the error messages of the files that could not be deleted, by file ID
+ */
+public record BatchDeleteResult(
+        List<String> deleted,
+        Map<String, String> failed
+) {
+
+}
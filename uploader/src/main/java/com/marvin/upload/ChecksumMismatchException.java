@@ -0,0 +1,16 @@
+package com.marvin.upload;
+
+/** Thrown if the checksum Drive computed for an uploaded file differs from the checksum of the local file. */
+public class ChecksumMismatchException extends GoogleDriveException {
+
+    /**
+     * Constructs a new {@code ChecksumMismatchException}.
+     *
+     * @param fileName  the name of the uploaded file
+     * @param localMd5  the MD5 hash of the local file
+     * @param remoteMd5 the MD5 checksum computed by Drive
+     */
+    public ChecksumMismatchException(String fileName, String localMd5, String remoteMd5) {
+        super("Checksum mismatch for " + fileName + ": local MD5 " + localMd5 + ", Drive MD5 " + remoteMd5 + "!");
+    }
+}
@@ -0,0 +1,135 @@
+package com.marvin.upload;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes the MD5 and SHA-256 hashes of a file while it is being uploaded.
+ *
+ * <p>The hasher tracks how many leading bytes of the file it has seen. Bytes are passed in with
+ * their file position, and bytes before that position are ignored, so a chunk that is sent again
+ * after a retry is not hashed twice.</p>
+ */
+public class ContentHasher {
+
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final MessageDigest md5 = digest("MD5");
+    private final MessageDigest sha256 = digest("SHA-256");
+    private long hashedBytes;
+    private String md5Hex;
+    private String sha256Hex;
+
+    /**
+     * Hashes a whole file with a single sequential read into a direct buffer.
+     *
+     * @param file the file to hash
+     * @return the hasher holding the hashes of the file
+     * @throws IOException if reading the file fails
+     */
+    public static ContentHasher hash(Path file) throws IOException {
+        final ContentHasher hasher = new ContentHasher();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            hasher.catchUp(channel, channel.size());
+        }
+        return hasher;
+    }
+
+    /**
+     * Hashes the part of the given bytes that lies beyond the bytes hashed so far.
+     *
+     * @param position the file position of the first byte in {@code data}
+     * @param data     the array holding the bytes
+     * @param offset   the offset of the first byte in {@code data}
+     * @param length   the number of bytes
+     */
+    public void update(long position, byte[] data, int offset, int length) {
+        final long skip = hashedBytes - position;
+        if (skip < 0) {
+            throw new IllegalStateException("Bytes before position " + position + " have not been hashed yet!");
+        }
+        if (skip >= length) {
+            return;
+        }
+        md5.update(data, offset + (int) skip, length - (int) skip);
+        sha256.update(data, offset + (int) skip, length - (int) skip);
+        hashedBytes = position + length;
+    }
+
+    /**
+     * Reads and hashes the bytes of the file between the bytes hashed so far and the given position,
+     * e.g. the part that was uploaded before an interrupted upload was resumed.
+     *
+     * @param channel  the channel of the file
+     * @param position the position up to which the file is hashed
+     * @throws IOException if reading the file fails
+     */
+    public void catchUp(FileChannel channel, long position) throws IOException {
+        if (hashedBytes >= position) {
+            return;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        while (hashedBytes < position) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), position - hashedBytes));
+            final int read = channel.read(buffer, hashedBytes);
+            if (read < 0) {
+                throw new IOException("File shrank while hashing!");
+            }
+            buffer.flip();
+            md5.update(buffer.duplicate());
+            sha256.update(buffer);
+            hashedBytes += read;
+        }
+    }
+
+    /**
+     * Returns the number of leading bytes hashed so far.
+     *
+     * @return the number of hashed bytes
+     */
+    public long getHashedBytes() {
+        return hashedBytes;
+    }
+
+    /**
+     * Completes the hashing and returns the MD5 hash.
+     *
+     * @return the MD5 hash, hex encoded
+     */
+    public String md5Hex() {
+        finish();
+        return md5Hex;
+    }
+
+    /**
+     * Completes the hashing and returns the SHA-256 hash.
+     *
+     * @return the SHA-256 hash, hex encoded
+     */
+    public String sha256Hex() {
+        finish();
+        return sha256Hex;
+    }
+
+    private void finish() {
+        if (md5Hex == null) {
+            md5Hex = HEX.formatHex(md5.digest());
+            sha256Hex = HEX.formatHex(sha256.digest());
+        }
+    }
+
+    private static MessageDigest digest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " is not available", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.marvin.upload;
 
 import com.google.api.client.util.DateTime;
+import com.google.api.services.drive.model.File;
 
 public class DriveFileInfo {
 
@@ -21,6 +22,17 @@ public class DriveFileInfo {
         this.webViewLink = webViewLink;
     }
 
+    static DriveFileInfo from(File file) {
+        return new DriveFileInfo(
+                file.getId(),
+                file.getName(),
+                file.getMimeType(),
+                file.getSize(),
+                file.getModifiedTime(),
+                file.getWebViewLink()
+        );
+    }
+
     public String getId() {
         return id;
     }
@@ -0,0 +1,150 @@
+package com.marvin.upload;
+
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.ChangeList;
+import com.google.api.services.drive.model.File;
+import com.google.api.services.drive.model.FileList;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index of the files in one Google Drive folder.
+ *
+ * <p>The index is seeded with a single full listing of the folder and afterwards kept current with
+ * the Drive changes feed: {@link #refresh()} only fetches the changes since the stored page token,
+ * which is usually a single small request. Readers get an immutable snapshot without touching
+ * Drive.</p>
+ */
+public class DriveFolderIndex {
+
+    private static final String FILE_FIELDS = "id, name, mimeType, size, modifiedTime, webViewLink";
+    private static final int PAGE_SIZE = 1000;
+
+    private final Drive drive;
+    private final String folderId;
+    private final Map<String, DriveFileInfo> files = new LinkedHashMap<>();
+
+    private volatile List<DriveFileInfo> snapshot = List.of();
+    private String pageToken;
+
+    /**
+     * Constructs a new, empty {@code DriveFolderIndex}.
+     *
+     * @param drive    the Drive client
+     * @param folderId the ID of the indexed folder
+     */
+    public DriveFolderIndex(Drive drive, String folderId) {
+        this.drive = drive;
+        this.folderId = folderId;
+    }
+
+    /**
+     * Lists the whole folder and remembers the current position of the changes feed.
+     *
+     * @throws IOException if a Drive request fails
+     */
+    public synchronized void seed() throws IOException {
+        // The start token is taken before listing, so changes made during the listing are replayed
+        // by the next refresh instead of being lost.
+        final String startPageToken = drive.changes().getStartPageToken().execute().getStartPageToken();
+
+        final Map<String, DriveFileInfo> listed = new LinkedHashMap<>();
+        String nextPage = null;
+        do {
+            final FileList result = drive.files().list()
+                    .setQ("'" + folderId + "' in parents and trashed=false")
+                    .setFields("nextPageToken, files(" + FILE_FIELDS + ")")
+                    .setPageSize(PAGE_SIZE)
+                    .setPageToken(nextPage)
+                    .execute();
+            result.getFiles().forEach(file -> listed.put(file.getId(), DriveFileInfo.from(file)));
+            nextPage = result.getNextPageToken();
+        } while (nextPage != null);
+
+        files.clear();
+        files.putAll(listed);
+        pageToken = startPageToken;
+        publish();
+    }
+
+    /**
+     * Applies all changes since the last seed or refresh to the index.
+     *
+     * @return the number of changes that affected the indexed folder
+     * @throws IOException if a Drive request fails
+     */
+    public synchronized int refresh() throws IOException {
+        if (pageToken == null) {
+            seed();
+            return files.size();
+        }
+
+        int applied = 0;
+        String nextPage = pageToken;
+        while (nextPage != null) {
+            final ChangeList changes = drive.changes().list(nextPage)
+                    .setFields("nextPageToken, newStartPageToken, changes(fileId, removed, file(" + FILE_FIELDS + ", parents, trashed))")
+                    .setIncludeRemoved(true)
+                    .setPageSize(PAGE_SIZE)
+                    .execute();
+
+            for (Change change : changes.getChanges()) {
+                if (apply(change)) {
+                    applied++;
+                }
+            }
+
+            if (changes.getNewStartPageToken() != null) {
+                pageToken = changes.getNewStartPageToken();
+            }
+            nextPage = changes.getNextPageToken();
+        }
+
+        if (applied > 0) {
+            publish();
+        }
+        return applied;
+    }
+
+    /**
+     * Returns the files currently in the folder.
+     *
+     * @return an immutable snapshot of the indexed files
+     */
+    public List<DriveFileInfo> list() {
+        return snapshot;
+    }
+
+    /**
+     * Returns whether the index has been seeded.
+     *
+     * @return {@code true} once {@link #seed()} has completed
+     */
+    public synchronized boolean isSeeded() {
+        return pageToken != null;
+    }
+
+    // A change is relevant if it concerns a file of the folder: it is added or updated while it is an
+    // untrashed child of the folder, and removed otherwise.
+    private boolean apply(Change change) {
+        final File file = change.getFile();
+        final boolean inFolder = !Boolean.TRUE.equals(change.getRemoved())
+                && file != null
+                && !Boolean.TRUE.equals(file.getTrashed())
+                && file.getParents() != null
+                && file.getParents().contains(folderId);
+
+        if (inFolder) {
+            files.put(change.getFileId(), DriveFileInfo.from(file));
+            return true;
+        }
+        return files.remove(change.getFileId()) != null;
+    }
+
+    private void publish() {
+        snapshot = List.copyOf(files.values());
+    }
+}
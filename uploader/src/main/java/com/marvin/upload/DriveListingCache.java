@@ -0,0 +1,105 @@
+package com.marvin.upload;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves the listing of Google Drive folders from memory.
+ *
+ * <p>A folder is indexed on its first request and refreshed in the background through the Drive
+ * changes feed, so listing a folder no longer pages through all of its files.</p>
+ */
+@Component
+public class DriveListingCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DriveListingCache.class);
+
+    private final GoogleDrive googleDrive;
+    private final String folderName;
+    private final Map<String, DriveFolderIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@code DriveListingCache}.
+     *
+     * @param googleDrive the Google Drive client
+     * @param folderName  the name of the folder listed by default
+     */
+    public DriveListingCache(
+            GoogleDrive googleDrive,
+            @Value("${uploader.parent-folder-name}") String folderName
+    ) {
+        this.googleDrive = googleDrive;
+        this.folderName = folderName;
+    }
+
+    /**
+     * Returns the files of the default folder, indexing the folder first if this is the first request.
+     *
+     * @return an immutable snapshot of the files in the folder
+     * @throws GoogleDriveException if the folder has to be indexed and indexing fails
+     */
+    public List<DriveFileInfo> listFiles() throws GoogleDriveException {
+        return listFiles(folderName);
+    }
+
+    /**
+     * Returns the files of the given folder, indexing the folder first if this is the first request.
+     *
+     * @param name the name of the folder
+     * @return an immutable snapshot of the files in the folder
+     * @throws GoogleDriveException if the folder has to be indexed and indexing fails
+     */
+    public List<DriveFileInfo> listFiles(String name) throws GoogleDriveException {
+        DriveFolderIndex current = indexes.get(name);
+        if (current == null) {
+            synchronized (this) {
+                current = indexes.get(name);
+                if (current == null) {
+                    current = googleDrive.createFolderIndex(name);
+                    try {
+                        current.seed();
+                    } catch (IOException e) {
+                        throw new GoogleDriveException("Failed to index folder: " + name, e);
+                    }
+                    LOGGER.info("Indexed {} files in Google Drive folder: {}", current.list().size(), name);
+                    indexes.put(name, current);
+                }
+            }
+        }
+        return current.list();
+    }
+
+    /** Applies the changes since the last refresh to every indexed folder. */
+    @Scheduled(fixedDelayString = "${uploader.listing-cache.refresh-interval:PT1M}")
+    public void refresh() {
+        indexes.forEach(this::refresh);
+    }
+
+    private void refresh(String name, DriveFolderIndex current) {
+        try {
+            final int applied = current.refresh();
+            if (applied > 0) {
+                LOGGER.debug("Applied {} changes to the listing of folder: {}", applied, name);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to refresh the listing of folder {}, indexing it again.", name, e);
+            reseed(name, current);
+        }
+    }
+
+    // A page token may expire, e.g. after a long downtime; a fresh full listing recovers from that.
+    private void reseed(String name, DriveFolderIndex current) {
+        try {
+            current.seed();
+        } catch (IOException e) {
+            LOGGER.error("Failed to index folder {}, serving the last known listing.", name, e);
+        }
+    }
+}
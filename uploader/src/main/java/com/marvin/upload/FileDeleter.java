@@ -1,5 +1,7 @@
 package com.marvin.upload;
 
+import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -10,9 +12,11 @@ public class FileDeleter {
     private static final Logger LOGGER = LoggerFactory.getLogger(FileDeleter.class);
 
     private final GoogleDrive googleDrive;
+    private final DriveListingCache driveListingCache;
 
-    public FileDeleter(GoogleDrive googleDrive) {
+    public FileDeleter(GoogleDrive googleDrive, DriveListingCache driveListingCache) {
         this.googleDrive = googleDrive;
+        this.driveListingCache = driveListingCache;
     }
 
     public void deleteFile(String fileId) {
@@ -21,9 +25,27 @@ public class FileDeleter {
         try {
             googleDrive.deleteFile(fileId);
             LOGGER.info("Successfully deleted file with ID: {}", fileId);
+            driveListingCache.refresh();
         } catch (GoogleDriveException e) {
             LOGGER.error("Failed to delete file with ID: {}", fileId, e);
             throw new RuntimeException("Failed to delete file with ID: " + fileId, e);
         }
     }
+
+    public BatchDeleteResult deleteFiles(List<String> fileIds) {
+        if (fileIds.isEmpty()) {
+            return new BatchDeleteResult(List.of(), Map.of());
+        }
+
+        try {
+            final BatchDeleteResult result = googleDrive.deleteFiles(fileIds);
+            result.failed().forEach((fileId, error) -> LOGGER.warn("Failed to delete file with ID {}: {}", fileId, error));
+            return result;
+        } catch (GoogleDriveException e) {
+            LOGGER.error("Failed to delete {} files!", fileIds.size(), e);
+            throw new RuntimeException("Failed to delete " + fileIds.size() + " files", e);
+        } finally {
+            driveListingCache.refresh();
+        }
+    }
 }
\ No newline at end of file
@@ -6,7 +6,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 public class FileLister {
@@ -14,28 +13,22 @@ public class FileLister {
     private static final Logger LOGGER = LoggerFactory.getLogger(FileLister.class);
 
     private final String parentFolderName;
-    private final GoogleDrive googleDrive;
+    private final DriveListingCache driveListingCache;
 
     public FileLister(
             @Value("${uploader.parent-folder-name}") String parentFolderName,
-            GoogleDrive googleDrive
+            DriveListingCache driveListingCache
     ) {
         this.parentFolderName = parentFolderName;
-        this.googleDrive = googleDrive;
+        this.driveListingCache = driveListingCache;
     }
 
     public List<DriveFileInfo> listFiles() {
-        LOGGER.info("Listing files in Google Drive folder: {}", parentFolderName);
+        LOGGER.debug("Listing files in Google Drive folder: {}", parentFolderName);
 
         try {
-            final String folderId = googleDrive.getFileId(parentFolderName);
-            final List<DriveFileInfo> driveFiles = googleDrive.listFiles(folderId);
-
-            for (DriveFileInfo file : driveFiles) {
-                LOGGER.debug("Found: {} ({})", file.getName(), file.isDirectory() ? "directory" : "file");
-            }
-
-            LOGGER.info("Found {} items in Google Drive folder: {}", driveFiles.size(), parentFolderName);
+            final List<DriveFileInfo> driveFiles = driveListingCache.listFiles();
+            LOGGER.debug("Found {} items in Google Drive folder: {}", driveFiles.size(), parentFolderName);
             return driveFiles;
 
         } catch (GoogleDriveException e) {
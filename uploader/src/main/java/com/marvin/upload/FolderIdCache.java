@@ -0,0 +1,59 @@
+package com.marvin.upload;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Caches Google Drive folder IDs by folder name for a limited time. */
+class FolderIdCache {
+
+    private final Map<String, CachedId> entries = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Clock clock;
+
+    FolderIdCache(Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached ID of the given folder or resolves and caches it if absent or expired.
+     *
+     * @param folderName the name of the folder
+     * @param resolver   resolves the ID with a Drive search
+     * @return the folder ID
+     * @throws GoogleDriveException if the ID has to be resolved and resolving fails
+     */
+    String get(String folderName, FolderIdResolver resolver) throws GoogleDriveException {
+        final Instant now = clock.instant();
+        final CachedId cached = entries.get(folderName);
+        if (cached != null && now.isBefore(cached.expiresAt())) {
+            return cached.id();
+        }
+
+        final String id = resolver.resolve(folderName);
+        entries.put(folderName, new CachedId(id, now.plus(ttl)));
+        return id;
+    }
+
+    /**
+     * Removes the given folder from the cache so that the next lookup resolves it again.
+     *
+     * @param folderName the name of the folder
+     */
+    void invalidate(String folderName) {
+        entries.remove(folderName);
+    }
+
+    @FunctionalInterface
+    interface FolderIdResolver {
+
+        String resolve(String folderName) throws GoogleDriveException;
+    }
+
+    private record CachedId(String id, Instant expiresAt) {
+
+    }
+}
@@ -2,21 +2,34 @@ package com.marvin.upload;
 
 import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.http.FileContent;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.ExponentialBackOff;
+import com.google.api.client.util.Sleeper;
 import com.google.api.services.drive.Drive;
 import com.google.api.services.drive.DriveScopes;
 import com.google.api.services.drive.model.File;
 import com.google.api.services.drive.model.FileList;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,36 +45,97 @@ public class GoogleDrive {
     private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
     private static final List<String> SCOPES = Collections.singletonList(DriveScopes.DRIVE);
 
-    private final String credentialsPath;
+    private static final int HTTP_NOT_FOUND = 404;
+
+    private static final String UPLOAD_CONTENT_TYPE = "application/zip";
+
+    private static final int MAX_BATCH_SIZE = 100;
 
-    public GoogleDrive(@Value("${uploader.credentials.path}") String credentialsPath) {
+    private final String credentialsPath;
+    private final FolderIdCache folderIdCache;
+    private final String uploadUrl;
+    private final int chunkSize;
+    private final Duration maxRetryDuration;
+    private final UploadSessionStore uploadSessionStore;
+    private final BandwidthLimiter bandwidthLimiter;
+
+    private volatile Drive driveService;
+
+    public GoogleDrive(
+            @Value("${uploader.credentials.path}") String credentialsPath,
+            @Value("${uploader.folder-id-cache-ttl:PT1H}") Duration folderIdCacheTtl,
+            @Value("${uploader.upload.url:https://www.googleapis.com/upload/drive/v3/files}") String uploadUrl,
+            @Value("${uploader.upload.chunk-size:8388608}") int chunkSize,
+            @Value("${uploader.upload.max-retry-duration:PT15M}") Duration maxRetryDuration,
+            @Value("${uploader.upload.session-folder:${uploader.cost-export-folder}/.upload-sessions}") String uploadSessionFolder,
+            BandwidthLimiter bandwidthLimiter
+    ) {
         this.credentialsPath = credentialsPath;
+        this.folderIdCache = new FolderIdCache(folderIdCacheTtl, Clock.systemUTC());
+        this.uploadUrl = uploadUrl;
+        this.chunkSize = chunkSize;
+        this.maxRetryDuration = maxRetryDuration;
+        this.uploadSessionStore = new UploadSessionStore(Path.of(uploadSessionFolder));
+        this.bandwidthLimiter = bandwidthLimiter;
     }
 
     public String getFileId(String folderName) throws GoogleDriveException {
-        LOGGER.info("Trying to get file ID for {}!", folderName);
+        return folderIdCache.get(folderName, this::resolveFolderId);
+    }
 
-        try {
-            final Drive service = createDriveService();
-            final FileList result = searchFolderByName(service, folderName);
+    public UploadedFile uploadFileToFolder(Path path, String folderName) throws GoogleDriveException {
+        return withFolder(folderName, folderId -> uploadFile(path, folderId));
+    }
 
-            if (result == null || result.getFiles().isEmpty()) {
-                throw new GoogleDriveException("No folder with name " + folderName + " found!");
+    public UploadedFile uploadStreamToFolder(InputStream content, String fileName, String folderName) throws GoogleDriveException {
+        return uploadStreamToFolder(content, fileName, folderName, UPLOAD_CONTENT_TYPE);
+    }
+
+    public UploadedFile uploadStreamToFolder(InputStream content, String fileName, String folderName, String contentType)
+            throws GoogleDriveException {
+        return withFolder(folderName, folderId -> uploadStream(content, fileName, folderId, contentType));
+    }
+
+    public List<DriveFileInfo> listFilesInFolder(String folderName) throws GoogleDriveException {
+        return withFolder(folderName, this::listFiles);
+    }
+
+    public UploadedFile uploadFile(Path path, String parent) throws GoogleDriveException {
+        LOGGER.info("Trying to upload file to {}/{} !", parent, path.getFileName());
+
+        final Drive service;
+        final File uploadedFile;
+        final ContentHasher hasher;
+        try {
+            service = createDriveService();
+            final UploadedFile existing = findIdenticalFile(service, path, parent);
+            if (existing != null) {
+                LOGGER.info("File {} already exists in Drive with the same content. File ID: {}.", path.getFileName(), existing.id());
+                return existing;
             }
 
-            return result.getFiles().get(0).getId();
+            hasher = new ContentHasher();
+            uploadedFile = resumableUpload(service).upload(path, parent, UPLOAD_CONTENT_TYPE, hasher);
+            LOGGER.info("Uploaded file {}. File ID: {}.", path.getFileName(), uploadedFile.getId());
         } catch (Exception e) {
             throw new GoogleDriveException(e);
         }
+
+        return verify(service, path, uploadedFile, hasher);
     }
 
-    public void uploadFile(Path path, String parent) throws GoogleDriveException {
-        LOGGER.info("Trying to upload file to {}/{} !", parent, path.getFileName());
+    public UploadedFile uploadStream(InputStream content, String fileName, String parent) throws GoogleDriveException {
+        return uploadStream(content, fileName, parent, UPLOAD_CONTENT_TYPE);
+    }
+
+    public UploadedFile uploadStream(InputStream content, String fileName, String parent, String contentType) throws GoogleDriveException {
+        LOGGER.info("Trying to stream file to {}/{} !", parent, fileName);
 
         try {
             final Drive service = createDriveService();
-            final File uploadedFile = performFileUpload(service, path, parent);
-            LOGGER.info("Uploaded file {}. File ID: {}.", path.getFileName(), uploadedFile.getId());
+            final File uploadedFile = resumableUpload(service).upload(content, fileName, parent, contentType);
+            LOGGER.info("Uploaded streamed file {}. File ID: {}.", fileName, uploadedFile.getId());
+            return new UploadedFile(uploadedFile.getId(), uploadedFile.getMd5Checksum(), null, false);
         } catch (Exception e) {
             throw new GoogleDriveException(e);
         }
@@ -125,6 +199,26 @@ public class GoogleDrive {
         }
     }
 
+    public void downloadFile(String fileId, OutputStream out) throws GoogleDriveException {
+        LOGGER.debug("Downloading file with ID: {}", fileId);
+
+        try {
+            final Drive service = createDriveService();
+            service.files().get(fileId).executeMediaAndDownloadTo(out);
+        } catch (Exception e) {
+            throw new GoogleDriveException("Failed to download file with ID: " + fileId, e);
+        }
+    }
+
+    public DriveFolderIndex createFolderIndex(String folderName) throws GoogleDriveException {
+        final String folderId = getFileId(folderName);
+        try {
+            return new DriveFolderIndex(createDriveService(), folderId);
+        } catch (Exception e) {
+            throw new GoogleDriveException(e);
+        }
+    }
+
     public void deleteFile(String fileId) throws GoogleDriveException {
         LOGGER.info("Trying to delete file with ID: {}", fileId);
 
@@ -137,23 +231,101 @@ public class GoogleDrive {
         }
     }
 
+    public BatchDeleteResult deleteFiles(List<String> fileIds) throws GoogleDriveException {
+        LOGGER.info("Trying to delete {} files in batches of up to {}", fileIds.size(), MAX_BATCH_SIZE);
+
+        final List<String> deleted = new ArrayList<>();
+        final Map<String, String> failed = new LinkedHashMap<>();
+        try {
+            final Drive service = createDriveService();
+            for (int from = 0; from < fileIds.size(); from += MAX_BATCH_SIZE) {
+                final BatchRequest batch = service.batch();
+                for (String fileId : fileIds.subList(from, Math.min(fileIds.size(), from + MAX_BATCH_SIZE))) {
+                    service.files().delete(fileId).queue(batch, new JsonBatchCallback<Void>() {
+                        @Override
+                        public void onSuccess(Void result, HttpHeaders responseHeaders) {
+                            deleted.add(fileId);
+                        }
+
+                        @Override
+                        public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                            if (error.getCode() == HTTP_NOT_FOUND) {
+                                deleted.add(fileId);
+                            } else {
+                                failed.put(fileId, error.getMessage());
+                            }
+                        }
+                    });
+                }
+                batch.execute();
+            }
+        } catch (Exception e) {
+            throw new GoogleDriveException("Failed to delete files after deleting " + deleted.size() + " of " + fileIds.size(), e);
+        }
+
+        LOGGER.info("Deleted {} files, {} deletions failed", deleted.size(), failed.size());
+        return new BatchDeleteResult(List.copyOf(deleted), Map.copyOf(failed));
+    }
+
     private DriveFileInfo convertToDriveFileInfo(File file) {
-        final Long size = file.getSize() != null ? file.getSize() : null;
-        return new DriveFileInfo(
-                file.getId(),
-                file.getName(),
-                file.getMimeType(),
-                size,
-                file.getModifiedTime(),
-                file.getWebViewLink()
-        );
+        return DriveFileInfo.from(file);
+    }
+
+    private String resolveFolderId(String folderName) throws GoogleDriveException {
+        LOGGER.info("Trying to get file ID for {}!", folderName);
+
+        try {
+            final Drive service = createDriveService();
+            final FileList result = searchFolderByName(service, folderName);
+
+            if (result == null || result.getFiles().isEmpty()) {
+                throw new GoogleDriveException("No folder with name " + folderName + " found!");
+            }
+
+            return result.getFiles().get(0).getId();
+        } catch (GoogleDriveException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GoogleDriveException(e);
+        }
+    }
+
+    private <T> T withFolder(String folderName, FolderOperation<T> operation) throws GoogleDriveException {
+        final String folderId = getFileId(folderName);
+        try {
+            return operation.apply(folderId);
+        } catch (GoogleDriveException e) {
+            if (!isNotFound(e)) {
+                throw e;
+            }
+            LOGGER.warn("Folder {} with cached ID {} was not found, resolving it again!", folderName, folderId);
+            folderIdCache.invalidate(folderName);
+            return operation.apply(getFileId(folderName));
+        }
+    }
+
+    private static boolean isNotFound(GoogleDriveException e) {
+        return e.getCause() instanceof HttpResponseException responseException
+                && responseException.getStatusCode() == HTTP_NOT_FOUND;
     }
 
+    // The service, and with it the HTTP transport and its connection pool, is created once and shared;
+    // the credential refreshes its access token on demand.
     private Drive createDriveService() throws Exception {
-        final NetHttpTransport netHttpTransport = GoogleNetHttpTransport.newTrustedTransport();
-        return new Drive.Builder(netHttpTransport, JSON_FACTORY, getCredentials())
-                .setApplicationName(APPLICATION_NAME)
-                .build();
+        Drive service = driveService;
+        if (service == null) {
+            synchronized (this) {
+                service = driveService;
+                if (service == null) {
+                    final NetHttpTransport netHttpTransport = GoogleNetHttpTransport.newTrustedTransport();
+                    service = new Drive.Builder(netHttpTransport, JSON_FACTORY, getCredentials())
+                            .setApplicationName(APPLICATION_NAME)
+                            .build();
+                    driveService = service;
+                }
+            }
+        }
+        return service;
     }
 
     private FileList searchFolderByName(Drive service, String folderName) throws Exception {
@@ -163,27 +335,73 @@ public class GoogleDrive {
                 .execute();
     }
 
-    private File performFileUpload(Drive service, Path path, String parent) throws Exception {
-        final File fileMetadata = createFileMetadata(path, parent);
-        final java.io.File filePath = path.toAbsolutePath().toFile();
-        final FileContent mediaContent = new FileContent("application/zip", filePath);
-
-        return service.files()
-                .create(fileMetadata, mediaContent)
-                .setFields("id")
+    // Only if a file of the same name and size exists, the local file is read to compare its MD5
+    // with Drive's, so an upload that is repeated after it already went through is skipped.
+    private UploadedFile findIdenticalFile(Drive service, Path path, String parent) throws IOException {
+        final long size = Files.size(path);
+        final String name = path.getFileName().toString().replace("\\", "\\\\").replace("'", "\\'");
+        final FileList candidates = service.files().list()
+                .setQ("'" + parent + "' in parents and name = '" + name + "' and trashed=false")
+                .setFields("files(id, size, md5Checksum)")
                 .execute();
+
+        ContentHasher hasher = null;
+        for (File candidate : candidates.getFiles()) {
+            if (candidate.getSize() == null || candidate.getSize() != size || candidate.getMd5Checksum() == null) {
+                continue;
+            }
+            if (hasher == null) {
+                hasher = ContentHasher.hash(path);
+            }
+            if (hasher.md5Hex().equalsIgnoreCase(candidate.getMd5Checksum())) {
+                return new UploadedFile(candidate.getId(), candidate.getMd5Checksum(), hasher.sha256Hex(), true);
+            }
+        }
+        return null;
     }
 
-    private File createFileMetadata(Path path, String parent) {
-        final File fileMetadata = new File();
-        fileMetadata.setName(path.getFileName().toString());
-        fileMetadata.setParents(List.of(parent));
-        return fileMetadata;
+    private UploadedFile verify(Drive service, Path path, File uploadedFile, ContentHasher hasher) throws GoogleDriveException {
+        final String remoteMd5 = uploadedFile.getMd5Checksum();
+        if (remoteMd5 == null) {
+            LOGGER.warn("Drive returned no checksum for {}, the upload could not be verified.", path.getFileName());
+            return new UploadedFile(uploadedFile.getId(), null, hasher.sha256Hex(), false);
+        }
+        if (remoteMd5.equalsIgnoreCase(hasher.md5Hex())) {
+            return new UploadedFile(uploadedFile.getId(), remoteMd5, hasher.sha256Hex(), true);
+        }
+
+        try {
+            service.files().delete(uploadedFile.getId()).execute();
+        } catch (IOException e) {
+            LOGGER.error("Could not delete corrupt upload {} of {}!", uploadedFile.getId(), path.getFileName(), e);
+        }
+        throw new ChecksumMismatchException(path.getFileName().toString(), hasher.md5Hex(), remoteMd5);
+    }
+
+    private ResumableUpload resumableUpload(Drive service) {
+        return new ResumableUpload(
+                service.getRequestFactory(),
+                uploadUrl,
+                chunkSize,
+                uploadSessionStore,
+                () -> new ExponentialBackOff.Builder()
+                        .setMaxElapsedTimeMillis((int) maxRetryDuration.toMillis())
+                        .build(),
+                Sleeper.DEFAULT,
+                bandwidthLimiter);
     }
 
     private Credential getCredentials() throws IOException {
-        return GoogleCredential
-                .fromStream(new FileInputStream(credentialsPath))
-                .createScoped(SCOPES);
+        try (InputStream credentials = new FileInputStream(credentialsPath)) {
+            return GoogleCredential
+                    .fromStream(credentials)
+                    .createScoped(SCOPES);
+        }
+    }
+
+    @FunctionalInterface
+    private interface FolderOperation<T> {
+
+        T apply(String folderId) throws GoogleDriveException;
     }
 }
@@ -0,0 +1,414 @@
+package com.marvin.upload;
+
+import com.google.api.client.http.ByteArrayContent;
+import com.google.api.client.http.EmptyContent;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpContent;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.json.JsonHttpContent;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.BackOff;
+import com.google.api.client.util.Sleeper;
+import com.google.api.services.drive.model.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Uploads files with the Google Drive resumable upload protocol.
+ *
+ * <p>The file is sent in chunks of a fixed size. After every chunk the offset confirmed by Drive is
+ * persisted with the session URI in an {@link UploadSessionStore}, so a failed upload continues at
+ * the last confirmed byte, both within the same call after an exponential backoff and after a
+ * process restart.</p>
+ *
+ * <p>Streams of unknown length can be uploaded as well. Only the current chunk is buffered, so a
+ * failed chunk is retried from memory, but such an upload cannot outlive the producing stream.</p>
+ */
+public class ResumableUpload {
+
+    /** Drive requires every chunk but the last to be a multiple of 256 KiB. */
+    public static final int CHUNK_GRANULARITY = 256 * 1024;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResumableUpload.class);
+
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+
+    private static final int RESUME_INCOMPLETE = 308;
+
+    private static final long UNKNOWN_SIZE = -1;
+
+    private static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(408, 429, 500, 502, 503, 504);
+
+    private static final Set<Integer> EXPIRED_SESSION_STATUS_CODES = Set.of(404, 410);
+
+    private final HttpRequestFactory requestFactory;
+    private final String uploadUrl;
+    private final int chunkSize;
+    private final UploadSessionStore sessionStore;
+    private final Supplier<BackOff> backOffFactory;
+    private final Sleeper sleeper;
+    private final BandwidthLimiter bandwidthLimiter;
+
+    /**
+     * Constructs a new {@code ResumableUpload}.
+     *
+     * @param requestFactory   the authorised request factory
+     * @param uploadUrl        the URL upload sessions are started at
+     * @param chunkSize        the chunk size in bytes, a multiple of {@link #CHUNK_GRANULARITY}
+     * @param sessionStore     the store the upload sessions are persisted in
+     * @param backOffFactory   creates the backoff policy for one upload
+     * @param sleeper          waits between retries
+     * @param bandwidthLimiter limits the rate at which chunks are sent
+     */
+    public ResumableUpload(
+            HttpRequestFactory requestFactory,
+            String uploadUrl,
+            int chunkSize,
+            UploadSessionStore sessionStore,
+            Supplier<BackOff> backOffFactory,
+            Sleeper sleeper,
+            BandwidthLimiter bandwidthLimiter
+    ) {
+        if (chunkSize <= 0 || chunkSize % CHUNK_GRANULARITY != 0) {
+            throw new IllegalArgumentException("Chunk size must be a positive multiple of " + CHUNK_GRANULARITY + " but was " + chunkSize + "!");
+        }
+        this.requestFactory = requestFactory;
+        this.uploadUrl = uploadUrl;
+        this.chunkSize = chunkSize;
+        this.sessionStore = sessionStore;
+        this.backOffFactory = backOffFactory;
+        this.sleeper = sleeper;
+        this.bandwidthLimiter = bandwidthLimiter;
+    }
+
+    /**
+     * Uploads the given file into the given folder, resuming a previously interrupted upload if possible.
+     *
+     * @param file        the file to upload
+     * @param parentId    the ID of the target folder
+     * @param contentType the media type of the file
+     * @return the created Drive file with its ID and MD5 checksum
+     * @throws IOException if the upload fails permanently or the retries are exhausted
+     */
+    public File upload(Path file, String parentId, String contentType) throws IOException {
+        return upload(file, parentId, contentType, new ContentHasher());
+    }
+
+    /**
+     * Uploads the given file into the given folder and hashes its content on the way. Every chunk is
+     * hashed from the buffer it is sent from, so the file is read only once; only the part uploaded
+     * before a resumed upload was interrupted is read a second time.
+     *
+     * @param file        the file to upload
+     * @param parentId    the ID of the target folder
+     * @param contentType the media type of the file
+     * @param hasher      receives the content of the file, complete once the upload returns
+     * @return the created Drive file with its ID and MD5 checksum
+     * @throws IOException if the upload fails permanently or the retries are exhausted
+     */
+    public File upload(Path file, String parentId, String contentType, ContentHasher hasher) throws IOException {
+        final String fileName = file.getFileName().toString();
+        final long fileSize = Files.size(file);
+        final BackOff backOff = backOffFactory.get();
+
+        UploadSession session = sessionStore.load(file, parentId).orElse(null);
+        boolean verifyOffset = session != null;
+        if (session != null) {
+            LOGGER.info("Resuming upload of {} from session with {} of {} bytes confirmed.", file.getFileName(), session.offset(), fileSize);
+        }
+
+        final byte[] buffer = new byte[(int) Math.min(chunkSize, Math.max(fileSize, 1))];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (true) {
+                try {
+                    if (session == null) {
+                        final String sessionUri = startSession(fileName, parentId, contentType, fileSize);
+                        session = new UploadSession(sessionUri, parentId, fileSize, Files.getLastModifiedTime(file).toMillis(), 0);
+                        sessionStore.save(file, session);
+                    }
+
+                    final ChunkResult result = verifyOffset
+                            ? queryStatus(session)
+                            : sendChunk(session, channel, buffer, hasher);
+                    verifyOffset = false;
+
+                    if (result.file() != null) {
+                        hasher.catchUp(channel, fileSize);
+                        sessionStore.delete(file);
+                        LOGGER.info("Completed resumable upload of {}. File ID: {}.", fileName, result.file().getId());
+                        return result.file();
+                    }
+                    if (result.confirmedOffset() > session.offset()) {
+                        backOff.reset();
+                    }
+                    session = session.withOffset(result.confirmedOffset());
+                    sessionStore.save(file, session);
+                } catch (ExpiredSessionException e) {
+                    LOGGER.warn("Upload session for {} expired, starting a new one.", file.getFileName());
+                    sessionStore.delete(file);
+                    session = null;
+                    verifyOffset = false;
+                } catch (IOException e) {
+                    waitBeforeRetry(fileName, backOff, e);
+                    verifyOffset = session != null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Uploads the given stream of unknown length into the given folder.
+     *
+     * <p>The stream is read chunk by chunk; a chunk is only sent as the final one once the end of the
+     * stream has been reached, so a stream that fails with an exception never completes the upload.</p>
+     *
+     * @param content     the content to upload, read until its end but not closed
+     * @param fileName    the name of the created Drive file
+     * @param parentId    the ID of the target folder
+     * @param contentType the media type of the content
+     * @return the created Drive file with its ID and MD5 checksum
+     * @throws IOException if reading the stream fails, the upload fails permanently or the retries are exhausted
+     */
+    public File upload(InputStream content, String fileName, String parentId, String contentType) throws IOException {
+        final BackOff backOff = backOffFactory.get();
+        final PushbackInputStream in = new PushbackInputStream(content, 1);
+        final byte[] buffer = new byte[chunkSize];
+
+        final UploadSession session = startStreamSession(fileName, parentId, contentType, backOff);
+        long offset = 0;
+        while (true) {
+            final int length = in.readNBytes(buffer, 0, buffer.length);
+            final long total = isExhausted(in) ? offset + length : UNKNOWN_SIZE;
+            final Chunk chunk = new Chunk(buffer, offset, length, total);
+
+            int confirmed = 0;
+            do {
+                final ChunkResult result = sendStreamChunk(session, chunk, confirmed, backOff, fileName);
+                if (result.file() != null) {
+                    LOGGER.info("Completed streamed upload of {} ({} bytes). File ID: {}.", fileName, offset + length, result.file().getId());
+                    return result.file();
+                }
+                confirmed = (int) (result.confirmedOffset() - offset);
+            } while (confirmed < length);
+
+            if (total != UNKNOWN_SIZE) {
+                throw new IOException("Drive did not complete the streamed upload of " + fileName + "!");
+            }
+            offset += length;
+        }
+    }
+
+    private UploadSession startStreamSession(String fileName, String parentId, String contentType, BackOff backOff) throws IOException {
+        while (true) {
+            try {
+                final String sessionUri = startSession(fileName, parentId, contentType, UNKNOWN_SIZE);
+                return new UploadSession(sessionUri, parentId, UNKNOWN_SIZE, UNKNOWN_SIZE, 0);
+            } catch (IOException e) {
+                waitBeforeRetry(fileName, backOff, e);
+            }
+        }
+    }
+
+    private ChunkResult sendStreamChunk(UploadSession session, Chunk chunk, int confirmed, BackOff backOff, String fileName)
+            throws IOException {
+        boolean verifyOffset = false;
+        while (true) {
+            try {
+                if (!verifyOffset) {
+                    bandwidthLimiter.acquire(chunk.length() - confirmed);
+                }
+                final ChunkResult result = verifyOffset
+                        ? put(session, new EmptyContent(), "bytes */" + formatSize(chunk.total()))
+                        : put(session,
+                                new ByteArrayContent(null, chunk.buffer(), confirmed, chunk.length() - confirmed),
+                                contentRange(chunk.offset() + confirmed, chunk.length() - confirmed, chunk.total()));
+                if (result.file() != null || result.confirmedOffset() > chunk.offset() + confirmed) {
+                    backOff.reset();
+                }
+                return result;
+            } catch (ExpiredSessionException e) {
+                throw new IOException("Upload session of streamed " + fileName + " expired!", e);
+            } catch (IOException e) {
+                waitBeforeRetry(fileName, backOff, e);
+                verifyOffset = true;
+            }
+        }
+    }
+
+    private static boolean isExhausted(PushbackInputStream in) throws IOException {
+        final int next = in.read();
+        if (next < 0) {
+            return true;
+        }
+        in.unread(next);
+        return false;
+    }
+
+    private String startSession(String fileName, String parentId, String contentType, long fileSize) throws IOException {
+        final File metadata = new File()
+                .setName(fileName)
+                .setParents(List.of(parentId));
+
+        final HttpRequest request = prepare(requestFactory.buildPostRequest(
+                new GenericUrl(uploadUrl + "?uploadType=resumable&fields=id,md5Checksum"),
+                new JsonHttpContent(JSON_FACTORY, metadata)));
+        request.getHeaders().set("X-Upload-Content-Type", contentType);
+        if (fileSize != UNKNOWN_SIZE) {
+            request.getHeaders().set("X-Upload-Content-Length", fileSize);
+        }
+
+        final HttpResponse response = request.execute();
+        try {
+            if (!response.isSuccessStatusCode() || response.getHeaders().getLocation() == null) {
+                throw failure(response);
+            }
+            LOGGER.info("Started resumable upload session for {} ({} bytes).", fileName, fileSize == UNKNOWN_SIZE ? "unknown" : fileSize);
+            return response.getHeaders().getLocation();
+        } finally {
+            response.disconnect();
+        }
+    }
+
+    private ChunkResult sendChunk(UploadSession session, FileChannel channel, byte[] buffer, ContentHasher hasher) throws IOException {
+        final long offset = session.offset();
+        final int length = (int) Math.min(buffer.length, session.fileSize() - offset);
+
+        final ByteBuffer target = ByteBuffer.wrap(buffer, 0, length);
+        while (target.hasRemaining()) {
+            if (channel.read(target, offset + target.position()) < 0) {
+                throw new IOException("File shrank while uploading!");
+            }
+        }
+        hasher.catchUp(channel, offset);
+        hasher.update(offset, buffer, 0, length);
+
+        bandwidthLimiter.acquire(length);
+        return put(session, new ByteArrayContent(null, buffer, 0, length), contentRange(offset, length, session.fileSize()));
+    }
+
+    private ChunkResult queryStatus(UploadSession session) throws IOException {
+        return put(session, new EmptyContent(), "bytes */" + formatSize(session.fileSize()));
+    }
+
+    private ChunkResult put(UploadSession session, HttpContent content, String contentRange) throws IOException {
+        final HttpRequest request = prepare(requestFactory.buildPutRequest(new GenericUrl(session.sessionUri()), content));
+        request.getHeaders().setContentRange(contentRange);
+
+        final HttpResponse response = request.execute();
+        try {
+            final int statusCode = response.getStatusCode();
+            if (statusCode == RESUME_INCOMPLETE) {
+                return ChunkResult.incomplete(parseConfirmedOffset(response.getHeaders().getRange()));
+            }
+            if (response.isSuccessStatusCode()) {
+                return ChunkResult.complete(JSON_FACTORY.fromString(response.parseAsString(), File.class));
+            }
+            if (EXPIRED_SESSION_STATUS_CODES.contains(statusCode)) {
+                throw new ExpiredSessionException();
+            }
+            throw failure(response);
+        } finally {
+            response.disconnect();
+        }
+    }
+
+    private HttpRequest prepare(HttpRequest request) {
+        return request
+                .setThrowExceptionOnExecuteError(false)
+                .setFollowRedirects(false);
+    }
+
+    private IOException failure(HttpResponse response) {
+        final HttpResponseException exception = new HttpResponseException(response);
+        if (RETRYABLE_STATUS_CODES.contains(response.getStatusCode())) {
+            return exception;
+        }
+        return new PermanentUploadException(exception);
+    }
+
+    private void waitBeforeRetry(String fileName, BackOff backOff, IOException cause) throws IOException {
+        if (cause instanceof PermanentUploadException permanent) {
+            throw permanent.getCause();
+        }
+        final long backOffMillis = backOff.nextBackOffMillis();
+        if (backOffMillis == BackOff.STOP) {
+            throw new IOException("Giving up resumable upload of " + fileName + "!", cause);
+        }
+
+        LOGGER.warn("Upload of {} failed, retrying in {} ms: {}", fileName, backOffMillis, cause.getMessage());
+        try {
+            sleeper.sleep(backOffMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry the upload of " + fileName);
+        }
+    }
+
+    private static String contentRange(long offset, int length, long total) {
+        if (length == 0) {
+            return "bytes */" + formatSize(total);
+        }
+        return "bytes " + offset + "-" + (offset + length - 1) + "/" + formatSize(total);
+    }
+
+    private static String formatSize(long size) {
+        return size == UNKNOWN_SIZE ? "*" : Long.toString(size);
+    }
+
+    private static long parseConfirmedOffset(String range) {
+        if (range == null || range.isBlank()) {
+            return 0;
+        }
+        return Long.parseLong(range.substring(range.lastIndexOf('-') + 1).trim()) + 1;
+    }
+
+    private record Chunk(byte[] buffer, long offset, int length, long total) {
+
+    }
+
+    private record ChunkResult(long confirmedOffset, File file) {
+
+        private static ChunkResult incomplete(long confirmedOffset) {
+            return new ChunkResult(confirmedOffset, null);
+        }
+
+        private static ChunkResult complete(File file) {
+            return new ChunkResult(-1, file);
+        }
+    }
+
+    private static final class ExpiredSessionException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static final class PermanentUploadException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private PermanentUploadException(HttpResponseException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized HttpResponseException getCause() {
+            return (HttpResponseException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.marvin.upload;
+
+/**
+ * State of a resumable upload that allows it to be continued after a failure or restart.
+ *
+ * @param sessionUri   the upload session URI returned by Drive
+ * @param parentId     the ID of the folder the file is uploaded to
+ * @param fileSize     the size of the file when the session was started
+ * @param lastModified the last modification time of the file in epoch milliseconds when the session was started
+ * @param offset       the number of bytes Drive has confirmed
+ */
+public record UploadSession(
+        String sessionUri,
+        String parentId,
+        long fileSize,
+        long lastModified,
+        long offset
+) {
+
+    /**
+     * Returns a copy of this session with the given confirmed offset.
+     *
+     * @param confirmedOffset the number of bytes Drive has confirmed
+     * @return the updated session
+     */
+    public UploadSession withOffset(long confirmedOffset) {
+        return new UploadSession(sessionUri, parentId, fileSize, lastModified, confirmedOffset);
+    }
+}
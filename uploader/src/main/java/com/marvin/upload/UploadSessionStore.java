@@ -0,0 +1,118 @@
+package com.marvin.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists {@link UploadSession}s as small properties files, one per uploaded file name.
+ *
+ * <p>Sessions are keyed by file name only so that an upload can still be resumed after the file has
+ * been moved, e.g. into the error directory. A stored session is ignored if the size or modification
+ * time of the file no longer matches.</p>
+ */
+public class UploadSessionStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UploadSessionStore.class);
+
+    private static final String SUFFIX = ".session";
+
+    private final Path sessionFolder;
+
+    /**
+     * Constructs a new {@code UploadSessionStore}.
+     *
+     * @param sessionFolder the folder the session files are kept in
+     */
+    public UploadSessionStore(Path sessionFolder) {
+        this.sessionFolder = sessionFolder;
+    }
+
+    /**
+     * Loads the session stored for the given file if it still matches the file and the target folder.
+     *
+     * @param file     the file to upload
+     * @param parentId the ID of the target folder
+     * @return the stored session, or empty if there is none or it is outdated
+     * @throws IOException if the file cannot be inspected
+     */
+    public Optional<UploadSession> load(Path file, String parentId) throws IOException {
+        final Path sessionFile = sessionFile(file);
+        if (!Files.exists(sessionFile)) {
+            return Optional.empty();
+        }
+
+        final Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(sessionFile)) {
+            properties.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Ignoring unreadable upload session {}!", sessionFile, e);
+            return Optional.empty();
+        }
+
+        final UploadSession session = new UploadSession(
+                properties.getProperty("sessionUri"),
+                properties.getProperty("parentId"),
+                Long.parseLong(properties.getProperty("fileSize", "-1")),
+                Long.parseLong(properties.getProperty("lastModified", "-1")),
+                Long.parseLong(properties.getProperty("offset", "0")));
+
+        if (session.sessionUri() == null
+                || !parentId.equals(session.parentId())
+                || session.fileSize() != Files.size(file)
+                || session.lastModified() != Files.getLastModifiedTime(file).toMillis()) {
+            LOGGER.info("Discarding outdated upload session for {}.", file.getFileName());
+            delete(file);
+            return Optional.empty();
+        }
+        return Optional.of(session);
+    }
+
+    /**
+     * Stores the session for the given file, replacing any previous one atomically.
+     *
+     * @param file    the file being uploaded
+     * @param session the session to store
+     * @throws IOException if the session cannot be written
+     */
+    public void save(Path file, UploadSession session) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty("sessionUri", session.sessionUri());
+        properties.setProperty("parentId", session.parentId());
+        properties.setProperty("fileSize", Long.toString(session.fileSize()));
+        properties.setProperty("lastModified", Long.toString(session.lastModified()));
+        properties.setProperty("offset", Long.toString(session.offset()));
+
+        Files.createDirectories(sessionFolder);
+        final Path sessionFile = sessionFile(file);
+        final Path tempFile = sessionFile.resolveSibling(sessionFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile)) {
+            properties.store(out, "Resumable upload of " + file.getFileName());
+        }
+        Files.move(tempFile, sessionFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Removes the session stored for the given file.
+     *
+     * @param file the uploaded file
+     */
+    public void delete(Path file) {
+        try {
+            Files.deleteIfExists(sessionFile(file));
+        } catch (IOException e) {
+            LOGGER.error("Could not delete upload session for {}!", file.getFileName(), e);
+        }
+    }
+
+    private Path sessionFile(Path file) {
+        return sessionFolder.resolve(file.getFileName() + SUFFIX);
+    }
+}
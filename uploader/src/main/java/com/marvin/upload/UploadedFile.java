@@ -0,0 +1,18 @@
+package com.marvin.upload;
+
+/**
+ * A file created in Google Drive by an upload.
+ *
+ * @param id          the Drive file ID
+ * @param md5Checksum the MD5 checksum of the content, hex encoded
+ * @param sha256      the SHA-256 hash of the local content, hex encoded, or {@code null} if not computed
+ * @param verified    whether the checksum computed by Drive was compared with, and matched, the local content
+ */
+public record UploadedFile(
+        String id,
+        String md5Checksum,
+        String sha256,
+        boolean verified
+) {
+
+}
@@ -1,16 +1,30 @@
 package com.marvin.upload;
 
+import com.marvin.upload.compression.ParallelCompressor;
+import com.marvin.upload.compression.ParallelZipWriter;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,52 +42,158 @@ public class Uploader {
     private final String costExportFolder;
     private final String parentFolderName;
     private final GoogleDrive googleDrive;
+    private final ParallelCompressor parallelCompressor;
+    private final boolean streamingZip;
+    private final int pipeBufferSize;
+    private final ExecutorService zipExecutor = Executors.newCachedThreadPool();
 
     public Uploader(
         @Value("${uploader.enabled}") boolean enabled,
         @Value("${uploader.cost-export-folder}") String costExportFolder,
         @Value("${uploader.parent-folder-name}") String parentFolderName,
-        GoogleDrive googleDrive
+        GoogleDrive googleDrive,
+        ParallelCompressor parallelCompressor,
+        @Value("${uploader.zip.streaming:true}") boolean streamingZip,
+        @Value("${uploader.zip.pipe-buffer-size:1048576}") int pipeBufferSize
     ) {
         this.enabled = enabled;
         this.costExportFolder = costExportFolder;
         this.parentFolderName = parentFolderName;
         this.googleDrive = googleDrive;
+        this.parallelCompressor = parallelCompressor;
+        this.streamingZip = streamingZip;
+        this.pipeBufferSize = pipeBufferSize;
     }
 
-    public void uploadFile(Path file, String driveFolderName) {
+    @PreDestroy
+    public void shutdown() {
+        zipExecutor.shutdownNow();
+    }
+
+    public UploadedFile uploadFile(Path file, String driveFolderName) {
 
         if (!enabled) {
             LOGGER.info("Upload is disabled!");
-            return;
+            return null;
         }
 
         LOGGER.info("Going to upload file: {} to folder: {}!", file.getFileName(), driveFolderName);
 
         try {
-            final String parentId = googleDrive.getFileId(driveFolderName);
-            googleDrive.uploadFile(file, parentId);
+            final UploadedFile uploadedFile = googleDrive.uploadFileToFolder(file, driveFolderName);
             LOGGER.info("Successfully uploaded file: {}", file.getFileName());
+            return uploadedFile;
         } catch (GoogleDriveException e) {
             throw new IllegalStateException("Failed to upload file to Google Drive: " + file.getFileName(), e);
         }
     }
 
-    public void zipAndUploadFiles(String fileNamePrefix, List<Path> filesToZipAndUpload) {
+    /**
+     * Uploads a file that is already compressed as is into the parent folder and deletes it afterwards.
+     *
+     * @param file the file to upload
+     */
+    public void uploadAndDeleteFile(Path file) {
 
         if (!enabled) {
             LOGGER.info("Upload is disabled!");
             return;
         }
 
+        LOGGER.info("Going to upload file: {}!", file.getFileName());
+        uploadToGoogleDrive(file);
+        deleteZipFile(file);
+    }
+
+    /**
+     * Zips the given files into one archive, uploads it into the parent folder and deletes the files.
+     *
+     * @param fileNamePrefix      the prefix of the archive name
+     * @param filesToZipAndUpload the files to upload, relative to the cost export folder
+     * @return {@code true} if the files were uploaded, {@code false} if uploads are disabled and the files were left untouched
+     */
+    public boolean zipAndUploadFiles(String fileNamePrefix, List<Path> filesToZipAndUpload) {
+
+        if (!enabled) {
+            LOGGER.info("Upload is disabled!");
+            return false;
+        }
+
         LOGGER.info("Going to zip and upload files with prefix: {}!", fileNamePrefix);
 
         final Path dirPath = Paths.get(costExportFolder);
         final Path zipFilePath = generateZipFilePath(dirPath, fileNamePrefix);
 
+        if (streamingZip) {
+            streamZipToGoogleDrive(filesToZipAndUpload, dirPath, zipFilePath.getFileName().toString());
+            deleteUploadedFiles(filesToZipAndUpload, dirPath);
+            return true;
+        }
+
         createZipFile(filesToZipAndUpload, dirPath, zipFilePath);
         uploadToGoogleDrive(zipFilePath);
         cleanupFiles(filesToZipAndUpload, dirPath, zipFilePath);
+        return true;
+    }
+
+    /**
+     * Zips the files on a producer thread straight into the upload through a bounded pipe, so
+     * compression and upload overlap and the archive never touches the disk. The MD5 checksum of the
+     * archive is computed on the fly and compared with the checksum Drive reports.
+     *
+     * @param filesToZipAndUpload the files to add to the archive
+     * @param dirPath             the folder the files are resolved against
+     * @param zipFileName         the name of the archive in Google Drive
+     */
+    private void streamZipToGoogleDrive(List<Path> filesToZipAndUpload, Path dirPath, String zipFileName) {
+        final MessageDigest md5 = newMd5Digest();
+
+        try (final PipedInputStream pipeIn = new PipedInputStream(pipeBufferSize);
+             final PipedOutputStream pipeOut = new PipedOutputStream(pipeIn)) {
+
+            final Future<?> producer = zipExecutor.submit(() -> {
+                try (final ParallelZipWriter zipWriter = parallelCompressor.newZipWriter(
+                    new DigestOutputStream(new BufferedOutputStream(pipeOut, pipeBufferSize), md5))) {
+                    filesToZipAndUpload.stream()
+                        .filter(path -> !Files.isDirectory(path))
+                        .forEach(path -> addFileToZip(path, dirPath, zipWriter));
+                }
+                return null;
+            });
+
+            try {
+                final UploadedFile uploadedFile = googleDrive.uploadStreamToFolder(
+                    new ProducerAwareInputStream(pipeIn, producer), zipFileName, parentFolderName);
+                producer.get();
+                verifyChecksum(zipFileName, HexFormat.of().formatHex(md5.digest()), uploadedFile);
+            } finally {
+                producer.cancel(true);
+            }
+        } catch (GoogleDriveException e) {
+            LOGGER.error("Could not upload file!", e);
+            throw new IllegalStateException("Failed to upload zip file to Google Drive", e);
+        } catch (IOException | ExecutionException e) {
+            throw new IllegalStateException("Could not stream zip file " + zipFileName + "!", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while streaming zip file " + zipFileName + "!", e);
+        }
+    }
+
+    private void verifyChecksum(String zipFileName, String localMd5, UploadedFile uploadedFile) {
+        if (uploadedFile.md5Checksum() != null && !uploadedFile.md5Checksum().equalsIgnoreCase(localMd5)) {
+            throw new IllegalStateException("Checksum mismatch for uploaded file " + zipFileName + ": local "
+                + localMd5 + ", Drive " + uploadedFile.md5Checksum() + "!");
+        }
+        LOGGER.info("Streamed {} to Google Drive, MD5 {}.", zipFileName, localMd5);
+    }
+
+    private static MessageDigest newMd5Digest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available!", e);
+        }
     }
 
     private Path generateZipFilePath(Path dirPath, String fileNamePrefix) {
@@ -83,26 +203,22 @@ public class Uploader {
     }
 
     private void createZipFile(List<Path> filesToZipAndUpload, Path dirPath, Path zipFilePath) {
-        try (final ZipOutputStream zipOutputStream = new ZipOutputStream(
+        try (final ParallelZipWriter zipWriter = parallelCompressor.newZipWriter(
             Files.newOutputStream(zipFilePath))) {
-            zipOutputStream.setLevel(9);
             filesToZipAndUpload.stream()
                 .filter(path -> !Files.isDirectory(path))
-                .forEach(path -> addFileToZip(path, dirPath, zipOutputStream));
+                .forEach(path -> addFileToZip(path, dirPath, zipWriter));
         } catch (IOException e) {
             throw new RuntimeException("Could not create zip file!", e);
         }
     }
 
-    private void addFileToZip(Path path, Path dirPath, ZipOutputStream zipOutputStream) {
+    private void addFileToZip(Path path, Path dirPath, ParallelZipWriter zipWriter) {
         final Path filePath = dirPath.resolve(path);
-        final ZipEntry zipEntry = new ZipEntry(filePath.toString());
-        LOGGER.info("Added zip entry {}", zipEntry.getName());
 
         try {
-            zipOutputStream.putNextEntry(zipEntry);
-            Files.copy(filePath, zipOutputStream);
-            zipOutputStream.closeEntry();
+            zipWriter.addFile(filePath.toString(), filePath);
+            LOGGER.info("Added zip entry {}", filePath);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -110,8 +226,7 @@ public class Uploader {
 
     private void uploadToGoogleDrive(Path zipFilePath) {
         try {
-            final String parentId = googleDrive.getFileId(parentFolderName);
-            googleDrive.uploadFile(zipFilePath, parentId);
+            googleDrive.uploadFileToFolder(zipFilePath, parentFolderName);
         } catch (GoogleDriveException e) {
             LOGGER.error("Could not upload file!", e);
             throw new IllegalStateException("Failed to upload zip file to Google Drive", e);
@@ -143,4 +258,39 @@ public class Uploader {
             LOGGER.error("Could not delete file {}!", zipFilePath, e);
         }
     }
+
+    /** Turns the end of the pipe into an error if the producer failed, so a truncated archive is never completed. */
+    private static final class ProducerAwareInputStream extends FilterInputStream {
+
+        private final Future<?> producer;
+
+        private ProducerAwareInputStream(InputStream in, Future<?> producer) {
+            super(in);
+            this.producer = producer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return checkEnd(super.read());
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return checkEnd(super.read(b, off, len));
+        }
+
+        private int checkEnd(int result) throws IOException {
+            if (result < 0) {
+                try {
+                    producer.get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Creating the zip stream failed!", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the zip stream!", e);
+                }
+            }
+            return result;
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package com.marvin.upload.compression;
+
+/**
+ * Outcome of compressing one input with the {@link ParallelDeflater}.
+ *
+ * @param crc              the CRC-32 of the uncompressed input
+ * @param uncompressedSize the number of bytes read
+ * @param compressedSize   the number of bytes written
+ */
+public record DeflateResult(
+        long crc,
+        long uncompressedSize,
+        long compressedSize
+) {
+
+}
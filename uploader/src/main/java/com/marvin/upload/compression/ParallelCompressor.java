@@ -0,0 +1,98 @@
+package com.marvin.upload.compression;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entry point for multi-core compression of archives and exports.
+ *
+ * <p>Owns the fork-join pool the blocks are deflated on and creates zip writers and gzip streams
+ * with the configured compression level. Files with an extension of an already compressed format
+ * are stored in zip archives without being compressed again.</p>
+ */
+@Component
+public class ParallelCompressor {
+
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "zip", "gz", "tgz", "bz2", "xz", "zst", "7z", "rar",
+            "jpg", "jpeg", "png", "gif", "webp", "heic",
+            "mp3", "mp4", "mkv", "mov");
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final ForkJoinPool pool;
+    private final ParallelDeflater deflater;
+
+    /**
+     * Constructs a new {@code ParallelCompressor}.
+     *
+     * @param level       the deflate level from 0 to 9
+     * @param blockSize   the size of the blocks compressed independently
+     * @param parallelism the number of compression threads, {@code 0} for one per core
+     */
+    public ParallelCompressor(
+            @Value("${uploader.zip.level:6}") int level,
+            @Value("${uploader.zip.block-size:131072}") int blockSize,
+            @Value("${uploader.zip.parallelism:0}") int parallelism
+    ) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.deflater = new ParallelDeflater(pool, level, blockSize);
+    }
+
+    /** Stops the compression threads on application shutdown. */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Creates a zip writer on top of the given stream.
+     *
+     * @param out the stream the archive is written to, closed with the writer
+     * @return the zip writer
+     */
+    public ParallelZipWriter newZipWriter(OutputStream out) {
+        return new ParallelZipWriter(out, deflater, ParallelCompressor::isCompressed);
+    }
+
+    /**
+     * Compresses the input until its end into a single-member gzip stream.
+     *
+     * @param in  the input to compress, not closed
+     * @param out the output the gzip stream is written to, not closed
+     * @return the CRC-32 and the sizes of the input and of the deflate data
+     * @throws IOException if reading or writing fails
+     */
+    public DeflateResult gzip(InputStream in, OutputStream out) throws IOException {
+        out.write(GZIP_HEADER);
+        final DeflateResult result = deflater.deflate(in, out);
+        out.write(ByteBuffer.allocate(8)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .putInt((int) result.crc())
+                .putInt((int) result.uncompressedSize())
+                .array());
+        return result;
+    }
+
+    /**
+     * Tells whether the given file is in an already compressed format, judged by its extension.
+     *
+     * @param file the file to check
+     * @return {@code true} if compressing the file again is pointless
+     */
+    public static boolean isCompressed(Path file) {
+        final String name = file.getFileName().toString();
+        final int dot = name.lastIndexOf('.');
+        return dot >= 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+}
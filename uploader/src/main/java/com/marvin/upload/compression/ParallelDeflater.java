@@ -0,0 +1,129 @@
+package com.marvin.upload.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Produces a raw deflate stream by compressing fixed-size blocks of the input concurrently.
+ *
+ * <p>Like pigz, every block is primed with the last 32 KiB of the preceding block as preset
+ * dictionary and ends with a sync flush, so the compressed blocks can simply be concatenated into
+ * one valid deflate stream with almost the ratio of a single-threaded compressor. The CRC-32 is
+ * computed on the reading thread while the blocks compress. At most a bounded number of blocks
+ * are in flight, so memory use does not depend on the size of the input.</p>
+ */
+public class ParallelDeflater {
+
+    /** Size of the deflate window and therefore of the preset dictionary. */
+    static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private static final int OUTPUT_BUFFER_SIZE = 16 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int level;
+    private final int blockSize;
+    private final int maxBlocksInFlight;
+
+    /**
+     * Constructs a new {@code ParallelDeflater}.
+     *
+     * @param pool      the pool the blocks are compressed on
+     * @param level     the deflate level from 0 to 9
+     * @param blockSize the size of a block, at least {@link #DICTIONARY_SIZE}
+     */
+    public ParallelDeflater(ForkJoinPool pool, int level, int blockSize) {
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9 but was " + level + "!");
+        }
+        if (blockSize < DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("Block size must be at least " + DICTIONARY_SIZE + " but was " + blockSize + "!");
+        }
+        this.pool = pool;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.maxBlocksInFlight = pool.getParallelism() * 2;
+    }
+
+    /**
+     * Compresses the input until its end into the output as a raw deflate stream.
+     *
+     * @param in  the input to compress, not closed
+     * @param out the output the deflate stream is written to, not closed
+     * @return the CRC-32 and the sizes of the input and output
+     * @throws IOException if reading or writing fails
+     */
+    public DeflateResult deflate(InputStream in, OutputStream out) throws IOException {
+        final CRC32 crc = new CRC32();
+        final Deque<ForkJoinTask<byte[]>> pending = new ArrayDeque<>();
+        long uncompressedSize = 0;
+        long compressedSize = 0;
+
+        try {
+            byte[] dictionary = null;
+            byte[] current = in.readNBytes(blockSize);
+            boolean last = false;
+            while (!last) {
+                final byte[] next = current.length < blockSize ? new byte[0] : in.readNBytes(blockSize);
+                last = next.length == 0;
+
+                crc.update(current);
+                uncompressedSize += current.length;
+
+                final byte[] block = current;
+                final byte[] blockDictionary = dictionary;
+                final boolean finalBlock = last;
+                pending.add(pool.submit(() -> compressBlock(block, blockDictionary, finalBlock)));
+
+                dictionary = Arrays.copyOfRange(current, Math.max(0, current.length - DICTIONARY_SIZE), current.length);
+                current = next;
+
+                while (pending.size() >= maxBlocksInFlight || last && !pending.isEmpty()) {
+                    final byte[] compressed = pending.poll().join();
+                    out.write(compressed);
+                    compressedSize += compressed.length;
+                }
+            }
+        } finally {
+            pending.forEach(task -> task.cancel(true));
+        }
+
+        return new DeflateResult(crc.getValue(), uncompressedSize, compressedSize);
+    }
+
+    private byte[] compressBlock(byte[] block, byte[] dictionary, boolean last) {
+        final Deflater deflater = new Deflater(level, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(block);
+
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream(block.length / 2 + 64);
+            final byte[] buffer = new byte[OUTPUT_BUFFER_SIZE];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                int written;
+                do {
+                    written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    compressed.write(buffer, 0, written);
+                } while (written == buffer.length);
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
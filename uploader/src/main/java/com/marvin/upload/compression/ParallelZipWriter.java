@@ -0,0 +1,299 @@
+package com.marvin.upload.compression;
+
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * Writes a standard zip archive whose deflated entries are compressed by a {@link ParallelDeflater}.
+ *
+ * <p>{@link java.util.zip.ZipOutputStream} cannot take pre-compressed data, so the zip structures
+ * are written here. Deflated entries are streamed with a trailing data descriptor; entries for
+ * which the store predicate matches (already compressed content) are stored as they are, with
+ * CRC and size computed up front so that every common reader, including
+ * {@link java.util.zip.ZipInputStream}, can extract them. Zip64 structures are written where
+ * sizes, offsets or the entry count exceed the classic limits.</p>
+ */
+public class ParallelZipWriter implements Closeable {
+
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+
+    /** Deflate may slightly expand incompressible input, so deflated entries switch to Zip64 early. */
+    private static final long DEFLATED_ZIP64_THRESHOLD = 0xF0000000L;
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+
+    private static final short ZIP64_EXTRA_ID = 0x0001;
+    private static final short VERSION_DEFAULT = 20;
+    private static final short VERSION_ZIP64 = 45;
+    private static final short FLAG_DATA_DESCRIPTOR = 0x0008;
+    private static final short FLAG_UTF8 = 0x0800;
+    private static final short METHOD_STORED = 0;
+    private static final short METHOD_DEFLATED = 8;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final CountingOutputStream out;
+    private final ParallelDeflater deflater;
+    private final Predicate<Path> storeUncompressed;
+    private final List<CentralEntry> entries = new ArrayList<>();
+
+    /**
+     * Constructs a new {@code ParallelZipWriter}.
+     *
+     * @param out               the stream the archive is written to, closed with this writer
+     * @param deflater          the deflater for compressed entries
+     * @param storeUncompressed selects the files that are stored without compression
+     */
+    public ParallelZipWriter(OutputStream out, ParallelDeflater deflater, Predicate<Path> storeUncompressed) {
+        this.out = new CountingOutputStream(out);
+        this.deflater = deflater;
+        this.storeUncompressed = storeUncompressed;
+    }
+
+    /**
+     * Adds the content of the given file as a new entry.
+     *
+     * @param entryName the name of the entry within the archive
+     * @param file      the file to add
+     * @throws IOException if the file cannot be read or the archive cannot be written
+     */
+    public void addFile(String entryName, Path file) throws IOException {
+        final byte[] name = entryName.getBytes(StandardCharsets.UTF_8);
+        final long offset = out.count();
+        final LocalDateTime modified = LocalDateTime.ofInstant(Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault());
+        final int dosTime = toDosTime(modified);
+        final long fileSize = Files.size(file);
+
+        if (storeUncompressed.test(file)) {
+            final long crc = crcOf(file);
+            final boolean zip64 = fileSize >= ZIP64_MAGIC;
+            writeLocalHeader(name, FLAG_UTF8, METHOD_STORED, dosTime, crc, fileSize, zip64);
+            Files.copy(file, out);
+            entries.add(new CentralEntry(name, FLAG_UTF8, METHOD_STORED, dosTime, crc, fileSize, fileSize, offset));
+            return;
+        }
+
+        final boolean zip64 = fileSize >= DEFLATED_ZIP64_THRESHOLD;
+        final short flags = FLAG_UTF8 | FLAG_DATA_DESCRIPTOR;
+        writeLocalHeader(name, flags, METHOD_DEFLATED, dosTime, 0, 0, zip64);
+
+        final DeflateResult result;
+        try (InputStream in = Files.newInputStream(file)) {
+            result = deflater.deflate(in, out);
+        }
+        writeDataDescriptor(result, zip64);
+        entries.add(new CentralEntry(name, flags, METHOD_DEFLATED, dosTime,
+                result.crc(), result.compressedSize(), result.uncompressedSize(), offset));
+    }
+
+    /**
+     * Writes the central directory and closes the underlying stream.
+     *
+     * @throws IOException if the archive cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try (OutputStream target = out) {
+            final long centralDirectoryOffset = out.count();
+            for (CentralEntry entry : entries) {
+                writeCentralHeader(entry);
+            }
+            final long centralDirectorySize = out.count() - centralDirectoryOffset;
+            writeEnd(centralDirectoryOffset, centralDirectorySize);
+            target.flush();
+        }
+    }
+
+    private void writeLocalHeader(byte[] name, short flags, short method, int dosTime, long crc, long size, boolean zip64)
+            throws IOException {
+        final ByteBuffer header = buffer(30 + name.length + (zip64 ? 20 : 0))
+                .putInt(LOCAL_HEADER_SIGNATURE)
+                .putShort(zip64 ? VERSION_ZIP64 : VERSION_DEFAULT)
+                .putShort(flags)
+                .putShort(method)
+                .putInt(dosTime)
+                .putInt((int) crc)
+                .putInt((int) (zip64 ? ZIP64_MAGIC : size))
+                .putInt((int) (zip64 ? ZIP64_MAGIC : size))
+                .putShort((short) name.length)
+                .putShort((short) (zip64 ? 20 : 0))
+                .put(name);
+        if (zip64) {
+            header.putShort(ZIP64_EXTRA_ID).putShort((short) 16).putLong(size).putLong(size);
+        }
+        out.write(header.array());
+    }
+
+    private void writeDataDescriptor(DeflateResult result, boolean zip64) throws IOException {
+        final ByteBuffer descriptor = buffer(zip64 ? 24 : 16)
+                .putInt(DATA_DESCRIPTOR_SIGNATURE)
+                .putInt((int) result.crc());
+        if (zip64) {
+            descriptor.putLong(result.compressedSize()).putLong(result.uncompressedSize());
+        } else {
+            descriptor.putInt((int) result.compressedSize()).putInt((int) result.uncompressedSize());
+        }
+        out.write(descriptor.array());
+    }
+
+    private void writeCentralHeader(CentralEntry entry) throws IOException {
+        final boolean sizeZip64 = entry.uncompressedSize() >= ZIP64_MAGIC || entry.compressedSize() >= ZIP64_MAGIC;
+        final boolean offsetZip64 = entry.offset() >= ZIP64_MAGIC;
+        final int extraLength = sizeZip64 || offsetZip64 ? 4 + (sizeZip64 ? 16 : 0) + (offsetZip64 ? 8 : 0) : 0;
+        final short version = extraLength > 0 ? VERSION_ZIP64 : VERSION_DEFAULT;
+
+        final ByteBuffer header = buffer(46 + entry.name().length + extraLength)
+                .putInt(CENTRAL_HEADER_SIGNATURE)
+                .putShort(VERSION_ZIP64)
+                .putShort(version)
+                .putShort(entry.flags())
+                .putShort(entry.method())
+                .putInt(entry.dosTime())
+                .putInt((int) entry.crc())
+                .putInt((int) (sizeZip64 ? ZIP64_MAGIC : entry.compressedSize()))
+                .putInt((int) (sizeZip64 ? ZIP64_MAGIC : entry.uncompressedSize()))
+                .putShort((short) entry.name().length)
+                .putShort((short) extraLength)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putInt(0)
+                .putInt((int) (offsetZip64 ? ZIP64_MAGIC : entry.offset()))
+                .put(entry.name());
+        if (extraLength > 0) {
+            header.putShort(ZIP64_EXTRA_ID).putShort((short) (extraLength - 4));
+            if (sizeZip64) {
+                header.putLong(entry.uncompressedSize()).putLong(entry.compressedSize());
+            }
+            if (offsetZip64) {
+                header.putLong(entry.offset());
+            }
+        }
+        out.write(header.array());
+    }
+
+    private void writeEnd(long centralDirectoryOffset, long centralDirectorySize) throws IOException {
+        final boolean zip64 = entries.size() >= ZIP64_MAGIC_COUNT
+                || centralDirectoryOffset >= ZIP64_MAGIC
+                || centralDirectorySize >= ZIP64_MAGIC;
+
+        if (zip64) {
+            final long zip64EndOffset = out.count();
+            out.write(buffer(56)
+                    .putInt(ZIP64_END_SIGNATURE)
+                    .putLong(44)
+                    .putShort(VERSION_ZIP64)
+                    .putShort(VERSION_ZIP64)
+                    .putInt(0)
+                    .putInt(0)
+                    .putLong(entries.size())
+                    .putLong(entries.size())
+                    .putLong(centralDirectorySize)
+                    .putLong(centralDirectoryOffset)
+                    .array());
+            out.write(buffer(20)
+                    .putInt(ZIP64_LOCATOR_SIGNATURE)
+                    .putInt(0)
+                    .putLong(zip64EndOffset)
+                    .putInt(1)
+                    .array());
+        }
+
+        out.write(buffer(22)
+                .putInt(END_SIGNATURE)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) (zip64 ? ZIP64_MAGIC_COUNT : entries.size()))
+                .putShort((short) (zip64 ? ZIP64_MAGIC_COUNT : entries.size()))
+                .putInt((int) (zip64 ? ZIP64_MAGIC : centralDirectorySize))
+                .putInt((int) (zip64 ? ZIP64_MAGIC : centralDirectoryOffset))
+                .putShort((short) 0)
+                .array());
+    }
+
+    private static long crcOf(Path file) throws IOException {
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static int toDosTime(LocalDateTime time) {
+        if (time.getYear() < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return (time.getYear() - 1980) << 25
+                | time.getMonthValue() << 21
+                | time.getDayOfMonth() << 16
+                | time.getHour() << 11
+                | time.getMinute() << 5
+                | time.getSecond() >> 1;
+    }
+
+    private static ByteBuffer buffer(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private record CentralEntry(
+            byte[] name,
+            short flags,
+            short method,
+            int dosTime,
+            long crc,
+            long compressedSize,
+            long uncompressedSize,
+            long offset
+    ) {
+
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        private long count() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.marvin.upload;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.drive.Drive;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Minimal in-process stand-in for the Drive v3 files and changes endpoints.
+ *
+ * <p>Files are kept in memory; every mutation is appended to a change log whose index serves as
+ * page token. Page sizes are capped at {@link #MAX_PAGE_SIZE} so that clients have to page.</p>
+ */
+final class DriveApiStandIn {
+
+    static final int MAX_PAGE_SIZE = 2;
+
+    private static final Pattern PARENT_QUERY = Pattern.compile("'([^']+)' in parents");
+
+    final AtomicInteger fileListRequests = new AtomicInteger();
+    final AtomicInteger changeListRequests = new AtomicInteger();
+
+    private final HttpServer server;
+    private final Map<String, StoredFile> files = new LinkedHashMap<>();
+    private final List<String> changeLog = new ArrayList<>();
+
+    DriveApiStandIn() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/drive/v3/changes/startPageToken", this::startPageToken);
+        server.createContext("/drive/v3/changes", this::listChanges);
+        server.createContext("/drive/v3/files", this::listFiles);
+        server.start();
+    }
+
+    Drive drive() {
+        return new Drive.Builder(new NetHttpTransport(), GsonFactory.getDefaultInstance(), null)
+                .setRootUrl("http://localhost:" + server.getAddress().getPort() + "/")
+                .setApplicationName("test")
+                .build();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    synchronized void putFile(String id, String name, String parent) {
+        final StoredFile file = new StoredFile(id, name, parent, false);
+        files.put(id, file);
+        changeLog.add("{\"fileId\":\"" + id + "\",\"removed\":false,\"file\":" + file.toJson() + "}");
+    }
+
+    synchronized void trashFile(String id) {
+        final StoredFile file = files.get(id).trashed();
+        files.put(id, file);
+        changeLog.add("{\"fileId\":\"" + id + "\",\"removed\":false,\"file\":" + file.toJson() + "}");
+    }
+
+    synchronized void deleteFile(String id) {
+        files.remove(id);
+        changeLog.add("{\"fileId\":\"" + id + "\",\"removed\":true}");
+    }
+
+    private synchronized void startPageToken(HttpExchange exchange) throws IOException {
+        respond(exchange, "{\"startPageToken\":\"" + changeLog.size() + "\"}");
+    }
+
+    private synchronized void listChanges(HttpExchange exchange) throws IOException {
+        changeListRequests.incrementAndGet();
+        final Map<String, String> params = params(exchange);
+        final int from = Integer.parseInt(params.get("pageToken"));
+        final int to = Math.min(changeLog.size(), from + MAX_PAGE_SIZE);
+
+        final String changes = String.join(",", changeLog.subList(from, to));
+        final String token = to < changeLog.size()
+                ? "\"nextPageToken\":\"" + to + "\""
+                : "\"newStartPageToken\":\"" + to + "\"";
+        respond(exchange, "{" + token + ",\"changes\":[" + changes + "]}");
+    }
+
+    private synchronized void listFiles(HttpExchange exchange) throws IOException {
+        fileListRequests.incrementAndGet();
+        final Map<String, String> params = params(exchange);
+        final Matcher parent = PARENT_QUERY.matcher(params.getOrDefault("q", ""));
+        final String parentId = parent.find() ? parent.group(1) : null;
+
+        final List<StoredFile> matching = files.values().stream()
+                .filter(file -> !file.trashed() && file.parent().equals(parentId))
+                .collect(Collectors.toList());
+        final int from = params.containsKey("pageToken") ? Integer.parseInt(params.get("pageToken")) : 0;
+        final int to = Math.min(matching.size(), from + MAX_PAGE_SIZE);
+
+        final String page = matching.subList(from, to).stream().map(StoredFile::toJson).collect(Collectors.joining(","));
+        final String next = to < matching.size() ? "\"nextPageToken\":\"" + to + "\"," : "";
+        respond(exchange, "{" + next + "\"files\":[" + page + "]}");
+    }
+
+    private static Map<String, String> params(HttpExchange exchange) {
+        final Map<String, String> params = new HashMap<>();
+        final String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                final int separator = pair.indexOf('=');
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private record StoredFile(String id, String name, String parent, boolean trashed) {
+
+        private StoredFile trashed() {
+            return new StoredFile(id, name, parent, true);
+        }
+
+        private String toJson() {
+            return "{\"id\":\"" + id + "\",\"name\":\"" + name + "\",\"mimeType\":\"application/zip\",\"size\":\"42\","
+                    + "\"parents\":[\"" + parent + "\"],\"trashed\":" + trashed + "}";
+        }
+    }
+}
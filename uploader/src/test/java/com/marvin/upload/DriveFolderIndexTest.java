@@ -0,0 +1,81 @@
+package com.marvin.upload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DriveFolderIndexTest {
+
+    private static final String FOLDER_ID = "folder-1";
+    private static final String OTHER_FOLDER_ID = "folder-2";
+
+    private DriveApiStandIn driveStandIn;
+    private DriveFolderIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        driveStandIn = new DriveApiStandIn();
+        driveStandIn.putFile("a", "costs_backup_1.zip", FOLDER_ID);
+        driveStandIn.putFile("b", "costs_backup_2.zip", FOLDER_ID);
+        driveStandIn.putFile("c", "costs_backup_3.zip", FOLDER_ID);
+        driveStandIn.putFile("x", "unrelated.zip", OTHER_FOLDER_ID);
+        index = new DriveFolderIndex(driveStandIn.drive(), FOLDER_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        driveStandIn.stop();
+    }
+
+    @Test
+    void seed_pagesThroughFolder() throws IOException {
+        index.seed();
+
+        assertThat(names(index.list())).containsExactly("costs_backup_1.zip", "costs_backup_2.zip", "costs_backup_3.zip");
+        assertThat(driveStandIn.fileListRequests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void refresh_appliesChangesWithoutListingFolderAgain() throws IOException {
+        index.seed();
+        driveStandIn.putFile("d", "costs_backup_4.zip", FOLDER_ID);
+        driveStandIn.putFile("y", "other.zip", OTHER_FOLDER_ID);
+        driveStandIn.trashFile("a");
+        driveStandIn.deleteFile("b");
+
+        final int applied = index.refresh();
+
+        assertThat(applied).isEqualTo(3);
+        assertThat(names(index.list())).containsExactly("costs_backup_3.zip", "costs_backup_4.zip");
+        assertThat(driveStandIn.fileListRequests.get()).isEqualTo(2);
+        assertThat(driveStandIn.changeListRequests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void refresh_withoutChanges_keepsSnapshot() throws IOException {
+        index.seed();
+        final List<DriveFileInfo> before = index.list();
+
+        assertThat(index.refresh()).isZero();
+        assertThat(index.list()).isSameAs(before);
+    }
+
+    @Test
+    void refresh_continuesFromLastPageToken() throws IOException {
+        index.seed();
+        driveStandIn.putFile("d", "costs_backup_4.zip", FOLDER_ID);
+        index.refresh();
+        driveStandIn.deleteFile("d");
+
+        assertThat(index.refresh()).isEqualTo(1);
+        assertThat(names(index.list())).doesNotContain("costs_backup_4.zip");
+    }
+
+    private static List<String> names(List<DriveFileInfo> files) {
+        return files.stream().map(DriveFileInfo::getName).toList();
+    }
+}
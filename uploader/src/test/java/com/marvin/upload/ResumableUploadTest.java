@@ -0,0 +1,221 @@
+package com.marvin.upload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.util.BackOff;
+import com.google.api.client.util.Sleeper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResumableUploadTest {
+
+    private static final int CHUNK_SIZE = ResumableUpload.CHUNK_GRANULARITY;
+
+    private static final String PARENT_ID = "parent-1";
+
+    @TempDir
+    private Path tempDir;
+
+    private DriveStandIn driveStandIn;
+    private UploadSessionStore sessionStore;
+    private Path file;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        driveStandIn = new DriveStandIn();
+        sessionStore = new UploadSessionStore(tempDir.resolve("sessions"));
+
+        content = new byte[CHUNK_SIZE * 2 + 12_345];
+        new Random(42).nextBytes(content);
+        file = Files.write(tempDir.resolve("backup.zip"), content);
+    }
+
+    @AfterEach
+    void tearDown() {
+        driveStandIn.stop();
+    }
+
+    @Test
+    void upload_transientServerError_retriesFromConfirmedOffset() throws IOException {
+        driveStandIn.failingChunk.set(2);
+        final ContentHasher hasher = new ContentHasher();
+
+        final String fileId = resumableUpload(BackOff.ZERO_BACKOFF).upload(file, PARENT_ID, "application/zip", hasher).getId();
+
+        assertThat(fileId).isEqualTo("file-1");
+        assertThat(driveStandIn.received.toByteArray()).isEqualTo(content);
+        assertThat(driveStandIn.sessionsStarted.get()).isEqualTo(1);
+        assertThat(sessionStore.load(file, PARENT_ID)).isEmpty();
+        assertThat(hasher.md5Hex()).isEqualTo(hex("MD5", content));
+        assertThat(hasher.sha256Hex()).isEqualTo(hex("SHA-256", content));
+    }
+
+    @Test
+    void upload_afterAbortedUpload_resumesPersistedSession() throws IOException {
+        driveStandIn.failingChunk.set(2);
+        assertThatThrownBy(() -> resumableUpload(BackOff.STOP_BACKOFF).upload(file, PARENT_ID, "application/zip"))
+                .isInstanceOf(IOException.class);
+        assertThat(sessionStore.load(file, PARENT_ID)).hasValueSatisfying(
+                session -> assertThat(session.offset()).isEqualTo(CHUNK_SIZE));
+
+        final ContentHasher hasher = new ContentHasher();
+        final String fileId = resumableUpload(BackOff.STOP_BACKOFF).upload(file, PARENT_ID, "application/zip", hasher).getId();
+
+        assertThat(fileId).isEqualTo("file-1");
+        assertThat(driveStandIn.received.toByteArray()).isEqualTo(content);
+        assertThat(driveStandIn.sessionsStarted.get()).isEqualTo(1);
+        assertThat(hasher.md5Hex()).isEqualTo(hex("MD5", content));
+        assertThat(ContentHasher.hash(file).sha256Hex()).isEqualTo(hasher.sha256Hex());
+    }
+
+    @Test
+    void upload_streamOfUnknownLength_retriesBufferedChunk() throws IOException {
+        driveStandIn.failingChunk.set(2);
+
+        final String fileId = resumableUpload(BackOff.ZERO_BACKOFF)
+                .upload(new ByteArrayInputStream(content), "backup.zip", PARENT_ID, "application/zip")
+                .getId();
+
+        assertThat(fileId).isEqualTo("file-1");
+        assertThat(driveStandIn.received.toByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void upload_failingStream_doesNotCompleteUpload() {
+        final InputStream failingStream = new SequenceInputStream(
+                new ByteArrayInputStream(content, 0, CHUNK_SIZE + 10),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("producer failed");
+                    }
+                });
+
+        assertThatThrownBy(() -> resumableUpload(BackOff.ZERO_BACKOFF).upload(failingStream, "backup.zip", PARENT_ID, "application/zip"))
+                .isInstanceOf(IOException.class)
+                .hasMessage("producer failed");
+        assertThat(driveStandIn.received.size()).isEqualTo(CHUNK_SIZE);
+    }
+
+    @Test
+    void upload_clientError_failsWithoutRetry() {
+        driveStandIn.rejectSessions = true;
+
+        assertThatThrownBy(() -> resumableUpload(BackOff.ZERO_BACKOFF).upload(file, PARENT_ID, "application/zip"))
+                .isInstanceOf(IOException.class);
+        assertThat(driveStandIn.sessionsStarted.get()).isEqualTo(1);
+    }
+
+    private static String hex(String algorithm, byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance(algorithm).digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ResumableUpload resumableUpload(BackOff backOff) {
+        return new ResumableUpload(
+                new NetHttpTransport().createRequestFactory(),
+                driveStandIn.baseUrl() + "/upload",
+                CHUNK_SIZE,
+                sessionStore,
+                () -> backOff,
+                Sleeper.DEFAULT,
+                BandwidthLimiter.unlimited());
+    }
+
+    /** Minimal in-process implementation of the Drive resumable upload protocol. */
+    private static final class DriveStandIn {
+
+        private final HttpServer server;
+        private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        private final AtomicInteger sessionsStarted = new AtomicInteger();
+        private final AtomicInteger chunksReceived = new AtomicInteger();
+        private final AtomicInteger failingChunk = new AtomicInteger();
+        private volatile boolean rejectSessions;
+
+        private DriveStandIn() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/upload", this::startSession);
+            server.createContext("/session", this::putChunk);
+            server.start();
+        }
+
+        private String baseUrl() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        private void stop() {
+            server.stop(0);
+        }
+
+        private void startSession(HttpExchange exchange) throws IOException {
+            exchange.getRequestBody().readAllBytes();
+            sessionsStarted.incrementAndGet();
+            if (rejectSessions) {
+                respond(exchange, 403, "{\"error\":\"forbidden\"}");
+                return;
+            }
+            exchange.getResponseHeaders().set("Location", baseUrl() + "/session/1");
+            respond(exchange, 200, "");
+        }
+
+        private synchronized void putChunk(HttpExchange exchange) throws IOException {
+            final byte[] body = exchange.getRequestBody().readAllBytes();
+            final String contentRange = exchange.getRequestHeaders().getFirst("Content-Range");
+            final String totalPart = contentRange.substring(contentRange.indexOf('/') + 1);
+            final long total = "*".equals(totalPart) ? -1 : Long.parseLong(totalPart);
+
+            if (!contentRange.startsWith("bytes */")) {
+                if (chunksReceived.incrementAndGet() == failingChunk.get()) {
+                    respond(exchange, 503, "");
+                    return;
+                }
+                final long start = Long.parseLong(contentRange.substring(6, contentRange.indexOf('-')));
+                if (start == received.size()) {
+                    received.write(body);
+                }
+            }
+
+            if (received.size() == total) {
+                respond(exchange, 200, "{\"id\":\"file-1\"}");
+                return;
+            }
+            if (received.size() > 0) {
+                exchange.getResponseHeaders().set("Range", "bytes=0-" + (received.size() - 1));
+            }
+            respond(exchange, 308, "");
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.marvin.upload.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParallelCompressorTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private ParallelCompressor compressor;
+    private Path textFile;
+    private Path compressedFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        compressor = new ParallelCompressor(6, ParallelDeflater.DICTIONARY_SIZE, 4);
+
+        final StringBuilder text = new StringBuilder();
+        for (int line = 0; line < 50_000; line++) {
+            text.append("{\"costDate\":\"2024-01-").append(line % 28 + 1).append("\",\"value\":").append(line % 97).append("}\n");
+        }
+        textFile = Files.writeString(tempDir.resolve("daily_costs.jsonl"), text);
+
+        final byte[] random = new byte[200_000];
+        new Random(7).nextBytes(random);
+        compressedFile = Files.write(tempDir.resolve("backup.gz"), random);
+    }
+
+    @AfterEach
+    void tearDown() {
+        compressor.shutdown();
+    }
+
+    @Test
+    void newZipWriter_mixedFiles_writesArchiveReadableByZipFileAndZipInputStream() throws IOException {
+        final Path zip = tempDir.resolve("export.zip");
+        try (ParallelZipWriter writer = compressor.newZipWriter(Files.newOutputStream(zip))) {
+            writer.addFile("daily_costs.jsonl", textFile);
+            writer.addFile("backup.gz", compressedFile);
+        }
+
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            final ZipEntry text = zipFile.getEntry("daily_costs.jsonl");
+            final ZipEntry stored = zipFile.getEntry("backup.gz");
+
+            assertThat(text.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+            assertThat(text.getCompressedSize()).isLessThan(Files.size(textFile) / 4);
+            assertThat(zipFile.getInputStream(text).readAllBytes()).isEqualTo(Files.readAllBytes(textFile));
+            assertThat(stored.getMethod()).isEqualTo(ZipEntry.STORED);
+            assertThat(zipFile.getInputStream(stored).readAllBytes()).isEqualTo(Files.readAllBytes(compressedFile));
+        }
+
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(zip))) {
+            assertThat(in.getNextEntry().getName()).isEqualTo("daily_costs.jsonl");
+            assertThat(in.readAllBytes()).isEqualTo(Files.readAllBytes(textFile));
+            assertThat(in.getNextEntry().getName()).isEqualTo("backup.gz");
+            assertThat(in.readAllBytes()).isEqualTo(Files.readAllBytes(compressedFile));
+            assertThat(in.getNextEntry()).isNull();
+        }
+    }
+
+    @Test
+    void gzip_multiBlockInput_isReadableByGzipInputStream() throws IOException {
+        final ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+
+        try (InputStream in = Files.newInputStream(textFile)) {
+            compressor.gzip(in, gzip);
+        }
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.toByteArray()))) {
+            assertThat(in.readAllBytes()).isEqualTo(Files.readAllBytes(textFile));
+        }
+    }
+
+    @Test
+    void gzip_emptyInput_writesValidEmptyStream() throws IOException {
+        final ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+
+        compressor.gzip(new ByteArrayInputStream(new byte[0]), gzip);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.toByteArray()))) {
+            assertThat(in.readAllBytes()).isEmpty();
+        }
+    }
+}
@@ -6,9 +6,12 @@ import com.generated.deepl.model.SourceLanguageText;
 import com.generated.deepl.model.TargetLanguageText;
 import com.generated.deepl.model.TranslateText200ResponseTranslationsInner;
 import com.generated.deepl.model.TranslateTextRequest;
+import com.marvin.common.upload.FileUploads;
+import com.marvin.common.upload.UploadTooLargeException;
 import com.marvin.vocabulary.dictionaryapi.DictionaryClient;
 import com.marvin.vocabulary.dto.DictionaryEntry;
 import com.marvin.vocabulary.dto.Flashcard;
+import com.marvin.vocabulary.dto.FlashcardImportResult;
 import com.marvin.vocabulary.dto.Translation;
 import com.marvin.vocabulary.exceptions.DictionaryApiException;
 import com.marvin.vocabulary.exceptions.DictionaryServiceUnavailableException;
@@ -16,6 +19,7 @@ import com.marvin.vocabulary.exceptions.InvalidWordException;
 import com.marvin.vocabulary.exceptions.RateLimitExceededException;
 import com.marvin.vocabulary.exceptions.WordNotFoundException;
 import com.marvin.vocabulary.model.FlashcardEntity;
+import com.marvin.vocabulary.service.FlashcardImportService;
 import com.marvin.vocabulary.service.FlashcardService;
 import java.net.URI;
 import java.util.List;
@@ -23,7 +27,7 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -34,10 +38,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -55,35 +61,44 @@ public class FlashcardController {
     private static final String DEFAULT_DEEPL_URL = "https://api-free.deepl.com";
     private static final String CSV_FILENAME = "Standard.csv";
     private static final String CSV_MEDIA_TYPE = "text/csv";
+    private static final String GZIP_ENCODING = "gzip";
     private static final String DEEPL_AUTH_HEADER_FORMAT = "DeepL-Auth-Key %s";
 
     private final String deepLApiUrl;
     private final String deepLApiKey;
     private final DictionaryClient dictionaryClient;
     private final FlashcardService flashcardService;
+    private final FlashcardImportService flashcardImportService;
     private final TranslateTextApi translateTextApi;
+    private final long maxImportBytes;
 
     /**
      * Constructs a new FlashcardController with required dependencies.
      *
-     * @param deepLApiUrl      the DeepL API URL
-     * @param deepLApiKey      the DeepL API key
-     * @param dictionaryClient the dictionary service client
-     * @param flashcardService the flashcard service
-     * @param translateTextApi the translation API client
+     * @param deepLApiUrl            the DeepL API URL
+     * @param deepLApiKey            the DeepL API key
+     * @param dictionaryClient       the dictionary service client
+     * @param flashcardService       the flashcard service
+     * @param translateTextApi       the translation API client
+     * @param maxImportSize          the maximum size of an imported flashcard file
+     * @param flashcardImportService the bulk flashcard import
      */
     public FlashcardController(
             @Value("${vocabulary.deepl.url:" + DEFAULT_DEEPL_URL + "}") String deepLApiUrl,
             @Value("${vocabulary.deepl.api-key:}") String deepLApiKey,
             DictionaryClient dictionaryClient,
             FlashcardService flashcardService,
-            TranslateTextApi translateTextApi
+            TranslateTextApi translateTextApi,
+            @Value("${vocabulary.import.max-size:10MB}") DataSize maxImportSize,
+            FlashcardImportService flashcardImportService
     ) {
         this.deepLApiUrl = deepLApiUrl;
         this.deepLApiKey = deepLApiKey;
         this.dictionaryClient = dictionaryClient;
         this.flashcardService = flashcardService;
         this.translateTextApi = translateTextApi;
+        this.maxImportBytes = maxImportSize.toBytes();
+        this.flashcardImportService = flashcardImportService;
     }
 
     /**
@@ -134,22 +149,6 @@ public class FlashcardController {
         );
     }
 
-    /**
-     * Converts file part content to byte array.
-     *
-     * @param filePart the file part to convert
-     * @return a Mono containing the file content as byte array
-     */
-    private static Mono<byte[]> convertFilePartToBytes(FilePart filePart) {
-        return DataBufferUtils.join(filePart.content())
-                .flatMap(dataBuffer -> {
-                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(bytes);
-                    DataBufferUtils.release(dataBuffer);
-                    return Mono.just(bytes);
-                });
-    }
-
     /**
      * Configures DeepL API client with authentication and base URL.
      *
@@ -184,16 +183,34 @@ public class FlashcardController {
     /**
      * Creates a CSV file download response.
      *
-     * @param fileContent the file content as byte array
+     * @param fileContent the streamed file content
+     * @param gzip        whether the content is gzip compressed
      * @return a ResponseEntity configured for file download
      */
-    private ResponseEntity<byte[]> createFileDownloadResponse(byte[] fileContent) {
-        return ResponseEntity.ok()
+    private ResponseEntity<Flux<DataBuffer>> createFileDownloadResponse(Flux<DataBuffer> fileContent, boolean gzip) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(CSV_MEDIA_TYPE))
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment")
                 .header("filename", CSV_FILENAME)
-                .contentLength(fileContent.length)
-                .body(fileContent);
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+        }
+        return response.body(fileContent);
+    }
+
+    // Honours "gzip;q=0" as an explicit refusal; other quality values are not ranked.
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] parameters = coding.split(";");
+            if (GZIP_ENCODING.equalsIgnoreCase(parameters[0].trim())) {
+                return parameters.length == 1 || !parameters[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
     /**
@@ -244,6 +261,18 @@ public class FlashcardController {
         );
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Map<String, String>> handleUploadTooLargeException(UploadTooLargeException ex) {
+        log.warn("Upload rejected: {}", ex.getReason());
+        return ResponseEntity.status(413).body(
+                Map.of(
+                        "type", "UPLOAD_TOO_LARGE",
+                        "message", ex.getReason(),
+                        "maxBytes", String.valueOf(ex.getMaxBytes())
+                )
+        );
+    }
+
     @ExceptionHandler
     public ResponseEntity<Map<String, String>> handleRateLimitExceededException(
             RateLimitExceededException ex) {
@@ -327,19 +356,17 @@ public class FlashcardController {
     }
 
     /**
-     * Downloads all flashcards as a CSV file.
+     * Downloads all flashcards as a CSV file. The file is streamed while it is written, so its length
+     * is not known up front; it is gzip compressed if the client accepts that encoding.
      *
+     * @param acceptEncoding the content encodings accepted by the client
      * @return a Mono containing the CSV file download response
      */
     @GetMapping("/flashcards/file")
-    public Mono<ResponseEntity<byte[]>> getFile() {
-        try {
-            byte[] fileContent = flashcardService.getFile();
-            ResponseEntity<byte[]> responseEntity = createFileDownloadResponse(fileContent);
-            return Mono.just(responseEntity);
-        } catch (Exception exception) {
-            return Mono.error(exception);
-        }
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getFile(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        final boolean gzip = acceptsGzip(acceptEncoding);
+        return Mono.just(createFileDownloadResponse(flashcardService.getFile(gzip), gzip));
     }
 
     /**
@@ -380,15 +407,29 @@ public class FlashcardController {
     public Mono<ResponseEntity<Void>> updateFlashcards(
             @RequestPart("file") Mono<FilePart> fileMono) {
         return fileMono
-                .flatMap(FlashcardController::convertFilePartToBytes)
-                .switchIfEmpty(Mono.just(new byte[0]))
-                .flatMap(fileBytes -> executeBlocking(
-                        () -> flashcardService.importFlashcards(fileBytes)))
-                .onErrorResume(exception -> {
+                .flatMap(filePart -> FileUploads.read(filePart, maxImportBytes, flashcardImportService::importFlashcards))
+                .onErrorResume(exception -> !(exception instanceof UploadTooLargeException), exception -> {
                     log.error("Failed to import flashcards", exception);
-                    return Mono.just(0);
+                    return Mono.empty();
                 })
-                .map(importResult -> ResponseEntity.noContent().build());
+                .map(importResult -> ResponseEntity.noContent().<Void>build())
+                .defaultIfEmpty(ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Imports flashcards from a CSV file and reports what was imported. The import is all or
+     * nothing; a file that cannot be read is rejected without changing any flashcard.
+     *
+     * @param fileMono a Mono containing the file part to import
+     * @return a Mono with the number of inserted, updated and skipped rows
+     */
+    @PostMapping("/flashcards/import")
+    public Mono<ResponseEntity<FlashcardImportResult>> importFlashcards(
+            @RequestPart("file") Mono<FilePart> fileMono) {
+        return fileMono
+                .flatMap(filePart -> FileUploads.read(filePart, maxImportBytes, flashcardImportService::importFlashcards))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.badRequest().build());
     }
 
     /**
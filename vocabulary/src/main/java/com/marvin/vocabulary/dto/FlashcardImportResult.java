@@ -0,0 +1,16 @@
+package com.marvin.vocabulary.dto;
+
+/**
+ * Outcome of a flashcard file import.
+ *
+ * @param inserted the number of rows imported as new flashcards, each with its reverse card
+ * @param updated  the number of rows linked to an existing flashcard with the same front and back
+ * @param skipped  the number of rows that were already imported or could not be imported
+ */
+public record FlashcardImportResult(
+        int inserted,
+        int updated,
+        int skipped
+) {
+
+}
@@ -28,7 +28,7 @@ public class DeckEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deck_id_gen")
-    @SequenceGenerator(name = "deck_id_gen", sequenceName = "vocabulary.deck_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "deck_id_gen", sequenceName = "vocabulary.deck_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Integer id;
 
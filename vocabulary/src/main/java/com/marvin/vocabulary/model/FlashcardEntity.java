@@ -28,7 +28,7 @@ public class FlashcardEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flashcard_id_gen")
-    @SequenceGenerator(name = "flashcard_id_gen", sequenceName = "vocabulary.flashcard_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "flashcard_id_gen", sequenceName = "vocabulary.flashcard_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Integer id;
 
@@ -1,12 +1,22 @@
 package com.marvin.vocabulary.repository;
 
 import com.marvin.vocabulary.model.DeckEntity;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface DeckRepository extends JpaRepository<DeckEntity, Integer> {
 
     Optional<DeckEntity> findByName(String name);
+
+    /**
+     * Returns all decks with their reverse decks initialized.
+     *
+     * @return all decks
+     */
+    @Query("SELECT d FROM DeckEntity d LEFT JOIN FETCH d.reverseDeck")
+    List<DeckEntity> findAllWithReverseDeck();
 }
@@ -0,0 +1,48 @@
+package com.marvin.vocabulary.repository;
+
+/** Projection of a flashcard as a row of the Anki export. */
+public interface FlashcardExportView {
+
+    /**
+     * Returns the flashcard ID, the key the export is paginated by.
+     *
+     * @return the ID
+     */
+    Integer getId();
+
+    /**
+     * Returns the name of the deck of the flashcard.
+     *
+     * @return the deck name
+     */
+    String getDeck();
+
+    /**
+     * Returns the ID of the note in Anki.
+     *
+     * @return the Anki ID, or {@code null} if the flashcard was not synchronized yet
+     */
+    String getAnkiId();
+
+    /**
+     * Returns the front of the flashcard.
+     *
+     * @return the front text
+     */
+    String getFront();
+
+    /**
+     * Returns the back of the flashcard.
+     *
+     * @return the back text
+     */
+    String getBack();
+
+    /**
+     * Returns the description of the flashcard.
+     *
+     * @return the description, or {@code null}
+     */
+    String getDescription();
+
+}
@@ -0,0 +1,34 @@
+package com.marvin.vocabulary.repository;
+
+/** Projection of the columns identifying a flashcard during an import. */
+public interface FlashcardKeyView {
+
+    /**
+     * Returns the flashcard ID.
+     *
+     * @return the ID
+     */
+    Integer getId();
+
+    /**
+     * Returns the front of the flashcard.
+     *
+     * @return the front text
+     */
+    String getFront();
+
+    /**
+     * Returns the back of the flashcard.
+     *
+     * @return the back text
+     */
+    String getBack();
+
+    /**
+     * Returns the ID of the note in Anki.
+     *
+     * @return the Anki ID, or {@code null} if the flashcard was not synchronized yet
+     */
+    String getAnkiId();
+
+}
@@ -2,19 +2,34 @@ package com.marvin.vocabulary.repository;
 
 import com.marvin.vocabulary.model.FlashcardEntity;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface FlashcardRepository extends JpaRepository<FlashcardEntity, Integer> {
 
-    @Query("SELECT f.ankiId FROM FlashcardEntity f")
-    Set<String> getAllAnkiIds();
-
-    Optional<FlashcardEntity> findByFrontAndBack(String front, String back);
+    /**
+     * Returns the identifying columns of all flashcards, used to match imported rows in memory.
+     *
+     * @return the ID, front, back and Anki ID of every flashcard
+     */
+    @Query("SELECT f.id AS id, f.front AS front, f.back AS back, f.ankiId AS ankiId FROM FlashcardEntity f")
+    List<FlashcardKeyView> findAllKeys();
+
+    /**
+     * Returns the next page of the Anki export, ordered by ID. Pages are addressed by the last ID of
+     * the previous page instead of an offset, so every page is an index range scan.
+     *
+     * @param afterId the exclusive lower bound of the IDs, {@code 0} for the first page
+     * @param limit   the maximum number of rows
+     * @return the export rows
+     */
+    @Query("SELECT f.id AS id, d.name AS deck, f.ankiId AS ankiId, f.front AS front, f.back AS back, f.description AS description "
+            + "FROM FlashcardEntity f JOIN f.deck d WHERE f.id > :afterId ORDER BY f.id")
+    List<FlashcardExportView> findExportPage(@Param("afterId") int afterId, Limit limit);
 
     List<FlashcardEntity> findByReverseFlashcardIsNull();
 
@@ -22,4 +37,16 @@ public interface FlashcardRepository extends JpaRepository<FlashcardEntity, Inte
 
     List<FlashcardEntity> findByUpdated(boolean updated);
 
+    /**
+     * Finds all flashcards with at least one audit revision after the given revision timestamp.
+     *
+     * @param revisionTimestamp the exclusive lower bound in epoch milliseconds
+     * @return the flashcards changed since the given timestamp
+     */
+    @Query(value = "SELECT f.* FROM vocabulary.flashcard f WHERE f.id IN ("
+            + "SELECT a.id FROM vocabulary.flashcard_aud a "
+            + "JOIN public.revinfo r ON r.rev = a.rev "
+            + "WHERE r.revtstmp > :revisionTimestamp)", nativeQuery = true)
+    List<FlashcardEntity> findChangedSince(@Param("revisionTimestamp") long revisionTimestamp);
+
 }
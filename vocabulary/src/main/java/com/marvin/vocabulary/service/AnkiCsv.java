@@ -0,0 +1,22 @@
+package com.marvin.vocabulary.service;
+
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/** Layout of the tab separated flashcard files exchanged with Anki. */
+final class AnkiCsv {
+
+    static final CsvSchema SCHEMA = CsvSchema.builder()
+            .setColumnSeparator('\t')
+            .setUseHeader(false)
+            .setAllowComments(true)
+            .addColumn("guid")
+            .addColumn("deck")
+            .addColumn("front")
+            .addColumn("back")
+            .addColumn("description")
+            .disableQuoteChar()
+            .build();
+
+    private AnkiCsv() {
+    }
+}
@@ -0,0 +1,247 @@
+package com.marvin.vocabulary.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.marvin.vocabulary.dto.FlashcardCsvDTO;
+import com.marvin.vocabulary.dto.FlashcardImportResult;
+import com.marvin.vocabulary.model.DeckEntity;
+import com.marvin.vocabulary.model.FlashcardEntity;
+import com.marvin.vocabulary.repository.DeckRepository;
+import com.marvin.vocabulary.repository.FlashcardKeyView;
+import com.marvin.vocabulary.repository.FlashcardRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Imports Anki flashcard exports in bulk.
+ *
+ * <p>The file is parsed row by row. All existing (front, back) pairs, Anki IDs and decks are loaded
+ * up front with one query each and matched in memory, so rows cause no lookups. New flashcards and
+ * their reverse cards get their IDs from pooled sequences and are written by Hibernate in JDBC
+ * batches; the persistence context is flushed and cleared every {@code vocabulary.import.batch-size}
+ * rows, so memory stays flat for large files. Envers audits the import like any other change, so
+ * incremental exports pick up the imported cards. A row whose Anki ID is already known is skipped, a
+ * row matching an existing flashcard links that flashcard to its Anki ID, any other row is inserted.
+ * The whole import runs in one transaction.</p>
+ */
+@Slf4j
+@Service
+public class FlashcardImportService {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final String REVERSE_DECK_SUFFIX = "_reversed";
+
+    private final FlashcardRepository flashcardRepository;
+    private final DeckRepository deckRepository;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public FlashcardImportService(
+            FlashcardRepository flashcardRepository,
+            DeckRepository deckRepository,
+            EntityManager entityManager,
+            @Value("${vocabulary.import.batch-size:1000}") int batchSize
+    ) {
+        this.flashcardRepository = flashcardRepository;
+        this.deckRepository = deckRepository;
+        this.entityManager = entityManager;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Imports the flashcards of an Anki CSV export. The import is rolled back if the file cannot be
+     * read to the end.
+     *
+     * @param content the CSV file
+     * @return the number of inserted, updated and skipped rows
+     */
+    @Transactional
+    public FlashcardImportResult importFlashcards(InputStream content) {
+        final Index index = prefetch();
+        final Counts counts = new Counts();
+
+        try (MappingIterator<FlashcardCsvDTO> rows = new CsvMapper()
+                .readerFor(FlashcardCsvDTO.class)
+                .with(AnkiCsv.SCHEMA)
+                .readValues(content)
+        ) {
+            int pending = 0;
+            while (rows.hasNextValue()) {
+                if (importRow(index, rows.nextValue(), counts)) {
+                    pending++;
+                }
+                if (pending == batchSize) {
+                    flushAndClear();
+                    pending = 0;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        flushAndClear();
+        linkAnkiIds(index.ankiIdsToLink());
+
+        final FlashcardImportResult result = new FlashcardImportResult(counts.inserted, counts.updated, counts.skipped);
+        log.info("Imported flashcards: {}", result);
+        return result;
+    }
+
+    private Index prefetch() {
+        final Map<CardKey, Integer> cards = new HashMap<>();
+        final Set<String> ankiIds = new HashSet<>();
+        for (final FlashcardKeyView card : flashcardRepository.findAllKeys()) {
+            cards.putIfAbsent(new CardKey(card.getFront(), card.getBack()), card.getId());
+            if (card.getAnkiId() != null) {
+                ankiIds.add(card.getAnkiId());
+            }
+        }
+        final Map<String, DeckEntity> decks = new HashMap<>();
+        for (final DeckEntity deck : deckRepository.findAllWithReverseDeck()) {
+            decks.put(deck.getName(), deck);
+        }
+        return new Index(cards, ankiIds, decks, new LinkedHashMap<>());
+    }
+
+    // Returns whether the row added entities to the persistence context.
+    private boolean importRow(Index index, FlashcardCsvDTO row, Counts counts) {
+        if (!isValid(row)) {
+            log.warn("Skipping invalid flashcard row {}", row);
+            counts.skipped++;
+            return false;
+        }
+        if (row.guid() != null && index.ankiIds().contains(row.guid())) {
+            counts.skipped++;
+            return false;
+        }
+
+        final Integer existingId = index.cards().get(new CardKey(row.front(), row.back()));
+        if (existingId != null) {
+            if (row.guid() == null) {
+                counts.skipped++;
+                return false;
+            }
+            index.ankiIdsToLink().put(existingId, row.guid());
+            index.ankiIds().add(row.guid());
+            counts.updated++;
+            return false;
+        }
+
+        final FlashcardEntity original = insert(index, row);
+        index.cards().put(new CardKey(row.front(), row.back()), original.getId());
+        index.cards().putIfAbsent(new CardKey(row.back(), row.front()), original.getReverseFlashcard().getId());
+        if (row.guid() != null) {
+            index.ankiIds().add(row.guid());
+        }
+        counts.inserted++;
+        return true;
+    }
+
+    // Both cards are inserted without their link first, like FlashcardService.save, so the
+    // inserts never reference a row that is not written yet; the links follow as batched updates.
+    private FlashcardEntity insert(Index index, FlashcardCsvDTO row) {
+        final DeckEntity deck = getOrCreateDeck(index.decks(), row.deck());
+        final DeckEntity reverseDeck = getOrCreateReverseDeck(index.decks(), deck);
+
+        final FlashcardEntity original = newFlashcard(deck, row.front(), row.back(), row.description());
+        original.setAnkiId(row.guid());
+        final FlashcardEntity reverse = newFlashcard(reverseDeck, row.back(), row.front(), row.description());
+        flashcardRepository.save(original);
+        flashcardRepository.save(reverse);
+
+        original.setReverseFlashcard(reverse);
+        reverse.setReverseFlashcard(original);
+        return original;
+    }
+
+    private void linkAnkiIds(Map<Integer, String> ankiIdsToLink) {
+        final List<Integer> ids = new ArrayList<>(ankiIdsToLink.keySet());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            final List<Integer> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            flashcardRepository.findAllById(chunk)
+                    .forEach(flashcard -> flashcard.setAnkiId(ankiIdsToLink.get(flashcard.getId())));
+            flushAndClear();
+        }
+    }
+
+    private DeckEntity getOrCreateDeck(Map<String, DeckEntity> decks, String name) {
+        final DeckEntity existing = decks.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        final DeckEntity deck = new DeckEntity();
+        deck.setName(name);
+        final DeckEntity saved = deckRepository.save(deck);
+        decks.put(name, saved);
+        return saved;
+    }
+
+    private DeckEntity getOrCreateReverseDeck(Map<String, DeckEntity> decks, DeckEntity deck) {
+        if (deck.getReverseDeck() != null) {
+            return deck.getReverseDeck();
+        }
+        final DeckEntity reverseDeck = getOrCreateDeck(decks, deck.getName() + REVERSE_DECK_SUFFIX);
+        deck.setReverseDeck(reverseDeck);
+        reverseDeck.setReverseDeck(deck);
+        // Decks loaded before the last flush are detached; merging returns their managed copies.
+        final DeckEntity savedDeck = deckRepository.save(deck);
+        final DeckEntity savedReverseDeck = deckRepository.save(reverseDeck);
+        savedDeck.setReverseDeck(savedReverseDeck);
+        savedReverseDeck.setReverseDeck(savedDeck);
+        decks.put(savedDeck.getName(), savedDeck);
+        decks.put(savedReverseDeck.getName(), savedReverseDeck);
+        return savedReverseDeck;
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static FlashcardEntity newFlashcard(DeckEntity deck, String front, String back, String description) {
+        final FlashcardEntity flashcard = new FlashcardEntity();
+        flashcard.setDeck(deck);
+        flashcard.setFront(front);
+        flashcard.setBack(back);
+        flashcard.setDescription(description);
+        return flashcard;
+    }
+
+    private static boolean isValid(FlashcardCsvDTO row) {
+        return row.deck() != null && !row.deck().isBlank()
+                && row.front() != null && !row.front().isBlank() && row.front().length() <= MAX_TEXT_LENGTH
+                && row.back() != null && !row.back().isBlank() && row.back().length() <= MAX_TEXT_LENGTH;
+    }
+
+    private record CardKey(String front, String back) {
+
+    }
+
+    private record Index(
+            Map<CardKey, Integer> cards,
+            Set<String> ankiIds,
+            Map<String, DeckEntity> decks,
+            Map<Integer, String> ankiIdsToLink
+    ) {
+
+    }
+
+    private static final class Counts {
+
+        private int inserted;
+        private int updated;
+        private int skipped;
+    }
+}
@@ -1,48 +1,51 @@
 package com.marvin.vocabulary.service;
 
-import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
-import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import com.marvin.vocabulary.dto.Flashcard;
 import com.marvin.vocabulary.dto.FlashcardCsvDTO;
 import com.marvin.vocabulary.model.DeckEntity;
 import com.marvin.vocabulary.model.FlashcardEntity;
 import com.marvin.vocabulary.repository.DeckRepository;
+import com.marvin.vocabulary.repository.FlashcardExportView;
 import com.marvin.vocabulary.repository.FlashcardRepository;
 import jakarta.transaction.Transactional;
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
-import lombok.extern.slf4j.Slf4j;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
-@Slf4j
 @Service
 public class FlashcardService {
 
-    private final CsvSchema schema;
+    private static final byte[] FILE_HEADER = "#separator:tab\n#html:false\n#guid column:1\n".getBytes(StandardCharsets.UTF_8);
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
     private final FlashcardRepository flashcardRepository;
     private final DeckRepository deckRepository;
+    private final int exportPageSize;
 
-    public FlashcardService(FlashcardRepository flashcardRepository, DeckRepository deckRepository) {
+    public FlashcardService(
+            FlashcardRepository flashcardRepository,
+            DeckRepository deckRepository,
+            @Value("${vocabulary.export.page-size:1000}") int exportPageSize
+    ) {
         this.flashcardRepository = flashcardRepository;
         this.deckRepository = deckRepository;
-
-        this.schema = CsvSchema.builder()
-                .setColumnSeparator('\t')
-                .setUseHeader(false)
-                .setAllowComments(true)
-                .addColumn("guid")
-                .addColumn("deck")
-                .addColumn("front")
-                .addColumn("back")
-                .addColumn("description")
-                .disableQuoteChar()
-                .build();
+        this.exportPageSize = Math.max(1, exportPageSize);
     }
 
     public FlashcardEntity get(int id) {
@@ -131,105 +134,76 @@ public class FlashcardService {
         return flashcard.id();
     }
 
-    @Transactional
-    public Integer importFlashcards(byte[] fileBytes) {
-        return importFile(fileBytes);
+    /**
+     * Streams all flashcards as an Anki CSV file.
+     *
+     * <p>Flashcards are read in pages of {@code vocabulary.export.page-size} rows, keyed by ID, and
+     * written to the response as they are read. A page is only fetched once the client has taken the
+     * previous one, so memory use does not depend on the number of flashcards.</p>
+     *
+     * @param gzip whether the file is gzip compressed
+     * @return the file content
+     */
+    public Flux<DataBuffer> getFile(boolean gzip) {
+        return DataBufferUtils.outputStreamPublisher(
+                out -> writeFile(out, gzip),
+                DefaultDataBufferFactory.sharedInstance,
+                task -> Schedulers.boundedElastic().schedule(task));
     }
 
-    public byte[] getFile() throws Exception {
-
-        final CsvMapper csvMapper = new CsvMapper();
+    public Stream<Flashcard> getAllFlashcardsForExport() {
+        return flashcardRepository.findAll().stream()
+                .map(FlashcardService::toExportDto);
+    }
 
-        byte[] file;
+    public Stream<Flashcard> getFlashcardsChangedSinceForExport(LocalDateTime since) {
+        final long revisionTimestamp = since.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return flashcardRepository.findChangedSince(revisionTimestamp).stream()
+                .map(FlashcardService::toExportDto);
+    }
 
+    private void writeFile(OutputStream out, boolean gzip) {
         try (
-                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-                SequenceWriter sequenceWriter = csvMapper
+                OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+                SequenceWriter sequenceWriter = new CsvMapper()
                         .writerFor(FlashcardCsvDTO.class)
-                        .with(schema)
-                        .writeValues(byteArrayOutputStream)
+                        .with(AnkiCsv.SCHEMA)
+                        .writeValues(target)
         ) {
-
-            byteArrayOutputStream.write("#separator:tab\n".getBytes(StandardCharsets.UTF_8));
-            byteArrayOutputStream.write("#html:false\n".getBytes(StandardCharsets.UTF_8));
-            byteArrayOutputStream.write("#guid column:1\n".getBytes(StandardCharsets.UTF_8));
-            byteArrayOutputStream.flush();
-
-            for (final FlashcardEntity flashcardEntity : flashcardRepository.findAll()) {
-                sequenceWriter.write(new FlashcardCsvDTO(
-                        flashcardEntity.getDeck().getName(),
-                        flashcardEntity.getAnkiId(),
-                        flashcardEntity.getFront(),
-                        flashcardEntity.getBack(),
-                        flashcardEntity.getDescription()
-                ));
-            }
-
-            file = byteArrayOutputStream.toByteArray();
-
-        }
-
-        return file;
-    }
-
-    private int importFile(byte[] fileBytes) {
-
-        final Set<String> allAnkiIds = flashcardRepository.getAllAnkiIds();
-
-        final AtomicInteger count = new AtomicInteger(0);
-        try (MappingIterator<FlashcardCsvDTO> iterator = new CsvMapper()
-                .readerFor(FlashcardCsvDTO.class)
-                .with(schema)
-                .readValues(fileBytes)
-        ) {
-            for (final FlashcardCsvDTO flashcardCsvDto : iterator.readAll()) {
-                try {
-                    importFlashcard(allAnkiIds, flashcardCsvDto, count);
-                } catch (Exception e) {
-                    log.error("Failed to import flashcard {}", flashcardCsvDto, e);
+            target.write(FILE_HEADER);
+
+            int afterId = 0;
+            List<FlashcardExportView> page;
+            do {
+                page = flashcardRepository.findExportPage(afterId, Limit.of(exportPageSize));
+                for (final FlashcardExportView flashcard : page) {
+                    sequenceWriter.write(new FlashcardCsvDTO(
+                            flashcard.getDeck(),
+                            flashcard.getAnkiId(),
+                            flashcard.getFront(),
+                            flashcard.getBack(),
+                            flashcard.getDescription()
+                    ));
+                    afterId = flashcard.getId();
                 }
-            }
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
+            } while (page.size() == exportPageSize);
+        } catch (IOException e) {
+            // Also thrown when the client went away; the publisher has been cancelled by then.
+            throw new UncheckedIOException(e);
         }
-
-        return count.get();
     }
 
-    private void importFlashcard(Set<String> allAnkiIds, FlashcardCsvDTO flashcardCsvDto,
-            AtomicInteger count) {
-        if (!allAnkiIds.contains(flashcardCsvDto.guid())) {
-            flashcardRepository
-                    .findByFrontAndBack(flashcardCsvDto.front(), flashcardCsvDto.back())
-                    .ifPresentOrElse(
-                            flashcard -> flashcard.setAnkiId(flashcardCsvDto.guid()),
-                            () -> save(new Flashcard(
-                                    null,
-                                    getOrCreateDeck(flashcardCsvDto.deck()).getId(),
-                                    flashcardCsvDto.deck(),
-                                    flashcardCsvDto.guid(),
-                                    flashcardCsvDto.front(),
-                                    flashcardCsvDto.back(),
-                                    flashcardCsvDto.description(),
-                                    false
-                            ))
-                    );
-            count.incrementAndGet();
-        }
-    }
-
-    public Stream<Flashcard> getAllFlashcardsForExport() {
-        return flashcardRepository.findAll().stream()
-                .map(entity -> new Flashcard(
-                        entity.getId(),
-                        entity.getDeck().getId(),
-                        entity.getDeck().getName(),
-                        entity.getAnkiId(),
-                        entity.getFront(),
-                        entity.getBack(),
-                        entity.getDescription(),
-                        entity.isUpdated()
-                ));
+    private static Flashcard toExportDto(FlashcardEntity entity) {
+        return new Flashcard(
+                entity.getId(),
+                entity.getDeck().getId(),
+                entity.getDeck().getName(),
+                entity.getAnkiId(),
+                entity.getFront(),
+                entity.getBack(),
+                entity.getDescription(),
+                entity.isUpdated()
+        );
     }
 
     private DeckEntity getDeckOrThrow(Integer deckId) {
@@ -238,15 +212,6 @@ public class FlashcardService {
                         "No deck found with id: " + deckId));
     }
 
-    private DeckEntity getOrCreateDeck(String name) {
-        return deckRepository.findByName(name)
-                .orElseGet(() -> {
-                    DeckEntity entity = new DeckEntity();
-                    entity.setName(name);
-                    return deckRepository.save(entity);
-                });
-    }
-
     private DeckEntity getOrCreateReverseDeck(DeckEntity deck) {
         if (deck.getReverseDeck() != null) {
             return deck.getReverseDeck();
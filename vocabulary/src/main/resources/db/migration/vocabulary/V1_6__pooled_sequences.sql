@@ -0,0 +1,3 @@
+-- Hibernate hands out IDs from blocks of 50 per sequence call, so bulk imports can batch their inserts.
+ALTER SEQUENCE vocabulary.flashcard_id_seq INCREMENT BY 50;
+ALTER SEQUENCE vocabulary.deck_id_seq INCREMENT BY 50;
@@ -7,9 +7,12 @@ import static org.mockito.Mockito.when;
 import com.marvin.vocabulary.dictionaryapi.DictionaryClient;
 import com.marvin.vocabulary.dto.DictionaryEntry;
 import com.marvin.vocabulary.dto.Flashcard;
+import com.marvin.vocabulary.dto.FlashcardImportResult;
 import com.marvin.vocabulary.model.DeckEntity;
 import com.marvin.vocabulary.model.FlashcardEntity;
+import com.marvin.vocabulary.service.FlashcardImportService;
 import com.marvin.vocabulary.service.FlashcardService;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.List;
@@ -17,7 +20,6 @@ import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.buffer.DataBuffer;
@@ -26,6 +28,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.BodyInserters;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -58,12 +61,14 @@ class FlashcardControllerTest {
     private DictionaryClient dictionaryClient;
     @Mock
     private FlashcardService flashcardService;
-    @InjectMocks
-    private FlashcardController flashcardController;
+    @Mock
+    private FlashcardImportService flashcardImportService;
     private WebTestClient webTestClient;
 
     @BeforeEach
     void setUp() {
+        final FlashcardController flashcardController = new FlashcardController(
+                null, null, dictionaryClient, flashcardService, null, DataSize.ofKilobytes(1), flashcardImportService);
         webTestClient = WebTestClient.bindToController(flashcardController).build();
     }
 
@@ -162,11 +167,11 @@ class FlashcardControllerTest {
     }
 
     @Test
-    void getFileShouldReturnCsvFile() throws Exception {
+    void getFileShouldReturnCsvFile() {
         final byte[] expectedFileContent = "#separator:tab\n#html:false\n#guid column:1\ntest-content"
                 .getBytes(StandardCharsets.UTF_8);
 
-        when(flashcardService.getFile()).thenReturn(expectedFileContent);
+        when(flashcardService.getFile(false)).thenReturn(dataBuffers(expectedFileContent));
 
         webTestClient.get()
                 .uri("/vocabulary/flashcards/file")
@@ -175,15 +180,43 @@ class FlashcardControllerTest {
                 .expectHeader().contentType("text/csv")
                 .expectHeader().valueEquals("Content-Disposition", "attachment")
                 .expectHeader().valueEquals("filename", "Standard.csv")
-                .expectHeader()
-                .valueEquals("Content-Length", String.valueOf(expectedFileContent.length))
+                .expectHeader().doesNotExist("Content-Encoding")
                 .expectBody(byte[].class)
                 .isEqualTo(expectedFileContent);
     }
 
     @Test
-    void getFileWhenExceptionThrownShouldReturnInternalServerError() throws Exception {
-        when(flashcardService.getFile()).thenThrow(new RuntimeException("File generation failed"));
+    void getFileShouldCompressWhenClientAcceptsGzip() {
+        final byte[] compressedContent = {0x1f, (byte) 0x8b, 8, 0};
+
+        when(flashcardService.getFile(true)).thenReturn(dataBuffers(compressedContent));
+
+        webTestClient.get()
+                .uri("/vocabulary/flashcards/file")
+                .header("Accept-Encoding", "deflate, gzip;q=0.8")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("Content-Encoding", "gzip")
+                .expectHeader().valueEquals("Vary", "Accept-Encoding")
+                .expectBody(byte[].class)
+                .isEqualTo(compressedContent);
+    }
+
+    @Test
+    void getFileShouldNotCompressWhenClientRefusesGzip() {
+        when(flashcardService.getFile(false)).thenReturn(dataBuffers(new byte[0]));
+
+        webTestClient.get()
+                .uri("/vocabulary/flashcards/file")
+                .header("Accept-Encoding", "gzip;q=0")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("Content-Encoding");
+    }
+
+    @Test
+    void getFileWhenExceptionThrownShouldReturnInternalServerError() {
+        when(flashcardService.getFile(false)).thenThrow(new RuntimeException("File generation failed"));
 
         webTestClient.get()
                 .uri("/vocabulary/flashcards/file")
@@ -248,7 +281,7 @@ class FlashcardControllerTest {
         final String csvContent = "deck1\tanki-123\tfront1\tback1\tdescription1\n";
         final byte[] fileBytes = csvContent.getBytes(StandardCharsets.UTF_8);
 
-        lenient().when(flashcardService.importFlashcards(fileBytes)).thenReturn(1);
+        lenient().when(flashcardImportService.importFlashcards(any(InputStream.class))).thenReturn(new FlashcardImportResult(1, 0, 0));
 
         final FilePart filePart = createMockFilePart("test.csv", fileBytes);
 
@@ -265,7 +298,7 @@ class FlashcardControllerTest {
     void updateFlashcardsWithEmptyFileShouldHandleGracefully() {
         final FilePart filePart = createMockFilePart("empty.csv", new byte[0]);
 
-        lenient().when(flashcardService.importFlashcards(new byte[0])).thenReturn(0);
+        lenient().when(flashcardImportService.importFlashcards(any(InputStream.class))).thenReturn(new FlashcardImportResult(0, 0, 0));
 
         webTestClient.put()
                 .uri("/vocabulary/flashcards/file")
@@ -281,7 +314,7 @@ class FlashcardControllerTest {
         final String csvContent = "invalid content";
         final byte[] fileBytes = csvContent.getBytes(StandardCharsets.UTF_8);
 
-        lenient().when(flashcardService.importFlashcards(fileBytes))
+        lenient().when(flashcardImportService.importFlashcards(any(InputStream.class)))
                 .thenThrow(new RuntimeException("Import failed"));
 
         final FilePart filePart = createMockFilePart("test.csv", fileBytes);
@@ -295,6 +328,52 @@ class FlashcardControllerTest {
                 .expectBody().isEmpty();
     }
 
+    @Test
+    void updateFlashcardsWithFileOverLimitShouldReturnPayloadTooLarge() {
+        final FilePart filePart = createMockFilePart("large.csv", new byte[2048]);
+
+        webTestClient.put()
+                .uri("/vocabulary/flashcards/file")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData("file", filePart))
+                .exchange()
+                .expectStatus().isEqualTo(413)
+                .expectBody(Map.class)
+                .value(response -> {
+                    assert "UPLOAD_TOO_LARGE".equals(response.get("type"));
+                    assert "1024".equals(response.get("maxBytes"));
+                });
+    }
+
+    @Test
+    void importFlashcardsShouldReturnImportResult() {
+        final byte[] fileBytes = "deck1\tanki-123\tfront1\tback1\tdescription1\n".getBytes(StandardCharsets.UTF_8);
+        when(flashcardImportService.importFlashcards(any(InputStream.class))).thenReturn(new FlashcardImportResult(1, 2, 3));
+
+        final FilePart filePart = createMockFilePart("test.csv", fileBytes);
+
+        webTestClient.post()
+                .uri("/vocabulary/flashcards/import")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData("file", filePart))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(FlashcardImportResult.class)
+                .isEqualTo(new FlashcardImportResult(1, 2, 3));
+    }
+
+    @Test
+    void importFlashcardsWithFileOverLimitShouldReturnPayloadTooLarge() {
+        final FilePart filePart = createMockFilePart("large.csv", new byte[2048]);
+
+        webTestClient.post()
+                .uri("/vocabulary/flashcards/import")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData("file", filePart))
+                .exchange()
+                .expectStatus().isEqualTo(413);
+    }
+
     @Test
     void handleExceptionShouldReturnErrorResponse() {
         // Force an exception by mocking the service to throw an exception
@@ -311,6 +390,10 @@ class FlashcardControllerTest {
                 });
     }
 
+    private static Flux<DataBuffer> dataBuffers(byte[] content) {
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(content));
+    }
+
     private FilePart createMockFilePart(final String filename, final byte[] content) {
         return new MockFilePart(filename, content);
     }